@@ -22,9 +22,10 @@ public interface Body {
   DataType getDataType();
 
   /**
-   * @return the seed that will be used to generate the random data for this body. Note that we use
-   *         Infinite Streams which only generate Streams.REPEAT_LENGTH random bytes and then repeat
-   *         those over and over until we have {@link #getSize()}.
+   * @return the seed that will be used to generate the random data for this body. Note that for
+   *         {@code RANDOM} data we use Infinite Streams which only generate Streams.REPEAT_LENGTH
+   *         random bytes and then repeat those over and over until we have {@link #getSize()},
+   *         whereas {@code ENTROPY} data never repeats.
    */
   long getRandomSeed();
 
@@ -0,0 +1,33 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.api;
+
+import java.util.Set;
+
+/**
+ * A listener which is notified when an operation completes. Listeners are notified directly on the
+ * thread which completed the operation, and may be notified concurrently; implementations must be
+ * thread safe.
+ * 
+ * @since 1.0
+ */
+public interface CompletionListener {
+  /**
+   * The operation types this listener should be notified of. The returned set is read once, when
+   * this listener is registered.
+   * 
+   * @return the operation types of interest to this listener
+   */
+  Set<Operation> operations();
+
+  /**
+   * Notifies this listener of a completed operation
+   * 
+   * @param request the request which was executed
+   * @param response the response for request
+   */
+  void complete(Request request, Response response);
+}
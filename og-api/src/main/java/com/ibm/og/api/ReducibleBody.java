@@ -0,0 +1,30 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.api;
+
+/**
+ * A description of a body whose data is generated to reduce by a target ratio when compressed and
+ * when deduplicated at block granularity
+ *
+ * @since 1.0
+ */
+public interface ReducibleBody extends Body {
+  /**
+   * @return the target ratio of the size of this body to its compressed size
+   */
+  double getCompressionRatio();
+
+  /**
+   * @return the target ratio of logical to unique blocks, across all bodies with the same block
+   *         size
+   */
+  double getDedupeRatio();
+
+  /**
+   * @return the size of the blocks which are duplicated, in bytes
+   */
+  int getBlockSize();
+}
@@ -0,0 +1,85 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.api;
+
+/**
+ * An enumeration of the phases of a request, each derived from a pair of {@link RequestTimestamps}
+ * 
+ * @since 1.0
+ */
+public enum RequestPhase {
+  /** time spent sending the request body */
+  REQUEST_CONTENT {
+    @Override
+    public long duration(final RequestTimestamps t) {
+      return between(t.requestContentStart, t.requestContentFinish);
+    }
+  },
+  /** time from the end of the request body until the request completed */
+  CLOSE_LATENCY {
+    @Override
+    public long duration(final RequestTimestamps t) {
+      return between(t.requestContentFinish, t.finish);
+    }
+  },
+  /** time from the start of the request until the first response body bytes arrived */
+  TTFB {
+    @Override
+    public long duration(final RequestTimestamps t) {
+      return between(t.start, t.responseContentFirstBytes);
+    }
+  },
+  /** time spent receiving the response body */
+  RESPONSE_CONTENT {
+    @Override
+    public long duration(final RequestTimestamps t) {
+      return between(t.responseContentStart, t.responseContentFinish);
+    }
+  },
+  /** time from the start of the request until the request completed */
+  TOTAL {
+    @Override
+    public long duration(final RequestTimestamps t) {
+      return between(t.start, t.finish);
+    }
+  },
+  /**
+   * time from when the request was scheduled to start until it actually started, i.e. how far the
+   * request had fallen behind its schedule
+   */
+  SCHEDULE_DELAY {
+    @Override
+    public long duration(final RequestTimestamps t) {
+      return between(t.intendedStart, t.start);
+    }
+  },
+  /**
+   * time from when the request was scheduled to start until the request completed, the latency a
+   * client issuing requests on that schedule would see
+   */
+  RESPONSE_TIME {
+    @Override
+    public long duration(final RequestTimestamps t) {
+      return between(t.intendedStart, t.finish);
+    }
+  };
+
+  /**
+   * Gets the duration of this phase
+   * 
+   * @param t the timestamps of a completed request
+   * @return the duration of this phase in nanoseconds, or -1 if the request did not go through this
+   *         phase
+   */
+  public abstract long duration(RequestTimestamps t);
+
+  private static long between(final long start, final long finish) {
+    if (start > 0 && finish > start) {
+      return finish - start;
+    }
+    return -1;
+  }
+}
@@ -6,6 +6,7 @@ package com.ibm.og.api;
 
 public class RequestTimestamps {
       public long startMillis;
+      public long intendedStart;
       public long start;
       public long requestContentStart;
       public long requestContentFinish;
@@ -11,16 +11,12 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
-import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.security.Security;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.concurrent.Callable;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -50,7 +46,6 @@ import org.apache.http.conn.socket.ConnectionSocketFactory;
 import org.apache.http.conn.socket.PlainConnectionSocketFactory;
 import org.apache.http.conn.ssl.NoopHostnameVerifier;
 import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
-import org.apache.http.conn.ssl.TrustSelfSignedStrategy;
 import org.apache.http.conn.util.PublicSuffixMatcher;
 import org.apache.http.conn.util.PublicSuffixMatcherLoader;
 import org.apache.http.entity.AbstractHttpEntity;
@@ -68,7 +63,6 @@ import org.apache.http.auth.AuthScope;
 import org.apache.http.protocol.HTTP;
 import org.apache.http.protocol.HttpContext;
 import org.apache.http.protocol.HttpRequestExecutor;
-import org.apache.http.ssl.SSLContextBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -84,6 +78,7 @@ import com.ibm.og.http.HttpAuth;
 import com.ibm.og.http.HttpResponse;
 import com.ibm.og.http.ResponseBodyConsumer;
 import com.ibm.og.util.Context;
+import com.ibm.og.util.ThreadPools;
 import com.ibm.og.util.io.Streams;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
@@ -94,14 +89,7 @@ import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.ListeningExecutorService;
 import com.google.common.util.concurrent.MoreExecutors;
 import com.google.common.util.concurrent.SettableFuture;
-import com.google.common.util.concurrent.ThreadFactoryBuilder;
-import com.google.gson.FieldNamingPolicy;
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.LongSerializationPolicy;
-import com.google.gson.TypeAdapter;
-import com.google.gson.stream.JsonReader;
-import com.google.gson.stream.JsonWriter;
 
 /**
  * A {@code Client} implementation that uses the Apache HttpComponents HttpClient library as its
@@ -142,6 +130,7 @@ public class ApacheClient implements Client {
   private final String userAgent;
   private final long writeThroughput;
   private final long readThroughput;
+  private final boolean virtualThreads;
   private final Map<String, ResponseBodyConsumer> responseBodyConsumers;
   private volatile boolean running;
   private final AtomicInteger abortedRequestsAtShutdown;
@@ -228,12 +217,13 @@ public class ApacheClient implements Client {
     this.userAgent = builder.userAgent;
     this.writeThroughput = builder.writeThroughput;
     this.readThroughput = builder.readThroughput;
+    this.virtualThreads = builder.virtualThreads;
     this.responseBodyConsumers = ImmutableMap.copyOf(builder.responseBodyConsumers);
     this.running = true;
     this.abortedRequestsAtShutdown = new AtomicInteger();
-    final ThreadFactory fac = new ThreadFactoryBuilder().setNameFormat("client-%d").build();
-    this.executorService = MoreExecutors.listeningDecorator(Executors.newCachedThreadPool(fac));
-    this.gson = createGson();
+    this.executorService = MoreExecutors
+        .listeningDecorator(ThreadPools.newCachedThreadPool("client-%d", this.virtualThreads));
+    this.gson = RequestLogEntry.createGson();
 
     // perform checks on instance fields rather than builder fields
     checkArgument(this.connectTimeout >= 0, "connectTimeout must be >= 0 [%s]",
@@ -263,23 +253,6 @@ public class ApacheClient implements Client {
     this.client = createClient();
   }
 
-  private Gson createGson() {
-    return new GsonBuilder().setFieldNamingPolicy(FieldNamingPolicy.LOWER_CASE_WITH_UNDERSCORES)
-        .setLongSerializationPolicy(LongSerializationPolicy.STRING)
-        .registerTypeAdapter(Double.class, new TypeAdapter<Double>() {
-          @Override
-          public void write(final JsonWriter out, final Double value) throws IOException {
-            // round decimals to 2 places
-            out.value(new BigDecimal(value).setScale(2, RoundingMode.HALF_UP).doubleValue());
-          }
-
-          @Override
-          public Double read(final JsonReader in) throws IOException {
-            return in.nextDouble();
-          }
-        }.nullSafe()).create();
-  }
-
   private CloseableHttpClient createClient() {
     final HttpClientBuilder builder = HttpClients.custom();
     if (this.userAgent != null) {
@@ -368,43 +341,9 @@ public class ApacheClient implements Client {
   }
 
   private SSLSocketFactory createSSLSocketFactory() {
-    final SSLContextBuilder builder = SSLContextBuilder.create();
-    configureKeyStores(builder);
-    configureTrustStores(builder);
-    try {
-      return builder.build().getSocketFactory();
-    } catch (final Exception e) {
-      throw new RuntimeException(e);
-    }
-  }
-
-  private void configureKeyStores(final SSLContextBuilder builder) {
-    if (this.keyStore != null) {
-      try {
-        final char[] storePassword = this.keyStorePassword.toCharArray();
-        final char[] keyPassword = this.keyPassword.toCharArray();
-        builder.loadKeyMaterial(this.keyStore, storePassword, keyPassword);
-      } catch (final Exception e) {
-        throw new RuntimeException(e);
-      }
-    }
-  }
-
-  private void configureTrustStores(final SSLContextBuilder builder) {
-    try {
-      if (this.trustStore != null) {
-        char[] password = null;
-        if (this.trustStorePassword != null) {
-          password = this.trustStorePassword.toCharArray();
-        }
-        builder.loadTrustMaterial(this.trustStore, password);
-      }
-      if (this.trustSelfSignedCertificates) {
-        builder.loadTrustMaterial(TrustSelfSignedStrategy.INSTANCE);
-      }
-    } catch (final Exception e) {
-      throw new RuntimeException(e);
-    }
+    return SSLContextFactory.create(this.keyStore, this.keyStorePassword, this.keyPassword,
+        this.trustStore, this.trustStorePassword, this.trustSelfSignedCertificates)
+        .getSocketFactory();
   }
 
   private SocketConfig createSocketConfig() {
@@ -698,7 +637,8 @@ public class ApacheClient implements Client {
             + "keyPassword=%s,%n" + "trustStore=%s,%n" + "trustStorePassword=%s,%n"
             + "trustSelfSignedCertificates=%s,%n" + "dnsCacheTtl=%s,%n"
             + "dnsCacheNegativeTtl=%s,%n" + "authentication=%s,%n" + "userAgent=%s,%n"
-            + "writeThroughput=%s,%n" + "readThroughput=%s,%n" + "responseBodyConsumers=%s%n]",
+            + "writeThroughput=%s,%n" + "readThroughput=%s,%n" + "virtualThreads=%s,%n"
+            + "responseBodyConsumers=%s%n]",
         this.connectTimeout, this.soTimeout, this.soReuseAddress, this.soLinger, this.soKeepAlive,
         this.tcpNoDelay, this.soSndBuf, this.soRcvBuf, this.persistentConnections,
         this.validateAfterInactivity, this.maxIdleTime, this.chunkedEncoding, this.expectContinue,
@@ -706,7 +646,7 @@ public class ApacheClient implements Client {
         this.cipherSuites, this.keyStore, this.keyStorePassword, this.keyPassword, this.trustStore,
         this.trustStorePassword, this.trustSelfSignedCertificates, this.dnsCacheTtl,
         this.dnsCacheNegativeTtl, this.authentication, this.userAgent, this.writeThroughput,
-        this.readThroughput, this.responseBodyConsumers);
+        this.readThroughput, this.virtualThreads, this.responseBodyConsumers);
   }
 
   /**
@@ -743,6 +683,7 @@ public class ApacheClient implements Client {
     private String userAgent;
     private long writeThroughput;
     private long readThroughput;
+    private boolean virtualThreads;
     private final Map<String, ResponseBodyConsumer> responseBodyConsumers;
     private String proxy;
     private int proxyPort;
@@ -783,6 +724,7 @@ public class ApacheClient implements Client {
       this.authentication = new NoneAuth();
       this.writeThroughput = 0;
       this.readThroughput = 0;
+      this.virtualThreads = false;
       this.responseBodyConsumers = Maps.newHashMap();
 
     }
@@ -1126,6 +1068,19 @@ public class ApacheClient implements Client {
       return this;
     }
 
+    /**
+     * Configures whether each request is executed on its own virtual thread rather than on a
+     * cached pool of platform threads. Falls back to platform threads on jvms which do not support
+     * virtual threads.
+     * 
+     * @param virtualThreads virtual threads flag
+     * @return this builder
+     */
+    public Builder usingVirtualThreads(final boolean virtualThreads) {
+      this.virtualThreads = virtualThreads;
+      return this;
+    }
+
     /**
      * Configures a response body consumer to be used to process response bodies for requests
      * configured with a matching consumerId
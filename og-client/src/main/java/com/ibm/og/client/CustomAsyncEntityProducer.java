@@ -0,0 +1,181 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.client;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.Set;
+
+import org.apache.hc.core5.http.nio.AsyncEntityProducer;
+import org.apache.hc.core5.http.nio.DataStreamChannel;
+
+import com.ibm.og.api.AuthenticatedRequest;
+import com.ibm.og.util.io.MappedFileInputStream;
+
+/**
+ * A non-blocking entity producer which derives its source inputstream from an authenticated
+ * request. This is the event driven counterpart of {@code CustomHttpEntity}; content is pulled
+ * from the request stream only when the underlying channel is ready to accept more data.
+ */
+public class CustomAsyncEntityProducer implements AsyncEntityProducer {
+  private final AuthenticatedRequest request;
+  private final boolean chunked;
+  private final ByteBuffer buf;
+  // a view of mapped file content not yet accepted by the channel
+  private ByteBuffer mapped;
+  private boolean started;
+  private boolean finished;
+  private long requestContentStart;
+  private long requestContentFinish;
+
+  /**
+   * Constructs an instance
+   *
+   * @param request the authenticated request whose content should be produced
+   * @param chunked whether to use chunked transfer encoding rather than a fixed content length
+   * @param bufferSize size of the intermediate transfer buffer, in bytes
+   * @throws NullPointerException if request is null
+   * @throws IllegalArgumentException if bufferSize is not positive
+   */
+  public CustomAsyncEntityProducer(final AuthenticatedRequest request, final boolean chunked,
+      final int bufferSize) {
+    this.request = checkNotNull(request);
+    checkArgument(bufferSize > 0, "bufferSize must be > 0 [%s]", bufferSize);
+    this.chunked = chunked;
+    this.buf = ByteBuffer.allocate(bufferSize);
+    this.buf.flip();
+  }
+
+  @Override
+  public boolean isRepeatable() {
+    return true;
+  }
+
+  @Override
+  public long getContentLength() {
+    return this.chunked ? -1 : this.request.getContentLength();
+  }
+
+  @Override
+  public String getContentType() {
+    return null;
+  }
+
+  @Override
+  public String getContentEncoding() {
+    return null;
+  }
+
+  @Override
+  public boolean isChunked() {
+    return this.chunked;
+  }
+
+  @Override
+  public Set<String> getTrailerNames() {
+    return Collections.emptySet();
+  }
+
+  @Override
+  public int available() {
+    return this.finished ? 0 : this.buf.capacity();
+  }
+
+  @Override
+  public void produce(final DataStreamChannel channel) throws IOException {
+    final InputStream in = this.request.getContent();
+    if (!this.started) {
+      // mirror CustomHttpEntity.getContent, a repeated request (e.g. a redirect) starts over
+      in.reset();
+      this.started = true;
+      this.requestContentStart = System.nanoTime();
+    }
+
+    if (in instanceof MappedFileInputStream) {
+      produceMapped(channel, (MappedFileInputStream) in);
+      return;
+    }
+
+    while (true) {
+      if (this.buf.hasRemaining()) {
+        channel.write(this.buf);
+        if (this.buf.hasRemaining()) {
+          // channel is saturated; wait to be called again
+          return;
+        }
+      }
+      this.buf.clear();
+      final int bytesRead = in.read(this.buf.array(), 0, this.buf.capacity());
+      if (bytesRead < 0) {
+        this.buf.limit(0);
+        this.finished = true;
+        this.requestContentFinish = System.nanoTime();
+        in.close();
+        channel.endStream();
+        return;
+      }
+      this.buf.limit(bytesRead);
+    }
+  }
+
+  /*
+   * Writes views of the file mapping directly to the channel, so file content is never copied into
+   * the transfer buffer
+   */
+  private void produceMapped(final DataStreamChannel channel, final MappedFileInputStream in)
+      throws IOException {
+    while (true) {
+      if (this.mapped != null && this.mapped.hasRemaining()) {
+        channel.write(this.mapped);
+        if (this.mapped.hasRemaining()) {
+          // channel is saturated; wait to be called again
+          return;
+        }
+      }
+      this.mapped = in.readBuffer(this.buf.capacity());
+      if (this.mapped == null) {
+        this.finished = true;
+        this.requestContentFinish = System.nanoTime();
+        in.close();
+        channel.endStream();
+        return;
+      }
+    }
+  }
+
+  @Override
+  public void failed(final Exception cause) {
+    releaseResources();
+  }
+
+  @Override
+  public void releaseResources() {
+    this.started = false;
+    this.finished = false;
+    this.mapped = null;
+    this.buf.clear();
+    this.buf.flip();
+  }
+
+  public long getRequestContentStart() {
+    return this.requestContentStart;
+  }
+
+  public long getRequestContentFinish() {
+    return this.requestContentFinish;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("CustomAsyncEntityProducer [body=%s, chunked=%s]",
+        this.request.getBody(), this.chunked);
+  }
+}
@@ -0,0 +1,142 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.client;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.EntityDetails;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpException;
+import org.apache.hc.core5.http.HttpResponse;
+import org.apache.hc.core5.http.nio.AsyncResponseConsumer;
+import org.apache.hc.core5.http.nio.CapacityChannel;
+import org.apache.hc.core5.http.protocol.HttpContext;
+
+import com.ibm.og.api.RequestTimestamps;
+import com.ibm.og.http.Bodies;
+import com.ibm.og.http.ResponseBodyConsumer;
+
+/**
+ * A non-blocking response consumer which populates an og response builder and request timestamps
+ * as response data arrives. Response content is discarded as it is received unless a
+ * {@code ResponseBodyConsumer} is configured, in which case content is buffered and handed to the
+ * consumer once the response is complete.
+ */
+public class CustomAsyncResponseConsumer implements AsyncResponseConsumer<Void> {
+  private final com.ibm.og.http.HttpResponse.Builder responseBuilder;
+  private final RequestTimestamps timestamps;
+  private final ResponseBodyConsumer consumer;
+  private FutureCallback<Void> resultCallback;
+  private int statusCode;
+  private long totalBytes;
+  private ByteArrayOutputStream content;
+
+  /**
+   * Constructs an instance
+   *
+   * @param responseBuilder the response builder to populate
+   * @param timestamps the request timestamps to populate
+   * @param consumer an optional response body consumer, may be null
+   * @throws NullPointerException if responseBuilder or timestamps are null
+   */
+  public CustomAsyncResponseConsumer(final com.ibm.og.http.HttpResponse.Builder responseBuilder,
+      final RequestTimestamps timestamps, final ResponseBodyConsumer consumer) {
+    this.responseBuilder = checkNotNull(responseBuilder);
+    this.timestamps = checkNotNull(timestamps);
+    this.consumer = consumer;
+  }
+
+  @Override
+  public void consumeResponse(final HttpResponse response, final EntityDetails entityDetails,
+      final HttpContext context, final FutureCallback<Void> resultCallback)
+      throws HttpException, IOException {
+    this.statusCode = response.getCode();
+    this.responseBuilder.withStatusCode(this.statusCode);
+    final Iterator<Header> headers = response.headerIterator();
+    while (headers.hasNext()) {
+      final Header header = headers.next();
+      this.responseBuilder.withHeader(header.getName(), header.getValue());
+    }
+
+    if (entityDetails == null) {
+      resultCallback.completed(null);
+      return;
+    }
+    this.resultCallback = resultCallback;
+    this.totalBytes = 0;
+    if (this.consumer != null) {
+      this.content = new ByteArrayOutputStream();
+    }
+    this.timestamps.responseContentStart = System.nanoTime();
+  }
+
+  @Override
+  public void informationResponse(final HttpResponse response, final HttpContext context) {}
+
+  @Override
+  public void updateCapacity(final CapacityChannel capacityChannel) throws IOException {
+    // content is consumed as soon as it arrives, never apply back pressure
+    capacityChannel.update(Integer.MAX_VALUE);
+  }
+
+  @Override
+  public void consume(final ByteBuffer src) throws IOException {
+    if (this.timestamps.responseContentFirstBytes == 0) {
+      this.timestamps.responseContentFirstBytes = System.nanoTime();
+    }
+    final int length = src.remaining();
+    this.totalBytes += length;
+    if (this.content != null) {
+      if (src.hasArray()) {
+        this.content.write(src.array(), src.arrayOffset() + src.position(), length);
+      } else {
+        final byte[] b = new byte[length];
+        src.get(b);
+        this.content.write(b, 0, length);
+      }
+    }
+    src.position(src.limit());
+  }
+
+  @Override
+  public void streamEnd(final List<? extends Header> trailers) throws HttpException, IOException {
+    if (this.consumer != null) {
+      final Map<String, String> processed = this.consumer.consume(this.statusCode,
+          new ByteArrayInputStream(this.content.toByteArray()));
+      for (final Map.Entry<String, String> e : processed.entrySet()) {
+        this.responseBuilder.withContext(e.getKey(), e.getValue());
+      }
+    } else if (this.totalBytes > 0) {
+      this.responseBuilder.withBody(Bodies.zeroes(this.totalBytes));
+    }
+    this.timestamps.responseContentFinish = System.nanoTime();
+    this.resultCallback.completed(null);
+  }
+
+  @Override
+  public void failed(final Exception cause) {
+    releaseResources();
+  }
+
+  @Override
+  public void releaseResources() {
+    this.content = null;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("CustomAsyncResponseConsumer [consumer=%s]", this.consumer);
+  }
+}
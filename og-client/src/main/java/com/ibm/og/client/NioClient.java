@@ -0,0 +1,1138 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.client;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.File;
+import java.net.URISyntaxException;
+import java.security.Security;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.H2AsyncClientBuilder;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClientBuilder;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.client5.http.ssl.ClientTlsStrategyBuilder;
+import org.apache.hc.client5.http.ssl.NoopHostnameVerifier;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.ConnectionReuseStrategy;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.http.impl.DefaultConnectionReuseStrategy;
+import org.apache.hc.core5.http.message.BasicHttpRequest;
+import org.apache.hc.core5.http.nio.ssl.TlsStrategy;
+import org.apache.hc.core5.http.nio.support.BasicRequestProducer;
+import org.apache.hc.core5.http2.config.H2Config;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.net.URIAuthority;
+import org.apache.hc.core5.pool.PoolConcurrencyPolicy;
+import org.apache.hc.core5.reactor.IOReactorConfig;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ForwardingListenableFuture;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.gson.Gson;
+import com.ibm.og.api.AuthenticatedRequest;
+import com.ibm.og.api.Client;
+import com.ibm.og.api.DataType;
+import com.ibm.og.api.Request;
+import com.ibm.og.api.RequestTimestamps;
+import com.ibm.og.api.Response;
+import com.ibm.og.http.HttpAuth;
+import com.ibm.og.http.HttpResponse;
+import com.ibm.og.http.NoneAuth;
+import com.ibm.og.http.ResponseBodyConsumer;
+import com.ibm.og.util.Context;
+
+/**
+ * A {@code Client} implementation that uses the non-blocking Apache HttpComponents HttpClient 5
+ * async library as its backing library for executing http requests. Requests are multiplexed over
+ * a small, fixed number of i/o reactor threads rather than occupying one thread per in-flight
+ * request, so concurrency is bounded by connections rather than by threads. Requests are
+ * authenticated and built on a small pool of signing threads, one per processor, so that signing,
+ * which may hash the whole request body, does not hold up the thread which calls
+ * {@link #execute(Request)}.
+ * <p>
+ * When configured for http/2, requests are multiplexed as concurrent streams over a fixed number of
+ * connections per host, negotiated via ALPN for https and using prior knowledge (h2c) for http. The
+ * number of concurrent streams per connection is capped by this client; requests beyond the cap
+ * are queued until a stream completes.
+ * <p>
+ * Throughput throttling, proxies and request retries are not supported by this client. POST
+ * requests which receive a 301 or 302 response are redirected as GET requests, per the library's
+ * default redirect behavior.
+ */
+public class NioClient implements Client {
+  private static final Logger _logger = LoggerFactory.getLogger(NioClient.class);
+  private static final Logger _requestLogger = LoggerFactory.getLogger("RequestLogger");
+  private final int connectTimeout;
+  private final int soTimeout;
+  private final boolean soReuseAddress;
+  private final int soLinger;
+  private final boolean soKeepAlive;
+  private final boolean tcpNoDelay;
+  private final int soSndBuf;
+  private final int soRcvBuf;
+  private final boolean persistentConnections;
+  private final int validateAfterInactivity;
+  private final int maxIdleTime;
+  private final boolean chunkedEncoding;
+  private final boolean expectContinue;
+  private final List<String> protocols;
+  private final List<String> cipherSuites;
+  private final File keyStore;
+  private final String keyStorePassword;
+  private final String keyPassword;
+  private final File trustStore;
+  private final String trustStorePassword;
+  private final boolean trustSelfSignedCertificates;
+  private final int dnsCacheTtl;
+  private final int dnsCacheNegativeTtl;
+  private final HttpAuth authentication;
+  private final String userAgent;
+  private final int ioThreads;
+  private final int bufferSize;
+  private final boolean http2;
+  private final int maxConcurrentStreams;
+  private final int connectionsPerHost;
+  private final Map<String, ResponseBodyConsumer> responseBodyConsumers;
+  private volatile boolean running;
+  private final AtomicInteger abortedRequestsAtShutdown;
+  private final AtomicInteger activeRequests;
+  private final Set<NonBlockingHttpOperation> activeOperations;
+  private final Object activeRequestsLock;
+  private final List<CloseableHttpAsyncClient> clients;
+  private final List<ConcurrentMap<String, StreamLimiter>> streamLimiters;
+  private final AtomicLong nextClient;
+  private final ExecutorService signingExecutor;
+  private final Gson gson;
+
+  private NioClient(final Builder builder) {
+    this.connectTimeout = builder.connectTimeout;
+    this.soTimeout = builder.soTimeout;
+    this.soReuseAddress = builder.soReuseAddress;
+    this.soLinger = builder.soLinger;
+    this.soKeepAlive = builder.soKeepAlive;
+    this.tcpNoDelay = builder.tcpNoDelay;
+    this.soSndBuf = builder.soSndBuf;
+    this.soRcvBuf = builder.soRcvBuf;
+    this.persistentConnections = builder.persistentConnections;
+    this.validateAfterInactivity = builder.validateAfterInactivity;
+    this.maxIdleTime = builder.maxIdleTime;
+    this.chunkedEncoding = builder.chunkedEncoding;
+    this.expectContinue = builder.expectContinue;
+
+    final List<String> protocols = builder.protocols;
+    if (protocols != null) {
+      this.protocols = ImmutableList.copyOf(protocols);
+    } else {
+      this.protocols = null;
+    }
+
+    final List<String> cipherSuites = builder.cipherSuites;
+    if (cipherSuites != null) {
+      this.cipherSuites = ImmutableList.copyOf(cipherSuites);
+    } else {
+      this.cipherSuites = null;
+    }
+
+    final String keyStore = builder.keyStore;
+    if (keyStore != null) {
+      this.keyStore = new File(keyStore);
+      checkArgument(this.keyStore.exists(), "keyStore does not exist [%s]", this.keyStore);
+    } else {
+      this.keyStore = null;
+    }
+    this.keyStorePassword = builder.keyStorePassword;
+    if (this.keyStorePassword != null) {
+      checkArgument(this.keyStore != null,
+          "if keyStorePassword is != null, keyStore must be != null");
+    }
+    this.keyPassword = builder.keyPassword;
+    if (this.keyPassword != null) {
+      checkArgument(this.keyStore != null, "if keyPassword is != null, keyStore must be != null");
+    }
+
+    final String trustStore = builder.trustStore;
+    if (trustStore != null) {
+      this.trustStore = new File(trustStore);
+      checkArgument(this.trustStore.exists(), "trustStore does not exist [%s]", this.trustStore);
+    } else {
+      this.trustStore = null;
+    }
+    this.trustStorePassword = builder.trustStorePassword;
+    if (this.trustStorePassword != null) {
+      checkArgument(this.trustStore != null,
+          "if trustStorePassword is != null, trustStore must be != null");
+    }
+    this.trustSelfSignedCertificates = builder.trustSelfSignedCertificates;
+    this.dnsCacheTtl = builder.dnsCacheTtl;
+    this.dnsCacheNegativeTtl = builder.dnsCacheNegativeTtl;
+    this.authentication = checkNotNull(builder.authentication);
+    this.userAgent = builder.userAgent;
+    this.ioThreads = builder.ioThreads;
+    this.bufferSize = builder.bufferSize;
+    this.http2 = builder.http2;
+    this.maxConcurrentStreams = builder.maxConcurrentStreams;
+    this.connectionsPerHost = builder.connectionsPerHost;
+    this.responseBodyConsumers = ImmutableMap.copyOf(builder.responseBodyConsumers);
+    this.running = true;
+    this.abortedRequestsAtShutdown = new AtomicInteger();
+    this.activeRequests = new AtomicInteger();
+    this.activeOperations = Sets.newConcurrentHashSet();
+    this.activeRequestsLock = new Object();
+    this.gson = RequestLogEntry.createGson();
+
+    // perform checks on instance fields rather than builder fields
+    checkArgument(this.connectTimeout >= 0, "connectTimeout must be >= 0 [%s]",
+        this.connectTimeout);
+    checkArgument(this.soTimeout >= 0, "soTimeout must be >= 0 [%s]", this.soTimeout);
+    checkArgument(this.soLinger >= -1, "soLinger must be >= -1 [%s]", this.soLinger);
+    checkArgument(this.soSndBuf >= 0, "soSndBuf must be >= 0 [%s]", this.soSndBuf);
+    checkArgument(this.soRcvBuf >= 0, "soRcvBuf must be >= 0 [%s]", this.soRcvBuf);
+    checkArgument(this.validateAfterInactivity > 0, "validateAfterInactivity must be > 0 [%s]",
+        this.validateAfterInactivity);
+    checkArgument(this.maxIdleTime > 0, "maxIdleTime must be > 0 [%s]", this.maxIdleTime);
+    checkArgument(this.dnsCacheTtl >= -1, "dnsCacheTtl must be >= -1 [%s]", this.dnsCacheTtl);
+    checkArgument(this.dnsCacheNegativeTtl >= -1, "dnsCacheNegativeTtl must be >= -1 [%s]",
+        this.dnsCacheNegativeTtl);
+    checkArgument(this.ioThreads >= 0, "ioThreads must be >= 0 [%s]", this.ioThreads);
+    checkArgument(this.bufferSize > 0, "bufferSize must be > 0 [%s]", this.bufferSize);
+    checkArgument(this.maxConcurrentStreams > 0, "maxConcurrentStreams must be > 0 [%s]",
+        this.maxConcurrentStreams);
+    checkArgument(this.connectionsPerHost > 0, "connectionsPerHost must be > 0 [%s]",
+        this.connectionsPerHost);
+
+    Security.setProperty("networkaddress.cache.ttl", String.valueOf(this.dnsCacheTtl));
+    Security.setProperty("networkaddress.cache.negative.ttl",
+        String.valueOf(this.dnsCacheNegativeTtl));
+
+    // an http/2 client holds a single multiplexed connection per host, so additional connections
+    // are provided by additional clients which are selected round robin
+    final int clientCount = this.http2 ? this.connectionsPerHost : 1;
+    final List<CloseableHttpAsyncClient> clients = Lists.newArrayList();
+    final List<ConcurrentMap<String, StreamLimiter>> streamLimiters = Lists.newArrayList();
+    for (int i = 0; i < clientCount; i++) {
+      final CloseableHttpAsyncClient client = this.http2 ? createHttp2Client(i) : createClient();
+      client.start();
+      clients.add(client);
+      streamLimiters.add(new ConcurrentHashMap<String, StreamLimiter>());
+    }
+    this.clients = ImmutableList.copyOf(clients);
+    this.streamLimiters = ImmutableList.copyOf(streamLimiters);
+    this.nextClient = new AtomicLong();
+    this.signingExecutor = Executors.newFixedThreadPool(
+        Runtime.getRuntime().availableProcessors(),
+        new ThreadFactoryBuilder().setNameFormat("client-signing-%d").setDaemon(true).build());
+  }
+
+  private CloseableHttpAsyncClient createClient() {
+    final HttpAsyncClientBuilder builder = HttpAsyncClients.custom();
+    if (this.userAgent != null) {
+      builder.setUserAgent(this.userAgent);
+    }
+    final ThreadFactory fac = new ThreadFactoryBuilder().setNameFormat("client-io-%d").build();
+
+    return builder.setThreadFactory(fac).setIOReactorConfig(createIOReactorConfig(this.ioThreads))
+        .setConnectionManager(createConnectionManager())
+        .setConnectionReuseStrategy(createConnectionReuseStrategy()).disableConnectionState()
+        .disableCookieManagement().disableAuthCaching().disableAutomaticRetries()
+        .setDefaultRequestConfig(createRequestConfig()).evictExpiredConnections()
+        .evictIdleConnections(TimeValue.ofMilliseconds(this.maxIdleTime)).build();
+  }
+
+  private CloseableHttpAsyncClient createHttp2Client(final int index) {
+    final H2AsyncClientBuilder builder = H2AsyncClientBuilder.create();
+    if (this.userAgent != null) {
+      builder.setUserAgent(this.userAgent);
+    }
+    final ThreadFactory fac =
+        new ThreadFactoryBuilder().setNameFormat("client-io-" + index + "-%d").build();
+    final H2Config h2Config = H2Config.custom().setPushEnabled(false)
+        .setMaxConcurrentStreams(this.maxConcurrentStreams).build();
+
+    // all streams of a connection are serviced by a single reactor thread; the configured i/o
+    // threads are shared out among the clients, one for each connection per host
+    final int ioThreads =
+        this.ioThreads > 0 ? this.ioThreads : Runtime.getRuntime().availableProcessors();
+    return builder.setThreadFactory(fac)
+        .setIOReactorConfig(createIOReactorConfig(Math.max(1, ioThreads / this.connectionsPerHost)))
+        .setH2Config(h2Config).setTlsStrategy(createTlsStrategy())
+        .setDefaultConnectionConfig(createConnectionConfig()).disableCookieManagement()
+        .disableAuthCaching().disableAutomaticRetries()
+        .setDefaultRequestConfig(createRequestConfig())
+        .evictIdleConnections(TimeValue.ofMilliseconds(this.maxIdleTime)).build();
+  }
+
+  private IOReactorConfig createIOReactorConfig(final int ioThreads) {
+    final IOReactorConfig.Builder builder = IOReactorConfig.custom()
+        .setSoTimeout(Timeout.ofMilliseconds(this.soTimeout)).setSoReuseAddress(this.soReuseAddress)
+        .setSoLinger(this.soLinger, TimeUnit.SECONDS).setSoKeepAlive(this.soKeepAlive)
+        .setTcpNoDelay(this.tcpNoDelay).setSndBufSize(this.soSndBuf).setRcvBufSize(this.soRcvBuf);
+    if (ioThreads > 0) {
+      builder.setIoThreadCount(ioThreads);
+    }
+    return builder.build();
+  }
+
+  private org.apache.hc.client5.http.nio.AsyncClientConnectionManager createConnectionManager() {
+    return PoolingAsyncClientConnectionManagerBuilder.create().setTlsStrategy(createTlsStrategy())
+        .setPoolConcurrencyPolicy(PoolConcurrencyPolicy.LAX).setMaxConnTotal(Integer.MAX_VALUE)
+        .setMaxConnPerRoute(Integer.MAX_VALUE).setDefaultConnectionConfig(createConnectionConfig())
+        .build();
+  }
+
+  private TlsStrategy createTlsStrategy() {
+    final ClientTlsStrategyBuilder tls = ClientTlsStrategyBuilder.create()
+        .setSslContext(SSLContextFactory.create(this.keyStore, this.keyStorePassword,
+            this.keyPassword, this.trustStore, this.trustStorePassword,
+            this.trustSelfSignedCertificates))
+        .setHostnameVerifier(NoopHostnameVerifier.INSTANCE);
+    if (this.protocols != null) {
+      tls.setTlsVersions(Iterables.toArray(this.protocols, String.class));
+    }
+    if (this.cipherSuites != null) {
+      tls.setCiphers(Iterables.toArray(this.cipherSuites, String.class));
+    }
+    return tls.build();
+  }
+
+  private ConnectionConfig createConnectionConfig() {
+    return ConnectionConfig.custom().setConnectTimeout(Timeout.ofMilliseconds(this.connectTimeout))
+        .setSocketTimeout(Timeout.ofMilliseconds(this.soTimeout))
+        .setValidateAfterInactivity(TimeValue.ofMilliseconds(this.validateAfterInactivity))
+        .build();
+  }
+
+  private ConnectionReuseStrategy createConnectionReuseStrategy() {
+    if (this.persistentConnections) {
+      return DefaultConnectionReuseStrategy.INSTANCE;
+    }
+    return (request, response, context) -> false;
+  }
+
+  private RequestConfig createRequestConfig() {
+    return RequestConfig.custom().setExpectContinueEnabled(this.expectContinue)
+        .setRedirectsEnabled(true).setCircularRedirectsAllowed(true).build();
+  }
+
+  @Override
+  public ListenableFuture<Response> execute(final Request request) {
+    checkNotNull(request);
+    return new NonBlockingHttpOperation(request).execute();
+  }
+
+  private BasicHttpRequest createRequest(final AuthenticatedRequest request) {
+    final BasicHttpRequest apacheRequest =
+        new BasicHttpRequest(request.getMethod().toString(), request.getUri());
+    for (final Entry<String, String> header : request.headers().entrySet()) {
+      // Some authentication implementations add Content-Length or Transfer-Encoding headers as a
+      // part of their authentication algorithm; skip them here so that the default interceptors do
+      // not throw a ProtocolException
+      if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(header.getKey())
+          || HttpHeaders.TRANSFER_ENCODING.equalsIgnoreCase(header.getKey())) {
+        continue;
+      }
+      if (this.http2) {
+        // http/2 carries the host as the :authority pseudo header and forbids connection specific
+        // headers
+        if (HttpHeaders.HOST.equalsIgnoreCase(header.getKey())) {
+          try {
+            apacheRequest.setAuthority(URIAuthority.create(header.getValue()));
+          } catch (final URISyntaxException e) {
+            throw new IllegalArgumentException("invalid host header", e);
+          }
+          continue;
+        }
+        if (HttpHeaders.CONNECTION.equalsIgnoreCase(header.getKey())
+            || HttpHeaders.KEEP_ALIVE.equalsIgnoreCase(header.getKey())
+            || HttpHeaders.UPGRADE.equalsIgnoreCase(header.getKey())) {
+          continue;
+        }
+      }
+      apacheRequest.addHeader(header.getKey(), header.getValue());
+    }
+    // http/2 does not add a content length on our behalf, but servers commonly require one
+    if (this.http2 && DataType.NONE != request.getBody().getDataType()) {
+      apacheRequest.addHeader(HttpHeaders.CONTENT_LENGTH,
+          String.valueOf(request.getContentLength()));
+    }
+    return apacheRequest;
+  }
+
+  private static String routeKey(final Request request) {
+    return request.getUri().getScheme() + "://" + request.getUri().getRawAuthority();
+  }
+
+  @Override
+  public ListenableFuture<Integer> shutdown(final boolean immediate, final int timeout) {
+    final SettableFuture<Integer> future = SettableFuture.create();
+    final Thread t = new Thread(getShutdownRunnable(future, immediate, timeout));
+    t.setName("client-shutdown");
+    this.running = false;
+    t.start();
+    return future;
+  }
+
+  private Runnable getShutdownRunnable(final SettableFuture<Integer> future,
+      final boolean immediate, final int timeout) {
+    return new Runnable() {
+      @Override
+      public void run() {
+        try {
+          if (immediate) {
+            _logger.info("Immediate shutdown requested");
+            closeClient(CloseMode.IMMEDIATE);
+            awaitActiveRequests(1);
+          } else {
+            _logger.info("Awaiting active client requests for {} seconds", timeout);
+            final boolean result = awaitActiveRequests(timeout);
+            _logger.info("Active client requests completion result [{}]",
+                result ? "success" : "failure");
+            if (result) {
+              closeClient(CloseMode.GRACEFUL);
+            } else {
+              _logger.warn("Forcing connections to close");
+              closeClient(CloseMode.IMMEDIATE);
+              awaitActiveRequests(1);
+            }
+          }
+        } catch (final InterruptedException e) {
+          _logger.error("Interrupted while waiting for active client requests", e);
+          future.set(-1);
+          return;
+        } catch (final Exception e) {
+          _logger.error(e.getMessage());
+          future.set(-1);
+          return;
+        } finally {
+          NioClient.this.signingExecutor.shutdown();
+        }
+        _logger.info("Client is shutdown, requests aborted [{}]",
+            NioClient.this.abortedRequestsAtShutdown.get());
+        future.set(NioClient.this.abortedRequestsAtShutdown.get());
+      }
+
+      private void closeClient(final CloseMode closeMode) {
+        _logger.info("Attempting to close client [{}]", closeMode);
+        // queued streams are failed once the clients are closed rather than being started
+        final List<Runnable> queued = Lists.newArrayList();
+        for (final ConcurrentMap<String, StreamLimiter> limiters : NioClient.this.streamLimiters) {
+          for (final StreamLimiter limiter : limiters.values()) {
+            queued.addAll(limiter.drain());
+          }
+        }
+        for (final CloseableHttpAsyncClient client : NioClient.this.clients) {
+          client.close(closeMode);
+        }
+        if (CloseMode.IMMEDIATE == closeMode) {
+          // exchanges still awaiting a connection are not necessarily failed by closing the client
+          for (final NonBlockingHttpOperation operation : NioClient.this.activeOperations) {
+            operation.cancel();
+          }
+        }
+        for (final Runnable task : queued) {
+          task.run();
+        }
+        _logger.info("Client is closed");
+      }
+
+      private boolean awaitActiveRequests(final int timeout) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeout);
+        synchronized (NioClient.this.activeRequestsLock) {
+          long remaining = deadline - System.nanoTime();
+          while (NioClient.this.activeRequests.get() > 0 && remaining > 0) {
+            TimeUnit.NANOSECONDS.timedWait(NioClient.this.activeRequestsLock, remaining);
+            remaining = deadline - System.nanoTime();
+          }
+          return NioClient.this.activeRequests.get() == 0;
+        }
+      }
+    };
+  }
+
+  private class NonBlockingHttpOperation implements FutureCallback<Void> {
+    private final Request request;
+    private final RequestTimestamps timestamps;
+    private final HttpResponse.Builder responseBuilder;
+    private final SettableFuture<Response> result;
+    private CustomAsyncEntityProducer entityProducer;
+    private CloseableHttpAsyncClient client;
+    private StreamLimiter streamLimiter;
+    private volatile Future<Void> exchange;
+
+    public NonBlockingHttpOperation(final Request request) {
+      this.request = checkNotNull(request);
+      this.timestamps = new RequestTimestamps();
+      this.responseBuilder = new HttpResponse.Builder();
+      this.result = SettableFuture.create();
+    }
+
+    public ListenableFuture<Response> execute() {
+      this.timestamps.startMillis = System.currentTimeMillis();
+      this.timestamps.start = System.nanoTime();
+      NioClient.this.activeRequests.incrementAndGet();
+      NioClient.this.activeOperations.add(this);
+      try {
+        NioClient.this.signingExecutor.execute(new Runnable() {
+          @Override
+          public void run() {
+            send();
+          }
+        });
+      } catch (final RejectedExecutionException e) {
+        // the signing threads are stopped once the client has been shut down
+        failed(e);
+      }
+
+      return new ForwardingListenableFuture.SimpleForwardingListenableFuture<Response>(
+          this.result) {
+        @Override
+        public boolean cancel(final boolean mayInterruptIfRunning) {
+          final Future<Void> exchange = NonBlockingHttpOperation.this.exchange;
+          if (exchange != null) {
+            exchange.cancel(mayInterruptIfRunning);
+          }
+          return delegate().cancel(mayInterruptIfRunning);
+        }
+      };
+    }
+
+    // authenticates and sends the request, on a signing thread
+    private void send() {
+      final AuthenticatedRequest authenticatedRequest;
+      final BasicHttpRequest apacheRequest;
+      try {
+        authenticatedRequest = NioClient.this.authentication.authenticate(this.request);
+        apacheRequest = createRequest(authenticatedRequest);
+      } catch (final RuntimeException e) {
+        this.result.setException(e);
+        deactivate();
+        return;
+      }
+
+      final String requestId = this.request.getContext().get(Context.X_OG_REQUEST_ID);
+      if (requestId != null) {
+        this.responseBuilder.withContext(Context.X_OG_REQUEST_ID, requestId);
+      }
+      if (DataType.NONE != this.request.getBody().getDataType()) {
+        this.entityProducer = new CustomAsyncEntityProducer(authenticatedRequest,
+            NioClient.this.chunkedEncoding && !NioClient.this.http2, NioClient.this.bufferSize);
+      }
+      final String consumerId = this.request.getContext().get(Context.X_OG_RESPONSE_BODY_CONSUMER);
+      final ResponseBodyConsumer consumer = NioClient.this.responseBodyConsumers.get(consumerId);
+
+      final BasicRequestProducer requestProducer =
+          new BasicRequestProducer(apacheRequest, this.entityProducer);
+      final CustomAsyncResponseConsumer responseConsumer =
+          new CustomAsyncResponseConsumer(this.responseBuilder, this.timestamps, consumer);
+
+      _logger.trace("Sending request {}", this.request);
+      final Runnable dispatch = new Runnable() {
+        @Override
+        public void run() {
+          dispatch(requestProducer, responseConsumer);
+        }
+      };
+      if (NioClient.this.http2) {
+        final int index = (int) (NioClient.this.nextClient.getAndIncrement()
+            % NioClient.this.clients.size());
+        this.client = NioClient.this.clients.get(index);
+        this.streamLimiter = getStreamLimiter(NioClient.this.streamLimiters.get(index),
+            routeKey(this.request));
+        this.streamLimiter.submit(dispatch);
+      } else {
+        this.client = NioClient.this.clients.get(0);
+        dispatch.run();
+      }
+    }
+
+    private StreamLimiter getStreamLimiter(final ConcurrentMap<String, StreamLimiter> limiters,
+        final String key) {
+      StreamLimiter limiter = limiters.get(key);
+      if (limiter == null) {
+        final StreamLimiter created = new StreamLimiter(NioClient.this.maxConcurrentStreams);
+        limiter = limiters.putIfAbsent(key, created);
+        if (limiter == null) {
+          limiter = created;
+        }
+      }
+      return limiter;
+    }
+
+    private void cancel() {
+      final Future<Void> exchange = this.exchange;
+      if (exchange != null) {
+        exchange.cancel(true);
+      }
+    }
+
+    private void dispatch(final BasicRequestProducer requestProducer,
+        final CustomAsyncResponseConsumer responseConsumer) {
+      try {
+        // route on the request uri explicitly, the request authority may be a virtual host
+        this.exchange = this.client.execute(HttpHost.create(this.request.getUri()),
+            requestProducer, responseConsumer, null, HttpClientContext.create(), this);
+      } catch (final RuntimeException e) {
+        // the client rejects requests synchronously once it has been closed
+        failed(e);
+      }
+    }
+
+    @Override
+    public void completed(final Void v) {
+      complete();
+    }
+
+    @Override
+    public void failed(final Exception e) {
+      if (NioClient.this.running) {
+        _logger.error("Exception executing request", e);
+      } else {
+        NioClient.this.abortedRequestsAtShutdown.incrementAndGet();
+      }
+      this.responseBuilder.withStatusCode(599);
+      complete();
+    }
+
+    @Override
+    public void cancelled() {
+      if (!NioClient.this.running) {
+        NioClient.this.abortedRequestsAtShutdown.incrementAndGet();
+      }
+      this.responseBuilder.withStatusCode(599);
+      complete();
+    }
+
+    private void complete() {
+      if (this.entityProducer != null) {
+        this.timestamps.requestContentStart = this.entityProducer.getRequestContentStart();
+        this.timestamps.requestContentFinish = this.entityProducer.getRequestContentFinish();
+      }
+      this.timestamps.finish = System.nanoTime();
+      this.timestamps.finishMillis = System.currentTimeMillis();
+
+      this.responseBuilder.withRequestTimestamps(this.timestamps);
+      final Response response = this.responseBuilder.build();
+      _logger.trace("Received response {}", response);
+
+      // do not log requests with 599 response after client shutdown (known aborted requests)
+      if (NioClient.this.running || response.getStatusCode() != 599) {
+        final RequestLogEntry entry = new RequestLogEntry(this.request, response,
+            NioClient.this.userAgent, this.timestamps);
+        _requestLogger.info(NioClient.this.gson.toJson(entry));
+      }
+
+      this.result.set(response);
+      deactivate();
+      if (this.streamLimiter != null) {
+        this.streamLimiter.release();
+      }
+    }
+
+    private void deactivate() {
+      NioClient.this.activeOperations.remove(this);
+      if (NioClient.this.activeRequests.decrementAndGet() == 0 && !NioClient.this.running) {
+        synchronized (NioClient.this.activeRequestsLock) {
+          NioClient.this.activeRequestsLock.notifyAll();
+        }
+      }
+    }
+  }
+
+  @Override
+  public String toString() {
+    return String.format("NioClient [%n" + "connectTimeout=%s,%n" + "soTimeout=%s,%n"
+        + "soReuseAddress=%s,%n" + "soLinger=%s,%n" + "soKeepAlive=%s,%n" + "tcpNoDelay=%s,%n"
+        + "soSndBuf=%s,%n" + "soRcvBuf=%s,%n" + "persistentConnections=%s,%n"
+        + "validateAfterInactivity=%s,%n" + "maxIdleTime=%s,%n" + "chunkedEncoding=%s,%n"
+        + "expectContinue=%s,%n" + "protocols=%s,%n" + "cipherSuites=%s,%n" + "keyStore=%s,%n"
+        + "keyStorePassword=%s,%n" + "keyPassword=%s,%n" + "trustStore=%s,%n"
+        + "trustStorePassword=%s,%n" + "trustSelfSignedCertificates=%s,%n" + "dnsCacheTtl=%s,%n"
+        + "dnsCacheNegativeTtl=%s,%n" + "authentication=%s,%n" + "userAgent=%s,%n"
+        + "ioThreads=%s,%n" + "bufferSize=%s,%n" + "http2=%s,%n" + "maxConcurrentStreams=%s,%n"
+        + "connectionsPerHost=%s,%n" + "responseBodyConsumers=%s%n]",
+        this.connectTimeout, this.soTimeout, this.soReuseAddress, this.soLinger, this.soKeepAlive,
+        this.tcpNoDelay, this.soSndBuf, this.soRcvBuf, this.persistentConnections,
+        this.validateAfterInactivity, this.maxIdleTime, this.chunkedEncoding, this.expectContinue,
+        this.protocols, this.cipherSuites, this.keyStore, this.keyStorePassword, this.keyPassword,
+        this.trustStore, this.trustStorePassword, this.trustSelfSignedCertificates,
+        this.dnsCacheTtl, this.dnsCacheNegativeTtl, this.authentication, this.userAgent,
+        this.ioThreads, this.bufferSize, this.http2, this.maxConcurrentStreams,
+        this.connectionsPerHost, this.responseBodyConsumers);
+  }
+
+  /**
+   * A builder of nio client instances
+   */
+  public static class Builder {
+    private int connectTimeout;
+    private int soTimeout;
+    private boolean soReuseAddress;
+    private int soLinger;
+    private boolean soKeepAlive;
+    private boolean tcpNoDelay;
+    private int soSndBuf;
+    private int soRcvBuf;
+    private boolean persistentConnections;
+    private int validateAfterInactivity;
+    private int maxIdleTime;
+    private boolean chunkedEncoding;
+    private boolean expectContinue;
+    private List<String> protocols;
+    private List<String> cipherSuites;
+    private String keyStore;
+    private String keyStorePassword;
+    private String keyPassword;
+    private String trustStore;
+    private String trustStorePassword;
+    private boolean trustSelfSignedCertificates;
+    private int dnsCacheTtl;
+    private int dnsCacheNegativeTtl;
+    private HttpAuth authentication;
+    private String userAgent;
+    private int ioThreads;
+    private int bufferSize;
+    private boolean http2;
+    private int maxConcurrentStreams;
+    private int connectionsPerHost;
+    private final Map<String, ResponseBodyConsumer> responseBodyConsumers;
+
+    /**
+     * Constructs a new builder
+     */
+    public Builder() {
+      this.connectTimeout = 0;
+      this.soTimeout = 0;
+      this.soReuseAddress = false;
+      this.soLinger = -1;
+      this.soKeepAlive = true;
+      this.tcpNoDelay = true;
+      this.soSndBuf = 0;
+      this.soRcvBuf = 0;
+      this.persistentConnections = true;
+      this.validateAfterInactivity = 10000;
+      this.maxIdleTime = 60000;
+      this.chunkedEncoding = false;
+      this.expectContinue = false;
+      this.protocols = null;
+      this.cipherSuites = null;
+      this.keyStore = null;
+      this.keyStorePassword = null;
+      this.keyPassword = null;
+      this.trustStore = null;
+      this.trustStorePassword = null;
+      this.trustSelfSignedCertificates = false;
+      this.dnsCacheTtl = 60;
+      this.dnsCacheNegativeTtl = 10;
+      this.authentication = new NoneAuth();
+      this.ioThreads = 0;
+      this.bufferSize = 8192;
+      this.http2 = false;
+      this.maxConcurrentStreams = 100;
+      this.connectionsPerHost = 1;
+      this.responseBodyConsumers = Maps.newHashMap();
+    }
+
+    /**
+     * Configures the timeout in milliseconds until a connection is established. A timeout of zero
+     * is interpreted as an infinite timeout
+     *
+     * @param connectTimeout connection open timeout, in milliseconds
+     * @return this builder
+     */
+    public Builder withConnectTimeout(final int connectTimeout) {
+      this.connectTimeout = connectTimeout;
+      return this;
+    }
+
+    /**
+     * Configures the socket timeout in milliseconds, the maximum duration of inactivity on a
+     * connection. A timeout of zero is interpreted as an infinite timeout
+     *
+     * @param soTimeout socket timeout, in milliseconds
+     * @return this builder
+     */
+    public Builder withSoTimeout(final int soTimeout) {
+      this.soTimeout = soTimeout;
+      return this;
+    }
+
+    /**
+     * Configures the {@code SO_REUSEADDR} socket option
+     *
+     * @param soReuseAddress socket reuse flag
+     * @return this builder
+     */
+    public Builder usingSoReuseAddress(final boolean soReuseAddress) {
+      this.soReuseAddress = soReuseAddress;
+      return this;
+    }
+
+    /**
+     * Configures {@code SO_LINGER} in <em>seconds</em>. A linger of zero disables linger, and a
+     * linger of {@code -1} uses the system default.
+     *
+     * @param soLinger linger, in seconds
+     * @return this builder
+     */
+    public Builder withSoLinger(final int soLinger) {
+      this.soLinger = soLinger;
+      return this;
+    }
+
+    /**
+     * Configures the {@code SO_KEEPALIVE} socket option
+     *
+     * @param soKeepAlive keepalive flag
+     * @return this builder
+     */
+    public Builder usingSoKeepAlive(final boolean soKeepAlive) {
+      this.soKeepAlive = soKeepAlive;
+      return this;
+    }
+
+    /**
+     * Configures the {@code TCP_NODELAY} socket option
+     *
+     * @param tcpNoDelay tcp no delay flag
+     * @return this builder
+     */
+    public Builder usingTcpNoDelay(final boolean tcpNoDelay) {
+      this.tcpNoDelay = tcpNoDelay;
+      return this;
+    }
+
+    /**
+     * Configures {@code SO_SNDBUF}. A buffer of zero uses the system default.
+     *
+     * @param soSndBuf, a suggested send buffer size for connections
+     * @return this builder
+     */
+    public Builder withSoSndBuf(final int soSndBuf) {
+      this.soSndBuf = soSndBuf;
+      return this;
+    }
+
+    /**
+     * Configures {@code SO_RCVBUF}. A buffer of zero uses the system default.
+     *
+     * @param soRcvBuf, a suggested receive buffer size for connections
+     * @return this builder
+     */
+    public Builder withSoRcvBuf(final int soRcvBuf) {
+      this.soRcvBuf = soRcvBuf;
+      return this;
+    }
+
+    /**
+     * Configures the use of persistent tcp connections
+     *
+     * @param persistentConnections persistent connections flag
+     * @return this builder
+     */
+    public Builder usingPersistentConnections(final boolean persistentConnections) {
+      this.persistentConnections = persistentConnections;
+      return this;
+    }
+
+    /**
+     * Configures the maximum amount of time a connection is allowed to remain idle and subsequently
+     * be leased without first checking if the connection is stale.
+     *
+     * @param validateAfterInactivity maximum idle time, in milliseconds
+     * @return this builder
+     */
+    public Builder withValidateAfterInactivity(final int validateAfterInactivity) {
+      this.validateAfterInactivity = validateAfterInactivity;
+      return this;
+    }
+
+    /**
+     * Configures the maximum amount of time a connection is allowed to remain idle and subsequently
+     * be leased. Connections that are idle longer than maxIdleTime will be closed.
+     *
+     * @param maxIdleTime maximum idle time prior to connection closure.
+     * @return this builder
+     */
+    public Builder withMaxIdleTime(final int maxIdleTime) {
+      this.maxIdleTime = maxIdleTime;
+      return this;
+    }
+
+    /**
+     * Configures the use of http chunked encoding for request bodies
+     *
+     * @param chunkedEncoding chunked encoding flag
+     * @return this builder
+     */
+    public Builder usingChunkedEncoding(final boolean chunkedEncoding) {
+      this.chunkedEncoding = chunkedEncoding;
+      return this;
+    }
+
+    /**
+     * Configures the use of expect: 100-continue flag for PUT and POST requests
+     *
+     * @param expectContinue expect continue flag
+     * @return this builder
+     */
+    public Builder usingExpectContinue(final boolean expectContinue) {
+      this.expectContinue = expectContinue;
+      return this;
+    }
+
+    /**
+     * Configures a list of SSL/TLS protocols to support, in preferred order
+     *
+     * @param protocols a list of protocols, in preferred order
+     * @return this builder
+     */
+    public Builder withProtocols(final List<String> protocols) {
+      this.protocols = protocols;
+      return this;
+    }
+
+    /**
+     * Configures a list of cipher suites for SSL/TLS requests, in preferred order
+     *
+     * @param cipherSuites a list of cipher suites, in preferred order
+     * @return this builder
+     */
+    public Builder withCipherSuites(final List<String> cipherSuites) {
+      this.cipherSuites = cipherSuites;
+      return this;
+    }
+
+    /**
+     * Configures a path to a key store to use for storing certificates requests
+     *
+     * @param keyStore path to a certificate key store file
+     * @return this builder
+     */
+    public Builder withKeyStore(final String keyStore) {
+      this.keyStore = keyStore;
+      return this;
+    }
+
+    /**
+     * Configures a password to use for a configured key store
+     *
+     * @param keyStorePassword password for configured key store
+     * @return this builder
+     */
+    public Builder withKeyStorePassword(final String keyStorePassword) {
+      this.keyStorePassword = keyStorePassword;
+      return this;
+    }
+
+    /**
+     * Configures a password to use for a certificate in the configured key store
+     *
+     * @param keyPassword password for a certificate in the configured key store
+     * @return this builder
+     */
+    public Builder withKeyPassword(final String keyPassword) {
+      this.keyPassword = keyPassword;
+      return this;
+    }
+
+    /**
+     * Configures a path to a trust store to use for validating server certificates for SSL/TLS
+     * requests
+     *
+     * @param trustStore path to a certificate trust store file
+     * @return this builder
+     */
+    public Builder withTrustStore(final String trustStore) {
+      this.trustStore = trustStore;
+      return this;
+    }
+
+    /**
+     * Configures a password to use for a configured trust store
+     *
+     * @param trustStorePassword password for configured trust store
+     * @return this builder
+     */
+    public Builder withTrustStorePassword(final String trustStorePassword) {
+      this.trustStorePassword = trustStorePassword;
+      return this;
+    }
+
+    /**
+     * Configures whether to trust self signed certificates for SSL/TLS requests
+     *
+     * @param trustSelfSignedCertificates whether to trust self signed certificates
+     * @return this builder
+     */
+    public Builder usingTrustSelfSignedCertificates(final boolean trustSelfSignedCertificates) {
+      this.trustSelfSignedCertificates = trustSelfSignedCertificates;
+      return this;
+    }
+
+    /**
+     * Configures dns cache ttl, in seconds
+     *
+     * @param dnsCacheTtl, cache ttl, in seconds
+     * @return this builder
+     */
+    public Builder withDnsCacheTtl(final int dnsCacheTtl) {
+      this.dnsCacheTtl = dnsCacheTtl;
+      return this;
+    }
+
+    /**
+     * Configures dns cache ttl for negative responses, in seconds
+     *
+     * @param dnsCacheNegativeTtl, cache ttl for negative responses, in seconds
+     * @return this builder
+     */
+    public Builder withDnsCacheNegativeTtl(final int dnsCacheNegativeTtl) {
+      this.dnsCacheNegativeTtl = dnsCacheNegativeTtl;
+      return this;
+    }
+
+    /**
+     * Configures the use of authentication for every request
+     *
+     * @param authentication the authentication type to use
+     * @return this builder
+     */
+    public Builder withAuthentication(final HttpAuth authentication) {
+      this.authentication = authentication;
+      return this;
+    }
+
+    /**
+     * Configures the user-agent request header to send with every request
+     *
+     * @param userAgent the user agent string to send
+     * @return this builder
+     */
+    public Builder withUserAgent(final String userAgent) {
+      this.userAgent = userAgent;
+      return this;
+    }
+
+    /**
+     * Configures the number of i/o reactor threads which service all connections. A value of zero
+     * uses one thread per available processor. When using http/2 the threads are divided evenly,
+     * with at least one each, among the clients for each connection per host.
+     *
+     * @param ioThreads number of i/o reactor threads
+     * @return this builder
+     */
+    public Builder withIoThreads(final int ioThreads) {
+      this.ioThreads = ioThreads;
+      return this;
+    }
+
+    /**
+     * Configures the size of the per request buffer used to transfer request content
+     *
+     * @param bufferSize buffer size, in bytes
+     * @return this builder
+     */
+    public Builder withBufferSize(final int bufferSize) {
+      this.bufferSize = bufferSize;
+      return this;
+    }
+
+    /**
+     * Configures the use of http/2 rather than http/1.1. Https connections negotiate http/2 via
+     * ALPN, http connections use http/2 with prior knowledge (h2c).
+     *
+     * @param http2 http/2 flag
+     * @return this builder
+     */
+    public Builder usingHttp2(final boolean http2) {
+      this.http2 = http2;
+      return this;
+    }
+
+    /**
+     * Configures the maximum number of concurrent http/2 streams per connection. Requests beyond
+     * this limit are queued until a stream completes.
+     *
+     * @param maxConcurrentStreams maximum concurrent streams per connection
+     * @return this builder
+     */
+    public Builder withMaxConcurrentStreams(final int maxConcurrentStreams) {
+      this.maxConcurrentStreams = maxConcurrentStreams;
+      return this;
+    }
+
+    /**
+     * Configures the number of http/2 connections opened to each host. Requests are distributed
+     * across connections round robin.
+     *
+     * @param connectionsPerHost number of connections per host
+     * @return this builder
+     */
+    public Builder withConnectionsPerHost(final int connectionsPerHost) {
+      this.connectionsPerHost = connectionsPerHost;
+      return this;
+    }
+
+    /**
+     * Configures a response body consumer to be used to process response bodies for requests
+     * configured with a matching consumerId
+     *
+     * @param consumerId the consumerId for which the provided consumer should be used
+     * @param consumer a response body consumer
+     * @return this builder
+     */
+    public Builder withResponseBodyConsumer(final String consumerId,
+        final ResponseBodyConsumer consumer) {
+      this.responseBodyConsumers.put(consumerId, consumer);
+      return this;
+    }
+
+    /**
+     * Constructs a new nio client instance
+     *
+     * @return a nio client instance
+     * @throws IllegalArgumentException if connectTimeout, soTimeout or ioThreads are negative
+     * @throws IllegalArgumentException if maxConcurrentStreams or connectionsPerHost are not
+     *         positive
+     * @throws IllegalArgumentException if soLinger is less than {@code -1}
+     */
+    public NioClient build() {
+      return new NioClient(this);
+    }
+  }
+}
@@ -5,6 +5,9 @@
 
 package com.ibm.og.client;
 
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.net.URI;
 import java.util.Locale;
 import java.util.concurrent.TimeUnit;
@@ -16,6 +19,14 @@ import org.apache.http.HttpHeaders;
 import org.joda.time.format.DateTimeFormat;
 import org.joda.time.format.DateTimeFormatter;
 
+import com.google.gson.FieldNamingPolicy;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.LongSerializationPolicy;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
 /**
  * A class for assisting in the serialization of a request / response pair
  * 
@@ -189,6 +200,28 @@ public class RequestLogEntry {
 
   }
 
+  /**
+   * Creates a gson instance suitable for serializing request log entries
+   *
+   * @return a request log entry gson instance
+   */
+  static Gson createGson() {
+    return new GsonBuilder().setFieldNamingPolicy(FieldNamingPolicy.LOWER_CASE_WITH_UNDERSCORES)
+        .setLongSerializationPolicy(LongSerializationPolicy.STRING)
+        .registerTypeAdapter(Double.class, new TypeAdapter<Double>() {
+          @Override
+          public void write(final JsonWriter out, final Double value) throws IOException {
+            // round decimals to 2 places
+            out.value(new BigDecimal(value).setScale(2, RoundingMode.HALF_UP).doubleValue());
+          }
+
+          @Override
+          public Double read(final JsonReader in) throws IOException {
+            return in.nextDouble();
+          }
+        }.nullSafe()).create();
+  }
+
   public static class RequestStats {
     final Double requestContent;
     final Double closeLatency;
@@ -197,16 +230,16 @@ public class RequestLogEntry {
     final Double total;
 
     public RequestStats(final RequestTimestamps t) {
-      this.requestContent = duration(t.requestContentStart, t.requestContentFinish);
-      this.closeLatency = duration(t.requestContentFinish, t.finish);
-      this.ttfb = duration(t.start, t.responseContentFirstBytes);
-      this.responseContent = duration(t.responseContentStart, t.responseContentFinish);
-      this.total = duration(t.start, t.finish);
+      this.requestContent = duration(RequestPhase.REQUEST_CONTENT.duration(t));
+      this.closeLatency = duration(RequestPhase.CLOSE_LATENCY.duration(t));
+      this.ttfb = duration(RequestPhase.TTFB.duration(t));
+      this.responseContent = duration(RequestPhase.RESPONSE_CONTENT.duration(t));
+      this.total = duration(RequestPhase.TOTAL.duration(t));
     }
 
-    private Double duration(final long start, final long finish) {
-      if (start > 0 && finish > start) {
-        return ((double) finish - start) / TimeUnit.MILLISECONDS.toNanos(1);
+    private Double duration(final long nanos) {
+      if (nanos >= 0) {
+        return ((double) nanos) / TimeUnit.MILLISECONDS.toNanos(1);
       }
       return null;
     }
@@ -0,0 +1,57 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.client;
+
+import java.io.File;
+
+import javax.net.ssl.SSLContext;
+
+import org.apache.http.conn.ssl.TrustSelfSignedStrategy;
+import org.apache.http.ssl.SSLContextBuilder;
+
+/**
+ * A factory for ssl contexts shared by client implementations, configured from a key store and
+ * trust store
+ */
+final class SSLContextFactory {
+  private SSLContextFactory() {}
+
+  /**
+   * Creates an ssl context
+   *
+   * @param keyStore key store file, or null
+   * @param keyStorePassword key store password, or null if keyStore is null
+   * @param keyPassword key password, or null if keyStore is null
+   * @param trustStore trust store file, or null
+   * @param trustStorePassword trust store password, or null
+   * @param trustSelfSignedCertificates whether to trust self signed certificates
+   * @return a configured ssl context
+   */
+  static SSLContext create(final File keyStore, final String keyStorePassword,
+      final String keyPassword, final File trustStore, final String trustStorePassword,
+      final boolean trustSelfSignedCertificates) {
+    final SSLContextBuilder builder = SSLContextBuilder.create();
+    try {
+      if (keyStore != null) {
+        builder.loadKeyMaterial(keyStore, keyStorePassword.toCharArray(),
+            keyPassword.toCharArray());
+      }
+      if (trustStore != null) {
+        char[] password = null;
+        if (trustStorePassword != null) {
+          password = trustStorePassword.toCharArray();
+        }
+        builder.loadTrustMaterial(trustStore, password);
+      }
+      if (trustSelfSignedCertificates) {
+        builder.loadTrustMaterial(TrustSelfSignedStrategy.INSTANCE);
+      }
+      return builder.build();
+    } catch (final Exception e) {
+      throw new RuntimeException(e);
+    }
+  }
+}
@@ -0,0 +1,114 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.client;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Queue;
+
+import com.google.common.collect.Lists;
+
+/**
+ * A non-blocking limiter of concurrent streams on a single http/2 connection. Tasks submitted while
+ * the limit is reached are queued and started, in submission order, as earlier streams are
+ * released. A started task must call {@link #release()} exactly once when its stream completes.
+ */
+final class StreamLimiter {
+  // tasks handed a stream by a release on this thread, not yet started
+  private static final ThreadLocal<Queue<Runnable>> STARTING = new ThreadLocal<Queue<Runnable>>();
+  private final int maxStreams;
+  private final Queue<Runnable> pending;
+  private int active;
+
+  /**
+   * Constructs an instance
+   *
+   * @param maxStreams maximum number of concurrently started tasks
+   * @throws IllegalArgumentException if maxStreams is not positive
+   */
+  StreamLimiter(final int maxStreams) {
+    checkArgument(maxStreams > 0, "maxStreams must be > 0 [%s]", maxStreams);
+    this.maxStreams = maxStreams;
+    this.pending = new ArrayDeque<Runnable>();
+  }
+
+  /**
+   * Starts the provided task on the calling thread if a stream is available, else queues it
+   *
+   * @param task the task to start
+   */
+  void submit(final Runnable task) {
+    checkNotNull(task);
+    synchronized (this) {
+      if (this.active >= this.maxStreams) {
+        this.pending.add(task);
+        return;
+      }
+      this.active++;
+    }
+    task.run();
+  }
+
+  /**
+   * Releases a stream, handing it directly to the oldest queued task if there is one. The task is
+   * started on the calling thread; a task which releases its stream while starting, e.g. because it
+   * failed synchronously, has its successor started by the same loop rather than recursively, so a
+   * deep queue cannot overflow the stack.
+   */
+  void release() {
+    final Runnable next;
+    synchronized (this) {
+      next = this.pending.poll();
+      if (next == null) {
+        this.active--;
+      }
+    }
+    if (next == null) {
+      return;
+    }
+    final Queue<Runnable> starting = STARTING.get();
+    if (starting != null) {
+      // called from a task this thread is starting, leave the successor to the enclosing loop
+      starting.add(next);
+      return;
+    }
+    final Queue<Runnable> tasks = new ArrayDeque<Runnable>();
+    tasks.add(next);
+    STARTING.set(tasks);
+    try {
+      Runnable task;
+      while ((task = tasks.poll()) != null) {
+        task.run();
+      }
+    } finally {
+      STARTING.remove();
+    }
+  }
+
+  /**
+   * Removes all queued tasks without starting them. Each returned task is considered to hold a
+   * stream, so that running it and subsequently calling {@link #release()} is balanced.
+   *
+   * @return the queued tasks, in submission order
+   */
+  synchronized List<Runnable> drain() {
+    final List<Runnable> tasks = Lists.newArrayList(this.pending);
+    this.pending.clear();
+    this.active += tasks.size();
+    return tasks;
+  }
+
+  synchronized int active() {
+    return this.active;
+  }
+
+  synchronized int queued() {
+    return this.pending.size();
+  }
+}
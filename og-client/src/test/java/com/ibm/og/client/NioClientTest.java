@@ -0,0 +1,495 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.client;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.any;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.findAll;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.matching;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.putRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlMatching;
+import static com.github.tomakehurst.wiremock.client.WireMock.verify;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.hasEntry;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.startsWith;
+import static org.mockito.Mockito.mock;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import com.github.tomakehurst.wiremock.http.RequestMethod;
+import com.github.tomakehurst.wiremock.junit.WireMockClassRule;
+import com.github.tomakehurst.wiremock.matching.RequestPatternBuilder;
+import com.github.tomakehurst.wiremock.verification.LoggedRequest;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.Uninterruptibles;
+import com.ibm.og.api.AuthenticatedRequest;
+import com.ibm.og.api.Body;
+import com.ibm.og.api.Client;
+import com.ibm.og.api.Method;
+import com.ibm.og.api.Operation;
+import com.ibm.og.api.Request;
+import com.ibm.og.api.Response;
+import com.ibm.og.http.AuthenticatedHttpRequest;
+import com.ibm.og.http.BasicAuth;
+import com.ibm.og.http.Bodies;
+import com.ibm.og.http.HttpAuth;
+import com.ibm.og.http.HttpRequest;
+import com.ibm.og.http.ResponseBodyConsumer;
+import com.ibm.og.util.Context;
+import com.tngtech.java.junit.dataprovider.DataProvider;
+import com.tngtech.java.junit.dataprovider.DataProviderRunner;
+import com.tngtech.java.junit.dataprovider.UseDataProvider;
+
+@RunWith(DataProviderRunner.class)
+public class NioClientTest {
+  @ClassRule
+  public static final WireMockClassRule WIREMOCK_RULE = new WireMockClassRule(8081);
+
+  @Rule
+  public WireMockClassRule wireMockRule = WIREMOCK_RULE;
+  private final List<Client> clients = Lists.newArrayList();
+  private Client client;
+  private URI objectUri;
+  private URI delayUri;
+  private Operation operation;
+
+  @Before()
+  public void before() throws URISyntaxException {
+    this.client = create(new NioClient.Builder());
+    stubFor(any(urlMatching("/container/.*")).willReturn(aResponse().withStatus(200)));
+
+    // read
+    stubFor(get(urlMatching("/container/.*"))
+        .willReturn(aResponse().withStatus(200).withBody(new byte[1000])));
+
+    // 1 second delay
+    stubFor(
+        get(urlEqualTo("/delayed")).willReturn(aResponse().withStatus(200).withFixedDelay(1000)));
+
+    // the i/o reactor checks socket timeouts once per select interval (1 second), so use a delay
+    // well beyond it
+    stubFor(
+        get(urlEqualTo("/slow")).willReturn(aResponse().withStatus(200).withFixedDelay(5000)));
+
+    stubFor(any(urlEqualTo("/301"))
+        .willReturn(aResponse().withStatus(301).withHeader("location", "/container/")));
+
+    stubFor(any(urlEqualTo("/307"))
+        .willReturn(aResponse().withStatus(307).withHeader("location", "/container/")));
+
+    this.objectUri = uri("/container/object");
+    this.delayUri = uri("/delayed");
+    this.operation = Operation.WRITE;
+  }
+
+  @After
+  public void after() throws InterruptedException, ExecutionException {
+    for (final Client c : this.clients) {
+      c.shutdown(true, 0).get();
+    }
+  }
+
+  private Client create(final NioClient.Builder builder) {
+    final Client c = builder.build();
+    this.clients.add(c);
+    return c;
+  }
+
+  private static URI uri(final String path) throws URISyntaxException {
+    return new URI("http://127.0.0.1:8081" + path);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void negativeConnectTimeout() {
+    new NioClient.Builder().withConnectTimeout(-1).build();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void negativeSoTimeout() {
+    new NioClient.Builder().withSoTimeout(-1).build();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void negativeSoLinger() {
+    new NioClient.Builder().withSoLinger(-2).build();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void zeroValidateAfterInactivity() {
+    new NioClient.Builder().withValidateAfterInactivity(0).build();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void zeroMaxIdleTime() {
+    new NioClient.Builder().withMaxIdleTime(0).build();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void negativeIoThreads() {
+    new NioClient.Builder().withIoThreads(-1).build();
+  }
+
+  @Test
+  public void positiveIoThreads() {
+    create(new NioClient.Builder().withIoThreads(2));
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void nullAuthentication() {
+    new NioClient.Builder().withAuthentication(null).build();
+  }
+
+  @DataProvider
+  public static Object[][] provideExecute() {
+    final Body zeroes = Bodies.zeroes(1000);
+    final Body none = Bodies.none();
+    final String content = new String(new byte[1000]);
+
+    return new Object[][] {{Method.PUT, none, "", none}, {Method.PUT, zeroes, content, none},
+        {Method.POST, none, "", none}, {Method.POST, zeroes, content, none},
+        {Method.GET, none, "", zeroes}, {Method.HEAD, none, "", none},
+        {Method.DELETE, none, "", none}};
+  }
+
+  @Test
+  @UseDataProvider("provideExecute")
+  public void execute(final Method method, final Body requestBody, final String requestData,
+      final Body responseBody) throws InterruptedException, ExecutionException {
+    final Request request = new HttpRequest.Builder(method, this.objectUri, this.operation)
+        .withBody(requestBody).build();
+    final Response response = this.client.execute(request).get();
+
+    assertThat(response.getStatusCode(), is(200));
+    assertThat(response.getBody().getDataType(), is(responseBody.getDataType()));
+    assertThat(response.getBody().getSize(), is(responseBody.getSize()));
+
+    if (!requestData.isEmpty()) {
+      verify(requestedFor(method, this.objectUri.getPath()).withRequestBody(equalTo(requestData)));
+    } else {
+      verify(requestedFor(method, this.objectUri.getPath()));
+    }
+  }
+
+  @Test
+  public void largeBody() throws InterruptedException, ExecutionException {
+    final Request request = new HttpRequest.Builder(Method.PUT, this.objectUri, this.operation)
+        .withBody(Bodies.zeroes(1024 * 1024)).build();
+    final Response response = this.client.execute(request).get();
+
+    assertThat(response.getStatusCode(), is(200));
+    assertThat(response.getRequestTimestamps().requestContentFinish,
+        greaterThanOrEqualTo(response.getRequestTimestamps().requestContentStart));
+    verify(putRequestedFor(urlEqualTo(this.objectUri.getPath())).withHeader("Content-Length",
+        equalTo(String.valueOf(1024 * 1024))));
+  }
+
+  @Test
+  public void requestHeaders() throws InterruptedException, ExecutionException {
+    final Request request = new HttpRequest.Builder(Method.PUT, this.objectUri, this.operation)
+        .withHeader("key", "value").build();
+    this.client.execute(request).get();
+    verify(
+        putRequestedFor(urlEqualTo(this.objectUri.getPath())).withHeader("key", equalTo("value")));
+  }
+
+  @DataProvider
+  public static Object[][] provideEncode() {
+    final String contentLength = "Content-Length";
+    final String transferEncoding = "Transfer-Encoding";
+    return new Object[][] {{false, contentLength, "2048", transferEncoding},
+        {true, transferEncoding, "chunked", contentLength},};
+  }
+
+  @Test
+  @UseDataProvider("provideEncode")
+  public void encode(final boolean chunk, final String key, final String value, final String absent)
+      throws InterruptedException, ExecutionException {
+    final Client client = create(new NioClient.Builder().usingChunkedEncoding(chunk));
+    final Request request = new HttpRequest.Builder(Method.PUT, this.objectUri, this.operation)
+        .withBody(Bodies.zeroes(2048)).build();
+    client.execute(request).get();
+    verify(putRequestedFor(urlEqualTo(this.objectUri.getPath())).withHeader(key, equalTo(value))
+        .withoutHeader(absent));
+  }
+
+  @Test
+  public void authentication() throws InterruptedException, ExecutionException {
+    final Client client = create(new NioClient.Builder().withAuthentication(new BasicAuth()));
+    final Request request = new HttpRequest.Builder(Method.GET, this.objectUri, this.operation)
+        .withContext(Context.X_OG_USERNAME, "test").withContext(Context.X_OG_PASSWORD, "test")
+        .build();
+    client.execute(request).get();
+    verify(getRequestedFor(urlEqualTo(this.objectUri.getPath())).withHeader("Authorization",
+        matching("Basic .*")));
+  }
+
+  @Test
+  public void authenticationOffCallerThread() throws InterruptedException, ExecutionException {
+    // authentication may hash the whole body, so it must not hold up the thread calling execute
+    final CountDownLatch signing = new CountDownLatch(1);
+    final Client client = create(new NioClient.Builder().withAuthentication(new HttpAuth() {
+      @Override
+      public AuthenticatedRequest authenticate(final Request request) {
+        Uninterruptibles.awaitUninterruptibly(signing);
+        return new AuthenticatedHttpRequest(request);
+      }
+    }));
+    final Request request =
+        new HttpRequest.Builder(Method.GET, this.objectUri, this.operation).build();
+    final ListenableFuture<Response> future = client.execute(request);
+    assertThat(future.isDone(), is(false));
+    signing.countDown();
+    assertThat(future.get().getStatusCode(), is(200));
+  }
+
+  @Test
+  public void userAgent() throws InterruptedException, ExecutionException {
+    final Client client = create(new NioClient.Builder().withUserAgent("testUserAgent"));
+    final Request request =
+        new HttpRequest.Builder(Method.GET, this.objectUri, this.operation).build();
+    client.execute(request).get();
+    verify(getRequestedFor(urlEqualTo(this.objectUri.getPath())).withHeader("User-Agent",
+        equalTo("testUserAgent")));
+  }
+
+  @Test
+  public void soTimeoutExceeded()
+      throws InterruptedException, ExecutionException, URISyntaxException {
+    final Client client = create(new NioClient.Builder().withSoTimeout(1));
+    final Request request =
+        new HttpRequest.Builder(Method.GET, uri("/slow"), this.operation).build();
+    final Response response = client.execute(request).get();
+
+    assertThat(response.getStatusCode(), is(599));
+  }
+
+  @Test
+  public void requestId() throws InterruptedException, ExecutionException {
+    final Request request = new HttpRequest.Builder(Method.GET, this.objectUri, this.operation)
+        .withContext(Context.X_OG_REQUEST_ID, "1").build();
+    final Response response = this.client.execute(request).get();
+    assertThat(response.getContext(), hasEntry(Context.X_OG_REQUEST_ID, "1"));
+  }
+
+  @Test
+  public void immediateShutdown() throws InterruptedException, ExecutionException {
+    final Request request =
+        new HttpRequest.Builder(Method.GET, this.delayUri, this.operation).build();
+    this.client.execute(request);
+    final long start = System.nanoTime();
+    final int aborted = this.client.shutdown(true, 0).get();
+    final long duration = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start);
+    // immediate shutdown takes less than 10 seconds
+    assertThat(duration, lessThan(10L));
+    assertThat(aborted, is(1));
+  }
+
+  @Test
+  public void gracefulShutdown() throws InterruptedException, ExecutionException {
+    final Request request =
+        new HttpRequest.Builder(Method.GET, this.delayUri, this.operation).build();
+    this.client.execute(request);
+    final long start = System.nanoTime();
+    final int aborted = this.client.shutdown(false, 60).get();
+    final long duration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    // graceful shutdown takes at least request time
+    assertThat(duration, greaterThanOrEqualTo(1000L));
+    assertThat(aborted, is(0));
+  }
+
+  @DataProvider
+  public static Object[][] provideRedirect() throws URISyntaxException {
+    final URI one = uri("/301");
+    final URI three = uri("/307");
+    final Body zeroes = Bodies.zeroes(1000);
+    final Body none = Bodies.none();
+    final String content = new String(new byte[1000]);
+
+    return new Object[][] {{Method.PUT, one, zeroes, content, none, false},
+        {Method.PUT, three, zeroes, content, none, false},
+        {Method.PUT, three, zeroes, content, none, true},
+        {Method.POST, three, zeroes, content, none, false},
+        {Method.GET, one, none, "", zeroes, false}, {Method.GET, three, none, "", zeroes, false},
+        {Method.HEAD, one, none, "", none, false}, {Method.DELETE, one, none, "", none, false},};
+  }
+
+  @Test
+  @UseDataProvider("provideRedirect")
+  public void redirect(final Method method, final URI uri, final Body requestBody,
+      final String requestData, final Body responseBody, final boolean chunkedEncoding)
+      throws InterruptedException, ExecutionException {
+    final Client client =
+        create(new NioClient.Builder().usingChunkedEncoding(chunkedEncoding));
+    final Request request =
+        new HttpRequest.Builder(method, uri, this.operation).withBody(requestBody).build();
+
+    final Response response = client.execute(request).get();
+    assertThat(response.getStatusCode(), is(200));
+    assertThat(response.getBody().getDataType(), is(responseBody.getDataType()));
+    assertThat(response.getBody().getSize(), is(responseBody.getSize()));
+
+    if (!requestData.isEmpty()) {
+      verify(requestedFor(method, uri.getPath()).withRequestBody(equalTo(requestData)));
+      verify(requestedFor(method, "/container/").withRequestBody(equalTo(requestData)));
+    } else {
+      verify(requestedFor(method, uri.getPath()));
+      verify(requestedFor(method, "/container/"));
+    }
+  }
+
+  private RequestPatternBuilder requestedFor(final Method method, final String uri) {
+    return new RequestPatternBuilder(RequestMethod.fromString(method.toString()),
+        urlEqualTo(uri));
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void responseBodyConsumerNullConsumerId() {
+    new NioClient.Builder().withResponseBodyConsumer(null, mock(ResponseBodyConsumer.class))
+        .build();
+  }
+
+  @Test
+  public void responseBodyConsumer() throws InterruptedException, ExecutionException {
+    final Request request = new HttpRequest.Builder(Method.GET, this.objectUri, this.operation)
+        .withContext(Context.X_OG_RESPONSE_BODY_CONSUMER, "consumer").build();
+
+    final Client client = create(
+        new NioClient.Builder().withResponseBodyConsumer("consumer", new ResponseBodyConsumer() {
+          @Override
+          public Map<String, String> consume(final int statusCode, final InputStream response) {
+            return ImmutableMap.of("key", "value");
+          }
+        }));
+
+    final Response response = client.execute(request).get();
+    assertThat(response.getContext(), hasEntry("key", "value"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void zeroMaxConcurrentStreams() {
+    new NioClient.Builder().usingHttp2(true).withMaxConcurrentStreams(0).build();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void zeroConnectionsPerHost() {
+    new NioClient.Builder().usingHttp2(true).withConnectionsPerHost(0).build();
+  }
+
+  @Test
+  @UseDataProvider("provideExecute")
+  public void http2Execute(final Method method, final Body requestBody, final String requestData,
+      final Body responseBody) throws InterruptedException, ExecutionException {
+    final Client client = create(new NioClient.Builder().usingHttp2(true));
+    final Request request = new HttpRequest.Builder(method, this.objectUri, this.operation)
+        .withBody(requestBody).build();
+    final Response response = client.execute(request).get();
+
+    assertThat(response.getStatusCode(), is(200));
+    assertThat(response.getBody().getDataType(), is(responseBody.getDataType()));
+    assertThat(response.getBody().getSize(), is(responseBody.getSize()));
+
+    if (!requestData.isEmpty()) {
+      verify(requestedFor(method, this.objectUri.getPath()).withRequestBody(equalTo(requestData))
+          .withHeader("Content-Length", equalTo(String.valueOf(requestBody.getSize()))));
+    } else {
+      verify(requestedFor(method, this.objectUri.getPath()));
+    }
+    for (final LoggedRequest logged : findAll(requestedFor(method, this.objectUri.getPath()))) {
+      assertThat(logged.getProtocol(), startsWith("HTTP/2"));
+    }
+  }
+
+  @Test
+  public void http2HostHeader() throws InterruptedException, ExecutionException {
+    final Client client = create(new NioClient.Builder().usingHttp2(true));
+    final Request request = new HttpRequest.Builder(Method.POST, this.objectUri, this.operation)
+        .withHeader("Host", "bucket.127.0.0.1:8081").build();
+    final Response response = client.execute(request).get();
+
+    assertThat(response.getStatusCode(), is(200));
+    // the host header is sent as the :authority pseudo header
+    final List<LoggedRequest> logged =
+        findAll(postRequestedFor(urlEqualTo(this.objectUri.getPath())));
+    assertThat(logged.size(), is(1));
+    assertThat(logged.get(0).getHost(), is("bucket.127.0.0.1"));
+  }
+
+  @Test(expected = ExecutionException.class)
+  public void http2InvalidHostHeader() throws InterruptedException, ExecutionException {
+    // an invalid host header fails the returned future rather than throwing from execute
+    final Client client = create(new NioClient.Builder().usingHttp2(true));
+    final Request request = new HttpRequest.Builder(Method.GET, this.objectUri, this.operation)
+        .withHeader("Host", "127.0.0.1:port").build();
+    client.execute(request).get();
+  }
+
+  @Test
+  public void http2MaxConcurrentStreams() throws InterruptedException, ExecutionException {
+    // 2 connections with a single stream each serialize 4 one second requests into two rounds
+    final Client client = create(new NioClient.Builder().usingHttp2(true)
+        .withConnectionsPerHost(2).withMaxConcurrentStreams(1));
+    final List<ListenableFuture<Response>> futures = Lists.newArrayList();
+    final long start = System.nanoTime();
+    for (int i = 0; i < 4; i++) {
+      futures.add(client
+          .execute(new HttpRequest.Builder(Method.GET, this.delayUri, this.operation).build()));
+    }
+    for (final ListenableFuture<Response> future : futures) {
+      assertThat(future.get().getStatusCode(), is(200));
+    }
+    final long duration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    assertThat(duration, greaterThanOrEqualTo(2000L));
+    assertThat(duration, lessThan(3000L));
+  }
+
+  @Test
+  public void http2ImmediateShutdownWithQueuedStreams()
+      throws InterruptedException, ExecutionException {
+    final Client client = new NioClient.Builder().usingHttp2(true).withMaxConcurrentStreams(1)
+        .build();
+    final List<ListenableFuture<Response>> futures = Lists.newArrayList();
+    for (int i = 0; i < 3; i++) {
+      futures.add(client
+          .execute(new HttpRequest.Builder(Method.GET, this.delayUri, this.operation).build()));
+    }
+    final int aborted = client.shutdown(true, 0).get();
+
+    assertThat(aborted, is(3));
+    for (final ListenableFuture<Response> future : futures) {
+      assertThat(future.get().getStatusCode(), is(599));
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNullTrustStoreWithTrustStorePassword() {
+    new NioClient.Builder().withTrustStorePassword("password").build();
+  }
+}
@@ -0,0 +1,108 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.client;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+
+public class StreamLimiterTest {
+  private List<Integer> started;
+  private StreamLimiter limiter;
+
+  @Before
+  public void before() {
+    this.started = Lists.newArrayList();
+    this.limiter = new StreamLimiter(2);
+  }
+
+  private Runnable task(final int id) {
+    return new Runnable() {
+      @Override
+      public void run() {
+        StreamLimiterTest.this.started.add(id);
+      }
+    };
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void zeroMaxStreams() {
+    new StreamLimiter(0);
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void nullTask() {
+    this.limiter.submit(null);
+  }
+
+  @Test
+  public void queuesBeyondLimit() {
+    for (int i = 0; i < 4; i++) {
+      this.limiter.submit(task(i));
+    }
+    assertThat(this.started, contains(0, 1));
+    assertThat(this.limiter.active(), is(2));
+    assertThat(this.limiter.queued(), is(2));
+
+    this.limiter.release();
+    assertThat(this.started, contains(0, 1, 2));
+    assertThat(this.limiter.active(), is(2));
+
+    this.limiter.release();
+    this.limiter.release();
+    this.limiter.release();
+    assertThat(this.started, contains(0, 1, 2, 3));
+    assertThat(this.limiter.active(), is(0));
+    assertThat(this.limiter.queued(), is(0));
+  }
+
+  @Test
+  public void releaseFromStartingTask() {
+    // each queued task fails synchronously, releasing its stream while it is being started
+    final StreamLimiter limiter = new StreamLimiter(1);
+    final int count = 100000;
+    limiter.submit(task(-1));
+    for (int i = 0; i < count; i++) {
+      final int id = i;
+      limiter.submit(new Runnable() {
+        @Override
+        public void run() {
+          StreamLimiterTest.this.started.add(id);
+          limiter.release();
+        }
+      });
+    }
+    limiter.release();
+
+    assertThat(this.started.size(), is(count + 1));
+    assertThat(this.started.get(count), is(count - 1));
+    assertThat(limiter.active(), is(0));
+    assertThat(limiter.queued(), is(0));
+  }
+
+  @Test
+  public void drain() {
+    for (int i = 0; i < 3; i++) {
+      this.limiter.submit(task(i));
+    }
+    final List<Runnable> drained = this.limiter.drain();
+    assertThat(drained.size(), is(1));
+    assertThat(this.limiter.queued(), is(0));
+    assertThat(this.limiter.active(), is(3));
+
+    for (int i = 0; i < 3; i++) {
+      this.limiter.release();
+    }
+    assertThat(this.limiter.active(), is(0));
+  }
+}
@@ -7,11 +7,14 @@ package com.ibm.og.cli;
 
 
 import com.ibm.og.api.Operation;
+import com.ibm.og.api.RequestPhase;
 import com.ibm.og.statistic.Counter;
 import com.ibm.og.statistic.Statistics;
+import org.HdrHistogram.Histogram;
 import org.joda.time.format.DateTimeFormat;
 import org.joda.time.format.DateTimeFormatter;
 
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
@@ -30,6 +33,13 @@ public class IntervalSummary {
     checkArgument(timestampStart <= timestampFinish,
             "timestampStart must be <= timestampFinish [%s, %s]", timestampStart, timestampFinish);
     this.prevStats = new Summary.SummaryOperationStats(stats, timestampStart, timestampFinish);
+    // discard latencies recorded before the first interval
+    for (final Operation operation : Operation.values()) {
+      stats.intervalLatencyHistogram(operation);
+      for (final RequestPhase phase : RequestPhase.values()) {
+        stats.intervalPhaseLatencyHistogram(operation, phase);
+      }
+    }
   }
 
   public Summary.SummaryOperationStats intervalStats(final Statistics stats, final long timestampStart,
@@ -74,8 +84,14 @@ public class IntervalSummary {
       }
     }
 
+    final Map<RequestPhase, Histogram> phaseHistograms = new EnumMap<RequestPhase, Histogram>(RequestPhase.class);
+    for (final RequestPhase phase : RequestPhase.values()) {
+      phaseHistograms.put(phase, stats.intervalPhaseLatencyHistogram(operation, phase));
+    }
+
     OperationStats operationIntervalStat = new OperationStats(operation, operations, bytes, latencies,
-            statusCodes, timestampStart, timestampFinish);
+            stats.intervalLatencyHistogram(operation), phaseHistograms, statusCodes, timestampStart,
+            timestampFinish);
     this.prevStats.setOperation(currentOperationStats);
     return operationIntervalStat;
   }
@@ -0,0 +1,66 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.cli;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.concurrent.TimeUnit;
+
+import org.HdrHistogram.Histogram;
+
+import com.google.gson.annotations.SerializedName;
+
+/**
+ * A json serializable set of latency percentiles, in milliseconds, derived from a latency histogram
+ * 
+ * @since 1.0
+ */
+public class LatencyPercentiles {
+  final double p50;
+  final double p90;
+  final double p99;
+  @SerializedName("p99.9")
+  final double p999;
+  final double max;
+
+  /**
+   * Constructs an instance from a histogram of millisecond values
+   * 
+   * @param histogram the latency histogram to derive percentiles from
+   * @throws NullPointerException if histogram is null
+   */
+  public LatencyPercentiles(final Histogram histogram) {
+    this(histogram, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Constructs an instance
+   * 
+   * @param histogram the latency histogram to derive percentiles from
+   * @param unit the unit of the values recorded in histogram
+   * @throws NullPointerException if histogram or unit is null
+   */
+  public LatencyPercentiles(final Histogram histogram, final TimeUnit unit) {
+    checkNotNull(histogram);
+    checkNotNull(unit);
+    final double unitsPerMilli = unit.convert(1, TimeUnit.MILLISECONDS);
+    this.p50 = toMillis(histogram.getValueAtPercentile(50.0), unitsPerMilli);
+    this.p90 = toMillis(histogram.getValueAtPercentile(90.0), unitsPerMilli);
+    this.p99 = toMillis(histogram.getValueAtPercentile(99.0), unitsPerMilli);
+    this.p999 = toMillis(histogram.getValueAtPercentile(99.9), unitsPerMilli);
+    this.max = toMillis(histogram.getMaxValue(), unitsPerMilli);
+  }
+
+  private static double toMillis(final long value, final double unitsPerMilli) {
+    return Math.round(value / unitsPerMilli * 100.00) / 100.00;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("Latency Percentiles: p50=%s, p90=%s, p99=%s, p99.9=%s, max=%s %s",
+        this.p50, this.p90, this.p99, this.p999, this.max, "ms");
+  }
+}
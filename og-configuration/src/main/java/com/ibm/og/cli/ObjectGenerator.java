@@ -19,13 +19,17 @@ import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.SortedSet;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 
 import com.google.common.base.Function;
 import com.google.inject.name.Named;
 import com.ibm.og.guice.*;
+import com.ibm.og.api.ChecksumType;
+import com.ibm.og.api.DataType;
 import com.ibm.og.guice.annotation.SelectSuffixMap;
+import com.ibm.og.http.DigestCaches;
 import com.ibm.og.json.OGConfig;
 import com.ibm.og.json.type.FilesizeConfigTypeAdapterFactory;
 import com.ibm.og.test.condition.LoadTestResult;
@@ -42,9 +46,12 @@ import com.ibm.og.util.json.type.TimeUnitTypeAdapter;
 import com.ibm.og.util.json.type.CaseInsensitiveEnumTypeAdapterFactory;
 import com.ibm.og.object.ObjectManager;
 import com.ibm.og.statistic.Statistics;
+import com.ibm.og.test.CompletionDispatcher;
+import com.ibm.og.test.CompletionPipeline;
 import com.ibm.og.test.LoadTest;
 import com.ibm.og.util.SizeUnit;
 import com.ibm.og.util.Version;
+import com.google.common.base.Stopwatch;
 import com.google.common.collect.Sets;
 import com.google.common.util.concurrent.Uninterruptibles;
 import com.google.common.collect.ImmutableList;
@@ -58,6 +65,9 @@ import com.google.inject.spi.Message;
 import com.google.inject.CreationException;
 import com.google.inject.Guice;
 import com.google.inject.Injector;
+import com.google.inject.Key;
+import com.google.inject.TypeLiteral;
+import com.google.inject.name.Names;
 import com.google.inject.ConfigurationException;
 import com.google.inject.ProvisionException;
 import com.google.inject.Stage;
@@ -85,6 +95,7 @@ public class ObjectGenerator {
   private static ObjectManager objectManager;
   private static SelectOperationSharedDataModule selectOperationSharedDataModule;
   private static Statistics statistics;
+  private static CompletionDispatcher dispatcher;
   private static OGConfig ogConfig;
   private static Thread statsLogger;
 
@@ -218,16 +229,47 @@ public class ObjectGenerator {
       throw new RuntimeException("Both shutdownImmediate and abortMpuWhenStopping cannot be true at the same time");
     }
 
+    if (ogConfig.data == DataType.REDUCIBLE) {
+      _consoleLogger.info("Data reduction: compression {}:1, dedupe {}:1, block size {} bytes",
+          ogConfig.dataReduction.compressionRatio, ogConfig.dataReduction.dedupeRatio,
+          ogConfig.dataReduction.blockSize);
+    }
+
     // dependency injection
     injector = createInjector(ogConfig);
     test = injector.getInstance(LoadTest.class);
     objectManager = injector.getInstance(ObjectManager.class);
     statistics = injector.getInstance(Statistics.class);
+    dispatcher = injector.getInstance(CompletionDispatcher.class);
     SelectOperationSharedDataModule.SuffixManager sm = injector.getInstance(SelectOperationSharedDataModule.SuffixManager.class);
     sm.initMap();
     sm.initSelectBodyContent();
     SelectOperationSharedDataModule.FileBodies fileBodies = injector.getInstance(SelectOperationSharedDataModule.FileBodies.class);
     fileBodies.createFileBodies(ogConfig.writeSelectObject);
+    if (ogConfig.digest.precompute) {
+      precomputeDigests(ogConfig, injector);
+    }
+  }
+
+  private static void precomputeDigests(final OGConfig ogConfig, final Injector injector) {
+    final Set<ChecksumType> types = injector.getInstance(
+        Key.get(new TypeLiteral<Set<ChecksumType>>() {}, Names.named("digest.types")));
+    final SortedSet<Long> sizes = injector.getInstance(
+        Key.get(new TypeLiteral<SortedSet<Long>>() {}, Names.named("digest.sizes")));
+    if (types.isEmpty() || sizes.isEmpty()) {
+      return;
+    }
+    final int algorithmThreads = ogConfig.digest.algorithmThreads > 0
+        ? ogConfig.digest.algorithmThreads : Runtime.getRuntime().availableProcessors();
+    _consoleLogger.info("Precomputing {} digests for {} sizes...", types, sizes.size());
+    final Stopwatch stopwatch = Stopwatch.createStarted();
+    try {
+      injector.getInstance(DigestCaches.class).precompute(types, sizes, algorithmThreads);
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Interrupted while precomputing digests", e);
+    }
+    _consoleLogger.info("Precomputed digests in {} ms", stopwatch.elapsed(TimeUnit.MILLISECONDS));
   }
 
 
@@ -415,6 +457,9 @@ public class ObjectGenerator {
           Summary.SummaryOperationStats istats = intervalSummary.intervalStats(statistics, timestampIntervalStart, timestampStop);
           dumpSummaryStats(gson, istats, timestampStart, timestampStop, Application.TEST_SUCCESS);
           timestampIntervalStart = System.currentTimeMillis();
+          if (dispatcher instanceof CompletionPipeline) {
+            _logger.info("Completion pipeline {}", ((CompletionPipeline) dispatcher).metrics());
+          }
         }
         try {
           Thread.sleep(ogConfig.statsLogInterval * 1000);
@@ -6,12 +6,15 @@
 package com.ibm.og.cli;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSortedMap;
 import com.ibm.og.api.Operation;
+import com.ibm.og.api.RequestPhase;
 import com.ibm.og.statistic.Counter;
 import com.ibm.og.statistic.Statistics;
 import com.ibm.og.util.Pair;
 import com.ibm.og.util.SizeUnit;
+import org.HdrHistogram.Histogram;
 
 import java.util.List;
 import java.util.Map;
@@ -24,6 +27,8 @@ public class OperationStats {
   final long bytes;
   final transient long latencies;
   double averageLatency = 0.0;
+  final LatencyPercentiles latencyPercentiles;
+  final Map<String, LatencyPercentiles> phasePercentiles;
   final Map<Integer, Long> statusCodes;
   transient double  runtime;
 
@@ -32,6 +37,13 @@ public class OperationStats {
     this.operations = stats.get(operation, Counter.OPERATIONS);
     this.bytes = stats.get(operation, Counter.BYTES);
     this.latencies = stats.get(operation, Counter.LATENCY);
+    this.latencyPercentiles = new LatencyPercentiles(stats.latencyHistogram(operation));
+    final ImmutableMap.Builder<String, LatencyPercentiles> phases = ImmutableMap.builder();
+    for (final RequestPhase phase : RequestPhase.values()) {
+      phases.put(phaseName(phase), new LatencyPercentiles(stats.phaseLatencyHistogram(operation, phase),
+              TimeUnit.MICROSECONDS));
+    }
+    this.phasePercentiles = phases.build();
     this.statusCodes = ImmutableSortedMap.copyOf(stats.statusCodes(operation));
     this.runtime = ((double) (timestampFinish - timestampStart)) / TimeUnit.SECONDS.toMillis(1);
     if (this.operations > 0) {
@@ -40,11 +52,18 @@ public class OperationStats {
   }
 
   public OperationStats(final Operation operation, final long operations, final long bytes, final long latencies,
+                        final Histogram latencyHistogram, final Map<RequestPhase, Histogram> phaseHistograms,
                         final Map<Integer, Long> statusCodes, long timestampStart, long timestampFinish) {
     this.operation = operation;
     this.operations = operations;
     this.bytes = bytes;
     this.latencies = latencies;
+    this.latencyPercentiles = new LatencyPercentiles(latencyHistogram);
+    final ImmutableMap.Builder<String, LatencyPercentiles> phases = ImmutableMap.builder();
+    for (final Map.Entry<RequestPhase, Histogram> phase : phaseHistograms.entrySet()) {
+      phases.put(phaseName(phase.getKey()), new LatencyPercentiles(phase.getValue(), TimeUnit.MICROSECONDS));
+    }
+    this.phasePercentiles = phases.build();
     this.statusCodes = ImmutableSortedMap.copyOf(statusCodes);
     if (this.operations > 0) {
       double average = (double) this.latencies / this.operations;
@@ -53,12 +72,17 @@ public class OperationStats {
     this.runtime = ((double) (timestampFinish - timestampStart)) / TimeUnit.SECONDS.toMillis(1);
   }
 
+  // json key for a phase, e.g. request_content
+  private static String phaseName(final RequestPhase phase) {
+    return phase.toString().toLowerCase();
+  }
+
   @Override
   public String toString() {
     return String.format(
-            "[%s]%n" + "Operations: %s%n" + "%s%n" + "%s%n" + "%s%n" + "%s%n" +  "Status Codes:%n%s%n",
+            "[%s]%n" + "Operations: %s%n" + "%s%n" + "%s%n" + "%s%n" + "%s%n" + "%s%n" +  "Status Codes:%n%s%n",
             this.operation, this.operations, formatBytes(), formatThroughput(), formatOPS(), formatAverageLatency(),
-            formatStatusCodes());
+            this.latencyPercentiles, formatStatusCodes());
   }
 
   // determine whether to display byte total in gb, mb, kb or bytes
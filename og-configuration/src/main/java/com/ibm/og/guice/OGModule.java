@@ -9,13 +9,19 @@ package com.ibm.og.guice;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.io.BufferedReader;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.Map.Entry;
 
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
 
 import javax.annotation.Nullable;
 import javax.inject.Named;
@@ -34,6 +40,7 @@ import com.google.common.collect.Sets;
 import com.google.common.eventbus.EventBus;
 import com.google.common.hash.Hashing;
 import com.google.common.io.BaseEncoding;
+import com.google.common.math.DoubleMath;
 import com.google.inject.AbstractModule;
 import com.google.inject.Provider;
 import com.google.inject.Provides;
@@ -47,17 +54,21 @@ import com.ibm.og.api.AuthType;
 import com.ibm.og.api.Body;
 import com.ibm.og.api.BodySource;
 import com.ibm.og.api.ChecksumType;
+import com.ibm.og.api.CompletionListener;
 import com.ibm.og.api.Client;
 import com.ibm.og.api.DataType;
 import com.ibm.og.api.Method;
 import com.ibm.og.api.Operation;
 import com.ibm.og.api.Request;
 import com.ibm.og.client.ApacheClient;
+import com.ibm.og.client.NioClient;
 import com.ibm.og.guice.annotation.*;
 import com.ibm.og.http.Api;
 import com.ibm.og.http.BasicAuth;
 import com.ibm.og.http.Bodies;
 import com.ibm.og.http.Credential;
+import com.ibm.og.http.DigestCaches;
+import com.ibm.og.http.FileCorpus;
 import com.ibm.og.http.Headers;
 import com.ibm.og.http.HttpAuth;
 import com.ibm.og.http.HttpUtil;
@@ -78,18 +89,30 @@ import com.ibm.og.s3.v4.AWSV4Auth;
 import com.ibm.og.scheduling.ConcurrentRequestScheduler;
 import com.ibm.og.scheduling.RequestRateScheduler;
 import com.ibm.og.scheduling.PoissonRequestRateScheduler;
+import com.ibm.og.scheduling.RateProfile;
 import com.ibm.og.scheduling.Scheduler;
+import com.ibm.og.scheduling.TraceScheduler;
+import com.ibm.og.scheduling.VariableRequestRateScheduler;
+import com.ibm.og.scheduling.trace.CsvTraceReader;
+import com.ibm.og.scheduling.trace.OrderedTraceReader;
+import com.ibm.og.scheduling.trace.RequestLogTraceReader;
+import com.ibm.og.scheduling.trace.TraceEntry;
+import com.ibm.og.scheduling.trace.TraceReader;
 import com.ibm.og.soh.SOHWriteResponseBodyConsumer;
 import com.ibm.og.statistic.Counter;
 import com.ibm.og.statistic.Statistics;
 import com.ibm.og.supplier.*;
+import com.ibm.og.test.CompletionDispatcher;
+import com.ibm.og.test.CompletionPipeline;
 import com.ibm.og.test.LoadTest;
 import com.ibm.og.test.LoadTestSubscriberExceptionHandler;
 import com.ibm.og.test.RequestManager;
 import com.ibm.og.test.SimpleRequestManager;
+import com.ibm.og.test.TraceRequestManager;
 import com.ibm.og.test.condition.ConcurrentRequestCondition;
 import com.ibm.og.test.condition.CounterCondition;
 import com.ibm.og.test.condition.RuntimeCondition;
+import com.ibm.og.test.condition.SaturationCondition;
 import com.ibm.og.test.condition.StatusCodeCondition;
 import com.ibm.og.test.condition.TestCondition;
 import com.ibm.og.util.Context;
@@ -114,6 +137,9 @@ public class OGModule extends AbstractModule {
   private static final String S3_MULTI_DELETE = "s3.multi_delete";
   private final LoadTestSubscriberExceptionHandler handler;
   private final EventBus eventBus;
+  private final CompletionDispatcher dispatcher;
+  // created when the module is configured, shared by every request supplier
+  private DigestCaches digestCaches;
   final byte[] aesKey = SSECustomerKey();
 
   /**
@@ -126,6 +152,11 @@ public class OGModule extends AbstractModule {
     this.config = checkNotNull(config);
     this.handler = new LoadTestSubscriberExceptionHandler();
     this.eventBus = new EventBus(this.handler);
+    if (this.config.completionBufferSize > 0) {
+      this.dispatcher = new CompletionPipeline(this.handler, this.config.completionBufferSize);
+    } else {
+      this.dispatcher = new CompletionDispatcher(this.handler);
+    }
   }
 
   @Override
@@ -144,6 +175,8 @@ public class OGModule extends AbstractModule {
         .to(this.config.write.sseCDestination);
     bindConstant().annotatedWith(Names.named("write.contentMd5")).to(this.config.write.contentMd5);
     bind(ChecksumType.class).annotatedWith(Names.named("write.checksumType")).toInstance(this.config.write.checksumType);
+    bindConstant().annotatedWith(Names.named("write.trailingChecksum"))
+        .to(this.config.write.trailingChecksum);
     bindConstant().annotatedWith(Names.named("overwrite.weight")).to(this.config.overwrite.weight);
     bindConstant().annotatedWith(Names.named("overwrite.sseCDestination"))
         .to(this.config.overwrite.sseCDestination);
@@ -151,6 +184,8 @@ public class OGModule extends AbstractModule {
         .to(this.config.overwrite.contentMd5);
     bind(ChecksumType.class).annotatedWith(Names.named("overwrite.checksumType"))
             .toInstance(this.config.overwrite.checksumType);
+    bindConstant().annotatedWith(Names.named("overwrite.trailingChecksum"))
+        .to(this.config.overwrite.trailingChecksum);
     bindConstant().annotatedWith(Names.named("read.weight")).to(this.config.read.weight);
     bindConstant().annotatedWith(Names.named("read.sseCSource")).to(this.config.read.sseCSource);
     bindConstant().annotatedWith(Names.named("metadata.weight")).to(this.config.metadata.weight);
@@ -207,8 +242,18 @@ public class OGModule extends AbstractModule {
         .toProvider(Providers.of(this.config.authentication.keystoneToken));
     bindConstant().annotatedWith(Names.named("authentication.awsChunked"))
         .to(this.config.authentication.awsChunked);
+    bindConstant().annotatedWith(Names.named("authentication.awsChunkSize"))
+        .to(this.config.authentication.awsChunkSize);
     bindConstant().annotatedWith(Names.named("authentication.awsCacheSize"))
         .to(this.config.authentication.awsCacheSize);
+    bindConstant().annotatedWith(Names.named("authentication.awsUnsignedPayload"))
+        .to(this.config.authentication.awsUnsignedPayload);
+    bindConstant().annotatedWith(Names.named("authentication.awsPresigned"))
+        .to(this.config.authentication.awsPresigned);
+    bindConstant().annotatedWith(Names.named("authentication.awsPresignedExpiration"))
+        .to(this.config.authentication.awsPresignedExpiration);
+    bindConstant().annotatedWith(Names.named("authentication.awsPresignedCacheSize"))
+        .to(this.config.authentication.awsPresignedCacheSize);
     bindConstant().annotatedWith(Names.named("objectRestore.weight")).to(this.config.objectRestore.weight);
     bindConstant().annotatedWith(Names.named("putContainerLifecycle.weight")).to(this.config.putContainerLifecycle.weight);
     bindConstant().annotatedWith(Names.named("getContainerLifecycle.weight")).to(this.config.getContainerLifecycle.weight);
@@ -234,6 +279,8 @@ public class OGModule extends AbstractModule {
     bind(FailingConditionsConfig.class).toInstance(this.config.failingConditions);
     bindConstant().annotatedWith(Names.named("abortMpuWhenStopping")).to(this.config.abortMpuWhenStopping);
     bindConstant().annotatedWith(Names.named("shutdownImmediate")).to(this.config.shutdownImmediate);
+    bindConstant().annotatedWith(Names.named("virtualThreads")).to(this.config.virtualThreads);
+    bindConstant().annotatedWith(Names.named("producerThreads")).to(this.config.producerThreads);
     bindConstant().annotatedWith(Names.named("shutdownTimeout")).to(this.config.shutdownTimeout);
     bindConstant().annotatedWith(Names.named("statsLogInterval"))
             .to(this.config.statsLogInterval);
@@ -255,9 +302,16 @@ public class OGModule extends AbstractModule {
     responseBodyConsumers.addBinding(S3_LIST).to(S3ListResponseBodyConsumer.class);
     responseBodyConsumers.addBinding(S3_MULTI_DELETE).to(MultiDeleteResponseBodyConsumer.class);
 
-    bind(RequestManager.class).to(SimpleRequestManager.class);
+    if (isTrace()) {
+      bind(RequestManager.class).to(TraceRequestManager.class);
+    } else {
+      bind(RequestManager.class).to(SimpleRequestManager.class);
+    }
     bind(LoadTest.class).in(Singleton.class);
     bind(EventBus.class).toInstance(this.eventBus);
+    bind(CompletionDispatcher.class).toInstance(this.dispatcher);
+    this.digestCaches = new DigestCaches(this.config.digest.cacheSize);
+    bind(DigestCaches.class).toInstance(this.digestCaches);
     bind(Statistics.class).in(Singleton.class);
     bind(ObjectManager.class).to(RandomObjectPopulator.class).in(Singleton.class);
     bindListener(Matchers.any(), new ProvisionListener() {
@@ -271,6 +325,10 @@ public class OGModule extends AbstractModule {
         if (instance != null) {
           OGModule.this.eventBus.register(instance);
         }
+        // completed operations are dispatched directly to listeners rather than via the event bus
+        if (instance instanceof CompletionListener) {
+          OGModule.this.dispatcher.register((CompletionListener) instance);
+        }
         if (instance instanceof LoadTest) {
           // register LoadTest with the event bus' exception handler
           OGModule.this.handler.setLoadTest((LoadTest) instance);
@@ -282,9 +340,10 @@ public class OGModule extends AbstractModule {
   @Provides
   @Singleton
   public List<TestCondition> provideTestConditions(final LoadTest test, final EventBus eventBus,
-      final Statistics stats, final ConcurrencyConfig concurrency,
+      final CompletionDispatcher dispatcher, final Statistics stats, final ConcurrencyConfig concurrency,
       final StoppingConditionsConfig stoppingConditionsConfig,
-      final FailingConditionsConfig failingConditionsConfig) {
+      final FailingConditionsConfig failingConditionsConfig,
+      @Nullable final VariableRequestRateScheduler saturationScheduler) {
     checkNotNull(test);
     checkNotNull(stats);
     // Stopping conditions
@@ -360,8 +419,22 @@ public class OGModule extends AbstractModule {
           failingConditionsConfig.concurrentRequests, test, stats, true));
     }
 
+    // a saturation search stops the test once it has found the knee
+    if (concurrency.type == ConcurrencyType.SATURATION) {
+      final SaturationConfig saturation =
+          checkNotNull(concurrency.saturation, "concurrency saturation must not be null");
+      final double maxRate = saturation.maxRate != null ? saturation.maxRate : Double.MAX_VALUE;
+      conditions.add(new SaturationCondition(test, checkNotNull(saturationScheduler),
+          saturation.percentile, saturation.latency, saturation.latencyUnit, saturation.errorRate,
+          saturation.minRate, maxRate, saturation.precision, saturation.stepDuration,
+          saturation.stepDurationUnit));
+    }
+
     for (final TestCondition condition : conditions) {
       eventBus.register(condition);
+      if (condition instanceof CompletionListener) {
+        dispatcher.register((CompletionListener) condition);
+      }
     }
 
     return conditions;
@@ -1233,7 +1306,7 @@ public class OGModule extends AbstractModule {
   @Provides
   @Singleton
   public List<AbstractObjectNameConsumer> provideObjectNameConsumers(
-      final ObjectManager objectManager, final EventBus eventBus) {
+      final ObjectManager objectManager, final CompletionDispatcher dispatcher) {
     final Set<Integer> sc = HttpUtil.SUCCESS_STATUS_CODES;
     final List<AbstractObjectNameConsumer> consumers = Lists.newArrayList();
     consumers.add(new WriteObjectNameConsumer(objectManager, sc));
@@ -1267,7 +1340,7 @@ public class OGModule extends AbstractModule {
     consumers.add(new WriteSelectObjectNameConsumer(objectManager, sc));
 
     for (final AbstractObjectNameConsumer consumer : consumers) {
-      eventBus.register(consumer);
+      dispatcher.register(consumer);
     }
     return consumers;
   }
@@ -1509,7 +1582,11 @@ public class OGModule extends AbstractModule {
   @Provides
   @Singleton
   @Named("write.context")
-  public List<Function<Map<String, String>, String>> provideWriteContext(final Api api) {
+  public List<Function<Map<String, String>, String>> provideWriteContext(final Api api,
+      @Nullable final TraceScheduler trace) {
+    if (trace != null) {
+      return ImmutableList.of(createTraceContext(trace));
+    }
     final List<Function<Map<String, String>, String>> context = Lists.newArrayList();
 
     final OperationConfig operationConfig = checkNotNull(this.config.write);
@@ -1602,7 +1679,11 @@ public class OGModule extends AbstractModule {
   @Provides
   @Singleton
   @Named("overwrite.context")
-  public List<Function<Map<String, String>, String>> provideOverwriteContext(final ObjectManager objectManager) {
+  public List<Function<Map<String, String>, String>> provideOverwriteContext(
+      final ObjectManager objectManager, @Nullable final TraceScheduler trace) {
+    if (trace != null) {
+      return ImmutableList.of(createTraceContext(trace));
+    }
 
     // Delete the object so we know no other threads will be using it
     final List<Function<Map<String, String>, String>> context = Lists.newArrayList();
@@ -1623,7 +1704,10 @@ public class OGModule extends AbstractModule {
   @Singleton
   @Named("read.context")
   public List<Function<Map<String, String>, String>> provideReadContext(
-      final ObjectManager objectManager) {
+      final ObjectManager objectManager, @Nullable final TraceScheduler trace) {
+    if (trace != null) {
+      return ImmutableList.of(createTraceContext(trace));
+    }
     Function<Map<String, String>, String> function;
 
     final OperationConfig operationConfig = checkNotNull(this.config.read);
@@ -2006,7 +2090,10 @@ public class OGModule extends AbstractModule {
   @Singleton
   @Named("metadata.context")
   public List<Function<Map<String, String>, String>> provideMetadataContext(
-      final ObjectManager objectManager) {
+      final ObjectManager objectManager, @Nullable final TraceScheduler trace) {
+    if (trace != null) {
+      return ImmutableList.of(createTraceContext(trace));
+    }
     Function<Map<String, String>, String> function;
 
     final OperationConfig operationConfig = checkNotNull(this.config.metadata);
@@ -2029,7 +2116,10 @@ public class OGModule extends AbstractModule {
   @Singleton
   @Named("delete.context")
   public List<Function<Map<String, String>, String>> provideDeleteContext(
-      final ObjectManager objectManager) {
+      final ObjectManager objectManager, @Nullable final TraceScheduler trace) {
+    if (trace != null) {
+      return ImmutableList.of(createTraceContext(trace));
+    }
     Function<Map<String, String>, String> function;
 
     final OperationConfig operationConfig = checkNotNull(this.config.delete);
@@ -2997,7 +3087,14 @@ public class OGModule extends AbstractModule {
   @Provides
   @Singleton
   @WriteBody
-  public Function<Map<String, String>, Body> provideWriteBody() {
+  public Function<Map<String, String>, Body> provideWriteBody() throws IOException {
+    if (isTrace()) {
+      // replayed writes are sized by the trace
+      return createBodySupplier();
+    }
+    if (DataType.FILE == this.config.data) {
+      return createCorpusBodySupplier(this.config.corpus);
+    }
     final SelectionConfig<FilesizeConfig> filesize = this.config.write.filesize;
     if (filesize != null) {
       return createBodySupplier(filesize);
@@ -3009,9 +3106,11 @@ public class OGModule extends AbstractModule {
   @Provides
   @Singleton
   @OverwriteBody
-  public Function<Map<String, String>, Body> provideOverwriteBody() {
-    if (this.config.overwrite.body == BodySource.EXISTING) {
+  public Function<Map<String, String>, Body> provideOverwriteBody() throws IOException {
+    if (this.config.overwrite.body == BodySource.EXISTING || isTrace()) {
       return createBodySupplier();
+    } else if (DataType.FILE == this.config.data) {
+      return createCorpusBodySupplier(this.config.corpus);
     } else {
       final SelectionConfig<FilesizeConfig> filesize = this.config.overwrite.filesize;
       if (filesize != null) {
@@ -3144,10 +3243,121 @@ public class OGModule extends AbstractModule {
     }
   }
 
+  /**
+   * Provides the checksum types whose values for zero filled bodies are added to requests by
+   * operations which are enabled, and so may be precomputed
+   */
+  @Provides
+  @Singleton
+  @Named("digest.types")
+  public Set<ChecksumType> provideDigestTypes() {
+    final Set<ChecksumType> types = EnumSet.noneOf(ChecksumType.class);
+    if (this.config.write.weight > 0.0) {
+      addDigestTypes(types, this.config.write, true);
+    }
+    if (this.config.overwrite.weight > 0.0) {
+      // overwrites send Content-MD5 but not checksum headers
+      addDigestTypes(types, this.config.overwrite, false);
+    }
+    if (this.config.multipartWrite.weight > 0.0) {
+      addDigestTypes(types, this.config.multipartWrite, true);
+    }
+    return types;
+  }
+
+  private static void addDigestTypes(final Set<ChecksumType> types,
+      final OperationConfig operationConfig, final boolean checksum) {
+    if (operationConfig.contentMd5) {
+      types.add(ChecksumType.MD5);
+    }
+    if (checksum && operationConfig.checksumType != ChecksumType.NONE
+        && !operationConfig.trailingChecksum) {
+      types.add(operationConfig.checksumType);
+    }
+  }
+
+  /**
+   * Provides the body sizes whose digests are precomputed: every size that the configured filesize
+   * and part size distributions of enabled operations can produce, or if there are more sizes than
+   * the digest cache can hold, the sizes nearest to the average of each distribution
+   */
+  @Provides
+  @Singleton
+  @Named("digest.sizes")
+  public SortedSet<Long> provideDigestSizes() {
+    final List<long[]> ranges = Lists.newArrayList();
+    if (this.config.write.weight > 0.0) {
+      addFilesizeRanges(ranges, this.config.write.filesize);
+    }
+    if (this.config.overwrite.weight > 0.0) {
+      addFilesizeRanges(ranges, this.config.overwrite.filesize);
+    }
+    if (this.config.multipartWrite.weight > 0.0) {
+      final SelectionConfig<Long> partSize = this.config.multipartWrite.upload.partSize;
+      if (partSize != null && !partSize.choices.isEmpty()) {
+        for (final ChoiceConfig<Long> choice : partSize.choices) {
+          ranges.add(new long[] {choice.choice, choice.choice, choice.choice});
+        }
+      } else {
+        ranges.add(new long[] {5242880L, 5242880L, 5242880L});
+      }
+    }
+
+    // widen each range outward from its center, one size at a time, until the cache is full
+    final SortedSet<Long> sizes = new TreeSet<Long>();
+    final long cacheSize = this.config.digest.cacheSize;
+    for (long distance = 0; sizes.size() < cacheSize; distance++) {
+      boolean added = false;
+      for (final long[] range : ranges) {
+        if (range[2] - distance >= range[0] && sizes.size() < cacheSize) {
+          sizes.add(range[2] - distance);
+          added = true;
+        }
+        if (range[2] + distance <= range[1] && sizes.size() < cacheSize) {
+          sizes.add(range[2] + distance);
+          added = true;
+        }
+      }
+      if (!added) {
+        break;
+      }
+    }
+    return sizes;
+  }
+
+  // adds the [min, max, average] sizes of each filesize choice
+  private void addFilesizeRanges(final List<long[]> ranges,
+      final SelectionConfig<FilesizeConfig> operationFilesize) {
+    final SelectionConfig<FilesizeConfig> filesize =
+        operationFilesize != null ? operationFilesize : this.config.filesize;
+    if (filesize == null) {
+      return;
+    }
+    for (final ChoiceConfig<FilesizeConfig> choice : filesize.choices) {
+      final FilesizeConfig f = choice.choice;
+      final double average = f.average * f.averageUnit.toBytes(1);
+      final double spread = f.spread * f.spreadUnit.toBytes(1);
+      final double width;
+      if (DoubleMath.fuzzyEquals(spread, 0.0, 0.000001)) {
+        width = 0.0;
+      } else if (f.distribution == DistributionType.UNIFORM) {
+        width = spread;
+      } else if (f.distribution == DistributionType.NORMAL) {
+        width = 3 * spread;
+      } else {
+        // lognormal sizes are not bounded; their digests are computed on demand
+        continue;
+      }
+      ranges.add(new long[] {(long) Math.max(0.0, average - width), (long) (average + width),
+          (long) average});
+    }
+  }
+
   private Function<Map<String, String>, Body> createBodySupplier(
       final Supplier<Distribution> distributionSupplier) {
     final DataType data = checkNotNull(this.config.data);
     checkArgument(DataType.NONE != data, "Unacceptable data [%s]", data);
+    final DataReductionConfig reduction = createDataReduction(data);
 
     final Supplier<Body> bodySupplier = new Supplier<Body>() {
       @Override
@@ -3157,6 +3367,11 @@ public class OGModule extends AbstractModule {
         switch (data) {
           case ZEROES:
             return Bodies.zeroes(sample);
+          case ENTROPY:
+            return Bodies.entropy(sample);
+          case REDUCIBLE:
+            return Bodies.reducible(sample, reduction.compressionRatio, reduction.dedupeRatio,
+                reduction.blockSize);
           default:
             return Bodies.random(sample);
         }
@@ -3166,6 +3381,84 @@ public class OGModule extends AbstractModule {
     return MoreFunctions.forSupplier(bodySupplier);
   }
 
+  private Function<Map<String, String>, Body> createCorpusBodySupplier(
+      final SelectionConfig<CorpusConfig> corpusConfig) throws IOException {
+    checkNotNull(corpusConfig, "corpus must not be null when data is file");
+    final SelectionType corpusSelection = checkNotNull(corpusConfig.selection);
+    final List<ChoiceConfig<CorpusConfig>> corpora = checkNotNull(corpusConfig.choices);
+    checkArgument(!corpora.isEmpty(), "corpus must not be empty");
+
+    final Supplier<Supplier<Body>> corpusSupplier;
+    if (SelectionType.ROUNDROBIN == corpusSelection) {
+      final List<Supplier<Body>> bodySuppliers = Lists.newArrayList();
+      for (final ChoiceConfig<CorpusConfig> choice : corpora) {
+        bodySuppliers.add(createCorpusBodySupplier(choice.choice));
+      }
+      corpusSupplier = Suppliers.cycle(bodySuppliers);
+    } else {
+      final RandomSupplier.Builder<Supplier<Body>> wrc = Suppliers.random();
+      for (final ChoiceConfig<CorpusConfig> c : corpora) {
+        wrc.withChoice(createCorpusBodySupplier(c.choice), c.weight);
+      }
+      corpusSupplier = wrc.build();
+    }
+
+    return MoreFunctions.forSupplier(new Supplier<Body>() {
+      @Override
+      public Body get() {
+        return corpusSupplier.get().get();
+      }
+    });
+  }
+
+  private Supplier<Body> createCorpusBodySupplier(final CorpusConfig config) throws IOException {
+    checkNotNull(config);
+    final String directory = checkNotNull(config.directory, "corpus directory must not be null");
+    final SelectionType selection = checkNotNull(config.selection);
+    final FileCorpus corpus =
+        new FileCorpus(new File(directory), config.pattern, config.maxMappedFiles);
+
+    final Supplier<Long> indexes;
+    if (SelectionType.ROUNDROBIN == selection) {
+      checkArgument(!config.sizeWeighted, "size_weighted requires random corpus selection");
+      indexes = Suppliers.cycle(0, corpus.size() - 1);
+    } else if (config.sizeWeighted) {
+      final Supplier<Long> offsets = Suppliers.random(0, corpus.getTotalSize() - 1);
+      indexes = new Supplier<Long>() {
+        @Override
+        public Long get() {
+          return (long) corpus.indexOf(offsets.get());
+        }
+      };
+    } else {
+      indexes = Suppliers.random(0, corpus.size() - 1);
+    }
+
+    return new Supplier<Body>() {
+      @Override
+      public Body get() {
+        return corpus.get(indexes.get().intValue());
+      }
+
+      @Override
+      public String toString() {
+        return corpus.toString();
+      }
+    };
+  }
+
+  private DataReductionConfig createDataReduction(final DataType data) {
+    final DataReductionConfig reduction = checkNotNull(this.config.dataReduction);
+    if (DataType.REDUCIBLE == data) {
+      checkArgument(reduction.compressionRatio >= 1.0, "compression_ratio must be >= 1.0 [%s]",
+          reduction.compressionRatio);
+      checkArgument(reduction.dedupeRatio >= 1.0, "dedupe_ratio must be >= 1.0 [%s]",
+          reduction.dedupeRatio);
+      checkArgument(reduction.blockSize > 0, "block_size must be > 0 [%s]", reduction.blockSize);
+    }
+    return reduction;
+  }
+
   private Supplier<Long> createRangeSupplier(
           final Supplier<Distribution> distributionSupplier) {
 
@@ -3179,9 +3472,15 @@ public class OGModule extends AbstractModule {
     return rangeSupplier;
   }
 
+  private boolean isTrace() {
+    return this.config.concurrency != null
+        && this.config.concurrency.type == ConcurrencyType.TRACE;
+  }
+
   private Function<Map<String, String>, Body> createBodySupplier() {
     final DataType data = checkNotNull(this.config.data);
     checkArgument(DataType.NONE != data, "Unacceptable data [%s]", data);
+    final DataReductionConfig reduction = createDataReduction(data);
 
     final Function<Map<String, String>, Body> function = new Function<Map<String, String>, Body>() {
       @Override
@@ -3190,6 +3489,11 @@ public class OGModule extends AbstractModule {
         switch (data) {
           case ZEROES:
             return Bodies.zeroes(Long.parseLong(size));
+          case ENTROPY:
+            return Bodies.entropy(Long.parseLong(size));
+          case REDUCIBLE:
+            return Bodies.reducible(Long.parseLong(size), reduction.compressionRatio,
+                reduction.dedupeRatio, reduction.blockSize);
           default:
             return Bodies.random(Long.parseLong(size));
         }
@@ -3253,6 +3557,22 @@ public class OGModule extends AbstractModule {
     return checkNotNull(this.config.objectManager).objectFileIndex;
   }
 
+  @Provides
+  @Singleton
+  @Named("objectfile.offheap")
+  public boolean provideObjectFileOffHeap() {
+    return checkNotNull(this.config.objectManager).offHeap;
+  }
+
+  @Provides
+  @Singleton
+  @Named("objectfile.journalflushinterval")
+  public long provideObjectFileJournalFlushInterval() {
+    final long interval = checkNotNull(this.config.objectManager).objectFileJournalFlushInterval;
+    checkArgument(interval > 0, "objectFileJournalFlushInterval must be > 0 [%s]", interval);
+    return interval;
+  }
+
 
   private byte[] SSECustomerKey() {
     final byte[] aesKey = new byte[32];
@@ -3311,9 +3631,20 @@ public class OGModule extends AbstractModule {
 
   @Provides
   @Singleton
-  public Scheduler provideScheduler(final ConcurrencyConfig concurrency, final EventBus eventBus) throws Exception {
+  public Scheduler provideScheduler(final ConcurrencyConfig concurrency, final EventBus eventBus,
+      @Nullable final TraceScheduler trace,
+      @Nullable final VariableRequestRateScheduler saturation) throws Exception {
     final ConcurrencyType type =
         checkNotNull(concurrency.type, "concurrency type must not be null");
+    if (type == ConcurrencyType.TRACE) {
+      return trace;
+    }
+    if (type == ConcurrencyType.SATURATION) {
+      return saturation;
+    }
+    if (concurrency.profile != null && !concurrency.profile.isEmpty()) {
+      return provideProfileScheduler(concurrency, eventBus);
+    }
     checkNotNull(concurrency.count, "concurrency count must not be null");
 
     final Scheduler scheduler;
@@ -3338,6 +3669,110 @@ public class OGModule extends AbstractModule {
     return scheduler;
   }
 
+  @Provides
+  @Singleton
+  public TraceScheduler provideTraceScheduler(final ConcurrencyConfig concurrency)
+      throws IOException {
+    if (concurrency.type != ConcurrencyType.TRACE) {
+      return null;
+    }
+    final TraceConfig trace = checkNotNull(concurrency.trace, "concurrency trace must not be null");
+    final String path = checkNotNull(trace.path, "trace path must not be null");
+    checkNotNull(trace.format, "trace format must not be null");
+
+    // rolled over request logs are gzipped
+    InputStream in = new FileInputStream(path);
+    if (path.endsWith(".gz")) {
+      in = new GZIPInputStream(in);
+    }
+    final BufferedReader reader =
+        new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+    final TraceReader traceReader;
+    switch (trace.format) {
+      case CSV:
+        traceReader = new CsvTraceReader(reader);
+        break;
+      default:
+        traceReader = new RequestLogTraceReader(reader);
+    }
+    return new TraceScheduler(
+        new OrderedTraceReader(traceReader, trace.reorderWindow, trace.reorderWindowUnit),
+        trace.speed, TraceRequestManager.REPLAYABLE);
+  }
+
+  @Provides
+  @Singleton
+  public VariableRequestRateScheduler provideSaturationScheduler(
+      final ConcurrencyConfig concurrency) {
+    if (concurrency.type != ConcurrencyType.SATURATION) {
+      return null;
+    }
+    // the search starts from the configured rate
+    checkNotNull(concurrency.count, "concurrency count must not be null");
+    return new VariableRequestRateScheduler(concurrency.count, concurrency.unit);
+  }
+
+  /**
+   * Creates a context function which names each request after the trace entry being replayed by
+   * the calling thread, and sizes it when the entry has a size. Replayed objects are not tracked
+   * by the object manager.
+   */
+  private static Function<Map<String, String>, String> createTraceContext(
+      final TraceScheduler trace) {
+    return new Function<Map<String, String>, String>() {
+      @Override
+      public String apply(final Map<String, String> context) {
+        final TraceEntry entry = trace.current();
+        context.put(Context.X_OG_OBJECT_NAME, entry.getObject());
+        context.put(Context.X_OG_SEQUENTIAL_OBJECT_NAME, "true");
+        if (entry.getSize() != null) {
+          context.put(Context.X_OG_OBJECT_SIZE, String.valueOf(entry.getSize()));
+        }
+        return entry.getObject();
+      }
+    };
+  }
+
+  private Scheduler provideProfileScheduler(final ConcurrencyConfig concurrency,
+      final EventBus eventBus) {
+    checkArgument(DoubleMath.fuzzyEquals(concurrency.rampup, 0.0, Math.pow(0.1, 6)),
+        "concurrency rampup must not be configured with a profile [%s]", concurrency.rampup);
+    final RateProfile.Builder profile = new RateProfile.Builder();
+    for (final RateProfileSegmentConfig segment : concurrency.profile) {
+      checkNotNull(segment.shape, "profile segment shape must not be null");
+      checkNotNull(segment.count, "profile segment count must not be null");
+      switch (segment.shape) {
+        case STEP:
+          profile.step(segment.count, segment.duration, segment.durationUnit);
+          break;
+        case RAMP:
+          profile.ramp(segment.count, segment.duration, segment.durationUnit);
+          break;
+        case SINE:
+          profile.sine(segment.count, segment.amplitude, segment.period, segment.duration,
+              segment.durationUnit);
+          break;
+        default:
+          throw new IllegalArgumentException(
+              String.format("Unacceptable profile segment shape [%s]", segment.shape));
+      }
+    }
+
+    switch (concurrency.type) {
+      case THREADS:
+        final Scheduler scheduler = new ConcurrentRequestScheduler(profile.build());
+        eventBus.register(scheduler);
+        return scheduler;
+      case OPS:
+        return new RequestRateScheduler(profile.build(), concurrency.unit);
+      case POISSONOPS:
+        return new PoissonRequestRateScheduler(profile.build(), concurrency.unit);
+      default:
+        throw new IllegalArgumentException(
+            String.format("Unacceptable concurrency type [%s]", concurrency.type));
+    }
+  }
+
   @Provides
   @Singleton
   public Client provideClient(final AuthType authType, final Map<AuthType, HttpAuth> authentication,
@@ -3346,6 +3781,14 @@ public class OGModule extends AbstractModule {
     Preconditions.checkArgument(
         authentication.get(authType) instanceof AWSV4Auth ? !clientConfig.chunkedEncoding : true,
         "http layer chunked encoding is not supported with Chunked AWSV4");
+    if (ClientType.NIO == clientConfig.type || ClientType.HTTP2 == clientConfig.type) {
+      return createNioClient(clientConfig, authentication.get(authType), responseBodyConsumers);
+    }
+    return createApacheClient(clientConfig, authentication.get(authType), responseBodyConsumers);
+  }
+
+  private Client createApacheClient(final ClientConfig clientConfig, final HttpAuth authentication,
+      final Map<String, ResponseBodyConsumer> responseBodyConsumers) {
     final ApacheClient.Builder b = new ApacheClient.Builder()
         .withConnectTimeout(clientConfig.connectTimeout).withSoTimeout(clientConfig.soTimeout)
         .usingSoReuseAddress(clientConfig.soReuseAddress).withSoLinger(clientConfig.soLinger)
@@ -3365,10 +3808,11 @@ public class OGModule extends AbstractModule {
         .usingTrustSelfSignedCertificates(clientConfig.trustSelfSignedCertificates)
         .withDnsCacheTtl(clientConfig.dnsCacheTtl)
         .withDnsCacheNegativeTtl(clientConfig.dnsCacheNegativeTtl)
-        .withAuthentication(authentication.get(authType))
+        .withAuthentication(authentication)
         .withUserAgent(String.format("og-%s", Version.displayVersion()))
         .withWriteThroughput(clientConfig.writeThroughput)
         .withReadThroughput(clientConfig.readThroughput)
+        .usingVirtualThreads(this.config.virtualThreads)
         .withProxy(clientConfig.proxy, clientConfig.proxyPort, clientConfig.proxyUser, clientConfig.proxyPassword,
                 clientConfig.proxyScheme);
 
@@ -3379,6 +3823,45 @@ public class OGModule extends AbstractModule {
     return b.build();
   }
 
+  private Client createNioClient(final ClientConfig clientConfig, final HttpAuth authentication,
+      final Map<String, ResponseBodyConsumer> responseBodyConsumers) {
+    checkArgument(clientConfig.writeThroughput == 0 && clientConfig.readThroughput == 0,
+        "throughput throttling is not supported with nio client");
+    checkArgument(clientConfig.retryCount == 0, "retries are not supported with nio client");
+    checkArgument(clientConfig.proxy == null, "proxy is not supported with nio client");
+    final boolean http2 = ClientType.HTTP2 == clientConfig.type;
+    checkArgument(!http2 || !clientConfig.chunkedEncoding,
+        "http layer chunked encoding is not supported with http2 client");
+    final NioClient.Builder b = new NioClient.Builder()
+        .withConnectTimeout(clientConfig.connectTimeout).withSoTimeout(clientConfig.soTimeout)
+        .usingSoReuseAddress(clientConfig.soReuseAddress).withSoLinger(clientConfig.soLinger)
+        .usingSoKeepAlive(clientConfig.soKeepAlive).usingTcpNoDelay(clientConfig.tcpNoDelay)
+        .withSoSndBuf(clientConfig.soSndBuf).withSoRcvBuf(clientConfig.soRcvBuf)
+        .usingPersistentConnections(clientConfig.persistentConnections)
+        .withValidateAfterInactivity(clientConfig.validateAfterInactivity)
+        .withMaxIdleTime(clientConfig.maxIdleTime)
+        .usingChunkedEncoding(clientConfig.chunkedEncoding)
+        .usingExpectContinue(clientConfig.expectContinue).withProtocols(clientConfig.protocols)
+        .withCipherSuites(clientConfig.cipherSuites).withKeyStore(clientConfig.keyStore)
+        .withKeyStorePassword(clientConfig.keyStorePassword)
+        .withKeyPassword(clientConfig.keyPassword).withTrustStore(clientConfig.trustStore)
+        .withTrustStorePassword(clientConfig.trustStorePassword)
+        .usingTrustSelfSignedCertificates(clientConfig.trustSelfSignedCertificates)
+        .withDnsCacheTtl(clientConfig.dnsCacheTtl)
+        .withDnsCacheNegativeTtl(clientConfig.dnsCacheNegativeTtl)
+        .withAuthentication(authentication)
+        .withUserAgent(String.format("og-%s", Version.displayVersion()))
+        .withIoThreads(clientConfig.ioThreads).usingHttp2(http2)
+        .withMaxConcurrentStreams(clientConfig.maxConcurrentStreams)
+        .withConnectionsPerHost(clientConfig.connectionsPerHost);
+
+    for (final Entry<String, ResponseBodyConsumer> consumer : responseBodyConsumers.entrySet()) {
+      b.withResponseBodyConsumer(consumer.getKey(), consumer.getValue());
+    }
+
+    return b.build();
+  }
+
   @Provides
   @Singleton
   @Named("write")
@@ -3400,7 +3883,8 @@ public class OGModule extends AbstractModule {
       @Nullable @Named("write.legalHold") final Supplier<Function<Map<String, String>, String>> legalHold,
       @Nullable @Named("write.contentMd5") final boolean contentMd5,
       @Nullable @Named("write.delimiter") final Function<Map<String, String>, String> delimiter,
-      @Named("write.checksumType") final ChecksumType checksumType) {
+      @Named("write.checksumType") final ChecksumType checksumType,
+      @Named("write.trailingChecksum") final boolean trailingChecksum) {
 
     if (encryptDestinationObject) {
       checkArgument(this.config.data == DataType.ZEROES,
@@ -3412,7 +3896,9 @@ public class OGModule extends AbstractModule {
           "If contentMD5 is set, data must be ZEROES [%s]", this.config.data);
     }
 
-    if (checksumType != ChecksumType.NONE) {
+    if (trailingChecksum) {
+      addTrailingChecksumHeaders(headers, checksumType);
+    } else if (checksumType != ChecksumType.NONE) {
       checkArgument(this.config.data == DataType.ZEROES,
               "If checksum is set, data must be ZEROES [%s]", this.config.data);
     }
@@ -3433,7 +3919,38 @@ public class OGModule extends AbstractModule {
 
     return createRequestSupplier(Operation.WRITE, id, Method.PUT, scheme, host, port, uriRoot,
         container, apiVersion, object, queryParameters, headers, context, null, body, credentials,
-        virtualHost, retention, legalHold, contentMd5, delimiter, null, checksumType);
+        virtualHost, retention, legalHold, contentMd5, delimiter, null,
+        trailingChecksum ? ChecksumType.NONE : checksumType);
+  }
+
+  /**
+   * Adds the headers which request a checksum of the content be computed while the content is
+   * streamed and sent as an aws-chunked trailer; the checksum itself is added by the signer.
+   */
+  private void addTrailingChecksumHeaders(
+      final Map<String, Function<Map<String, String>, String>> headers,
+      final ChecksumType checksumType) {
+    checkArgument(this.config.authentication.type == AuthType.AWSV4,
+        "If trailingChecksum is set, authentication type must be AWSV4 [%s]",
+        this.config.authentication.type);
+    checkArgument(!this.config.authentication.awsPresigned,
+        "If trailingChecksum is set, awsPresigned must not be set");
+    checkArgument(checksumType != ChecksumType.NONE && checksumType != ChecksumType.MD5,
+        "If trailingChecksum is set, checksumType must not be NONE or MD5 [%s]", checksumType);
+
+    headers.put(Context.X_OG_AMZ_TRAILER, new Function<Map<String, String>, String>() {
+      @Override
+      public String apply(final Map<String, String> input) {
+        return "x-amz-checksum-" + checksumType.toString().toLowerCase(Locale.US);
+      }
+    });
+    headers.put(Context.X_OG_AMZ_SDK_CHECKSUM_ALGORITHM,
+        new Function<Map<String, String>, String>() {
+          @Override
+          public String apply(final Map<String, String> input) {
+            return checksumType.toString();
+          }
+        });
   }
 
 
@@ -3882,7 +4399,8 @@ public class OGModule extends AbstractModule {
       @Nullable @Named("overwrite.retention") final Function<Map<String, String>, Long> retention,
       @Nullable @Named("overwrite.legalHold") final Supplier<Function<Map<String, String>, String>> legalHold,
       @Nullable @Named("overwrite.contentMd5") final boolean contentMd5,
-      @Named("overwrite.checksumType") final ChecksumType checksumType) throws Exception {
+      @Named("overwrite.checksumType") final ChecksumType checksumType,
+      @Named("overwrite.trailingChecksum") final boolean trailingChecksum) throws Exception {
 
     if (encryptDestinationObject) {
       checkArgument(this.config.data == DataType.ZEROES,
@@ -3899,7 +4417,9 @@ public class OGModule extends AbstractModule {
           "If contentMD5 is set, data must be ZEROES [%s]", this.config.data);
     }
 
-    if (checksumType != ChecksumType.NONE) {
+    if (trailingChecksum) {
+      addTrailingChecksumHeaders(headers, checksumType);
+    } else if (checksumType != ChecksumType.NONE) {
       checkArgument(this.config.data == DataType.ZEROES,
               "If checksum is set, data must be ZEROES [%s]", this.config.data);
     }
@@ -4240,7 +4760,8 @@ public class OGModule extends AbstractModule {
 
     return new RequestSupplier(operation, id, method, scheme, host, port, uriRoot, container,
         apiVersion, object, queryParameters, false, headers, context, sseSourceContext, credentials,
-        body, virtualHost, retention, legalHold, contentMd5, delimiter, staticWebsiteVirtualHostSuffix, checksumType);
+        body, virtualHost, retention, legalHold, contentMd5, delimiter, staticWebsiteVirtualHostSuffix, checksumType,
+        this.digestCaches);
   }
 
 
@@ -4327,6 +4848,6 @@ public class OGModule extends AbstractModule {
     return new MultipartRequestSupplier(id, scheme, host, port, uriRoot, container, object,
         partSize, partsPerSession, targetSessions, queryParameters, false, headers, context,
         credentials, body, virtualHost, retention, legalHold, contentMd5, delimiter, providePartsPercentagePerSession,
-            checksumType);
+            checksumType, this.digestCaches);
   }
 }
\ No newline at end of file
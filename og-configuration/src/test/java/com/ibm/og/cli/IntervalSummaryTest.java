@@ -0,0 +1,80 @@
+/* Copyright (c) IBM Corporation 2018. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.cli;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.is;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.ibm.og.api.Method;
+import com.ibm.og.api.Operation;
+import com.ibm.og.api.Request;
+import com.ibm.og.api.RequestTimestamps;
+import com.ibm.og.api.Response;
+import com.ibm.og.http.Bodies;
+import com.ibm.og.http.HttpRequest;
+import com.ibm.og.http.HttpResponse;
+import com.ibm.og.statistic.Statistics;
+import com.ibm.og.util.Pair;
+
+public class IntervalSummaryTest {
+  private Statistics stats;
+
+  @Before
+  public void before() {
+    this.stats = new Statistics();
+  }
+
+  private void update(final long latency) throws URISyntaxException {
+    final Request request =
+        new HttpRequest.Builder(Method.GET, new URI("http://127.0.0.1"), Operation.READ).build();
+    final RequestTimestamps timestamps = new RequestTimestamps();
+    timestamps.startMillis = System.currentTimeMillis();
+    timestamps.finishMillis = timestamps.startMillis + latency;
+    timestamps.start = System.nanoTime();
+    timestamps.responseContentFirstBytes = timestamps.start + TimeUnit.MILLISECONDS.toNanos(latency / 2);
+    timestamps.finish = timestamps.start + TimeUnit.MILLISECONDS.toNanos(latency);
+    final Response response = new HttpResponse.Builder().withStatusCode(200)
+        .withBody(Bodies.zeroes(1024)).withRequestTimestamps(timestamps).build();
+    this.stats.update(Pair.of(request, response));
+  }
+
+  @Test
+  public void intervalLatencyPercentiles() throws URISyntaxException {
+    // recorded before the first interval, must not be reported
+    update(500);
+    final IntervalSummary intervalSummary = new IntervalSummary(this.stats, 0, 1000);
+
+    update(10);
+    update(20);
+    final Summary.SummaryOperationStats first = intervalSummary.intervalStats(this.stats, 1000, 2000);
+    assertThat(first.read.operations, is(2L));
+    assertThat(first.read.latencyPercentiles.p50, is(10.0));
+    assertThat(first.read.latencyPercentiles.max, is(20.0));
+    // phase histograms are recorded in microseconds and reported to within their precision
+    assertThat(first.read.phasePercentiles.get("ttfb").max, closeTo(10.0, 0.05));
+    assertThat(first.read.phasePercentiles.get("total").max, closeTo(20.0, 0.05));
+    assertThat(first.read.phasePercentiles.get("request_content").max, is(0.0));
+
+    update(30);
+    final Summary.SummaryOperationStats second = intervalSummary.intervalStats(this.stats, 2000, 3000);
+    assertThat(second.read.operations, is(1L));
+    assertThat(second.read.latencyPercentiles.p50, is(30.0));
+    assertThat(second.read.latencyPercentiles.max, is(30.0));
+    assertThat(second.read.phasePercentiles.get("ttfb").max, closeTo(15.0, 0.05));
+
+    final Summary.SummaryOperationStats third = intervalSummary.intervalStats(this.stats, 3000, 4000);
+    assertThat(third.read.operations, is(0L));
+    assertThat(third.read.latencyPercentiles.max, is(0.0));
+  }
+}
@@ -91,6 +91,10 @@ public class SummaryTest {
     assertThat(summaryStats.read.bytes, is(1024L));
     assertThat(summaryStats.read.statusCodes.size(), is(1));
     assertThat(summaryStats.read.statusCodes, hasEntry(200, 1L));
+    assertThat(summaryStats.read.latencyPercentiles.p50, is(17.0));
+    assertThat(summaryStats.read.latencyPercentiles.p999, is(17.0));
+    assertThat(summaryStats.read.latencyPercentiles.max, is(17.0));
+    assertThat(summaryStats.write.latencyPercentiles.max, is(0.0));
 
     assertThat(summaryStats.delete.operation, is(Operation.DELETE));
     assertThat(summaryStats.delete.operations, is(0L));
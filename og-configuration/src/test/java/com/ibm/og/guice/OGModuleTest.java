@@ -5,27 +5,57 @@
 
 package com.ibm.og.guice;
 
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
 import static org.mockito.Mockito.mock;
 
+import java.io.File;
+import java.nio.charset.StandardCharsets;
 import java.sql.Time;
+import java.util.EnumSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
 import java.util.concurrent.TimeUnit;
 
+import com.ibm.og.api.ChecksumType;
+import com.ibm.og.json.ChoiceConfig;
 import com.ibm.og.json.FailingConditionsConfig;
+import com.ibm.og.json.FilesizeConfig;
 import com.ibm.og.json.ConcurrencyConfig;
+import com.ibm.og.json.ConcurrencyType;
 import com.ibm.og.json.OGConfig;
+import com.ibm.og.json.RateProfileSegmentConfig;
+import com.ibm.og.json.RateProfileShape;
 import com.ibm.og.json.RetentionConfig;
+import com.ibm.og.json.SelectionConfig;
+import com.ibm.og.json.TraceConfig;
+import com.ibm.og.json.TraceFormat;
+import com.ibm.og.scheduling.RequestRateScheduler;
+import com.ibm.og.scheduling.Scheduler;
+import com.ibm.og.scheduling.TraceScheduler;
+import com.ibm.og.scheduling.VariableRequestRateScheduler;
 import com.ibm.og.statistic.Statistics;
+import com.ibm.og.test.CompletionDispatcher;
 import com.ibm.og.test.LoadTest;
+import com.ibm.og.test.condition.SaturationCondition;
+import com.ibm.og.test.condition.TestCondition;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 
 import com.ibm.og.json.StoppingConditionsConfig;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSortedSet;
 import com.google.common.eventbus.EventBus;
+import com.google.common.io.Files;
 import com.tngtech.java.junit.dataprovider.DataProvider;
 import com.tngtech.java.junit.dataprovider.DataProviderRunner;
 import com.tngtech.java.junit.dataprovider.UseDataProvider;
@@ -34,8 +64,11 @@ import com.tngtech.java.junit.dataprovider.UseDataProvider;
 public class OGModuleTest {
   @Rule
   public ExpectedException thrown = ExpectedException.none();
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
   private LoadTest test;
   private EventBus eventBus;
+  private CompletionDispatcher dispatcher;
   private ConcurrencyConfig concurrency;
   private Statistics stats;
   private OGConfig config;
@@ -44,6 +77,7 @@ public class OGModuleTest {
   public void before() {
     this.test = mock(LoadTest.class);
     this.eventBus = mock(EventBus.class);
+    this.dispatcher = mock(CompletionDispatcher.class);
     this.concurrency = new ConcurrencyConfig();
     this.stats = mock(Statistics.class);
     this.config = mock(OGConfig.class);
@@ -111,8 +145,8 @@ public class OGModuleTest {
     failingConditions.statusCodes = statusCodes;
 
     this.thrown.expect(expectedException);
-    module.provideTestConditions(this.test, this.eventBus, this.stats, this.concurrency,
-        stoppingConditions, failingConditions);
+    module.provideTestConditions(this.test, this.eventBus, this.dispatcher, this.stats, this.concurrency,
+        stoppingConditions, failingConditions, null);
   }
 
   @Test
@@ -137,4 +171,114 @@ public class OGModuleTest {
     final OGModule module = new OGModule(this.config);
     module.provideTestRetentionExtensionConfig(currentRetention, rc);
   }
+
+  @Test
+  public void profileScheduler() throws Exception {
+    this.concurrency.type = ConcurrencyType.OPS;
+    this.concurrency.profile.add(segment(RateProfileShape.RAMP, 10.0));
+    this.concurrency.profile.add(segment(RateProfileShape.STEP, 20.0));
+    assertThat(
+        new OGModule(this.config).provideScheduler(this.concurrency, this.eventBus, null, null),
+        instanceOf(RequestRateScheduler.class));
+  }
+
+  @Test
+  public void profileSchedulerWithRampup() throws Exception {
+    this.concurrency.type = ConcurrencyType.OPS;
+    this.concurrency.rampup = 10.0;
+    this.concurrency.profile.add(segment(RateProfileShape.STEP, 20.0));
+    this.thrown.expect(IllegalArgumentException.class);
+    new OGModule(this.config).provideScheduler(this.concurrency, this.eventBus, null, null);
+  }
+
+  @Test
+  public void traceScheduler() throws Exception {
+    final File trace = this.folder.newFile("trace.csv");
+    Files.write("1000,write,object,1024\n", trace, StandardCharsets.UTF_8);
+    this.concurrency.type = ConcurrencyType.TRACE;
+    this.concurrency.trace = new TraceConfig();
+    this.concurrency.trace.path = trace.getPath();
+    this.concurrency.trace.format = TraceFormat.CSV;
+
+    final OGModule module = new OGModule(this.config);
+    final TraceScheduler scheduler = module.provideTraceScheduler(this.concurrency);
+    assertThat(module.provideScheduler(this.concurrency, this.eventBus, scheduler, null),
+        is((Scheduler) scheduler));
+    scheduler.schedule();
+    assertThat(scheduler.current().getObject(), is("object"));
+  }
+
+  @Test
+  public void noTraceScheduler() throws Exception {
+    this.concurrency.type = ConcurrencyType.OPS;
+    assertThat(new OGModule(this.config).provideTraceScheduler(this.concurrency), nullValue());
+  }
+
+  @Test
+  public void saturationScheduler() throws Exception {
+    this.concurrency.type = ConcurrencyType.SATURATION;
+    this.concurrency.count = 10.0;
+
+    final OGModule module = new OGModule(this.config);
+    final VariableRequestRateScheduler scheduler =
+        module.provideSaturationScheduler(this.concurrency);
+    assertThat(scheduler.getRate(), is(10.0));
+    assertThat(module.provideScheduler(this.concurrency, this.eventBus, null, scheduler),
+        is((Scheduler) scheduler));
+
+    final List<TestCondition> conditions = module.provideTestConditions(this.test, this.eventBus,
+        this.dispatcher, this.stats, this.concurrency, new StoppingConditionsConfig(),
+        new FailingConditionsConfig(), scheduler);
+    assertThat(conditions, hasSize(1));
+    assertThat(conditions.get(0), instanceOf(SaturationCondition.class));
+  }
+
+  @Test
+  public void noSaturationScheduler() throws Exception {
+    this.concurrency.type = ConcurrencyType.OPS;
+    this.concurrency.count = 10.0;
+    assertThat(new OGModule(this.config).provideSaturationScheduler(this.concurrency),
+        nullValue());
+  }
+
+  private static RateProfileSegmentConfig segment(final RateProfileShape shape,
+      final double count) {
+    final RateProfileSegmentConfig segment = new RateProfileSegmentConfig();
+    segment.shape = shape;
+    segment.count = count;
+    segment.duration = 1.0;
+    return segment;
+  }
+
+  @Test
+  public void digestSizes() {
+    final OGConfig config = new OGConfig();
+    config.write.weight = 100.0;
+    config.write.contentMd5 = true;
+    config.filesize = new SelectionConfig<FilesizeConfig>();
+    final FilesizeConfig uniform = new FilesizeConfig(100.0);
+    uniform.spread = 2.0;
+    config.filesize.choices.add(new ChoiceConfig<FilesizeConfig>(uniform));
+    config.filesize.choices.add(new ChoiceConfig<FilesizeConfig>(new FilesizeConfig(1000.0)));
+
+    final OGModule module = new OGModule(config);
+    assertThat(module.provideDigestTypes(), is((Set<ChecksumType>) EnumSet.of(ChecksumType.MD5)));
+    assertThat(module.provideDigestSizes(),
+        is((SortedSet<Long>) ImmutableSortedSet.of(98L, 99L, 100L, 101L, 102L, 1000L)));
+  }
+
+  @Test
+  public void digestSizesBoundedByCacheSize() {
+    final OGConfig config = new OGConfig();
+    config.write.weight = 100.0;
+    config.digest.cacheSize = 3;
+    config.filesize = new SelectionConfig<FilesizeConfig>();
+    final FilesizeConfig uniform = new FilesizeConfig(100.0);
+    uniform.spread = 50.0;
+    config.filesize.choices.add(new ChoiceConfig<FilesizeConfig>(uniform));
+
+    // the sizes nearest the average are kept
+    assertThat(new OGModule(config).provideDigestSizes(),
+        is((SortedSet<Long>) ImmutableSortedSet.of(99L, 100L, 101L)));
+  }
 }
@@ -35,6 +35,7 @@ import com.google.common.net.HttpHeaders;
 public class AuthenticatedHttpRequest implements AuthenticatedRequest {
   private static Logger _logger = LoggerFactory.getLogger(AuthenticatedHttpRequest.class);
   private final Request request;
+  private URI uri;
   private final Map<String, List<String>> queryParameters;
   private final Map<String, String> requestHeaders;
   private InputStream content;
@@ -46,6 +47,7 @@ public class AuthenticatedHttpRequest implements AuthenticatedRequest {
    */
   public AuthenticatedHttpRequest(final Request request) {
     this.request = checkNotNull(request);
+    this.uri = request.getUri();
     this.queryParameters = Maps.newHashMap();
     for (final Map.Entry<String, List<String>> entry : request.getQueryParameters().entrySet()) {
       this.queryParameters.put(entry.getKey(), Lists.newArrayList(entry.getValue()));
@@ -66,7 +68,17 @@ public class AuthenticatedHttpRequest implements AuthenticatedRequest {
 
   @Override
   public URI getUri() {
-    return this.request.getUri();
+    return this.uri;
+  }
+
+  /**
+   * Sets the uri for this request. Authentication schemes which carry their credentials in the
+   * query string, such as presigned urls, replace the original uri with one which includes them.
+   * 
+   * @param uri the new uri for this request
+   */
+  public void setUri(final URI uri) {
+    this.uri = checkNotNull(uri);
   }
 
   @Override
@@ -10,14 +10,14 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 import com.ibm.og.api.Body;
 import com.ibm.og.api.DataType;
+import com.ibm.og.api.ReducibleBody;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.nio.ByteBuffer;
-import java.util.HashMap;
-import java.util.LinkedHashMap;
+
+import com.ibm.og.util.io.MappedFile;
+import com.ibm.og.util.io.MappedFileBody;
+import com.ibm.og.util.io.MappedFileInputStream;
 
 /**
  * A utility class for creating body instances
@@ -26,6 +26,8 @@ import java.util.LinkedHashMap;
  */
 public class Bodies {
   private static final Body NONE_BODY = Bodies.create(DataType.NONE, 0);
+  private static final MappedFileCache FILE_BODIES =
+      new MappedFileCache(MappedFileCache.DEFAULT_MAXIMUM_SIZE);
 
   private Bodies() {}
 
@@ -48,6 +50,52 @@ public class Bodies {
   public static Body random(final long size) {
     return create(DataType.RANDOM, size);
   }
+
+  /**
+   * Creates a body instance representing a body with non-repeating pseudorandom data
+   *
+   * @param size the size of the body
+   * @return an entropy body instance
+   * @throws IllegalArgumentException if size is negative
+   */
+  public static Body entropy(final long size) {
+    return create(DataType.ENTROPY, size);
+  }
+
+  /**
+   * Creates a body instance representing a body with data which reduces by the provided ratios
+   * when compressed and deduplicated
+   *
+   * @param size the size of the body
+   * @param compressionRatio the target ratio of uncompressed to compressed size
+   * @param dedupeRatio the target ratio of logical to unique blocks
+   * @param blockSize the size of the blocks which are duplicated, in bytes
+   * @return a reducible body instance
+   * @throws IllegalArgumentException if size is negative, either ratio is less than 1.0, or
+   *         blockSize is not positive
+   */
+  public static ReducibleBody reducible(final long size, final double compressionRatio,
+      final double dedupeRatio, final int blockSize) {
+    checkArgument(size >= 0, "size must be >= 0 [%s]", size);
+    checkArgument(compressionRatio >= 1.0, "compressionRatio must be >= 1.0 [%s]",
+        compressionRatio);
+    checkArgument(dedupeRatio >= 1.0, "dedupeRatio must be >= 1.0 [%s]", dedupeRatio);
+    checkArgument(blockSize > 0, "blockSize must be > 0 [%s]", blockSize);
+
+    return new ReducibleBodyImpl(System.nanoTime(), size, compressionRatio, dedupeRatio,
+        blockSize);
+  }
+
+  /**
+   * Creates a body instance whose content is the content of a file. Bodies for the most recently
+   * used {@link MappedFileCache#DEFAULT_MAXIMUM_SIZE} files are cached, so a file is usually only
+   * mapped the first time a body is created for it.
+   *
+   * @param filepath the path of the file
+   * @return a file body instance
+   * @throws NullPointerException if filepath is null
+   * @throws IllegalArgumentException if the file does not exist or cannot be mapped
+   */
   public static Body file(final String filepath) {
     return createFileBody(filepath);
   }
@@ -88,12 +136,9 @@ public class Bodies {
     return new BodyImpl(System.nanoTime(), size, data, content);
   }
 
-  private static Body createFileBody(String filepath) {
-    checkNotNull(filepath);
-    if (FileBodyImpl.bodies.containsKey(filepath)) {
-      return FileBodyImpl.bodies.get(filepath);
-    }
-    return new FileBodyImpl(DataType.FILE, filepath);
+  private static Body createFileBody(final String filepath) {
+    // a cached file is mapped once and shared by every body created for it
+    return FILE_BODIES.get(filepath);
   }
 
   private static class BodyImpl implements Body {
@@ -105,7 +150,8 @@ public class Bodies {
 
     public BodyImpl(final long seed, final long size, final DataType dataType, String content) {
       // Force the seed to zero for non random data so that it won't affect hashCode() and equals()
-      this.seed = dataType.equals(DataType.RANDOM) ? seed : 0;
+      this.seed = dataType.equals(DataType.RANDOM) || dataType.equals(DataType.ENTROPY)
+          || dataType.equals(DataType.REDUCIBLE) ? seed : 0;
       this.size = size;
       this.dataType = dataType;
       this.content = content;
@@ -176,44 +222,84 @@ public class Bodies {
 
   }
 
-  public static class FileBodyImpl implements Body {
-    private final long seed = 0;
-    private long size;
-    private final DataType dataType;
-    private String content;
+  private static class ReducibleBodyImpl extends BodyImpl implements ReducibleBody {
+    private final double compressionRatio;
+    private final double dedupeRatio;
+    private final int blockSize;
+
+    public ReducibleBodyImpl(final long seed, final long size, final double compressionRatio,
+        final double dedupeRatio, final int blockSize) {
+      super(seed, size, DataType.REDUCIBLE, null);
+      this.compressionRatio = compressionRatio;
+      this.dedupeRatio = dedupeRatio;
+      this.blockSize = blockSize;
+    }
 
-    private byte[] data;
+    @Override
+    public double getCompressionRatio() {
+      return this.compressionRatio;
+    }
 
+    @Override
+    public double getDedupeRatio() {
+      return this.dedupeRatio;
+    }
 
-    private static HashMap<String, FileBodyImpl> bodies = new LinkedHashMap<String, FileBodyImpl>();
+    @Override
+    public int getBlockSize() {
+      return this.blockSize;
+    }
 
-    public FileBodyImpl(final DataType dataType, String filepath) {
-      this.dataType = dataType;
-      File file = new File(filepath);
-      try {
-        if (file.exists()) {
-          this.size = (int) file.length();
-          if (size > 0) {
-            final FileInputStream fis = new FileInputStream(file);
-            ByteBuffer bs = ByteBuffer.allocate((int) this.size);
-            int readBytes = 0;
-            int remainingBytes = (int) this.size;
-            while ((readBytes = fis.read(bs.array(), readBytes, remainingBytes)) < 0) {
-              remainingBytes -= readBytes;
-            }
-            data = bs.array();
-            this.content = new String(bs.array());
-            bodies.put(filepath, this);
-          }
-        } else {
-          final String message = String.format("File %s does not exists", filepath);
-          throw new IllegalArgumentException(message);
-        }
-      } catch (FileNotFoundException fne) {
+    @Override
+    public String toString() {
+      return String.format(
+          "ReducibleBodyImpl [seed=%s, size=%s, compressionRatio=%s, dedupeRatio=%s, blockSize=%s]",
+          getRandomSeed(), getSize(), this.compressionRatio, this.dedupeRatio, this.blockSize);
+    }
+
+    @Override
+    public int hashCode() {
+      final int prime = 31;
+      int result = super.hashCode();
+      result = prime * result + Double.hashCode(this.compressionRatio);
+      result = prime * result + Double.hashCode(this.dedupeRatio);
+      result = prime * result + this.blockSize;
+      return result;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+      if (!super.equals(obj)) {
+        return false;
+      }
+      final ReducibleBodyImpl other = (ReducibleBodyImpl) obj;
+      return this.compressionRatio == other.compressionRatio
+          && this.dedupeRatio == other.dedupeRatio && this.blockSize == other.blockSize;
+    }
+  }
+
+  /**
+   * A body whose content is the content of a file. The file is memory mapped once and shared by
+   * every request using it, so its content is neither copied onto the heap nor limited in size by
+   * the heap. The mapping is released when the body is no longer referenced.
+   */
+  public static class FileBodyImpl implements MappedFileBody {
+    private final DataType dataType;
+    private final String filepath;
+    private final MappedFile file;
+
+    public FileBodyImpl(final DataType dataType, final String filepath) {
+      this.dataType = checkNotNull(dataType);
+      this.filepath = checkNotNull(filepath);
+      final File file = new File(filepath);
+      if (!file.exists()) {
         final String message = String.format("File %s does not exists", filepath);
         throw new IllegalArgumentException(message);
-      } catch (IOException ioe) {
-        throw new IllegalArgumentException(ioe.getMessage());
+      }
+      try {
+        this.file = new MappedFile(file);
+      } catch (final IOException ioe) {
+        throw new IllegalArgumentException(ioe.getMessage(), ioe);
       }
     }
 
@@ -229,16 +315,33 @@ public class Bodies {
 
     @Override
     public long getSize() {
-      return this.size;
+      return this.file.getSize();
     }
 
+    /**
+     * Copies the content of the file onto the heap. Prefer {@link #newInputStream()}.
+     */
     @Override
     public String getContent() {
-      return this.content;
+      return new String(getData());
     }
 
+    /**
+     * Copies the content of the file onto the heap. Prefer {@link #newInputStream()}.
+     */
+    @Override
     public byte[] getData() {
-      return this.data;
+      return this.file.toByteArray();
+    }
+
+    @Override
+    public MappedFileInputStream newInputStream() {
+      return this.file.newInputStream();
+    }
+
+    @Override
+    public String toString() {
+      return String.format("FileBodyImpl [filepath=%s, size=%s]", this.filepath, getSize());
     }
   }
 }
@@ -0,0 +1,211 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.http;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.Checksum;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+import com.ibm.og.api.ChecksumType;
+
+import software.amazon.awssdk.crt.checksums.CRC32;
+import software.amazon.awssdk.crt.checksums.CRC32C;
+import software.amazon.awssdk.crt.checksums.CRC64NVME;
+
+/**
+ * A cache of digests of zero filled bodies, keyed by body size. Digests for a known set of sizes
+ * may be computed ahead of time with {@link #precompute(SortedSet, AtomicLong)}; these are never
+ * evicted. Digests for any other size are loaded on demand by a {@link DigestLoader} into a bounded
+ * cache.
+ *
+ * @since 1.0
+ */
+public class DigestCache {
+  private static final int BUFFER_SIZE = 64 * 1024;
+  private final ChecksumType type;
+  private final long maximumSize;
+  private final LoadingCache<Long, byte[]> cache;
+  private volatile Map<Long, byte[]> precomputed;
+
+  /**
+   * Constructs a cache of digests of the provided type
+   *
+   * @param type the digest or checksum algorithm
+   * @param maximumSize the maximum number of sizes for which digests are precomputed, and for which
+   *        digests loaded on demand are retained
+   * @throws IllegalArgumentException if type is NONE or maximumSize is not positive
+   */
+  public DigestCache(final ChecksumType type, final long maximumSize) {
+    this.type = checkNotNull(type);
+    checkArgument(type != ChecksumType.NONE, "type must not be NONE");
+    checkArgument(maximumSize > 0, "maximumSize must be > 0 [%s]", maximumSize);
+    this.maximumSize = maximumSize;
+    // a single segment, so that the size limit applies to the cache as a whole
+    this.cache = CacheBuilder.newBuilder().concurrencyLevel(1).maximumSize(maximumSize)
+        .build(new DigestLoader(type));
+    this.precomputed = ImmutableMap.of();
+  }
+
+  /**
+   * Returns the digest of a zero filled body, computing it if it is not cached
+   *
+   * @param size the size of the body
+   * @return the digest of {@code size} zeroes
+   * @throws ExecutionException if the digest could not be computed
+   */
+  public byte[] get(final long size) throws ExecutionException {
+    final byte[] digest = this.precomputed.get(size);
+    if (digest != null) {
+      return digest;
+    }
+    return this.cache.get(size);
+  }
+
+  /**
+   * Computes and caches digests for each of the provided sizes, which are retained for the life of
+   * this cache. Zero filled bodies of different sizes share a common prefix, so every digest is
+   * taken from a single running digest as it passes each size; the cost is that of hashing the
+   * largest size once rather than every size separately.
+   *
+   * @param sizes the body sizes to compute digests for
+   * @param progress incremented by the number of bytes hashed, as they are hashed
+   * @throws IllegalArgumentException if any size is negative, or there are more sizes than this
+   *         cache can retain
+   */
+  public synchronized void precompute(final SortedSet<Long> sizes, final AtomicLong progress) {
+    checkNotNull(sizes);
+    checkNotNull(progress);
+    checkArgument(sizes.size() <= this.maximumSize, "sizes [%s] must be <= maximumSize [%s]",
+        sizes.size(), this.maximumSize);
+    if (sizes.isEmpty()) {
+      return;
+    }
+    checkArgument(sizes.first() >= 0, "sizes must be >= 0 [%s]", sizes.first());
+
+    final Map<Long, byte[]> digests = Maps.newHashMap(this.precomputed);
+    final RunningDigest digest = new RunningDigest(this.type);
+    final byte[] zeroes = new byte[BUFFER_SIZE];
+    long position = 0;
+    for (final Long size : sizes) {
+      while (position < size) {
+        final int length = (int) Math.min(zeroes.length, size - position);
+        digest.update(zeroes, length);
+        position += length;
+        progress.addAndGet(length);
+      }
+      digests.put(size, digest.value());
+    }
+    this.precomputed = ImmutableMap.copyOf(digests);
+    this.cache.invalidateAll(sizes);
+  }
+
+  /**
+   * @return the number of sizes for which a digest is currently precomputed or cached
+   */
+  public long size() {
+    return this.precomputed.size() + this.cache.size();
+  }
+
+  public ChecksumType getType() {
+    return this.type;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("DigestCache [type=%s, maximumSize=%s]", this.type, this.maximumSize);
+  }
+
+  // a digest whose value can be read at any point without ending the computation; values are
+  // encoded the same way as by DigestLoader
+  private static class RunningDigest {
+    private final MessageDigest messageDigest;
+    private final Checksum checksum;
+    private final int checksumLength;
+
+    RunningDigest(final ChecksumType type) {
+      switch (type) {
+        case MD5:
+          this.messageDigest = messageDigest("MD5");
+          this.checksum = null;
+          this.checksumLength = 0;
+          break;
+        case SHA1:
+          this.messageDigest = messageDigest("SHA-1");
+          this.checksum = null;
+          this.checksumLength = 0;
+          break;
+        case SHA256:
+          this.messageDigest = messageDigest("SHA-256");
+          this.checksum = null;
+          this.checksumLength = 0;
+          break;
+        case CRC32:
+          this.messageDigest = null;
+          this.checksum = new CRC32();
+          this.checksumLength = 4;
+          break;
+        case CRC32C:
+          this.messageDigest = null;
+          this.checksum = new CRC32C();
+          this.checksumLength = 4;
+          break;
+        case CRC64NVME:
+          this.messageDigest = null;
+          this.checksum = new CRC64NVME();
+          this.checksumLength = 8;
+          break;
+        default:
+          throw new IllegalArgumentException(
+              String.format("Unsupported Digest Algorithm: %s", type));
+      }
+    }
+
+    private static MessageDigest messageDigest(final String algorithm) {
+      try {
+        return MessageDigest.getInstance(algorithm);
+      } catch (final NoSuchAlgorithmException e) {
+        throw new IllegalStateException(e);
+      }
+    }
+
+    void update(final byte[] b, final int len) {
+      if (this.messageDigest != null) {
+        this.messageDigest.update(b, 0, len);
+      } else {
+        this.checksum.update(b, 0, len);
+      }
+    }
+
+    byte[] value() {
+      if (this.messageDigest != null) {
+        try {
+          return ((MessageDigest) this.messageDigest.clone()).digest();
+        } catch (final CloneNotSupportedException e) {
+          throw new IllegalStateException(e);
+        }
+      }
+      final ByteBuffer buffer = ByteBuffer.allocate(this.checksumLength);
+      if (this.checksumLength == 4) {
+        buffer.putInt((int) this.checksum.getValue());
+      } else {
+        buffer.putLong(this.checksum.getValue());
+      }
+      return buffer.array();
+    }
+  }
+}
@@ -0,0 +1,147 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.http;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.ibm.og.api.ChecksumType;
+
+/**
+ * The digest caches for each checksum type, shared by the request suppliers which add
+ * {@code Content-MD5} or checksum headers for zero filled bodies
+ *
+ * @since 1.0
+ */
+public class DigestCaches {
+  private static final Logger _logger = LoggerFactory.getLogger(DigestCaches.class);
+  public static final long DEFAULT_MAXIMUM_SIZE = 100;
+  private static final long PROGRESS_INTERVAL_SECONDS = 5;
+  private final long maximumSize;
+  private final Map<ChecksumType, DigestCache> caches;
+
+  /**
+   * Constructs a digest cache for every checksum type
+   *
+   * @param maximumSize the maximum number of sizes for which each cache precomputes digests, and
+   *        for which it retains digests loaded on demand
+   * @throws IllegalArgumentException if maximumSize is not positive
+   */
+  public DigestCaches(final long maximumSize) {
+    checkArgument(maximumSize > 0, "maximumSize must be > 0 [%s]", maximumSize);
+    this.maximumSize = maximumSize;
+    this.caches = new EnumMap<ChecksumType, DigestCache>(ChecksumType.class);
+    for (final ChecksumType type : ChecksumType.values()) {
+      if (type != ChecksumType.NONE) {
+        this.caches.put(type, new DigestCache(type, maximumSize));
+      }
+    }
+  }
+
+  /**
+   * @param type the checksum type
+   * @return the digest cache for the provided type
+   * @throws IllegalArgumentException if type is NONE
+   */
+  public DigestCache get(final ChecksumType type) {
+    checkNotNull(type);
+    checkArgument(type != ChecksumType.NONE, "type must not be NONE");
+    return this.caches.get(type);
+  }
+
+  public long getMaximumSize() {
+    return this.maximumSize;
+  }
+
+  /**
+   * Computes digests of each type for each of the provided sizes, so that requests do not wait on
+   * hashing. Each type is computed in a single pass on its own thread, and up to
+   * {@code algorithmThreads} types are computed at once; progress is logged periodically until
+   * every type is complete. A single type is not split across threads, since the digest of every
+   * size extends the digest of the sizes below it and a thread starting part way through the sizes
+   * would first have to hash the same prefix again.
+   *
+   * @param types the checksum types to compute
+   * @param sizes the body sizes to compute digests for
+   * @param algorithmThreads the maximum number of types to compute at once
+   * @throws IllegalArgumentException if algorithmThreads is not positive or there are more sizes
+   *         than each cache can retain
+   * @throws InterruptedException if interrupted while waiting for completion
+   */
+  public void precompute(final Set<ChecksumType> types, final SortedSet<Long> sizes,
+      final int algorithmThreads) throws InterruptedException {
+    checkNotNull(types);
+    checkNotNull(sizes);
+    checkArgument(algorithmThreads > 0, "algorithmThreads must be > 0 [%s]", algorithmThreads);
+    checkArgument(sizes.size() <= this.maximumSize, "sizes [%s] must be <= maximumSize [%s]",
+        sizes.size(), this.maximumSize);
+    if (types.isEmpty() || sizes.isEmpty()) {
+      return;
+    }
+
+    final AtomicLong progress = new AtomicLong();
+    final long total = types.size() * sizes.last();
+    final ExecutorService executor =
+        Executors.newFixedThreadPool(Math.min(algorithmThreads, types.size()),
+            new ThreadFactoryBuilder().setNameFormat("digest-%d").setDaemon(true).build());
+    try {
+      final List<Future<?>> futures = Lists.newArrayList();
+      for (final ChecksumType type : types) {
+        final DigestCache cache = get(type);
+        futures.add(executor.submit(new Runnable() {
+          @Override
+          public void run() {
+            cache.precompute(sizes, progress);
+          }
+        }));
+      }
+      for (final Future<?> future : futures) {
+        while (!awaitCompletion(future)) {
+          _logger.info("Precomputing digests [{}%]", total > 0 ? 100 * progress.get() / total : 0);
+        }
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    _logger.info("Precomputed {} digests for {} sizes up to {} bytes", types, sizes.size(),
+        sizes.last());
+  }
+
+  // waits up to the progress interval, returning true once the future is complete
+  private static boolean awaitCompletion(final Future<?> future) throws InterruptedException {
+    try {
+      future.get(PROGRESS_INTERVAL_SECONDS, TimeUnit.SECONDS);
+      return true;
+    } catch (final TimeoutException e) {
+      return false;
+    } catch (final ExecutionException e) {
+      throw new IllegalStateException("Digest precomputation failed", e.getCause());
+    }
+  }
+
+  @Override
+  public String toString() {
+    return String.format("DigestCaches [maximumSize=%s]", this.maximumSize);
+  }
+}
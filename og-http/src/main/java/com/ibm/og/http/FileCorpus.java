@@ -0,0 +1,196 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.http;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkElementIndex;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.PathMatcher;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import com.ibm.og.api.Body;
+
+/**
+ * A fixed set of sample files found under a directory, used as a source of request bodies. The
+ * directory is scanned once at construction; each file is only mapped into memory the first time
+ * its body is requested, after which the body is shared by subsequent requests. At most a
+ * configured number of the most recently used files stay mapped, see {@link MappedFileCache}; a
+ * file whose mapping has been evicted is mapped again the next time its body is requested.
+ *
+ * @since 1.0
+ */
+public class FileCorpus {
+  private final File directory;
+  private final List<File> files;
+  // offsets[i] is the combined size of all files preceding file i
+  private final long[] offsets;
+  private final long totalSize;
+  private final MappedFileCache bodies;
+
+  /**
+   * Constructs a corpus of every non-empty regular file under the provided directory
+   *
+   * @param directory the directory to scan, recursively
+   * @throws NullPointerException if directory is null
+   * @throws IllegalArgumentException if directory is not a directory or contains no files
+   * @throws IOException if the directory cannot be scanned
+   */
+  public FileCorpus(final File directory) throws IOException {
+    this(directory, null);
+  }
+
+  /**
+   * Constructs a corpus of the non-empty regular files under the provided directory whose names
+   * match a glob pattern
+   *
+   * @param directory the directory to scan, recursively
+   * @param pattern a glob pattern, such as {@code *.jpg}, matched against file names; if null all
+   *        files are included
+   * @throws NullPointerException if directory is null
+   * @throws IllegalArgumentException if directory is not a directory or no files match
+   * @throws IOException if the directory cannot be scanned
+   */
+  public FileCorpus(final File directory, final String pattern) throws IOException {
+    this(directory, pattern, MappedFileCache.DEFAULT_MAXIMUM_SIZE);
+  }
+
+  /**
+   * Constructs a corpus of the non-empty regular files under the provided directory whose names
+   * match a glob pattern, keeping at most the provided number of files mapped
+   *
+   * @param directory the directory to scan, recursively
+   * @param pattern a glob pattern, such as {@code *.jpg}, matched against file names; if null all
+   *        files are included
+   * @param maxMappedFiles the maximum number of files which stay mapped
+   * @throws NullPointerException if directory is null
+   * @throws IllegalArgumentException if directory is not a directory, no files match, or
+   *         maxMappedFiles is not positive
+   * @throws IOException if the directory cannot be scanned
+   */
+  public FileCorpus(final File directory, final String pattern, final int maxMappedFiles)
+      throws IOException {
+    this.directory = checkNotNull(directory);
+    checkArgument(directory.isDirectory(), "corpus directory is not a directory [%s]", directory);
+    checkArgument(maxMappedFiles > 0, "maxMappedFiles must be > 0 [%s]", maxMappedFiles);
+    final PathMatcher matcher =
+        pattern != null ? FileSystems.getDefault().getPathMatcher("glob:" + pattern) : null;
+
+    final List<File> candidates = new ArrayList<File>();
+    scan(directory, matcher, candidates);
+    Collections.sort(candidates);
+
+    final File[] found = new File[candidates.size()];
+    final long[] sizes = new long[candidates.size()];
+    int count = 0;
+    for (final File f : candidates) {
+      final long size = f.length();
+      if (size > 0) {
+        found[count] = f;
+        sizes[count] = size;
+        count++;
+      }
+    }
+    checkArgument(count > 0, "corpus directory contains no matching files [%s, %s]", directory,
+        pattern);
+
+    this.files = Collections.unmodifiableList(Arrays.asList(Arrays.copyOf(found, count)));
+    this.offsets = new long[count];
+    long total = 0;
+    for (int i = 0; i < count; i++) {
+      this.offsets[i] = total;
+      total += sizes[i];
+    }
+    this.totalSize = total;
+    this.bodies = new MappedFileCache(maxMappedFiles);
+  }
+
+  private static void scan(final File dir, final PathMatcher matcher, final List<File> files)
+      throws IOException {
+    final File[] children = dir.listFiles();
+    if (children == null) {
+      throw new IOException("Unable to list corpus directory " + dir);
+    }
+    for (final File child : children) {
+      if (child.isDirectory()) {
+        scan(child, matcher, files);
+      } else if (child.isFile()
+          && (matcher == null || matcher.matches(child.toPath().getFileName()))) {
+        files.add(child);
+      }
+    }
+  }
+
+  /**
+   * @return the scanned directory
+   */
+  public File getDirectory() {
+    return this.directory;
+  }
+
+  /**
+   * @return the number of files in this corpus
+   */
+  public int size() {
+    return this.files.size();
+  }
+
+  /**
+   * @return the files in this corpus, ordered by path
+   */
+  public List<File> getFiles() {
+    return this.files;
+  }
+
+  /**
+   * @return the combined size of all files in this corpus, in bytes
+   */
+  public long getTotalSize() {
+    return this.totalSize;
+  }
+
+  /**
+   * Returns a body for the file at the provided index, mapping the file if it is not currently
+   * mapped
+   *
+   * @param index the index of the file
+   * @return a body for the file
+   * @throws IndexOutOfBoundsException if index is out of range
+   */
+  public Body get(final int index) {
+    checkElementIndex(index, size());
+    return this.bodies.get(this.files.get(index).getPath());
+  }
+
+  /**
+   * Returns the index of the file containing the provided byte offset, treating the corpus as the
+   * concatenation of its files. Choosing a uniformly random offset therefore chooses each file with
+   * probability proportional to its size.
+   *
+   * @param offset a byte offset into the corpus
+   * @return the index of the file containing the offset
+   * @throws IllegalArgumentException if offset is negative or not less than the total size
+   */
+  public int indexOf(final long offset) {
+    checkArgument(offset >= 0 && offset < this.totalSize, "offset must be in range [0, %s) [%s]",
+        this.totalSize, offset);
+    final int index = Arrays.binarySearch(this.offsets, offset);
+    // a miss returns (-(insertion point) - 1); the containing file precedes the insertion point
+    return index >= 0 ? index : -index - 2;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("FileCorpus [directory=%s, files=%s, totalSize=%s]", this.directory,
+        this.files.size(), this.totalSize);
+  }
+}
@@ -0,0 +1,85 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.http;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.ibm.og.api.DataType;
+
+/**
+ * A bounded, least recently used cache of memory mapped file bodies, keyed by file path. Each
+ * cached file is mapped once and its body is shared by every request which uses it while it remains
+ * cached.
+ * <p>
+ * A mapping is never unmapped explicitly, since requests still in flight may be reading from it.
+ * Instead, an evicted body is no longer referenced by the cache and its mapping is released by the
+ * garbage collector once the last request using it completes. Bounding the cache therefore bounds
+ * the number of live mappings, which would otherwise grow until mapping another file fails.
+ *
+ * @since 1.0
+ */
+public class MappedFileCache {
+  /** the default maximum number of mapped files */
+  public static final int DEFAULT_MAXIMUM_SIZE = 1024;
+  private final Cache<String, Bodies.FileBodyImpl> cache;
+
+  /**
+   * Constructs a cache which retains at most the provided number of mapped files
+   *
+   * @param maximumSize the maximum number of mapped files to retain
+   * @throws IllegalArgumentException if maximumSize is not positive
+   */
+  public MappedFileCache(final int maximumSize) {
+    checkArgument(maximumSize > 0, "maximumSize must be > 0 [%s]", maximumSize);
+    // a single segment, so that eviction is least recently used across the cache as a whole
+    this.cache = CacheBuilder.newBuilder().concurrencyLevel(1).maximumSize(maximumSize).build();
+  }
+
+  /**
+   * Returns a body for the provided file, mapping the file if it is not cached
+   *
+   * @param filepath the path of the file
+   * @return a body for the file
+   * @throws NullPointerException if filepath is null
+   * @throws IllegalArgumentException if the file does not exist or cannot be mapped
+   */
+  public Bodies.FileBodyImpl get(final String filepath) {
+    checkNotNull(filepath);
+    try {
+      return this.cache.get(filepath, new Callable<Bodies.FileBodyImpl>() {
+        @Override
+        public Bodies.FileBodyImpl call() {
+          return new Bodies.FileBodyImpl(DataType.FILE, filepath);
+        }
+      });
+    } catch (final ExecutionException e) {
+      throw new IllegalArgumentException(e.getCause());
+    } catch (final UncheckedExecutionException e) {
+      Throwables.throwIfUnchecked(e.getCause());
+      throw e;
+    }
+  }
+
+  /**
+   * @return the number of files currently mapped by this cache
+   */
+  public long size() {
+    return this.cache.size();
+  }
+
+  @Override
+  public String toString() {
+    return String.format("MappedFileCache [size=%s]", size());
+  }
+}
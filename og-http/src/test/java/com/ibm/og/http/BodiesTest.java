@@ -8,12 +8,24 @@ package com.ibm.og.http;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
+import com.google.common.io.ByteStreams;
+import com.google.common.io.Files;
 import com.ibm.og.api.Body;
 import com.ibm.og.api.DataType;
+import com.ibm.og.api.ReducibleBody;
 
 public class BodiesTest {
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
   @Test
   public void none() {
     final Body body = Bodies.none();
@@ -44,4 +56,54 @@ public class BodiesTest {
     assertThat(body.getDataType(), is(DataType.ZEROES));
     assertThat(body.getSize(), is(1L));
   }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void entropyNegativeSize() {
+    Bodies.entropy(-1);
+  }
+
+  @Test
+  public void entropy() {
+    final Body body = Bodies.entropy(1);
+    assertThat(body.getDataType(), is(DataType.ENTROPY));
+    assertThat(body.getSize(), is(1L));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void reducibleInvalidRatio() {
+    Bodies.reducible(1, 0.5, 1.0, 4096);
+  }
+
+  @Test
+  public void reducible() {
+    final ReducibleBody body = Bodies.reducible(1, 2.0, 3.0, 4096);
+    assertThat(body.getDataType(), is(DataType.REDUCIBLE));
+    assertThat(body.getSize(), is(1L));
+    assertThat(body.getCompressionRatio(), is(2.0));
+    assertThat(body.getDedupeRatio(), is(3.0));
+    assertThat(body.getBlockSize(), is(4096));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void fileMissing() {
+    Bodies.file(new File(this.folder.getRoot(), "missing").getPath());
+  }
+
+  @Test
+  public void file() throws IOException {
+    final File file = this.folder.newFile();
+    final byte[] data = "file body content".getBytes();
+    Files.write(data, file);
+    final Body body = Bodies.file(file.getPath());
+    assertThat(body.getDataType(), is(DataType.FILE));
+    assertThat(body.getSize(), is((long) data.length));
+    assertThat(body.getData(), is(data));
+    assertThat(Bodies.file(file.getPath()), is(body));
+
+    final InputStream in = ((Bodies.FileBodyImpl) body).newInputStream();
+    in.mark(Integer.MAX_VALUE);
+    assertThat(ByteStreams.toByteArray(in), is(data));
+    in.reset();
+    assertThat(ByteStreams.toByteArray(in), is(data));
+  }
 }
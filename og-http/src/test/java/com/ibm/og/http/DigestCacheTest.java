@@ -0,0 +1,113 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.http;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import com.google.common.collect.ImmutableSortedSet;
+import com.ibm.og.api.ChecksumType;
+import com.tngtech.java.junit.dataprovider.DataProvider;
+import com.tngtech.java.junit.dataprovider.DataProviderRunner;
+import com.tngtech.java.junit.dataprovider.UseDataProvider;
+
+@RunWith(DataProviderRunner.class)
+public class DigestCacheTest {
+  private static final SortedSet<Long> SIZES =
+      ImmutableSortedSet.of(0L, 1L, 10L, 1000L, 65536L, 65537L, 1000000L);
+
+  @DataProvider
+  public static Object[][] provideType() {
+    return new Object[][] {{ChecksumType.MD5}, {ChecksumType.SHA1}, {ChecksumType.SHA256},
+        {ChecksumType.CRC32}, {ChecksumType.CRC32C}, {ChecksumType.CRC64NVME}};
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void noneType() {
+    new DigestCache(ChecksumType.NONE, 1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void zeroMaximumSize() {
+    new DigestCache(ChecksumType.MD5, 0);
+  }
+
+  @Test
+  @UseDataProvider("provideType")
+  public void precomputeMatchesLoader(final ChecksumType type) throws Exception {
+    final DigestCache cache = new DigestCache(type, SIZES.size());
+    final AtomicLong progress = new AtomicLong();
+    cache.precompute(SIZES, progress);
+    assertThat(progress.get(), is(SIZES.last()));
+    assertThat(cache.size(), is((long) SIZES.size()));
+
+    final DigestLoader loader = new DigestLoader(type);
+    for (final Long size : SIZES) {
+      assertThat(cache.get(size), is(loader.load(size)));
+    }
+  }
+
+  @Test
+  public void getLoadsOnDemand() throws Exception {
+    final DigestCache cache = new DigestCache(ChecksumType.MD5, 10);
+    assertThat(cache.size(), is(0L));
+    assertThat(cache.get(1000L), is(new MD5DigestLoader().load(1000L)));
+    assertThat(cache.size(), is(1L));
+  }
+
+  @Test
+  public void precomputeMaximumSize() throws Exception {
+    final SortedSet<Long> sizes = new TreeSet<Long>();
+    for (long size = 0; size < 1000; size++) {
+      sizes.add(size);
+    }
+    final DigestCache cache = new DigestCache(ChecksumType.MD5, sizes.size());
+    cache.precompute(sizes, new AtomicLong());
+    assertThat(cache.size(), is((long) sizes.size()));
+
+    // loading digests on demand does not evict any precomputed digest
+    final MD5DigestLoader loader = new MD5DigestLoader();
+    for (long size = 1000; size < 1100; size++) {
+      assertThat(cache.get(size), is(loader.load(size)));
+    }
+    for (final Long size : sizes) {
+      assertThat(cache.get(size), is(loader.load(size)));
+    }
+    assertThat(cache.size(), is((long) sizes.size() + 100));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void precomputeMoreThanMaximumSize() {
+    new DigestCache(ChecksumType.MD5, 2).precompute(SIZES, new AtomicLong());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void precomputeNegativeSize() {
+    new DigestCache(ChecksumType.MD5, 2).precompute(new TreeSet<Long>(ImmutableSortedSet.of(-1L)),
+        new AtomicLong());
+  }
+
+  @Test
+  public void digestCachesPrecompute() throws Exception {
+    final DigestCaches caches = new DigestCaches(SIZES.size());
+    caches.precompute(ImmutableSortedSet.of(ChecksumType.MD5, ChecksumType.CRC32C), SIZES, 4);
+    assertThat(caches.get(ChecksumType.MD5).size(), is((long) SIZES.size()));
+    assertThat(caches.get(ChecksumType.CRC32C).size(), is((long) SIZES.size()));
+    assertThat(caches.get(ChecksumType.SHA256).size(), is(0L));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void digestCachesNoneType() {
+    new DigestCaches(1).get(ChecksumType.NONE);
+  }
+}
@@ -0,0 +1,135 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.http;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+
+import com.google.common.io.Files;
+import com.ibm.og.api.Body;
+import com.ibm.og.api.DataType;
+import com.tngtech.java.junit.dataprovider.DataProvider;
+import com.tngtech.java.junit.dataprovider.DataProviderRunner;
+import com.tngtech.java.junit.dataprovider.UseDataProvider;
+
+@RunWith(DataProviderRunner.class)
+public class FileCorpusTest {
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+  private File directory;
+
+  @Before
+  public void before() throws IOException {
+    this.directory = this.folder.newFolder("corpus");
+    write("b.txt", 20);
+    write("a.jpg", 10);
+    write("nested/c.jpg", 30);
+    write("empty.txt", 0);
+  }
+
+  private void write(final String name, final int size) throws IOException {
+    final File f = new File(this.directory, name);
+    f.getParentFile().mkdirs();
+    Files.write(new byte[size], f);
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void nullDirectory() throws IOException {
+    new FileCorpus(null);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void missingDirectory() throws IOException {
+    new FileCorpus(new File(this.folder.getRoot(), "missing"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void noMatchingFiles() throws IOException {
+    new FileCorpus(this.directory, "*.png");
+  }
+
+  @Test
+  public void corpus() throws IOException {
+    final FileCorpus corpus = new FileCorpus(this.directory);
+    // empty files are excluded and files are ordered by path
+    assertThat(corpus.size(), is(3));
+    assertThat(corpus.getTotalSize(), is(60L));
+    assertThat(corpus.getFiles().get(0).getName(), is("a.jpg"));
+    assertThat(corpus.getFiles().get(1).getName(), is("b.txt"));
+    assertThat(corpus.getFiles().get(2).getName(), is("c.jpg"));
+  }
+
+  @Test
+  public void pattern() throws IOException {
+    final FileCorpus corpus = new FileCorpus(this.directory, "*.jpg");
+    assertThat(corpus.size(), is(2));
+    assertThat(corpus.getTotalSize(), is(40L));
+  }
+
+  @Test
+  public void get() throws IOException {
+    final FileCorpus corpus = new FileCorpus(this.directory);
+    final Body body = corpus.get(1);
+    assertThat(body.getDataType(), is(DataType.FILE));
+    assertThat(body.getSize(), is(20L));
+    assertThat(corpus.get(1), sameInstance(body));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void zeroMaxMappedFiles() throws IOException {
+    new FileCorpus(this.directory, null, 0);
+  }
+
+  @Test
+  public void maxMappedFiles() throws IOException {
+    final FileCorpus corpus = new FileCorpus(this.directory, null, 1);
+    final Body body = corpus.get(0);
+    assertThat(corpus.get(0), sameInstance(body));
+    // mapping another file evicts the first, which is mapped again on its next use
+    assertThat(corpus.get(1).getSize(), is(20L));
+    final Body remapped = corpus.get(0);
+    assertThat(remapped, not(sameInstance(body)));
+    assertThat(remapped.getSize(), is(10L));
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void getOutOfRange() throws IOException {
+    new FileCorpus(this.directory).get(3);
+  }
+
+  @DataProvider
+  public static Object[][] provideOffset() {
+    return new Object[][] {{0, 0}, {9, 0}, {10, 1}, {29, 1}, {30, 2}, {59, 2}};
+  }
+
+  @Test
+  @UseDataProvider("provideOffset")
+  public void indexOf(final long offset, final int index) throws IOException {
+    assertThat(new FileCorpus(this.directory).indexOf(offset), is(index));
+  }
+
+  @DataProvider
+  public static Object[][] provideInvalidOffset() {
+    return new Object[][] {{-1L}, {60L}};
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  @UseDataProvider("provideInvalidOffset")
+  public void indexOfOutOfRange(final long offset) throws IOException {
+    new FileCorpus(this.directory).indexOf(offset);
+  }
+}
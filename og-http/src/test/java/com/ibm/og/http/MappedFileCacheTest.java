@@ -0,0 +1,78 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.http;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.io.ByteStreams;
+import com.google.common.io.Files;
+import com.ibm.og.api.Body;
+
+public class MappedFileCacheTest {
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+  private File a;
+  private File b;
+
+  @Before
+  public void before() throws IOException {
+    this.a = this.folder.newFile("a");
+    Files.write("a".getBytes(), this.a);
+    this.b = this.folder.newFile("b");
+    Files.write("bb".getBytes(), this.b);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void zeroMaximumSize() {
+    new MappedFileCache(0);
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void nullFilepath() {
+    new MappedFileCache(1).get(null);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void missingFile() {
+    new MappedFileCache(1).get(new File(this.folder.getRoot(), "missing").getPath());
+  }
+
+  @Test
+  public void get() throws IOException {
+    final MappedFileCache cache = new MappedFileCache(2);
+    final Body body = cache.get(this.a.getPath());
+    assertThat(body.getSize(), is(1L));
+    assertThat(cache.get(this.a.getPath()), sameInstance(body));
+    assertThat(cache.get(this.b.getPath()).getSize(), is(2L));
+    assertThat(cache.size(), is(2L));
+  }
+
+  @Test
+  public void evictsLeastRecentlyUsed() throws IOException {
+    final MappedFileCache cache = new MappedFileCache(1);
+    final Bodies.FileBodyImpl first = cache.get(this.a.getPath());
+    cache.get(this.b.getPath());
+    assertThat(cache.size(), is(1L));
+
+    // the evicted body remains readable and the file is mapped again on its next use
+    assertThat(ByteStreams.toByteArray(first.newInputStream()), is("a".getBytes()));
+    final Bodies.FileBodyImpl second = cache.get(this.a.getPath());
+    assertThat(second, not(sameInstance(first)));
+    assertThat(ByteStreams.toByteArray(second.newInputStream()), is("a".getBytes()));
+    assertThat(cache.size(), is(1L));
+  }
+}
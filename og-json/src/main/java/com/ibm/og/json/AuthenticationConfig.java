@@ -17,7 +17,12 @@ public class AuthenticationConfig {
   public String credentialFile;
   public String account;
   public boolean awsChunked;
+  public int awsChunkSize;
   public int awsCacheSize;
+  public boolean awsUnsignedPayload;
+  public boolean awsPresigned;
+  public int awsPresignedExpiration;
+  public int awsPresignedCacheSize;
 
   public AuthenticationConfig() {
     this.type = AuthType.NONE;
@@ -29,6 +34,11 @@ public class AuthenticationConfig {
     this.credentialFile = null;
     this.account = null;
     this.awsChunked = false;
+    this.awsChunkSize = 128 * 1024;
     this.awsCacheSize = 0;
+    this.awsUnsignedPayload = false;
+    this.awsPresigned = false;
+    this.awsPresignedExpiration = 3600;
+    this.awsPresignedCacheSize = 10000;
   }
 }
@@ -8,6 +8,7 @@ package com.ibm.og.json;
 import java.util.List;
 
 public class ClientConfig {
+  public ClientType type;
   public int connectTimeout;
   public int soTimeout;
   public boolean soReuseAddress;
@@ -41,8 +42,12 @@ public class ClientConfig {
   public String proxyScheme;
   public String proxyUser;
   public String proxyPassword;
+  public int ioThreads;
+  public int maxConcurrentStreams;
+  public int connectionsPerHost;
 
   public ClientConfig() {
+    this.type = ClientType.APACHE;
     this.connectTimeout = 0;
     this.soTimeout = 0;
     this.soReuseAddress = false;
@@ -73,5 +78,8 @@ public class ClientConfig {
     this.readThroughput = 0;
     this.proxyPort = 3128;
     this.proxyScheme = "https";
+    this.ioThreads = 0;
+    this.maxConcurrentStreams = 100;
+    this.connectionsPerHost = 1;
   }
 }
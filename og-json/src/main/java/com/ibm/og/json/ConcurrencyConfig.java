@@ -5,14 +5,20 @@
 
 package com.ibm.og.json;
 
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
+import com.google.common.collect.Lists;
+
 public class ConcurrencyConfig {
   public ConcurrencyType type;
   public Double count;
   public TimeUnit unit;
   public double rampup;
   public TimeUnit rampupUnit;
+  public List<RateProfileSegmentConfig> profile;
+  public TraceConfig trace;
+  public SaturationConfig saturation;
 
   public ConcurrencyConfig() {
     this.type = null;
@@ -20,5 +26,8 @@ public class ConcurrencyConfig {
     this.unit = TimeUnit.SECONDS;
     this.rampup = 0.0;
     this.rampupUnit = TimeUnit.SECONDS;
+    this.profile = Lists.newArrayList();
+    this.trace = null;
+    this.saturation = new SaturationConfig();
   }
 }
@@ -0,0 +1,27 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.json;
+
+/**
+ * A configuration for a directory of sample files used as request bodies
+ *
+ * @since 1.0
+ */
+public class CorpusConfig {
+  public String directory;
+  public String pattern;
+  public SelectionType selection;
+  public boolean sizeWeighted;
+  public int maxMappedFiles;
+
+  public CorpusConfig() {
+    this.directory = null;
+    this.pattern = null;
+    this.selection = SelectionType.RANDOM;
+    this.sizeWeighted = false;
+    this.maxMappedFiles = 1024;
+  }
+}
@@ -0,0 +1,23 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.json;
+
+/**
+ * A configuration for the compression and dedupe ratios of reducible data
+ *
+ * @since 1.0
+ */
+public class DataReductionConfig {
+  public double compressionRatio;
+  public double dedupeRatio;
+  public int blockSize;
+
+  public DataReductionConfig() {
+    this.compressionRatio = 1.0;
+    this.dedupeRatio = 1.0;
+    this.blockSize = 4096;
+  }
+}
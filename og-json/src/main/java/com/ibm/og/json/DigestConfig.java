@@ -0,0 +1,24 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.json;
+
+/**
+ * A configuration for the caches of {@code Content-MD5} and checksum values of zero filled bodies
+ *
+ * @since 1.0
+ */
+public class DigestConfig {
+  public boolean precompute;
+  public long cacheSize;
+  public int algorithmThreads;
+
+  public DigestConfig() {
+    this.precompute = false;
+    this.cacheSize = 100;
+    // the number of checksum types precomputed at once; 0 uses every available processor
+    this.algorithmThreads = 0;
+  }
+}
@@ -60,6 +60,9 @@ public class OGConfig {
 
   public SelectionConfig<FilesizeConfig> filesize;
   public DataType data;
+  public SelectionConfig<CorpusConfig> corpus;
+  public DataReductionConfig dataReduction;
+  public DigestConfig digest;
   public ConcurrencyConfig concurrency;
   public AuthenticationConfig authentication;
   public ClientConfig client;
@@ -69,6 +72,9 @@ public class OGConfig {
   public boolean shutdownImmediate;
   public boolean abortMpuWhenStopping;
   public int shutdownTimeout;
+  public boolean virtualThreads;
+  public int producerThreads;
+  public int completionBufferSize;
   public boolean virtualHost;
   public Integer statsLogInterval;
   public boolean octalNamingMode;
@@ -114,6 +120,9 @@ public class OGConfig {
     this.querySelectObject = new OperationConfig();
     this.filesize = null;
     this.data = DataType.RANDOM;
+    this.corpus = null;
+    this.dataReduction = new DataReductionConfig();
+    this.digest = new DigestConfig();
     this.concurrency = null;
     this.authentication = new AuthenticationConfig();
     this.client = new ClientConfig();
@@ -123,6 +132,9 @@ public class OGConfig {
     this.abortMpuWhenStopping = false;
     this.shutdownImmediate = true;
     this.shutdownTimeout = 3600;
+    this.virtualThreads = false;
+    this.producerThreads = 1;
+    this.completionBufferSize = 0;
     this.virtualHost = false;
     this.statsLogInterval = -1; //seconds
     this.octalNamingMode = false;
@@ -13,6 +13,8 @@ public class ObjectManagerConfig {
   public long objectFileMaxSize;
   public long objectFilePersistFrequency;
   public Integer objectFileIndex;
+  public boolean offHeap;
+  public long objectFileJournalFlushInterval;
 
   public ObjectManagerConfig() {
     this.objectFileLocation = "./object";
@@ -20,5 +22,7 @@ public class ObjectManagerConfig {
     this.objectFileMaxSize = 100000000; // 100mb
     this.objectFilePersistFrequency = 1800; // 30 minutes
     this.objectFileIndex = null;
+    this.offHeap = false;
+    this.objectFileJournalFlushInterval = 1000; // 1 second
   }
 }
@@ -34,6 +34,7 @@ public class OperationConfig {
   public boolean contentMd5;
 
   public ChecksumType checksumType;
+  public boolean trailingChecksum;
   public Integer objectRestorePeriod;
   public Integer archiveTransitionPeriod;
   public SelectionConfig<RetentionConfig> containerMinimumRetention;
@@ -95,5 +96,6 @@ public class OperationConfig {
     this.objectVersionSelection = null;
     this.objectLegalHoldStatusSelection = null;
     this.checksumType = ChecksumType.NONE;
+    this.trailingChecksum = false;
   }
 }
@@ -0,0 +1,26 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.json;
+
+import java.util.concurrent.TimeUnit;
+
+public class RateProfileSegmentConfig {
+  public RateProfileShape shape;
+  public Double count;
+  public double duration;
+  public TimeUnit durationUnit;
+  public double amplitude;
+  public double period;
+
+  public RateProfileSegmentConfig() {
+    this.shape = null;
+    this.count = null;
+    this.duration = 0.0;
+    this.durationUnit = TimeUnit.SECONDS;
+    this.amplitude = 0.0;
+    this.period = 0.0;
+  }
+}
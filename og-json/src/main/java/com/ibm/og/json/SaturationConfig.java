@@ -0,0 +1,32 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.json;
+
+import java.util.concurrent.TimeUnit;
+
+public class SaturationConfig {
+  public double percentile;
+  public double latency;
+  public TimeUnit latencyUnit;
+  public double errorRate;
+  public double minRate;
+  public Double maxRate;
+  public double precision;
+  public double stepDuration;
+  public TimeUnit stepDurationUnit;
+
+  public SaturationConfig() {
+    this.percentile = 99.0;
+    this.latency = 200.0;
+    this.latencyUnit = TimeUnit.MILLISECONDS;
+    this.errorRate = 0.001;
+    this.minRate = 1.0;
+    this.maxRate = null;
+    this.precision = 0.05;
+    this.stepDuration = 60.0;
+    this.stepDurationUnit = TimeUnit.SECONDS;
+  }
+}
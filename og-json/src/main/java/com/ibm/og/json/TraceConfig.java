@@ -0,0 +1,24 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.json;
+
+import java.util.concurrent.TimeUnit;
+
+public class TraceConfig {
+  public String path;
+  public TraceFormat format;
+  public double speed;
+  public double reorderWindow;
+  public TimeUnit reorderWindowUnit;
+
+  public TraceConfig() {
+    this.path = null;
+    this.format = TraceFormat.REQUEST_LOG;
+    this.speed = 1.0;
+    this.reorderWindow = 10.0;
+    this.reorderWindowUnit = TimeUnit.SECONDS;
+  }
+}
@@ -12,6 +12,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 
+import com.ibm.og.api.CompletionListener;
 import com.ibm.og.api.Operation;
 import com.ibm.og.api.Request;
 import com.ibm.og.api.Response;
@@ -19,14 +20,13 @@ import com.ibm.og.http.HttpUtil;
 import com.ibm.og.util.Context;
 import com.ibm.og.util.Pair;
 import com.google.common.collect.ImmutableSet;
-import com.google.common.eventbus.Subscribe;
 
 /**
  * A consumer of object names
  * 
  * @since 1.0
  */
-public abstract class AbstractObjectNameConsumer {
+public abstract class AbstractObjectNameConsumer implements CompletionListener {
   protected final ObjectManager objectManager;
   private final Operation operation;
   private final Set<Integer> statusCodes;
@@ -56,12 +56,24 @@ public abstract class AbstractObjectNameConsumer {
    * 
    * @param operation the operation to process
    */
-  @Subscribe
   public void consume(final Pair<Request, Response> operation) {
     checkNotNull(operation);
-    final Request request = operation.getKey();
-    final Response response = operation.getValue();
+    complete(operation.getKey(), operation.getValue());
+  }
+
+  @Override
+  public Set<Operation> operations() {
+    return ImmutableSet.of(this.operation);
+  }
 
+  /**
+   * Processes the object name of a completed operation
+   * 
+   * @param request the completed request
+   * @param response the response for request
+   */
+  @Override
+  public void complete(final Request request, final Response response) {
     // if this consumer is not relevant for the current response, ignore
     if (this.operation != request.getOperation()) {
       return;
@@ -0,0 +1,70 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.object;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Iterator;
+
+/**
+ * An {@code ObjectStore} which keeps object metadata on the heap in a
+ * {@link RandomAccessConcurrentHashSet}. Objects are considered equivalent according to
+ * {@link ObjectMetadata#equals(Object)}.
+ *
+ * @since 1.0
+ */
+public class ConcurrentHashObjectStore implements ObjectStore {
+  private final RandomAccessConcurrentHashSet<ObjectMetadata> objects;
+
+  public ConcurrentHashObjectStore() {
+    this.objects = new RandomAccessConcurrentHashSet<ObjectMetadata>();
+  }
+
+  @Override
+  public ObjectMetadata put(final ObjectMetadata objectMetadata) {
+    return this.objects.put(checkNotNull(objectMetadata));
+  }
+
+  @Override
+  public ObjectMetadata remove(final ObjectMetadata objectMetadata) {
+    return this.objects.remove(checkNotNull(objectMetadata));
+  }
+
+  @Override
+  public boolean contains(final ObjectMetadata objectMetadata) {
+    return this.objects.contains(checkNotNull(objectMetadata));
+  }
+
+  @Override
+  public ObjectMetadata getRandom() {
+    return this.objects.getRandom();
+  }
+
+  @Override
+  public ObjectMetadata removeRandom() {
+    return this.objects.removeRandom();
+  }
+
+  @Override
+  public int size() {
+    return this.objects.size();
+  }
+
+  @Override
+  public void clear() {
+    this.objects.clear();
+  }
+
+  @Override
+  public Iterator<ObjectMetadata> iterator() {
+    return this.objects.iterator();
+  }
+
+  @Override
+  public String toString() {
+    return String.format("ConcurrentHashObjectStore [size=%s]", size());
+  }
+}
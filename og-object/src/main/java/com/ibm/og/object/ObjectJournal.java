@@ -0,0 +1,275 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.object;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An append-only log of object additions and removals, used to recover the state of an object
+ * manager between checkpoints of its object file. Recording an operation only enqueues it; records
+ * are written and synced to disk by {@link #flush()}, which is expected to be called periodically
+ * from a single background thread.
+ * <p>
+ * At a checkpoint the journal is rotated; the previous segment is retained until the checkpoint has
+ * been written. Replaying the previous segment and then the current one over the most recent
+ * checkpoint reproduces the state as of the last flush, because each record carries the full
+ * object and replay keeps only the last operation for each object name.
+ */
+final class ObjectJournal {
+  private static final Logger _logger = LoggerFactory.getLogger(ObjectJournal.class);
+  static final byte ADD = 1;
+  static final byte REMOVE = 2;
+  private static final int VERSIONED_SIZE =
+      LegacyObjectMetadata.OBJECT_SIZE + LegacyObjectMetadata.OBJECT_VERSION_MAX_SIZE;
+  // operation, version flag, object record with version
+  static final int RECORD_SIZE = 2 + VERSIONED_SIZE;
+  private static final int BUFFER_SIZE = RECORD_SIZE * 1024;
+
+  private final File file;
+  private final File previous;
+  private final Queue<Entry> pending;
+  private final ByteBuffer buffer;
+  private FileChannel channel;
+
+  private static final class Entry {
+    final byte operation;
+    final ObjectMetadata id;
+
+    Entry(final byte operation, final ObjectMetadata id) {
+      this.operation = operation;
+      this.id = id;
+    }
+  }
+
+  /**
+   * Constructs a journal which appends to the provided file. The file is created when the first
+   * record is flushed.
+   *
+   * @param file the journal file
+   */
+  ObjectJournal(final File file) {
+    this.file = checkNotNull(file);
+    this.previous = new File(file.getPath() + ".previous");
+    this.pending = new ConcurrentLinkedQueue<Entry>();
+    this.buffer = ByteBuffer.allocate(BUFFER_SIZE);
+  }
+
+  private FileChannel channel() throws IOException {
+    if (this.channel == null) {
+      this.channel = open(this.file);
+    }
+    return this.channel;
+  }
+
+  private static FileChannel open(final File file) throws IOException {
+    return FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+        StandardOpenOption.APPEND);
+  }
+
+  /**
+   * Records the addition of an object. This method does not block.
+   *
+   * @param id the added object
+   */
+  void add(final ObjectMetadata id) {
+    this.pending.add(new Entry(ADD, checkNotNull(id)));
+  }
+
+  /**
+   * Records the removal of an object. This method does not block.
+   *
+   * @param id the removed object
+   */
+  void remove(final ObjectMetadata id) {
+    this.pending.add(new Entry(REMOVE, checkNotNull(id)));
+  }
+
+  /**
+   * Writes all records enqueued so far to the journal file and syncs it to disk
+   *
+   * @return the number of records written
+   * @throws IOException if the records cannot be written
+   */
+  int flush() throws IOException {
+    int count = 0;
+    Entry entry;
+    while ((entry = this.pending.poll()) != null) {
+      if (this.buffer.remaining() < RECORD_SIZE) {
+        drain();
+      }
+      this.buffer.put(entry.operation);
+      this.buffer.put(entry.id.hasVersion() ? (byte) 1 : (byte) 0);
+      this.buffer.put(entry.id.toBytes(true), 0, VERSIONED_SIZE);
+      count++;
+    }
+    drain();
+    if (count > 0) {
+      this.channel.force(false);
+    }
+    return count;
+  }
+
+  private void drain() throws IOException {
+    this.buffer.flip();
+    while (this.buffer.hasRemaining()) {
+      channel().write(this.buffer);
+    }
+    this.buffer.clear();
+  }
+
+  /**
+   * Flushes and closes the current segment, retains it as the previous segment and starts a new
+   * empty segment. Must be called before a checkpoint snapshot of the object store is taken.
+   *
+   * @throws IOException if the journal cannot be rotated
+   */
+  void rotate() throws IOException {
+    flush();
+    if (!this.file.exists()) {
+      // nothing recorded since the last rotation
+      return;
+    }
+    if (this.previous.exists()) {
+      // the previous segment is not yet covered by a checkpoint, so extend it rather than replace it
+      final FileChannel target = open(this.previous);
+      final FileChannel source = FileChannel.open(this.file.toPath(), StandardOpenOption.READ);
+      try {
+        final long size = source.size();
+        long position = 0;
+        while (position < size) {
+          position += source.transferTo(position, size - position, target);
+        }
+        target.force(false);
+      } finally {
+        source.close();
+        target.close();
+      }
+      channel().truncate(0);
+      this.channel.force(false);
+    } else {
+      close();
+      if (!this.file.renameTo(this.previous)) {
+        throw new IOException("Unable to rotate journal " + this.file);
+      }
+    }
+  }
+
+  private void close() throws IOException {
+    if (this.channel != null) {
+      this.channel.close();
+      this.channel = null;
+    }
+  }
+
+  /**
+   * Deletes the previous segment, once a checkpoint taken after the last rotation is durable
+   */
+  void checkpointed() {
+    if (this.previous.exists() && !this.previous.delete()) {
+      _logger.warn("Unable to delete journal segment {}", this.previous);
+    }
+  }
+
+  /**
+   * Closes this journal and deletes its segments. Any records not yet flushed are discarded, so
+   * this should only be called after a final checkpoint.
+   *
+   * @throws IOException if the journal cannot be closed
+   */
+  void delete() throws IOException {
+    this.pending.clear();
+    close();
+    checkpointed();
+    if (this.file.exists() && !this.file.delete()) {
+      _logger.warn("Unable to delete journal {}", this.file);
+    }
+  }
+
+  /**
+   * Applies the journal segments belonging to the provided journal file, oldest first, to an
+   * object store
+   *
+   * @param file the journal file
+   * @param objects the object store to update
+   * @return true if any object added by the journal has a version, else false
+   * @throws IOException if a journal segment cannot be read
+   */
+  static boolean replay(final File file, final ObjectStore objects) throws IOException {
+    final boolean previousVersioned =
+        replaySegment(new File(file.getPath() + ".previous"), objects);
+    return replaySegment(file, objects) || previousVersioned;
+  }
+
+  private static boolean replaySegment(final File segment, final ObjectStore objects)
+      throws IOException {
+    if (!segment.exists()) {
+      return false;
+    }
+    int count = 0;
+    boolean versioned = false;
+    final byte[] record = new byte[RECORD_SIZE];
+    final InputStream in = new BufferedInputStream(new FileInputStream(segment));
+    try {
+      // a partially written trailing record is ignored
+      while (readFully(in, record)) {
+        final ObjectMetadata id = toObject(record);
+        objects.remove(id);
+        if (record[0] == ADD) {
+          objects.put(id);
+          versioned |= id.hasVersion();
+        }
+        count++;
+      }
+    } finally {
+      in.close();
+    }
+    _logger.info("Replayed {} records from journal {}", count, segment);
+    return versioned;
+  }
+
+  private static boolean readFully(final InputStream in, final byte[] record) throws IOException {
+    int read = 0;
+    while (read < record.length) {
+      final int n = in.read(record, read, record.length - read);
+      if (n < 0) {
+        return false;
+      }
+      read += n;
+    }
+    return true;
+  }
+
+  private static ObjectMetadata toObject(final byte[] record) {
+    final byte[] bytes;
+    if (record[1] != 0) {
+      bytes = new byte[VERSIONED_SIZE];
+      System.arraycopy(record, 2, bytes, 0, VERSIONED_SIZE);
+      return LegacyObjectMetadata.fromBytes(bytes, true);
+    }
+    // drop the empty version field
+    final int name = LegacyObjectMetadata.OBJECT_NAME_SIZE;
+    final int version = LegacyObjectMetadata.OBJECT_VERSION_MAX_SIZE;
+    bytes = new byte[LegacyObjectMetadata.OBJECT_SIZE];
+    System.arraycopy(record, 2, bytes, 0, name);
+    System.arraycopy(record, 2 + name + version, bytes, name,
+        LegacyObjectMetadata.OBJECT_SIZE - name);
+    return LegacyObjectMetadata.fromBytes(bytes, false);
+  }
+}
@@ -0,0 +1,78 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.object;
+
+import java.util.Iterator;
+
+/**
+ * A thread safe collection of object metadata supporting random selection, used as the backing
+ * storage of an object manager
+ *
+ * @since 1.0
+ */
+public interface ObjectStore {
+  /**
+   * Adds an object to this store
+   *
+   * @param objectMetadata the object to add
+   * @return objectMetadata, or null if an equivalent object is already present
+   * @throws NullPointerException if objectMetadata is null
+   */
+  ObjectMetadata put(ObjectMetadata objectMetadata);
+
+  /**
+   * Removes an object from this store
+   *
+   * @param objectMetadata the object to remove
+   * @return the removed object, or null if no equivalent object is present
+   * @throws NullPointerException if objectMetadata is null
+   */
+  ObjectMetadata remove(ObjectMetadata objectMetadata);
+
+  /**
+   * Determines whether an object is present in this store
+   *
+   * @param objectMetadata the object to check
+   * @return true if an equivalent object is present, else false
+   * @throws NullPointerException if objectMetadata is null
+   */
+  boolean contains(ObjectMetadata objectMetadata);
+
+  /**
+   * Selects a random object from this store
+   *
+   * @return a random object, or null if this store is empty
+   */
+  ObjectMetadata getRandom();
+
+  /**
+   * Removes and returns a random object from this store
+   *
+   * @return a random object, or null if this store is empty
+   */
+  ObjectMetadata removeRandom();
+
+  /**
+   * Returns the number of objects in this store
+   *
+   * @return the number of objects in this store
+   */
+  int size();
+
+  /**
+   * Removes all objects from this store
+   */
+  void clear();
+
+  /**
+   * Returns an iterator over the objects in this store. The iterator supports removal of the most
+   * recently returned object, but is not required to reflect concurrent modification by other
+   * threads.
+   *
+   * @return an iterator over the objects in this store
+   */
+  Iterator<ObjectMetadata> iterator();
+}
@@ -0,0 +1,543 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.object;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * An {@code ObjectStore} which keeps object metadata outside of the java heap. Each object is
+ * stored as a fixed width record, the 51 byte versioned object file v3 layout followed by a flags
+ * byte, in a dense array of records spread over direct memory slabs. Records are located by name
+ * using an open addressing, linear probing index which is also held in direct memory and which maps
+ * the 18 byte object name to a record slot.
+ * <p>
+ * Like {@link RandomAccessConcurrentHashSet}, the store is subdivided into segments by the hash of
+ * the object name. Each segment has its own lock, index and record slabs, so operations on objects
+ * in different segments do not contend. Within a segment, records always occupy slots
+ * {@code [0, size)}; removing a record moves the segment's last record into the vacated slot.
+ * Random selection picks a random segment and then a single uniformly random slot within it, and
+ * memory use is proportional to the number of objects with no per object heap allocation. Objects
+ * are considered equivalent if they have the same name. Direct memory is limited by the jvm's
+ * {@code -XX:MaxDirectMemorySize} setting.
+ *
+ * @since 1.0
+ */
+public class OffHeapObjectStore implements ObjectStore {
+  private static final int NAME_SIZE = LegacyObjectMetadata.OBJECT_NAME_SIZE;
+  private static final int VERSIONED_SIZE =
+      LegacyObjectMetadata.OBJECT_SIZE + LegacyObjectMetadata.OBJECT_VERSION_MAX_SIZE;
+  private static final int FLAGS_OFFSET = VERSIONED_SIZE;
+  private static final byte FLAG_VERSION = 1;
+  static final int RECORD_SIZE = VERSIONED_SIZE + 1;
+  static final int DEFAULT_SEGMENTS = 16;
+  static final int MAX_SEGMENTS = 1 << 16;
+  static final int DEFAULT_RECORD_SLAB_SHIFT = 16;
+  static final int DEFAULT_INDEX_SLAB_SHIFT = 24;
+  private static final int MIN_INDEX_CAPACITY = 16;
+  // slot + 1 is stored in the index so that 0 marks an empty index entry
+  private static final int MAX_OBJECTS = Integer.MAX_VALUE - 1;
+
+  private final int recordSlabShift;
+  private final int recordSlabMask;
+  private final int indexSlabShift;
+  private final int indexSlabMask;
+  private final int segmentShift;
+  private final int segmentMask;
+  private final Segment[] segments;
+
+  /**
+   * Creates an instance
+   */
+  public OffHeapObjectStore() {
+    this(0);
+  }
+
+  /**
+   * Creates an instance whose index is presized for an expected number of objects
+   *
+   * @param expectedObjects the number of objects this store is expected to hold
+   * @throws IllegalArgumentException if expectedObjects is negative
+   */
+  public OffHeapObjectStore(final int expectedObjects) {
+    this(expectedObjects, DEFAULT_SEGMENTS, DEFAULT_RECORD_SLAB_SHIFT, DEFAULT_INDEX_SLAB_SHIFT);
+  }
+
+  OffHeapObjectStore(final int expectedObjects, final int segments, final int recordSlabShift,
+      final int indexSlabShift) {
+    checkArgument(expectedObjects >= 0, "expectedObjects must be >= 0 [%s]", expectedObjects);
+    checkArgument(segments > 0 && segments <= MAX_SEGMENTS && Integer.bitCount(segments) == 1,
+        "segments must be a power of 2 in range [1, %s] [%s]", MAX_SEGMENTS, segments);
+    checkArgument(recordSlabShift > 0 && recordSlabShift <= 24,
+        "recordSlabShift must be in range [1, 24] [%s]", recordSlabShift);
+    checkArgument(indexSlabShift > 0 && indexSlabShift <= 28,
+        "indexSlabShift must be in range [1, 28] [%s]", indexSlabShift);
+    this.recordSlabShift = recordSlabShift;
+    this.recordSlabMask = (1 << recordSlabShift) - 1;
+    this.indexSlabShift = indexSlabShift;
+    this.indexSlabMask = (1 << indexSlabShift) - 1;
+    // segments are chosen by the high bits of the hash, the index by its low bits
+    this.segmentShift = 64 - Integer.numberOfTrailingZeros(segments);
+    this.segmentMask = segments - 1;
+    final int initialIndexCapacity =
+        indexCapacityFor((expectedObjects + (long) segments - 1) / segments);
+    this.segments = new Segment[segments];
+    for (int i = 0; i < segments; i++) {
+      this.segments[i] = new Segment(initialIndexCapacity);
+    }
+  }
+
+  private static int indexCapacityFor(final long objects) {
+    // keep the load factor at or below 0.5
+    final long capacity = Math.max(MIN_INDEX_CAPACITY, Long.highestOneBit(objects * 2 + 1) << 1);
+    return (int) Math.min(capacity, 1L << 30);
+  }
+
+  private Segment segmentFor(final long hash) {
+    // a shift of 64 leaves the hash unchanged, the mask then selects the only segment
+    return this.segments[(int) (hash >>> this.segmentShift) & this.segmentMask];
+  }
+
+  @Override
+  public ObjectMetadata put(final ObjectMetadata objectMetadata) {
+    final byte[] record = toRecord(checkNotNull(objectMetadata));
+    final ByteBuffer name = ByteBuffer.wrap(record);
+    final long a = name.getLong(0);
+    final long b = name.getLong(8);
+    final short c = name.getShort(16);
+    final long hash = hash(a, b, c);
+    return segmentFor(hash).put(objectMetadata, record, hash, a, b, c);
+  }
+
+  @Override
+  public ObjectMetadata remove(final ObjectMetadata objectMetadata) {
+    final ByteBuffer name = ByteBuffer.wrap(checkNotNull(objectMetadata).toBytes(true));
+    final long a = name.getLong(0);
+    final long b = name.getLong(8);
+    final short c = name.getShort(16);
+    final long hash = hash(a, b, c);
+    return segmentFor(hash).remove(hash, a, b, c);
+  }
+
+  @Override
+  public boolean contains(final ObjectMetadata objectMetadata) {
+    final ByteBuffer name = ByteBuffer.wrap(checkNotNull(objectMetadata).toBytes(true));
+    final long a = name.getLong(0);
+    final long b = name.getLong(8);
+    final short c = name.getShort(16);
+    final long hash = hash(a, b, c);
+    return segmentFor(hash).contains(hash, a, b, c);
+  }
+
+  @Override
+  public ObjectMetadata getRandom() {
+    // start at a random segment, moving on to the next one only if it is empty
+    final int start = ThreadLocalRandom.current().nextInt(this.segments.length);
+    for (int i = 0; i < this.segments.length; i++) {
+      final ObjectMetadata random =
+          this.segments[(start + i) & this.segmentMask].getRandom();
+      if (random != null) {
+        return random;
+      }
+    }
+    return null;
+  }
+
+  @Override
+  public ObjectMetadata removeRandom() {
+    final int start = ThreadLocalRandom.current().nextInt(this.segments.length);
+    for (int i = 0; i < this.segments.length; i++) {
+      final ObjectMetadata random =
+          this.segments[(start + i) & this.segmentMask].removeRandom();
+      if (random != null) {
+        return random;
+      }
+    }
+    return null;
+  }
+
+  @Override
+  public int size() {
+    long size = 0;
+    for (final Segment segment : this.segments) {
+      size += segment.size;
+    }
+    return (int) Math.min(size, Integer.MAX_VALUE);
+  }
+
+  @Override
+  public void clear() {
+    for (final Segment segment : this.segments) {
+      segment.clear();
+    }
+  }
+
+  /**
+   * Returns an iterator over the objects in this store, segment by segment and in descending slot
+   * order within a segment. Removing the most recently returned object through the iterator does
+   * not cause any object to be skipped or returned twice.
+   */
+  @Override
+  public Iterator<ObjectMetadata> iterator() {
+    return new Iterator<ObjectMetadata>() {
+      private int segment = 0;
+      private int next = OffHeapObjectStore.this.segments[0].size - 1;
+      private ObjectMetadata last;
+
+      @Override
+      public boolean hasNext() {
+        final Segment[] segments = OffHeapObjectStore.this.segments;
+        this.next = Math.min(this.next, segments[this.segment].size - 1);
+        while (this.next < 0 && this.segment < segments.length - 1) {
+          this.segment++;
+          this.next = segments[this.segment].size - 1;
+        }
+        return this.next >= 0;
+      }
+
+      @Override
+      public ObjectMetadata next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        final Segment segment = OffHeapObjectStore.this.segments[this.segment];
+        segment.lock.readLock().lock();
+        try {
+          this.next = Math.min(this.next, segment.size - 1);
+          if (this.next < 0) {
+            throw new NoSuchElementException();
+          }
+          this.last = segment.read(this.next--);
+          return this.last;
+        } finally {
+          segment.lock.readLock().unlock();
+        }
+      }
+
+      @Override
+      public void remove() {
+        if (this.last == null) {
+          throw new IllegalStateException();
+        }
+        OffHeapObjectStore.this.remove(this.last);
+        this.last = null;
+      }
+    };
+  }
+
+  /**
+   * Returns the amount of direct memory currently allocated by this store
+   *
+   * @return allocated direct memory, in bytes
+   */
+  public long allocatedBytes() {
+    long allocated = 0;
+    for (final Segment segment : this.segments) {
+      allocated += segment.allocatedBytes();
+    }
+    return allocated;
+  }
+
+  private static byte[] toRecord(final ObjectMetadata objectMetadata) {
+    final byte[] versioned = objectMetadata.toBytes(true);
+    checkArgument(versioned.length == VERSIONED_SIZE, "object record length must be == %s [%s]",
+        VERSIONED_SIZE, versioned.length);
+    final byte[] record = new byte[RECORD_SIZE];
+    System.arraycopy(versioned, 0, record, 0, VERSIONED_SIZE);
+    record[FLAGS_OFFSET] = objectMetadata.hasVersion() ? FLAG_VERSION : 0;
+    return record;
+  }
+
+  private static long hash(final long a, final long b, final short c) {
+    return mix(a ^ mix(b ^ mix(c)));
+  }
+
+  // murmur3 64 bit finalizer
+  private static long mix(long h) {
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    h ^= h >>> 33;
+    return h;
+  }
+
+  /**
+   * A lock protected portion of the store, holding the records and index entries of the objects
+   * whose names hash to it
+   */
+  private final class Segment {
+    private final int initialIndexCapacity;
+    private final ReadWriteLock lock;
+    private final List<ByteBuffer> slabs;
+    private ByteBuffer[] index;
+    private long indexCapacity;
+    private long indexMask;
+    private volatile int size;
+
+    Segment(final int initialIndexCapacity) {
+      this.initialIndexCapacity = initialIndexCapacity;
+      this.lock = new ReentrantReadWriteLock();
+      this.slabs = new ArrayList<ByteBuffer>();
+      allocateIndex(initialIndexCapacity);
+    }
+
+    ObjectMetadata put(final ObjectMetadata objectMetadata, final byte[] record, final long hash,
+        final long a, final long b, final short c) {
+      this.lock.writeLock().lock();
+      try {
+        long position = findPosition(hash, a, b, c);
+        if (position >= 0) {
+          return null;
+        }
+        if (this.size >= MAX_OBJECTS) {
+          throw new ObjectManagerException(
+              String.format("Off heap object store segment is full [%s]", this.size));
+        }
+        if ((this.size + 1L) * 2 > this.indexCapacity) {
+          rehash(this.indexCapacity * 2);
+          position = findPosition(hash, a, b, c);
+        }
+        final int slot = this.size;
+        if ((slot >>> OffHeapObjectStore.this.recordSlabShift) == this.slabs.size()) {
+          this.slabs.add(
+              ByteBuffer.allocateDirect(RECORD_SIZE << OffHeapObjectStore.this.recordSlabShift));
+        }
+        final ByteBuffer slab = slab(slot);
+        final int offset = offset(slot);
+        for (int i = 0; i < RECORD_SIZE; i++) {
+          slab.put(offset + i, record[i]);
+        }
+        setIndex(-1 - position, slot + 1);
+        this.size = slot + 1;
+        return objectMetadata;
+      } finally {
+        this.lock.writeLock().unlock();
+      }
+    }
+
+    ObjectMetadata remove(final long hash, final long a, final long b, final short c) {
+      this.lock.writeLock().lock();
+      try {
+        final long position = findPosition(hash, a, b, c);
+        if (position < 0) {
+          return null;
+        }
+        return removeSlot(getIndex(position) - 1, position);
+      } finally {
+        this.lock.writeLock().unlock();
+      }
+    }
+
+    boolean contains(final long hash, final long a, final long b, final short c) {
+      this.lock.readLock().lock();
+      try {
+        return findPosition(hash, a, b, c) >= 0;
+      } finally {
+        this.lock.readLock().unlock();
+      }
+    }
+
+    ObjectMetadata getRandom() {
+      this.lock.readLock().lock();
+      try {
+        if (this.size == 0) {
+          return null;
+        }
+        return read(ThreadLocalRandom.current().nextInt(this.size));
+      } finally {
+        this.lock.readLock().unlock();
+      }
+    }
+
+    ObjectMetadata removeRandom() {
+      this.lock.writeLock().lock();
+      try {
+        if (this.size == 0) {
+          return null;
+        }
+        final int slot = ThreadLocalRandom.current().nextInt(this.size);
+        return removeSlot(slot, positionOf(slot));
+      } finally {
+        this.lock.writeLock().unlock();
+      }
+    }
+
+    void clear() {
+      this.lock.writeLock().lock();
+      try {
+        this.slabs.clear();
+        allocateIndex(this.initialIndexCapacity);
+        this.size = 0;
+      } finally {
+        this.lock.writeLock().unlock();
+      }
+    }
+
+    long allocatedBytes() {
+      this.lock.readLock().lock();
+      try {
+        return (long) this.slabs.size() * (RECORD_SIZE << OffHeapObjectStore.this.recordSlabShift)
+            + this.indexCapacity * 4;
+      } finally {
+        this.lock.readLock().unlock();
+      }
+    }
+
+    ObjectMetadata read(final int slot) {
+      final ByteBuffer slab = slab(slot);
+      final int offset = offset(slot);
+      final boolean hasVersion = (slab.get(offset + FLAGS_OFFSET) & FLAG_VERSION) != 0;
+      final byte[] bytes =
+          new byte[hasVersion ? VERSIONED_SIZE : LegacyObjectMetadata.OBJECT_SIZE];
+      int src = offset;
+      for (int i = 0; i < bytes.length; i++) {
+        if (i == NAME_SIZE && !hasVersion) {
+          // skip the zeroed version field
+          src += LegacyObjectMetadata.OBJECT_VERSION_MAX_SIZE;
+        }
+        bytes[i] = slab.get(src++);
+      }
+      return LegacyObjectMetadata.fromBytes(bytes, hasVersion);
+    }
+
+    // must hold the write lock; position is the index position referencing slot
+    private ObjectMetadata removeSlot(final int slot, final long position) {
+      final ObjectMetadata removed = read(slot);
+      deletePosition(position);
+      final int last = this.size - 1;
+      if (slot != last) {
+        final ByteBuffer from = slab(last);
+        final int fromOffset = offset(last);
+        final ByteBuffer to = slab(slot);
+        final int toOffset = offset(slot);
+        for (int i = 0; i < RECORD_SIZE; i++) {
+          to.put(toOffset + i, from.get(fromOffset + i));
+        }
+        // the moved record's index entry still references its old slot, whose contents are intact
+        setIndex(positionOf(slot), slot + 1);
+      }
+      this.size = last;
+      // release trailing slabs, keeping one spare to avoid churn around a slab boundary
+      while (this.slabs.size() > (last >>> OffHeapObjectStore.this.recordSlabShift) + 2) {
+        this.slabs.remove(this.slabs.size() - 1);
+      }
+      return removed;
+    }
+
+    // returns the index position whose entry references the record named by (a, b, c), or
+    // -(insertion position) - 1 if there is no such entry
+    private long findPosition(final long hash, final long a, final long b, final short c) {
+      long position = hash & this.indexMask;
+      while (true) {
+        final int entry = getIndex(position);
+        if (entry == 0) {
+          return -1 - position;
+        }
+        final int slot = entry - 1;
+        final ByteBuffer slab = slab(slot);
+        final int offset = offset(slot);
+        if (slab.getLong(offset) == a && slab.getLong(offset + 8) == b
+            && slab.getShort(offset + 16) == c) {
+          return position;
+        }
+        position = (position + 1) & this.indexMask;
+      }
+    }
+
+    private long positionOf(final int slot) {
+      final ByteBuffer slab = slab(slot);
+      final int offset = offset(slot);
+      final long a = slab.getLong(offset);
+      final long b = slab.getLong(offset + 8);
+      final short c = slab.getShort(offset + 16);
+      return findPosition(hash(a, b, c), a, b, c);
+    }
+
+    private long home(final int slot) {
+      final ByteBuffer slab = slab(slot);
+      final int offset = offset(slot);
+      return hash(slab.getLong(offset), slab.getLong(offset + 8), slab.getShort(offset + 16))
+          & this.indexMask;
+    }
+
+    // backward shift deletion; keeps probe sequences intact without tombstones
+    private void deletePosition(final long position) {
+      long hole = position;
+      long current = position;
+      while (true) {
+        current = (current + 1) & this.indexMask;
+        final int entry = getIndex(current);
+        if (entry == 0) {
+          break;
+        }
+        final long home = home(entry - 1);
+        final boolean stays =
+            hole <= current ? hole < home && home <= current : hole < home || home <= current;
+        if (!stays) {
+          setIndex(hole, entry);
+          hole = current;
+        }
+      }
+      setIndex(hole, 0);
+    }
+
+    private void rehash(final long capacity) {
+      allocateIndex(capacity);
+      for (int slot = 0; slot < this.size; slot++) {
+        long position = home(slot);
+        while (getIndex(position) != 0) {
+          position = (position + 1) & this.indexMask;
+        }
+        setIndex(position, slot + 1);
+      }
+    }
+
+    private void allocateIndex(final long capacity) {
+      final long segmentCapacity = Math.min(capacity, 1L << OffHeapObjectStore.this.indexSlabShift);
+      final ByteBuffer[] indexSlabs = new ByteBuffer[(int) (capacity / segmentCapacity)];
+      for (int i = 0; i < indexSlabs.length; i++) {
+        indexSlabs[i] = ByteBuffer.allocateDirect((int) segmentCapacity * 4);
+      }
+      this.index = indexSlabs;
+      this.indexCapacity = capacity;
+      this.indexMask = capacity - 1;
+    }
+
+    private int getIndex(final long position) {
+      return this.index[(int) (position >>> OffHeapObjectStore.this.indexSlabShift)]
+          .getInt(((int) position & OffHeapObjectStore.this.indexSlabMask) << 2);
+    }
+
+    private void setIndex(final long position, final int entry) {
+      this.index[(int) (position >>> OffHeapObjectStore.this.indexSlabShift)]
+          .putInt(((int) position & OffHeapObjectStore.this.indexSlabMask) << 2, entry);
+    }
+
+    private ByteBuffer slab(final int slot) {
+      return this.slabs.get(slot >>> OffHeapObjectStore.this.recordSlabShift);
+    }
+
+    private int offset(final int slot) {
+      return (slot & OffHeapObjectStore.this.recordSlabMask) * RECORD_SIZE;
+    }
+  }
+
+  @Override
+  public String toString() {
+    return String.format("OffHeapObjectStore [size=%s, segments=%s, allocatedBytes=%s]", size(),
+        this.segments.length, allocatedBytes());
+  }
+}
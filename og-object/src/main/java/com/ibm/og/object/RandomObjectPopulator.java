@@ -19,18 +19,19 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.Random;
-import java.util.SortedMap;
-import java.util.TreeMap;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.locks.Lock;
 import java.util.regex.Pattern;
 
 import javax.annotation.Nullable;
@@ -38,13 +39,14 @@ import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
 
-import com.google.common.io.BaseEncoding;
-import com.google.common.util.concurrent.Uninterruptibles;
-import com.ibm.og.util.ObjectManagerUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.io.BaseEncoding;
+import com.google.common.util.concurrent.Striped;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.Uninterruptibles;
+import com.ibm.og.util.ObjectManagerUtils;
 
 @Singleton
 public class RandomObjectPopulator extends Thread implements ObjectManager {
@@ -54,6 +56,9 @@ public class RandomObjectPopulator extends Thread implements ObjectManager {
   public static final int OBJECT_SIZE = LegacyObjectMetadata.OBJECT_SIZE;
   public static final int MAX_PERSIST_ARG = 30 * 1000 * 60;
   public static final int MAX_OBJECT_ARG = 100 * (1048576 / OBJECT_SIZE);
+  public static final long DEFAULT_JOURNAL_FLUSH_INTERVAL = 1000;
+  public static final String JOURNAL_SUFFIX = ".journal";
+  private static final int LOCK_STRIPES = 64;
   private int maxObjects;
   private long maxSize = -1;
   private final String directory;
@@ -65,23 +70,24 @@ public class RandomObjectPopulator extends Thread implements ObjectManager {
 
 
   // object read from a file
-  private final RandomAccessConcurrentHashSet<ObjectMetadata> objects =
-      new RandomAccessConcurrentHashSet<ObjectMetadata>();
-  private final ReadWriteLock objectsLock = new ReentrantReadWriteLock(true);
-  private final SortedMap<String, Integer> currentlyReading =
-      Collections.synchronizedSortedMap(new TreeMap<String, Integer>());
-  private final SortedMap<String, ObjectMetadata> currentlyUpdating =
-          Collections.synchronizedSortedMap(new TreeMap<String, ObjectMetadata>());
-  private final ReadWriteLock readingLock = new ReentrantReadWriteLock(true);
-  private final ReadWriteLock persistLock = new ReentrantReadWriteLock(true);
+  private final ObjectStore objects;
+  // guards the transition of an object between readable and removed, keyed by object name
+  private final Striped<Lock> nameLocks = Striped.lock(LOCK_STRIPES);
+  private final ConcurrentMap<String, Integer> currentlyReading =
+      new ConcurrentHashMap<String, Integer>();
+  private final ConcurrentMap<String, ObjectMetadata> currentlyUpdating =
+      new ConcurrentHashMap<String, ObjectMetadata>();
   private final File saveFile;
+  private final File journalFile;
+  private final ObjectJournal journal;
+  private final long journalFlushInterval;
   private volatile boolean testEnded = false;
   private final int desiredFileIndex;
   private final int idFileIndex;
   private final Random rand = new Random();
   private final UUID vaultId;
   private final ScheduledExecutorService saver;
-  private boolean objectVersionOn;
+  private volatile boolean objectVersionOn;
 
   public static int getObjectSize() {
     return OBJECT_SIZE;
@@ -96,9 +102,14 @@ public class RandomObjectPopulator extends Thread implements ObjectManager {
       @Named("objectfile.name") final String prefix,
       @Named("objectfile.maxsize") final long maxSize,
       @Named("objectfile.persistfrequency") final long persistFrequency,
-      @Named("objectfile.index") @Nullable final Integer objectFileIndex) {
+      @Named("objectfile.index") @Nullable final Integer objectFileIndex,
+      @Named("objectfile.offheap") final boolean offHeap,
+      @Named("objectfile.journalflushinterval") final long journalFlushInterval) {
     this(UUID.randomUUID(), directory, prefix, maxSize, (int) (maxSize / OBJECT_SIZE),
-        persistFrequency * 1000, objectFileIndex);
+        persistFrequency * 1000, objectFileIndex,
+        offHeap ? new OffHeapObjectStore((int) (maxSize / OBJECT_SIZE))
+            : new ConcurrentHashObjectStore(),
+        journalFlushInterval);
   }
 
   public RandomObjectPopulator(final UUID vaultId, final String directory, final String prefix) {
@@ -119,7 +130,22 @@ public class RandomObjectPopulator extends Thread implements ObjectManager {
 
   public RandomObjectPopulator(final UUID vaultId, final String directory, final String prefix,
       final long maxSize, final int maxObjectCount, final long persistTime, final Integer objectFileIndex) {
+    this(vaultId, directory, prefix, maxSize, maxObjectCount, persistTime, objectFileIndex,
+        new ConcurrentHashObjectStore());
+  }
+
+  public RandomObjectPopulator(final UUID vaultId, final String directory, final String prefix,
+      final long maxSize, final int maxObjectCount, final long persistTime, final Integer objectFileIndex,
+      final ObjectStore objects) {
+    this(vaultId, directory, prefix, maxSize, maxObjectCount, persistTime, objectFileIndex, objects,
+        DEFAULT_JOURNAL_FLUSH_INTERVAL);
+  }
+
+  public RandomObjectPopulator(final UUID vaultId, final String directory, final String prefix,
+      final long maxSize, final int maxObjectCount, final long persistTime, final Integer objectFileIndex,
+      final ObjectStore objects, final long journalFlushInterval) {
     this.vaultId = checkNotNull(vaultId);
+    this.objects = checkNotNull(objects);
     this.directory = checkNotNull(directory);
     if (prefix != null && !prefix.isEmpty()) {
       this.prefix = prefix;
@@ -130,6 +156,9 @@ public class RandomObjectPopulator extends Thread implements ObjectManager {
         .compile(String.format("%s(\\d|[1-9]\\d*)%s", this.prefix, RandomObjectPopulator.SUFFIX));
     checkArgument(maxObjectCount > 0, "maxObjectCount must be > 0 [%s]", maxObjectCount);
     this.maxObjects = maxObjectCount;
+    checkArgument(journalFlushInterval > 0, "journalFlushInterval must be > 0 [%s]",
+        journalFlushInterval);
+    this.journalFlushInterval = journalFlushInterval;
     this.maxSize = maxSize;
     this.persistFrequency = persistTime;
     this.objectFileIndex = objectFileIndex;
@@ -152,8 +181,11 @@ public class RandomObjectPopulator extends Thread implements ObjectManager {
     }
     _logger.info("Initial object file index {}", this.idFileIndex);
     this.saveFile = createFile(this.idFileIndex);
+    this.journalFile =
+        new File(this.directory + "/" + this.prefix + this.idFileIndex + JOURNAL_SUFFIX);
 
     loadObjects();
+    this.journal = new ObjectJournal(this.journalFile);
 
     this.saver = Executors.newScheduledThreadPool(1, new ThreadFactoryBuilder().setDaemon(true)
         .setNameFormat("scheduled-object-persist").build());
@@ -170,6 +202,16 @@ public class RandomObjectPopulator extends Thread implements ObjectManager {
       }
       // Every 30 minutes
     }, persistTime, persistTime, TimeUnit.MILLISECONDS);
+    this.saver.scheduleWithFixedDelay(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          RandomObjectPopulator.this.journal.flush();
+        } catch (final IOException e) {
+          _logger.error("Can't write object journal", e);
+        }
+      }
+    }, journalFlushInterval, journalFlushInterval, TimeUnit.MILLISECONDS);
   }
 
   private int selectInitialObjectFile(final int objectFileCount, final Integer objectFileIndex, final File[] files) {
@@ -245,6 +287,11 @@ public class RandomObjectPopulator extends Thread implements ObjectManager {
         _logger.info("No. of objects loaded {}", this.objects.size());
         input.close();
       }
+      // recover modifications made since the last checkpoint
+      if (ObjectJournal.replay(this.journalFile, this.objects)) {
+        this.objectVersionOn = true;
+      }
+      _logger.info("No. of objects after journal replay {}", this.objects.size());
     } catch (final Exception e) {
       this.testEnded = true;
       _logger.error("", e);
@@ -274,87 +321,70 @@ public class RandomObjectPopulator extends Thread implements ObjectManager {
 
   @Override
   public ObjectMetadata remove() {
-    this.persistLock.readLock().lock();
-    try {
-      ObjectMetadata id = null;
-      while (id == null) {
-        this.objectsLock.writeLock().lock();
-        id = this.objects.removeRandom();
-        this.objectsLock.writeLock().unlock();
-        checkForNull(id);
-        boolean unavailable;
-        this.readingLock.readLock().lock();
-        unavailable = this.currentlyReading.containsKey(id.getName());
-        this.readingLock.readLock().unlock();
-        if (unavailable) {
-          this.objects.put(id);
-          id = null;
-        }
+    ObjectMetadata id = null;
+    while (id == null) {
+      id = this.objects.removeRandom();
+      checkForNull(id);
+      if (!claim(id)) {
+        id = null;
       }
-      _logger.debug("Removing object: {}", id);
-      return id;
-    } finally {
-      this.persistLock.readLock().unlock();
     }
+    _logger.debug("Removing object: {}", id);
+    return id;
   }
 
   @Override
   public ObjectMetadata removeForUpdate() {
-    this.persistLock.readLock().lock();
-    try {
-      ObjectMetadata id = null;
-      while (id == null) {
-        this.objectsLock.writeLock().lock();
-        id = this.objects.removeRandom();
-        this.objectsLock.writeLock().unlock();
-        checkForNull(id);
-        boolean unavailable;
-        this.readingLock.readLock().lock();
-        unavailable = this.currentlyReading.containsKey(id.getName());
-        this.readingLock.readLock().unlock();
-        if (unavailable) {
-          this.objects.put(id);
-          id = null;
-        }
+    ObjectMetadata id = null;
+    while (id == null) {
+      id = this.objects.removeRandom();
+      checkForNull(id);
+      if (!claim(id)) {
+        id = null;
       }
-      _logger.debug("Removing object: {}", id);
-      this.currentlyUpdating.put(id.getName(), id);
-      return id;
-    } finally {
-      this.persistLock.readLock().unlock();
     }
+    _logger.debug("Removing object: {}", id);
+    this.currentlyUpdating.put(id.getName(), id);
+    return id;
   }
 
   @Override
   public ObjectMetadata removeObject(ObjectMetadata objectMetadata) {
-    this.persistLock.readLock().lock();
-    try {
-      ObjectMetadata id = null;
-      while (id == null) {
-        this.objectsLock.writeLock().lock();
-        id = this.objects.remove(objectMetadata);
-        this.objectsLock.writeLock().unlock();
-        checkForNull(id);
-        boolean unavailable;
-        this.readingLock.readLock().lock();
-        unavailable = this.currentlyReading.containsKey(id.getName());
-        this.readingLock.readLock().unlock();
-        if (unavailable) {
-          _logger.info("object {} is available already in currently reading. so skipping", id.getName());
-          this.objects.put(id);
-          id = null;
-        }
+    ObjectMetadata id = null;
+    while (id == null) {
+      id = this.objects.remove(objectMetadata);
+      checkForNull(id);
+      if (!claim(id)) {
+        _logger.info("object {} is available already in currently reading. so skipping", id.getName());
+        id = null;
       }
-      _logger.trace("Removing object: {}", id);
-      this.currentlyUpdating.put(id.getName(), id);
-      return id;
-    } finally {
-      this.persistLock.readLock().unlock();
     }
+    _logger.trace("Removing object: {}", id);
+    this.currentlyUpdating.put(id.getName(), id);
+    return id;
 
   }
 
-
+  /*
+   * Completes the removal of an object which has just been removed from the object store. If the
+   * object is currently being read it is returned to the store and false is returned, otherwise the
+   * removal is journaled. The check is made under the object's name lock, so it is atomic with
+   * respect to get() registering a reader.
+   */
+  private boolean claim(final ObjectMetadata id) {
+    final Lock lock = this.nameLocks.get(id.getName());
+    lock.lock();
+    try {
+      if (this.currentlyReading.containsKey(id.getName())) {
+        this.objects.put(id);
+        return false;
+      }
+      this.journal.remove(id);
+      return true;
+    } finally {
+      lock.unlock();
+    }
+  }
 
   private void checkForNull(final ObjectMetadata id) {
     if (id == null) {
@@ -368,33 +398,24 @@ public class RandomObjectPopulator extends Thread implements ObjectManager {
       throw new RuntimeException("Test already ended");
     }
 
-    ObjectMetadata id;
-
-    this.objectsLock.readLock().lock();
-    id = this.objects.getRandom();
-    try {
+    while (true) {
+      final ObjectMetadata id = this.objects.getRandom();
       checkForNull(id);
-    } catch (final ObjectManagerException e) {
-      this.objectsLock.readLock().unlock();
-      throw e;
-    }
-
-    int count = 0;
-    this.readingLock.writeLock().lock();
-    if (this.currentlyReading.containsKey(id.getName())) {
-      // The only reason to have both locked simultaneously is to prevent an id from being
-      // selected for deletion before it has been added to currentlyReading
-      this.objectsLock.readLock().unlock();
-      count = this.currentlyReading.get(id.getName()).intValue();
-    }
-    this.currentlyReading.put(id.getName(), Integer.valueOf(count + 1));
-    if (count == 0) {
-      this.objectsLock.readLock().unlock();
+      final Lock lock = this.nameLocks.get(id.getName());
+      lock.lock();
+      try {
+        // an object already being read cannot be removed; otherwise make sure it was not removed
+        // between selection and registration as a reader
+        final Integer count = this.currentlyReading.get(id.getName());
+        if (count != null || this.objects.contains(id)) {
+          this.currentlyReading.put(id.getName(), count == null ? 1 : count + 1);
+          _logger.trace("Getting object: {}", id);
+          return id;
+        }
+      } finally {
+        lock.unlock();
+      }
     }
-    this.readingLock.writeLock().unlock();
-
-    _logger.trace("Getting object: {}", id);
-    return id;
   }
 
   @Override
@@ -403,142 +424,106 @@ public class RandomObjectPopulator extends Thread implements ObjectManager {
       throw new RuntimeException("Test already ended");
     }
 
-    ObjectMetadata id = null;
-    while (id == null) {
-      this.objectsLock.readLock().lock();
-      id = this.objects.getRandom();
+    while (true) {
+      final ObjectMetadata id = this.objects.getRandom();
+      checkForNull(id);
+      final Lock lock = this.nameLocks.get(id.getName());
+      lock.lock();
       try {
-        checkForNull(id);
-      } catch (final ObjectManagerException e) {
-        this.objectsLock.readLock().unlock();
-        throw e;
-      }
-
-      this.readingLock.writeLock().lock();
-      if (this.currentlyReading.containsKey(id.getName())) {
-        // The only reason to have both locked simultaneously is to prevent an id from being
-        // selected for deletion before it has been added to currentlyReading
-        _logger.debug("object {} already found in currently reading",id.getName());
-        id = null;
-        Uninterruptibles.sleepUninterruptibly(20, TimeUnit.MILLISECONDS);
-      } else {
-        // The only reason to have both locked simultaneously is to prevent an id from being
-        // selected for deletion before it has been added to currentlyReading
-        this.currentlyReading.put(id.getName(),1);
-        _logger.debug("adding object {} to currently reading",id.getName());
+        if (!this.currentlyReading.containsKey(id.getName())) {
+          if (this.objects.contains(id)) {
+            this.currentlyReading.put(id.getName(), 1);
+            _logger.debug("adding object {} to currently reading", id.getName());
+            _logger.trace("Getting currently not read object : {}", id);
+            return id;
+          }
+          continue;
+        }
+      } finally {
+        lock.unlock();
       }
-      this.readingLock.writeLock().unlock();
-      this.objectsLock.readLock().unlock();
+      _logger.debug("object {} already found in currently reading", id.getName());
+      Uninterruptibles.sleepUninterruptibly(20, TimeUnit.MILLISECONDS);
     }
-    _logger.trace("Getting currently not read object : {}", id);
-    return id;
   }
 
   @Override
   public void getComplete(final ObjectMetadata id) {
-    this.readingLock.writeLock().lock();
-    Integer c = this.currentlyReading.get(id.getName());
-    _logger.debug("id {} count {}", id, c);
-    final int count = this.currentlyReading.get(id.getName()).intValue();
-    if (count > 1) {
-      this.currentlyReading.put(id.getName(), Integer.valueOf(count - 1));
-      _logger.debug("decrementing {} from currentlyReading", id.getName());
-    } else {
-      _logger.debug("removing {} from currentlyReading", id.getName());
-      this.currentlyReading.remove(id.getName());
+    final Lock lock = this.nameLocks.get(id.getName());
+    lock.lock();
+    try {
+      final int count = this.currentlyReading.get(id.getName()).intValue();
+      _logger.debug("id {} count {}", id, count);
+      if (count > 1) {
+        this.currentlyReading.put(id.getName(), Integer.valueOf(count - 1));
+        _logger.debug("decrementing {} from currentlyReading", id.getName());
+      } else {
+        _logger.debug("removing {} from currentlyReading", id.getName());
+        this.currentlyReading.remove(id.getName());
+      }
+    } finally {
+      lock.unlock();
     }
-    this.readingLock.writeLock().unlock();
     _logger.trace("Returning read object: {}", id);
-    return;
   }
 
   @Override
   public void add(final ObjectMetadata id) {
     _logger.debug("Adding object: {}", id);
-    this.persistLock.readLock().lock();
-    try {
-      if (id.hasVersion()) {
-        this.objectVersionOn = true;
-      }
-      this.objects.put(id);
-    } finally {
-      this.persistLock.readLock().unlock();
+    if (id.hasVersion()) {
+      this.objectVersionOn = true;
+    }
+    if (this.objects.put(id) != null) {
+      this.journal.add(id);
     }
   }
 
   @Override
   public void updateObject(final ObjectMetadata id) {
     _logger.debug("Adding Updated object: {}", id);
-    this.persistLock.readLock().lock();
-    try {
-      this.currentlyUpdating.remove(id.getName());
-      this.objects.put(id);
-    } finally {
-      this.persistLock.readLock().unlock();
+    this.currentlyUpdating.remove(id.getName());
+    if (this.objects.put(id) != null) {
+      this.journal.add(id);
     }
   }
 
   @Override
   public ObjectMetadata getObjectFromUpdatingCache(final String id) {
     _logger.debug("Getting object {} from currentUpdating cache", id);
-    ObjectMetadata objectId = null;
-    this.persistLock.readLock().lock();
-    try {
-      objectId = this.currentlyUpdating.get(id);
-    } finally {
-      this.persistLock.readLock().unlock();
-    }
-    return objectId;
+    return this.currentlyUpdating.get(id);
   }
 
   @Override
   public void removeUpdatedObject(final ObjectMetadata id) {
     _logger.trace("Removing Updated object from currentlyUpdating cache: {}", id);
-    this.persistLock.readLock().lock();
-    try {
-      this.currentlyUpdating.remove(id.getName());
-    } finally {
-      this.persistLock.readLock().unlock();
-    }
+    this.currentlyUpdating.remove(id.getName());
   }
 
   @Override
   public void removeUpdatedObjectByName(final String name) {
     _logger.trace("Removing Updated object from currentlyUpdating cache: {}", name);
-    this.persistLock.readLock().lock();
-    try {
-      this.currentlyUpdating.remove(name);
-    } finally {
-      this.persistLock.readLock().unlock();
-    }
+    this.currentlyUpdating.remove(name);
   }
 
   @Override
   public int getCurrentlyUpdatingCount() {
-    this.persistLock.readLock().lock();
-    int size = this.currentlyUpdating.size();
-    this.persistLock.readLock().unlock();
-    return size;
+    return this.currentlyUpdating.size();
   }
   private void persistIds() throws IOException {
     _logger.info("persisting objects");
-    this.persistLock.writeLock().lock();
+    // modifications from here on are recorded in a new journal segment, so the object file can be
+    // written while object operations continue
+    this.journal.rotate();
+    // surplus file selection counts the save file, so it must exist before objects are balanced
+    if (!this.saveFile.exists() && !this.saveFile.createNewFile()) {
+      _logger.warn("Unable to create object file {}", this.saveFile);
+    }
     final int toSave = this.objects.size();
     _logger.info("number of objects to persist [{}]", toSave);
-    OutputStream out = new BufferedOutputStream(new FileOutputStream(this.saveFile));
     boolean flipVersionInfoInHeader = false;
-    if (toSave > 0) {
-      _logger.info("writing version to file {}", this.saveFile);
-      ObjectFileUtil.writeObjectFileVersion(out);
-      if (this.objectVersionOn) {
-        ObjectFileUtil.writeObjectFileHeader(out, LegacyObjectMetadata.OBJECT_VERSION_MAX_SIZE);
-        //recalculate maxObjects accordingly
-        if (this.maxSize != -1) {
-          this.maxObjects = (int)(this.maxSize / (LegacyObjectMetadata.OBJECT_SIZE + LegacyObjectMetadata.OBJECT_VERSION_MAX_SIZE));
-        }
-      } else {
-        ObjectFileUtil.writeObjectFileHeader(out, 0);
-      }
+    if (toSave > 0 && this.objectVersionOn && this.maxSize != -1) {
+      //recalculate maxObjects accordingly
+      this.maxObjects = (int)(this.maxSize / (LegacyObjectMetadata.OBJECT_SIZE + LegacyObjectMetadata.OBJECT_VERSION_MAX_SIZE));
     }
     _logger.info("toSave [{}] maxObjects [{}]", toSave, this.maxObjects);
     if (toSave > this.maxObjects) {
@@ -585,12 +570,12 @@ public class RandomObjectPopulator extends Thread implements ObjectManager {
         for (int i = 0; i < remaining; i++) {
           final ObjectMetadata sid = iterator.next();
           if (this.objectVersionOn) {
-            byte[] bytes = sid.toBytes(true);
             dos.write(sid.toBytes(true));
           } else {
             dos.write(sid.toBytes(false));
           }
           iterator.remove();
+          this.journal.remove(sid);
         }
         dos.close();
       }
@@ -691,13 +676,17 @@ public class RandomObjectPopulator extends Thread implements ObjectManager {
               sid = LegacyObjectMetadata.fromBytes(newBytes, true);
             }
 
-            this.objects.put(sid);
+            if (this.objects.put(sid) != null) {
+              this.journal.add(sid);
+            }
 
           } else {
             _logger.error("borrow object readBytes [{}] not equal to object length [{}]", readBytes, actualObjectSize);
           }
         }
         in.close();
+        // the borrowed objects must be durable before they are truncated from the surplus file
+        this.journal.flush();
         // If surplus is out of objects, delete it
         // skip may be VERSION_HEADER_LENGTH or VERSION_HEADER_LENGTH + OBJECT_FILE_HEADER_LEN based on the
         // object file version
@@ -727,35 +716,53 @@ public class RandomObjectPopulator extends Thread implements ObjectManager {
         }
       }
     }
+    if (flipVersionInfoInHeader && this.objectVersionOn) {
+      // the borrowed objects have version Ids, recalculate maxObjects accordingly
+      this.maxObjects = (this.maxObjects * LegacyObjectMetadata.OBJECT_SIZE) /
+              (LegacyObjectMetadata.OBJECT_SIZE + LegacyObjectMetadata.OBJECT_VERSION_MAX_SIZE);
+    }
     // Finally we save a number less than or equal to the maximum number of objects to our
     // savefile
+    writeObjectFile();
+    this.journal.checkpointed();
+  }
+
+  /*
+   * Writes a checkpoint of this.objects to a temporary file and atomically replaces the save file
+   * with it. Objects modified while the checkpoint is written may or may not be included, but are
+   * recorded in the current journal segment, which is replayed on top of the checkpoint.
+   */
+  private void writeObjectFile() throws IOException {
     _logger.info(
         String.format("Writing state file: %d objects into ", this.objects.size()) + this.saveFile);
-
-    if (flipVersionInfoInHeader) {
-      // if the versioning header was changed in the saveFile because of the borrowed object
-      // rewrite the objectFile header
-      out.close();
-      out = new BufferedOutputStream(new FileOutputStream(this.saveFile));
-        _logger.info("writing version to file {}", this.saveFile);
-        ObjectFileUtil.writeObjectFileVersion(out);
-        if (this.objectVersionOn) {
-          ObjectFileUtil.writeObjectFileHeader(out, LegacyObjectMetadata.OBJECT_VERSION_MAX_SIZE);
-          //recalculate maxObjects accordingly
-          this.maxObjects = (this.maxObjects * LegacyObjectMetadata.OBJECT_SIZE) /
-                  (LegacyObjectMetadata.OBJECT_SIZE + LegacyObjectMetadata.OBJECT_VERSION_MAX_SIZE);
+    final File tmp = new File(this.saveFile.getPath() + ".tmp");
+    final boolean versioned = this.objectVersionOn;
+    final FileOutputStream file = new FileOutputStream(tmp);
+    final OutputStream out = new BufferedOutputStream(file);
+    try {
+      boolean header = false;
+      for (final Iterator<ObjectMetadata> iterator = this.objects.iterator(); iterator.hasNext();) {
+        final ObjectMetadata id = iterator.next();
+        if (!versioned && id.hasVersion()) {
+          // added after this checkpoint started, recovered from the journal
+          continue;
         }
-    }
-
-    for (final Iterator<ObjectMetadata> iterator = this.objects.iterator(); iterator.hasNext();) {
-      if (this.objectVersionOn) {
-        out.write(iterator.next().toBytes(true));
-      } else {
-        out.write(iterator.next().toBytes(false));
+        if (!header) {
+          _logger.info("writing version to file {}", this.saveFile);
+          ObjectFileUtil.writeObjectFileVersion(out);
+          ObjectFileUtil.writeObjectFileHeader(out,
+              versioned ? LegacyObjectMetadata.OBJECT_VERSION_MAX_SIZE : 0);
+          header = true;
+        }
+        out.write(id.toBytes(versioned));
       }
+      out.flush();
+      file.getFD().sync();
+    } finally {
+      out.close();
     }
-    out.close();
-    this.persistLock.writeLock().unlock();
+    Files.move(tmp.toPath(), this.saveFile.toPath(),
+        StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
   }
 
   private int getRemaining(final int size, final File surplus) {
@@ -809,6 +816,7 @@ public class RandomObjectPopulator extends Thread implements ObjectManager {
 
     try {
       persistIds();
+      this.journal.delete();
     } catch (final Exception e) {
       throw new ObjectManagerException(e);
     }
@@ -835,7 +843,8 @@ public class RandomObjectPopulator extends Thread implements ObjectManager {
   @Override
   public String toString() {
     return String.format(
-        "RandomObjectPopulator [maxObjects=%s, directory=%s, prefix=%s, persistFrequency=%s, objectFileIndex=%s]",
-        this.maxObjects, this.directory, this.prefix, this.persistFrequency, this.objectFileIndex);
+        "RandomObjectPopulator [maxObjects=%s, directory=%s, prefix=%s, persistFrequency=%s, objectFileIndex=%s, objects=%s]",
+        this.maxObjects, this.directory, this.prefix, this.persistFrequency, this.objectFileIndex,
+        this.objects);
   }
 }
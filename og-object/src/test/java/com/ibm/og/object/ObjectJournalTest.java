@@ -0,0 +1,161 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.object;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.io.Files;
+
+public class ObjectJournalTest {
+  private File directory;
+  private File file;
+  private ObjectJournal journal;
+  private ObjectStore objects;
+
+  @Before
+  public void before() throws IOException {
+    this.directory = Files.createTempDir();
+    this.file = new File(this.directory, "id_0.journal");
+    this.journal = new ObjectJournal(this.file);
+    this.objects = new ConcurrentHashObjectStore();
+  }
+
+  @After
+  public void after() throws IOException {
+    this.journal.delete();
+    for (final File f : this.directory.listFiles()) {
+      f.delete();
+    }
+    this.directory.delete();
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void nullFile() {
+    new ObjectJournal(null);
+  }
+
+  @Test
+  public void replayNoJournal() throws IOException {
+    assertThat(ObjectJournal.replay(new File(this.directory, "missing.journal"), this.objects),
+        is(false));
+    assertThat(this.objects.size(), is(0));
+  }
+
+  @Test
+  public void recordsAreWrittenOnFlush() throws IOException {
+    this.journal.flush();
+    this.journal.rotate();
+    assertThat(this.file.exists(), is(false));
+    this.journal.add(Util.generateId());
+    this.journal.remove(Util.generateId());
+    assertThat(this.file.exists(), is(false));
+    assertThat(this.journal.flush(), is(2));
+    assertThat(this.file.length(), is(2L * ObjectJournal.RECORD_SIZE));
+    assertThat(this.journal.flush(), is(0));
+  }
+
+  @Test
+  public void replay() throws IOException {
+    final ObjectMetadata unversioned = Util.generateId();
+    final ObjectMetadata versioned = Util.generateIdV3WithVersion();
+    final ObjectMetadata removed = Util.generateId();
+    this.journal.add(unversioned);
+    this.journal.add(versioned);
+    this.journal.add(removed);
+    this.journal.remove(removed);
+    this.journal.flush();
+
+    assertThat(ObjectJournal.replay(this.file, this.objects), is(true));
+    assertThat(this.objects.size(), is(2));
+    assertThat(this.objects.contains(removed), is(false));
+    final ObjectMetadata a = this.objects.remove(unversioned);
+    assertThat(a.toString(), is(unversioned.toString()));
+    assertThat(a.hasVersion(), is(false));
+    final ObjectMetadata b = this.objects.remove(versioned);
+    assertThat(b.toString(), is(versioned.toString()));
+    assertThat(b.getVersion(), is(versioned.getVersion()));
+  }
+
+  @Test
+  public void replayOverCheckpoint() throws IOException {
+    final ObjectMetadata checkpointed = Util.generateId();
+    final ObjectMetadata updated = Util.generateId();
+    this.objects.put(checkpointed);
+    this.objects.put(updated);
+    final ObjectMetadata replacement =
+        LegacyObjectMetadata.fromMetadata(updated.getName(), 4096, 3, (byte) 1, 60, null);
+    this.journal.remove(checkpointed);
+    this.journal.remove(updated);
+    this.journal.add(replacement);
+    this.journal.flush();
+
+    assertThat(ObjectJournal.replay(this.file, this.objects), is(false));
+    assertThat(this.objects.size(), is(1));
+    assertThat(this.objects.getRandom().getSize(), is(4096L));
+  }
+
+  @Test
+  public void rotate() throws IOException {
+    final ObjectMetadata first = Util.generateId();
+    final ObjectMetadata second = Util.generateId();
+    this.journal.add(first);
+    this.journal.rotate();
+    this.journal.add(second);
+    this.journal.remove(first);
+    this.journal.flush();
+    assertThat(this.file.length(), is(2L * ObjectJournal.RECORD_SIZE));
+
+    ObjectJournal.replay(this.file, this.objects);
+    assertThat(this.objects.size(), is(1));
+    assertThat(this.objects.getRandom(), is(second));
+
+    // a second rotation before a checkpoint retains all records since the last checkpoint
+    this.journal.rotate();
+    assertThat(this.file.length(), is(0L));
+    this.objects.clear();
+    ObjectJournal.replay(this.file, this.objects);
+    assertThat(this.objects.size(), is(1));
+    assertThat(this.objects.getRandom(), is(second));
+
+    this.journal.checkpointed();
+    this.objects.clear();
+    ObjectJournal.replay(this.file, this.objects);
+    assertThat(this.objects.size(), is(0));
+  }
+
+  @Test
+  public void partialRecordIsIgnored() throws IOException {
+    final ObjectMetadata id = Util.generateId();
+    this.journal.add(id);
+    this.journal.flush();
+    final FileOutputStream out = new FileOutputStream(this.file, true);
+    out.write(new byte[] {ObjectJournal.ADD, 0, 1, 2});
+    out.close();
+
+    ObjectJournal.replay(this.file, this.objects);
+    assertThat(this.objects.size(), is(1));
+    assertThat(this.objects.getRandom(), is(id));
+  }
+
+  @Test
+  public void delete() throws IOException {
+    this.journal.add(Util.generateId());
+    this.journal.rotate();
+    this.journal.delete();
+    assertThat(this.file.exists(), is(false));
+    assertThat(new File(this.file.getPath() + ".previous").exists(), is(false));
+    this.journal = new ObjectJournal(this.file);
+  }
+}
@@ -0,0 +1,286 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.object;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+public class OffHeapObjectStoreTest {
+  private OffHeapObjectStore store;
+
+  @Before
+  public void before() {
+    // few segments and small slabs so that tests span several record slabs and index slabs
+    this.store = new OffHeapObjectStore(0, 4, 4, 6);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void negativeExpectedObjects() {
+    new OffHeapObjectStore(-1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void zeroSegments() {
+    new OffHeapObjectStore(0, 0, 4, 6);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void nonPowerOfTwoSegments() {
+    new OffHeapObjectStore(0, 3, 4, 6);
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void putNull() {
+    this.store.put(null);
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void removeNull() {
+    this.store.remove(null);
+  }
+
+  @Test
+  public void empty() {
+    assertThat(this.store.size(), is(0));
+    assertThat(this.store.getRandom(), nullValue());
+    assertThat(this.store.removeRandom(), nullValue());
+    assertThat(this.store.remove(Util.generateId()), nullValue());
+    assertThat(this.store.iterator().hasNext(), is(false));
+  }
+
+  @Test
+  public void roundTrip() {
+    final ObjectMetadata unversioned = LegacyObjectMetadata.fromMetadata(
+        "0123456789abcdef0123456789abcdef0000", 1024, 7, (byte) 2, 3600, null);
+    this.store.put(unversioned);
+    final ObjectMetadata stored = this.store.getRandom();
+    assertThat(stored, is(unversioned));
+    assertThat(stored.toString(), is(unversioned.toString()));
+    assertThat(stored.hasVersion(), is(false));
+    assertThat(this.store.removeRandom().toString(), is(unversioned.toString()));
+
+    final ObjectMetadata versioned = Util.generateIdV3WithVersion();
+    this.store.put(versioned);
+    final ObjectMetadata storedVersioned = this.store.getRandom();
+    assertThat(storedVersioned.hasVersion(), is(true));
+    assertThat(storedVersioned.getVersion(), is(versioned.getVersion()));
+    assertThat(storedVersioned.toString(), is(versioned.toString()));
+  }
+
+  @Test
+  public void duplicateName() {
+    final ObjectMetadata id = Util.generateId();
+    assertThat(this.store.put(id), is(id));
+    final ObjectMetadata sameName =
+        LegacyObjectMetadata.fromMetadata(id.getName(), 4096, 1, (byte) 0, -1, null);
+    assertThat(this.store.put(sameName), nullValue());
+    assertThat(this.store.size(), is(1));
+    assertThat(this.store.getRandom().getSize(), is(id.getSize()));
+  }
+
+  @Test
+  public void removeByName() {
+    final List<ObjectMetadata> ids = Lists.newArrayList();
+    for (int i = 0; i < 100; i++) {
+      final ObjectMetadata id = Util.generateId();
+      ids.add(id);
+      this.store.put(id);
+    }
+    assertThat(this.store.size(), is(100));
+    for (int i = 0; i < 100; i += 2) {
+      assertThat(this.store.remove(ids.get(i)), is(ids.get(i)));
+      assertThat(this.store.remove(ids.get(i)), nullValue());
+    }
+    assertThat(this.store.size(), is(50));
+    final Set<String> remaining = Sets.newHashSet();
+    for (final Iterator<ObjectMetadata> it = this.store.iterator(); it.hasNext();) {
+      remaining.add(it.next().getName());
+    }
+    for (int i = 1; i < 100; i += 2) {
+      assertThat(remaining.contains(ids.get(i).getName()), is(true));
+    }
+    assertThat(remaining.size(), is(50));
+  }
+
+  @Test
+  public void randomOperations() {
+    // compare against a heap reference across index growth, slab growth and slab release
+    final Random random = new Random(1);
+    final Map<String, ObjectMetadata> reference = Maps.newHashMap();
+    final List<ObjectMetadata> live = Lists.newArrayList();
+    for (int i = 0; i < 20000; i++) {
+      final int op = random.nextInt(10);
+      if (op < 5 || live.isEmpty()) {
+        final ObjectMetadata id = Util.generateId();
+        this.store.put(id);
+        reference.put(id.getName(), id);
+        live.add(id);
+      } else if (op < 8) {
+        final ObjectMetadata id = live.remove(random.nextInt(live.size()));
+        assertThat(this.store.remove(id), is(id));
+        reference.remove(id.getName());
+      } else {
+        final ObjectMetadata id = this.store.removeRandom();
+        assertThat(reference.remove(id.getName()), is(id));
+        live.remove(id);
+      }
+      assertThat(this.store.size(), is(reference.size()));
+    }
+    for (final ObjectMetadata id : live) {
+      assertThat(this.store.remove(id), is(id));
+    }
+    assertThat(this.store.size(), is(0));
+  }
+
+  @Test
+  public void randomSelectionCoversAllObjects() {
+    final Set<String> names = Sets.newHashSet();
+    for (int i = 0; i < 40; i++) {
+      final ObjectMetadata id = Util.generateId();
+      names.add(id.getName());
+      this.store.put(id);
+    }
+    final Set<String> selected = Sets.newHashSet();
+    for (int i = 0; i < 10000 && selected.size() < names.size(); i++) {
+      selected.add(this.store.getRandom().getName());
+    }
+    assertThat(selected, is(names));
+  }
+
+  @Test
+  public void iteratorRemove() {
+    final Set<String> names = Sets.newHashSet();
+    for (int i = 0; i < 50; i++) {
+      final ObjectMetadata id = Util.generateId();
+      names.add(id.getName());
+      this.store.put(id);
+    }
+    final Set<String> visited = Sets.newHashSet();
+    int count = 0;
+    for (final Iterator<ObjectMetadata> it = this.store.iterator(); it.hasNext();) {
+      final ObjectMetadata id = it.next();
+      visited.add(id.getName());
+      count++;
+      if (count % 3 != 0) {
+        it.remove();
+      }
+    }
+    assertThat(count, is(50));
+    assertThat(visited, is(names));
+    assertThat(this.store.size(), is(50 / 3));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void iteratorRemoveBeforeNext() {
+    this.store.put(Util.generateId());
+    this.store.iterator().remove();
+  }
+
+  @Test
+  public void clear() {
+    for (int i = 0; i < 100; i++) {
+      this.store.put(Util.generateId());
+    }
+    final long allocated = this.store.allocatedBytes();
+    this.store.clear();
+    assertThat(this.store.size(), is(0));
+    assertThat(this.store.getRandom(), nullValue());
+    assertThat(this.store.allocatedBytes() < allocated, is(true));
+    final ObjectMetadata id = Util.generateId();
+    this.store.put(id);
+    assertThat(this.store.getRandom(), is(id));
+  }
+
+  @Test
+  public void singleSegment() {
+    final OffHeapObjectStore store = new OffHeapObjectStore(0, 1, 4, 6);
+    final List<ObjectMetadata> ids = Lists.newArrayList();
+    for (int i = 0; i < 100; i++) {
+      final ObjectMetadata id = Util.generateId();
+      ids.add(id);
+      store.put(id);
+    }
+    for (final ObjectMetadata id : ids) {
+      assertThat(store.contains(id), is(true));
+    }
+    for (int i = 0; i < 100; i++) {
+      assertThat(store.removeRandom(), notNullValue());
+    }
+    assertThat(store.size(), is(0));
+  }
+
+  @Test
+  public void concurrentPutRemove() throws Exception {
+    // each thread puts and removes its own objects while the others select random objects from the
+    // same store, so every segment sees concurrent writers
+    final int threads = 8;
+    final int objects = 2000;
+    final ExecutorService executor = Executors.newFixedThreadPool(threads);
+    final CountDownLatch start = new CountDownLatch(1);
+    final List<Future<List<ObjectMetadata>>> futures = Lists.newArrayList();
+    for (int t = 0; t < threads; t++) {
+      futures.add(executor.submit(new Callable<List<ObjectMetadata>>() {
+        @Override
+        public List<ObjectMetadata> call() throws Exception {
+          start.await();
+          final List<ObjectMetadata> kept = Lists.newArrayList();
+          for (int i = 0; i < objects; i++) {
+            final ObjectMetadata id = Util.generateId();
+            assertThat(OffHeapObjectStoreTest.this.store.put(id), is(id));
+            if (i % 2 == 0) {
+              assertThat(OffHeapObjectStoreTest.this.store.remove(id), is(id));
+            } else {
+              kept.add(id);
+              // never empty once this thread has kept an object
+              assertThat(OffHeapObjectStoreTest.this.store.getRandom(), notNullValue());
+            }
+          }
+          return kept;
+        }
+      }));
+    }
+    start.countDown();
+    final Set<String> kept = Sets.newHashSet();
+    try {
+      for (final Future<List<ObjectMetadata>> future : futures) {
+        for (final ObjectMetadata id : future.get(60, TimeUnit.SECONDS)) {
+          kept.add(id.getName());
+        }
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertThat(kept.size(), is(threads * objects / 2));
+    assertThat(this.store.size(), is(kept.size()));
+    final Set<String> stored = Sets.newHashSet();
+    for (final Iterator<ObjectMetadata> it = this.store.iterator(); it.hasNext();) {
+      stored.add(it.next().getName());
+    }
+    assertThat(stored, is(kept));
+  }
+}
@@ -0,0 +1,139 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.object;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.io.File;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.Lists;
+import com.google.common.io.Files;
+import com.tngtech.java.junit.dataprovider.DataProvider;
+import com.tngtech.java.junit.dataprovider.DataProviderRunner;
+import com.tngtech.java.junit.dataprovider.UseDataProvider;
+
+/**
+ * Measures object selection throughput of {@code RandomObjectPopulator} from 1 to 64 threads with
+ * a read heavy mix of get/getComplete, remove/add and removeForUpdate/updateObject. Run with
+ * {@code mvn verify}; the duration of each measurement may be set with the
+ * {@code og.benchmark.millis} system property.
+ */
+@RunWith(DataProviderRunner.class)
+public class RandomObjectPopulatorBenchmarkIT {
+  private static final Logger _logger =
+      LoggerFactory.getLogger(RandomObjectPopulatorBenchmarkIT.class);
+  private static final int OBJECTS = 100000;
+  private static final int[] THREADS = {1, 2, 4, 8, 16, 32, 64};
+  private static final long MILLIS = Long.getLong("og.benchmark.millis", 2000);
+  private File directory;
+
+  @DataProvider
+  public static Object[][] provideObjectStore() {
+    return new Object[][] {{"heap"}, {"offheap"}};
+  }
+
+  @Before
+  public void before() {
+    this.directory = Files.createTempDir();
+  }
+
+  @After
+  public void after() {
+    for (final File f : this.directory.listFiles()) {
+      f.delete();
+    }
+    this.directory.delete();
+  }
+
+  @Test
+  @UseDataProvider("provideObjectStore")
+  public void scaling(final String store) throws Exception {
+    final StringBuilder report = new StringBuilder();
+    report.append(String.format("%nobject store [%s]%n%8s %14s %10s%n", store, "threads", "ops/s",
+        "speedup"));
+    double baseline = 0.0;
+    for (final int threads : THREADS) {
+      final double opsPerSecond = measure(store, threads);
+      if (threads == 1) {
+        baseline = opsPerSecond;
+      }
+      report.append(
+          String.format("%8d %14.0f %10.2f%n", threads, opsPerSecond, opsPerSecond / baseline));
+    }
+    _logger.info(report.toString());
+  }
+
+  private double measure(final String store, final int threads) throws Exception {
+    final ObjectStore objects =
+        "offheap".equals(store) ? new OffHeapObjectStore(OBJECTS) : new ConcurrentHashObjectStore();
+    final RandomObjectPopulator rop = new RandomObjectPopulator(new UUID(0, 0),
+        this.directory.getPath(), store, -1, RandomObjectPopulator.MAX_OBJECT_ARG,
+        RandomObjectPopulator.MAX_PERSIST_ARG, null, objects);
+    for (int i = 0; i < OBJECTS; i++) {
+      rop.add(Util.generateId());
+    }
+
+    final ExecutorService executor = Executors.newFixedThreadPool(threads);
+    final CountDownLatch start = new CountDownLatch(1);
+    final List<Future<Long>> futures = Lists.newArrayList();
+    for (int i = 0; i < threads; i++) {
+      futures.add(executor.submit(new Callable<Long>() {
+        @Override
+        public Long call() throws Exception {
+          final ThreadLocalRandom random = ThreadLocalRandom.current();
+          start.await();
+          final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(MILLIS);
+          long ops = 0;
+          while (System.nanoTime() < deadline) {
+            final int op = random.nextInt(10);
+            if (op < 8) {
+              rop.getComplete(rop.get());
+            } else if (op < 9) {
+              rop.add(rop.remove());
+            } else {
+              rop.updateObject(rop.removeForUpdate());
+            }
+            ops++;
+          }
+          return ops;
+        }
+      }));
+    }
+
+    final long begin = System.nanoTime();
+    start.countDown();
+    long total = 0;
+    for (final Future<Long> future : futures) {
+      total += future.get();
+    }
+    final long elapsed = System.nanoTime() - begin;
+    executor.shutdown();
+
+    // every removed object was returned, so nothing may be lost or duplicated
+    assertThat(rop.getCurrentObjectCount(), is((long) OBJECTS));
+    assertThat(rop.getCurrentlyUpdatingCount(), is(0));
+    objects.clear();
+    rop.shutdown();
+    return total / (elapsed / 1e9);
+  }
+}
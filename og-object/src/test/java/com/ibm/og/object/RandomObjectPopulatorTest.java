@@ -100,6 +100,58 @@ public class RandomObjectPopulatorTest {
     rop.shutdown();
   }
 
+  @Test
+  public void offHeapPersistTest() throws ObjectManagerException {
+    final List<String> names = new ArrayList<String>();
+    RandomObjectPopulator rop = new RandomObjectPopulator(this.vaultId, ".", "", -1, MAX_OBJECTS,
+        RandomObjectPopulator.MAX_PERSIST_ARG, null, new OffHeapObjectStore());
+    for (int i = 0; i < 3; i++) {
+      final ObjectMetadata id = generateId();
+      names.add(id.getName());
+      rop.add(id);
+    }
+    rop.shutdown();
+    rop = new RandomObjectPopulator(this.vaultId, ".", "", -1, MAX_OBJECTS,
+        RandomObjectPopulator.MAX_PERSIST_ARG, null, new OffHeapObjectStore());
+    Assert.assertEquals(3, rop.getCurrentObjectCount());
+    final List<String> removed = new ArrayList<String>();
+    for (int i = 0; i < 3; i++) {
+      removed.add(rop.remove().getName());
+    }
+    Assert.assertTrue(removed.containsAll(names));
+    rop.shutdown();
+  }
+
+  @Test
+  public void journalRecoveryTest() throws Exception {
+    final RandomObjectPopulator crashed = new RandomObjectPopulator(this.vaultId, ".", "", -1,
+        MAX_OBJECTS, RandomObjectPopulator.MAX_PERSIST_ARG, null, new ConcurrentHashObjectStore(),
+        10);
+    final ObjectMetadata versioned = generateIdV3WithVersion();
+    crashed.add(versioned);
+    crashed.add(generateId());
+    final ObjectMetadata removed = crashed.remove();
+    crashed.add(removed);
+    final ObjectMetadata deleted = crashed.remove();
+    final File journal = new File("id_0" + RandomObjectPopulator.JOURNAL_SUFFIX);
+    for (int i = 0; i < 500 && journal.length() < 5 * ObjectJournal.RECORD_SIZE; i++) {
+      Thread.sleep(10);
+    }
+    Assert.assertEquals(5 * ObjectJournal.RECORD_SIZE, journal.length());
+
+    // the first instance is never shut down, so its state is only available from the journal
+    final RandomObjectPopulator rop = new RandomObjectPopulator(this.vaultId, MAX_OBJECTS);
+    Assert.assertEquals(1, rop.getCurrentObjectCount());
+    final ObjectMetadata remaining = rop.remove();
+    Assert.assertFalse(deleted.getName().equals(remaining.getName()));
+    if (remaining.getName().equals(versioned.getName())) {
+      Assert.assertEquals(versioned.getVersion(), remaining.getVersion());
+    }
+    rop.add(remaining);
+    rop.shutdown();
+    Assert.assertFalse(journal.exists());
+  }
+
   @Test
   public void deleteTest() throws ObjectManagerException {
     final ObjectMetadata firstId = generateId();
@@ -12,7 +12,8 @@ import com.google.common.base.Joiner;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Maps;
-import com.google.common.eventbus.Subscribe;
+import com.google.common.collect.ImmutableSet;
+import com.ibm.og.api.CompletionListener;
 import com.ibm.og.api.Method;
 import com.ibm.og.api.Operation;
 import com.ibm.og.api.Request;
@@ -50,6 +51,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
 
@@ -58,7 +60,7 @@ import java.util.concurrent.atomic.AtomicInteger;
  *
  * @since 1.8.4
  */
-public class ListOperationsSupplier implements Supplier<Request>{
+public class ListOperationsSupplier implements Supplier<Request>, CompletionListener {
 
   private static final Logger _logger = LoggerFactory.getLogger(ListOperationsSupplier.class);
 
@@ -138,7 +140,17 @@ public class ListOperationsSupplier implements Supplier<Request>{
 
   }
 
-  @Subscribe
+  @Override
+  public Set<Operation> operations() {
+    return ImmutableSet.of(this.operation);
+  }
+
+  // list session state is not safe for concurrent updates, serialize them as the event bus did
+  @Override
+  public synchronized void complete(final Request request, final Response response) {
+    update(Pair.of(request, response));
+  }
+
   public void update(final Pair<Request, Response> result) {
     Request request = result.getKey();
     Response response = result.getValue();
@@ -590,8 +602,8 @@ public class ListOperationsSupplier implements Supplier<Request>{
     private ConcurrentHashMap<Integer, ListSession> chainedSessions;
     private ConcurrentHashMap<Integer, ListSession> unchainedSessions;
 
-    private Map<Integer, List<ListSession>> chainedSessionsFree;
-    private Map<Integer, List<ListSession>> unchainedSessionsFree;
+    private ConcurrentMap<Integer, List<ListSession>> chainedSessionsFree;
+    private ConcurrentMap<Integer, List<ListSession>> unchainedSessionsFree;
     private AtomicInteger sid;
     private AtomicInteger totalActiveSessions;
     private final OperationConfig config;
@@ -602,8 +614,9 @@ public class ListOperationsSupplier implements Supplier<Request>{
       sid = new AtomicInteger(0);
       this.chainedSessions = new ConcurrentHashMap<Integer, ListSession>();
       this.unchainedSessions = new ConcurrentHashMap<Integer, ListSession>();
-      this.chainedSessionsFree = new LinkedHashMap(); //Collections.synchronizedList(new ArrayList<ListSession>()));
-      this.unchainedSessionsFree = new LinkedHashMap(); //Collections.synchronizedList(new ArrayList<ListSession>());
+      // free sessions are taken by producer threads and returned by completion threads
+      this.chainedSessionsFree = new ConcurrentHashMap<Integer, List<ListSession>>();
+      this.unchainedSessionsFree = new ConcurrentHashMap<Integer, List<ListSession>>();
       this.config = config;
       this.objectManager = objectManager;
       totalActiveSessions = new AtomicInteger();
@@ -619,23 +632,19 @@ public class ListOperationsSupplier implements Supplier<Request>{
     }
 
     private ListSession getFreeSession(final int type, final Integer hashCode) {
-      ListSession s = null;
+      final List<ListSession> freeList;
       if (LIST_REQ_TYPE_CHAINED == type) {
-        if (this.chainedSessionsFree.size() > 0) {
-          List<ListSession> freeList = this.chainedSessionsFree.get(hashCode);
-          if ( freeList != null && freeList.size() > 0) {
-            s = freeList.remove(0);
-          }
-        }
+        freeList = this.chainedSessionsFree.get(hashCode);
       } else {
-        if (this.unchainedSessionsFree.size() > 0) {
-          List<ListSession> freeList = this.unchainedSessionsFree.get(hashCode);
-          if ( freeList != null && freeList.size() > 0) {
-            s = freeList.remove(0);
-          }
-        }
+        freeList = this.unchainedSessionsFree.get(hashCode);
+      }
+      if (freeList == null) {
+        return null;
+      }
+      // check and take atomically so that two producers never take the same session
+      synchronized (freeList) {
+        return freeList.isEmpty() ? null : freeList.remove(0);
       }
-      return s;
     }
 
     public ListSession getNextSession(final ListSessionConfig listSessionConfig) {
@@ -821,23 +830,25 @@ public class ListOperationsSupplier implements Supplier<Request>{
 
 
     public void addFreeChainSession(ListSession session) {
-      List<ListSession> freeList = this.chainedSessionsFree.get(session.getConfigId());
-      if (freeList == null) {
-        freeList = Collections.synchronizedList(new ArrayList<ListSession>());
-      }
-      freeList.add(session);
-      this.chainedSessionsFree.put(session.getConfigId(), freeList);
-
-
+      addFreeSession(this.chainedSessionsFree, session);
     }
 
     public void addFreeUnChainedSession(ListSession session) {
-      List<ListSession> freeList = this.unchainedSessionsFree.get(session.getConfigId());
+      addFreeSession(this.unchainedSessionsFree, session);
+    }
+
+    private void addFreeSession(final ConcurrentMap<Integer, List<ListSession>> free,
+        final ListSession session) {
+      List<ListSession> freeList = free.get(session.getConfigId());
       if (freeList == null) {
-        freeList = Collections.synchronizedList(new ArrayList<ListSession>());
+        final List<ListSession> created =
+            Collections.synchronizedList(new ArrayList<ListSession>());
+        freeList = free.putIfAbsent(session.getConfigId(), created);
+        if (freeList == null) {
+          freeList = created;
+        }
       }
       freeList.add(session);
-      this.unchainedSessionsFree.put(session.getConfigId(), freeList);
     }
 
     public void addFreeSession(ListSession session) {
@@ -6,14 +6,13 @@
 package com.ibm.og.s3;
 
 import com.google.common.base.Charsets;
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.LoadingCache;
 import com.google.common.hash.HashCode;
 import com.google.common.hash.HashFunction;
 import com.google.common.hash.Hashing;
 import com.google.common.io.BaseEncoding;
 import com.ibm.og.api.Body;
 import com.ibm.og.api.ChecksumType;
+import com.ibm.og.api.CompletionListener;
 import com.ibm.og.api.DataType;
 import com.ibm.og.api.Method;
 import com.ibm.og.api.Operation;
@@ -22,9 +21,8 @@ import com.ibm.og.api.Response;
 import com.ibm.og.http.Bodies;
 import com.ibm.og.http.BodyDigest;
 import com.ibm.og.http.Credential;
-import com.ibm.og.http.DigestLoader;
+import com.ibm.og.http.DigestCaches;
 import com.ibm.og.http.HttpRequest;
-import com.ibm.og.http.MD5DigestLoader;
 import com.ibm.og.http.Scheme;
 import com.ibm.og.util.Context;
 import com.ibm.og.util.Pair;
@@ -35,7 +33,7 @@ import com.google.common.base.Supplier;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Maps;
-import com.google.common.eventbus.Subscribe;
+import com.google.common.collect.Sets;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -48,6 +46,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Queue;
 import java.util.Random;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.PriorityBlockingQueue;
@@ -66,7 +65,7 @@ import static com.google.common.base.Preconditions.checkNotNull;
  * 
  * @since 1.0
  */
-public class MultipartRequestSupplier implements Supplier<Request> {
+public class MultipartRequestSupplier implements Supplier<Request>, CompletionListener {
   private static final Logger _logger = LoggerFactory.getLogger(MultipartRequestSupplier.class);
 
   private static final Joiner.MapJoiner PARAM_JOINER = Joiner.on('&').withKeyValueSeparator("=");
@@ -92,15 +91,10 @@ public class MultipartRequestSupplier implements Supplier<Request> {
   private final Function<Map<String, String>, Long> retention;
   private final Supplier<Function<Map<String, String>, String>> legalHold;
   private final boolean contentMd5;
-  private final LoadingCache<Long, byte[]> md5ContentCache;
+  private final DigestCaches digestCaches;
 
   private final ChecksumType checksumType;
   private final MPUChecksumType mpuChecksumType = MPUChecksumType.COMPOSITE;
-  private final LoadingCache<Long, byte[]> sha1ContentCache;
-  private final LoadingCache<Long, byte[]> sha256ContentCache;
-  private final LoadingCache<Long, byte[]> crc32ContentCache;
-  private final LoadingCache<Long, byte[]> crc32CContentCache;
-  private final LoadingCache<Long, byte[]> crc64NvmeContentCache;
 
   private AtomicBoolean shutdownImmediate = new AtomicBoolean(false);
 
@@ -163,6 +157,35 @@ public class MultipartRequestSupplier implements Supplier<Request> {
       final boolean contentMd5, final Function<Map<String, String>, String> delimiter,
       final Function<Map<String, String>, Double> partsPercentagePerSession,
                                   final ChecksumType checksumType) {
+    this(id, scheme, host, port, uriRoot, container, object, partSize, partsPerSession,
+        targetSessions, queryParameters, trailingSlash, headers, context, credentials, body,
+        virtualHost, retention, legalHold, contentMd5, delimiter, partsPercentagePerSession,
+        checksumType, new DigestCaches(DigestCaches.DEFAULT_MAXIMUM_SIZE));
+  }
+
+  /**
+   * Creates an instance which looks up the digests of zero filled parts in shared caches
+   *
+   * @param digestCaches caches of {@code Content-MD5} and checksum values by part size
+   */
+  public MultipartRequestSupplier(final Function<Map<String, String>, String> id,
+      final Scheme scheme, final Function<Map<String, String>, String> host,
+      final Integer port, final String uriRoot,
+      final Function<Map<String, String>, String> container,
+      final Function<Map<String, String>, String> object,
+      final Function<Map<String, String>, Long> partSize,
+      final Function<Map<String, String>, Integer> partsPerSession,
+      final int targetSessions,
+      final Map<String, Function<Map<String, String>, String>> queryParameters,
+      final boolean trailingSlash, final Map<String, Function<Map<String, String>, String>> headers,
+      final List<Function<Map<String, String>, String>> context,
+      final Function<Map<String, String>, Credential> credentials,
+      final Function<Map<String, String>, Body> body, final boolean virtualHost,
+      final Function<Map<String, String>, Long> retention,
+      final Supplier<Function<Map<String, String>, String>> legalHold,
+      final boolean contentMd5, final Function<Map<String, String>, String> delimiter,
+      final Function<Map<String, String>, Double> partsPercentagePerSession,
+      final ChecksumType checksumType, final DigestCaches digestCaches) {
 
     this.id = id;
     this.scheme = checkNotNull(scheme);
@@ -190,12 +213,7 @@ public class MultipartRequestSupplier implements Supplier<Request> {
     this.actionableMultipartSessions = Collections.synchronizedList(new ArrayList<MultipartInfo>());
     this.multipartRequestMap = new ConcurrentHashMap<String, MultipartInfo>();
     this.sessionManager = new MPSessionManager();
-    this.md5ContentCache = CacheBuilder.newBuilder().maximumSize(100).build(new MD5DigestLoader());
-    this.sha1ContentCache = CacheBuilder.newBuilder().maximumSize(100).build(new DigestLoader(ChecksumType.SHA1));
-    this.sha256ContentCache = CacheBuilder.newBuilder().maximumSize(100).build(new DigestLoader(ChecksumType.SHA256));
-    this.crc32ContentCache = CacheBuilder.newBuilder().maximumSize(100).build(new DigestLoader(ChecksumType.CRC32));
-    this.crc32CContentCache = CacheBuilder.newBuilder().maximumSize(100).build(new DigestLoader(ChecksumType.CRC32C));
-    this.crc64NvmeContentCache = CacheBuilder.newBuilder().maximumSize(100).build(new DigestLoader(ChecksumType.CRC64NVME));
+    this.digestCaches = checkNotNull(digestCaches);
     this.checksumType = checksumType;
     checkArgument(checksumType != ChecksumType.CRC64NVME,
             "CRC64NVME is not supported with Composite Checksum type MPU");
@@ -283,7 +301,17 @@ public class MultipartRequestSupplier implements Supplier<Request> {
     }
 
     public HttpRequest.Builder getNextRequest(final Map<String, String> requestContext) {
+      // producers may call this concurrently; choosing a session and advancing its state must be
+      // one step, or two producers could start the same last part or exceed targetSessions
+      sessionsLock.lock();
+      try {
+        return nextRequest(requestContext);
+      } finally {
+        sessionsLock.unlock();
+      }
+    }
 
+    private HttpRequest.Builder nextRequest(final Map<String, String> requestContext) {
       HttpRequest.Builder builder = null;
       MultipartInfo session = getNextSession();
       if (session == null && !this.abortSessionsTriggered.get()) {
@@ -637,7 +665,18 @@ public class MultipartRequestSupplier implements Supplier<Request> {
     }
   }
 
-  @Subscribe
+  @Override
+  public Set<Operation> operations() {
+    return Sets.immutableEnumSet(Operation.MULTIPART_WRITE_INITIATE, Operation.MULTIPART_WRITE_PART,
+        Operation.MULTIPART_WRITE_COMPLETE, Operation.MULTIPART_WRITE_ABORT);
+  }
+
+  // session bookkeeping assumes updates are not concurrent, serialize them as the event bus did
+  @Override
+  public synchronized void complete(final Request request, final Response response) {
+    update(Pair.of(request, response));
+  }
+
   public void update(final Pair<Request, Response> result) {
     Request request = result.getKey();
     Response response = result.getValue();
@@ -845,6 +884,9 @@ public class MultipartRequestSupplier implements Supplier<Request> {
     } else if(bodyDataType.equals(DataType.ZEROES.toString())) {
       body = Bodies.zeroes(partSize);
       builder.withBody(body);
+    } else if(bodyDataType.equals(DataType.ENTROPY.toString())) {
+      body = Bodies.entropy(partSize);
+      builder.withBody(body);
     } else {
       body = Bodies.random(partSize);
       builder.withBody(body);
@@ -853,7 +895,7 @@ public class MultipartRequestSupplier implements Supplier<Request> {
     if (this.contentMd5) {
       try {
         Long size = body.getSize();
-        byte[] md5 = md5ContentCache.get(size);
+        byte[] md5 = this.digestCaches.get(ChecksumType.MD5).get(size);
         builder.withHeader(Context.X_OG_CONTENT_MD5, BaseEncoding.base64().encode(md5));
       } catch (Exception e) {
         _logger.error(e.getMessage());
@@ -864,23 +906,23 @@ public class MultipartRequestSupplier implements Supplier<Request> {
         Long size = body.getSize();
         if (this.checksumType == ChecksumType.SHA1) {
           context.put(Context.X_OG_AMZ_CHECKSUM_VALUE, BaseEncoding.base64().encode(
-                          sha1ContentCache.get(size)));
+                          this.digestCaches.get(ChecksumType.SHA1).get(size)));
           builder.withHeader(Context.X_OG_AMZ_CHECKSUM_SHA1, context.get(Context.X_OG_AMZ_CHECKSUM_VALUE));
         } else if (this.checksumType == ChecksumType.SHA256) {
           context.put(Context.X_OG_AMZ_CHECKSUM_VALUE, BaseEncoding.base64().encode(
-                  sha256ContentCache.get(size)));
+                  this.digestCaches.get(ChecksumType.SHA256).get(size)));
           builder.withHeader(Context.X_OG_AMZ_CHECKSUM_SHA256, context.get(Context.X_OG_AMZ_CHECKSUM_VALUE));
         } else if (this.checksumType == ChecksumType.CRC32) {
           context.put(Context.X_OG_AMZ_CHECKSUM_VALUE, BaseEncoding.base64().encode(
-                  crc32ContentCache.get(size)));
+                  this.digestCaches.get(ChecksumType.CRC32).get(size)));
           builder.withHeader(Context.X_OG_AMZ_CHECKSUM_CRC32, context.get(Context.X_OG_AMZ_CHECKSUM_VALUE));
         } else if (this.checksumType == ChecksumType.CRC32C) {
           context.put(Context.X_OG_AMZ_CHECKSUM_VALUE, BaseEncoding.base64().encode(
-                  crc32CContentCache.get(size)));
+                  this.digestCaches.get(ChecksumType.CRC32C).get(size)));
           builder.withHeader(Context.X_OG_AMZ_CHECKSUM_CRC32C, context.get(Context.X_OG_AMZ_CHECKSUM_VALUE));
         } else if (this.checksumType == ChecksumType.CRC64NVME) {
           context.put(Context.X_OG_AMZ_CHECKSUM_VALUE, BaseEncoding.base64().encode(
-                  crc64NvmeContentCache.get(size)));
+                  this.digestCaches.get(ChecksumType.CRC64NVME).get(size)));
           builder.withHeader(Context.X_OG_AMZ_CHECKSUM_CRC64NVME, context.get(Context.X_OG_AMZ_CHECKSUM_VALUE));
         }
       } catch (Exception e) {
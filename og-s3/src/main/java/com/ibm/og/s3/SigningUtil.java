@@ -0,0 +1,187 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.s3;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+import javax.crypto.Mac;
+
+/**
+ * Allocation light string handling shared by the native aws signers. Canonical strings are built
+ * in a per-thread {@code StringBuilder} and encoded into a per-thread byte buffer, so signing a
+ * request allocates little beyond the header values it adds.
+ *
+ * @since 1.0
+ */
+public final class SigningUtil {
+  private static final char[] HEX = "0123456789abcdef".toCharArray();
+  private static final char[] HEX_UPPER = "0123456789ABCDEF".toCharArray();
+
+  private static final ThreadLocal<StringBuilder> BUILDER = new ThreadLocal<StringBuilder>() {
+    @Override
+    protected StringBuilder initialValue() {
+      return new StringBuilder(1024);
+    }
+  };
+
+  private static final ThreadLocal<byte[][]> BUFFER = new ThreadLocal<byte[][]>() {
+    @Override
+    protected byte[][] initialValue() {
+      return new byte[][] {new byte[1024]};
+    }
+  };
+
+  private SigningUtil() {}
+
+  /**
+   * @return this thread's string builder, emptied; it must only be used until the next call to
+   *         this method from the same thread
+   */
+  public static StringBuilder builder() {
+    final StringBuilder builder = BUILDER.get();
+    builder.setLength(0);
+    return builder;
+  }
+
+  /**
+   * Updates a digest with the utf-8 encoding of a character sequence
+   *
+   * @param digest the digest to update
+   * @param s the characters to digest
+   */
+  public static void update(final MessageDigest digest, final CharSequence s) {
+    final byte[][] buffer = BUFFER.get();
+    final int length = encode(s, buffer);
+    digest.update(buffer[0], 0, length);
+  }
+
+  /**
+   * Computes the mac of the utf-8 encoding of a character sequence
+   *
+   * @param mac an initialized mac
+   * @param s the characters to sign
+   * @return the mac of s
+   */
+  public static byte[] doFinal(final Mac mac, final CharSequence s) {
+    final byte[][] buffer = BUFFER.get();
+    final int length = encode(s, buffer);
+    mac.update(buffer[0], 0, length);
+    return mac.doFinal();
+  }
+
+  // utf-8 encodes s into buffer[0], growing it as needed, and returns the encoded length. Unpaired
+  // surrogates are encoded as '?', as String.getBytes does
+  private static int encode(final CharSequence s, final byte[][] buffer) {
+    final int length = s.length();
+    if (buffer[0].length < 3 * length) {
+      buffer[0] = new byte[Math.max(3 * length, 2 * buffer[0].length)];
+    }
+    final byte[] b = buffer[0];
+    int n = 0;
+    for (int i = 0; i < length; i++) {
+      final char c = s.charAt(i);
+      if (c < 0x80) {
+        b[n++] = (byte) c;
+      } else if (c < 0x800) {
+        b[n++] = (byte) (0xC0 | (c >> 6));
+        b[n++] = (byte) (0x80 | (c & 0x3F));
+      } else if (Character.isHighSurrogate(c) && i + 1 < length
+          && Character.isLowSurrogate(s.charAt(i + 1))) {
+        final int codePoint = Character.toCodePoint(c, s.charAt(++i));
+        b[n++] = (byte) (0xF0 | (codePoint >> 18));
+        b[n++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+        b[n++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+        b[n++] = (byte) (0x80 | (codePoint & 0x3F));
+      } else if (Character.isSurrogate(c)) {
+        b[n++] = '?';
+      } else {
+        b[n++] = (byte) (0xE0 | (c >> 12));
+        b[n++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+        b[n++] = (byte) (0x80 | (c & 0x3F));
+      }
+    }
+    return n;
+  }
+
+  /**
+   * Appends the lower case hex encoding of bytes
+   *
+   * @param builder the builder to append to
+   * @param bytes the bytes to encode
+   * @return builder
+   */
+  public static StringBuilder appendHex(final StringBuilder builder, final byte[] bytes) {
+    for (final byte b : bytes) {
+      builder.append(HEX[(b >> 4) & 0xF]).append(HEX[b & 0xF]);
+    }
+    return builder;
+  }
+
+  /**
+   * Appends a string with each run of whitespace replaced by a single space
+   *
+   * @param builder the builder to append to
+   * @param s the string to compact
+   */
+  public static void appendCompacted(final StringBuilder builder, final String s) {
+    boolean previousWhitespace = false;
+    for (int i = 0; i < s.length(); i++) {
+      final char c = s.charAt(i);
+      if (isWhitespace(c)) {
+        if (!previousWhitespace) {
+          builder.append(' ');
+          previousWhitespace = true;
+        }
+      } else {
+        builder.append(c);
+        previousWhitespace = false;
+      }
+    }
+  }
+
+  private static boolean isWhitespace(final char c) {
+    return c == ' ' || c == '\t' || c == '\n' || c == '\u000b' || c == '\r' || c == '\f';
+  }
+
+  /**
+   * Percent encodes a string as aws signing requires: unreserved characters
+   * {@code A-Z a-z 0-9 - _ . ~} are kept and every other byte of the utf-8 encoding is encoded as
+   * {@code %XX}
+   *
+   * @param value the string to encode, or null
+   * @param path if true, {@code /} is also kept
+   * @return the encoded string, or the empty string if value is null
+   */
+  public static String urlEncode(final String value, final boolean path) {
+    if (value == null) {
+      return "";
+    }
+    int i = 0;
+    while (i < value.length() && isUnreserved(value.charAt(i), path)) {
+      i++;
+    }
+    if (i == value.length()) {
+      return value;
+    }
+    final StringBuilder encoded = new StringBuilder(value.length() + 16);
+    encoded.append(value, 0, i);
+    for (final byte b : value.substring(i).getBytes(StandardCharsets.UTF_8)) {
+      final char c = (char) (b & 0xFF);
+      if (isUnreserved(c, path)) {
+        encoded.append(c);
+      } else {
+        encoded.append('%').append(HEX_UPPER[(b >> 4) & 0xF]).append(HEX_UPPER[b & 0xF]);
+      }
+    }
+    return encoded.toString();
+  }
+
+  private static boolean isUnreserved(final char c, final boolean path) {
+    return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '-'
+        || c == '_' || c == '.' || c == '~' || (path && c == '/');
+  }
+}
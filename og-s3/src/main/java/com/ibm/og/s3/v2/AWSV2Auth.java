@@ -7,18 +7,12 @@ package com.ibm.og.s3.v2;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
-import com.ibm.og.api.AuthType;
 import com.ibm.og.http.AuthenticatedHttpRequest;
 import com.ibm.og.http.HttpAuth;
-import com.ibm.og.s3.SignableRequestAdapter;
 import com.ibm.og.util.Context;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.amazonaws.SignableRequest;
-import com.amazonaws.auth.AWSCredentials;
-import com.amazonaws.auth.BasicAWSCredentials;
-import com.amazonaws.services.s3.internal.S3Signer;
 import com.ibm.og.api.AuthenticatedRequest;
 import com.ibm.og.api.Request;
 
@@ -37,20 +31,27 @@ public class AWSV2Auth implements HttpAuth {
     checkNotNull(request);
     final String accessKeyId = checkNotNull(request.getContext().get(Context.X_OG_USERNAME));
     final String secretAccessKey = checkNotNull(request.getContext().get(Context.X_OG_PASSWORD));
-    final AWSCredentials credentials = new BasicAWSCredentials(accessKeyId, secretAccessKey);
 
     final AuthenticatedHttpRequest authenticatedRequest = new AuthenticatedHttpRequest(request);
-    final SignableRequest<Request> signableRequest =
-        new SignableRequestAdapter(authenticatedRequest, AuthType.AWSV2);
-
-    final S3Signer signer =
-        new S3Signer(signableRequest.getHttpMethod().toString(), signableRequest.getResourcePath());
-
-    signer.sign(signableRequest, credentials);
+    V2Signer.sign(authenticatedRequest, resourcePath(authenticatedRequest), accessKeyId,
+        secretAccessKey);
 
     return authenticatedRequest;
   }
 
+  /**
+   * @return the path of the request, prefixed with the bucket for static website virtual host
+   *         requests, whose bucket is the first label of the host
+   */
+  static String resourcePath(final AuthenticatedHttpRequest request) {
+    final String path = request.getUri().getPath();
+    if (request.getContext().containsKey(Context.X_OG_STATIC_WEBSITE_VIRTUAL_HOST_SUFFIX)) {
+      final String host = checkNotNull(request.headers().get("Host"));
+      return "/" + host.substring(0, host.indexOf(".")) + path;
+    }
+    return path;
+  }
+
   @Override
   public String toString() {
     return "AWSV2Auth []";
@@ -0,0 +1,265 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.s3.v2;
+
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidKeyException;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.io.BaseEncoding;
+import com.google.common.net.HttpHeaders;
+import com.ibm.og.http.AuthenticatedHttpRequest;
+import com.ibm.og.s3.SigningUtil;
+
+/**
+ * An aws v2 signer for s3 which signs an {@code AuthenticatedHttpRequest} directly from its
+ * headers and query parameters. It produces the same {@code Date} and {@code Authorization}
+ * headers as the sdk's {@code S3Signer}, building the string to sign in a per-thread builder and
+ * signing with a per-thread mac.
+ *
+ * @since 1.0
+ */
+final class V2Signer {
+  static final String HMAC_SHA1 = "HmacSHA1";
+  private static final String AMAZON_PREFIX = "x-amz-";
+  private static final String CONTENT_TYPE = "content-type";
+  private static final String CONTENT_MD5 = "content-md5";
+  private static final String DATE = "date";
+  private static final String X_AMZ_DATE = "x-amz-date";
+  // sub-resources which are part of the string to sign
+  private static final Set<String> SIGNED_PARAMETERS = ImmutableSet.of("acl", "torrent", "logging",
+      "location", "policy", "requestPayment", "versioning", "versions", "versionId",
+      "notification", "uploadId", "uploads", "partNumber", "website", "delete", "lifecycle",
+      "tagging", "cors", "restore", "replication", "accelerate", "inventory", "analytics",
+      "metrics", "response-cache-control", "response-content-disposition",
+      "response-content-encoding", "response-content-language", "response-content-type",
+      "response-expires");
+
+  private static final DateTimeFormatter RFC_822 = DateTimeFormatter
+      .ofPattern("EEE, dd MMM yyyy HH:mm:ss 'GMT'", Locale.ENGLISH).withZone(ZoneOffset.UTC);
+  private static volatile SignatureDate signatureDate = new SignatureDate(0);
+
+  private static final ThreadLocal<Mac> MAC = new ThreadLocal<Mac>() {
+    @Override
+    protected Mac initialValue() {
+      try {
+        return Mac.getInstance(HMAC_SHA1);
+      } catch (final NoSuchAlgorithmException e) {
+        throw new IllegalStateException(e);
+      }
+    }
+  };
+
+  private static final ThreadLocal<Headers> HEADERS = new ThreadLocal<Headers>() {
+    @Override
+    protected Headers initialValue() {
+      return new Headers();
+    }
+  };
+
+  private V2Signer() {}
+
+  /**
+   * Signs a request, adding {@code Date} and {@code Authorization} headers
+   *
+   * @param request the request to sign
+   * @param resourcePath the unencoded path of the resource, including the bucket
+   * @param accessKeyId the access key id
+   * @param secretAccessKey the secret access key
+   */
+  static void sign(final AuthenticatedHttpRequest request, final String resourcePath,
+      final String accessKeyId, final String secretAccessKey) {
+    final String accessKey = accessKeyId.trim();
+    final String secretKey = secretAccessKey.trim();
+    request.addHeader(HttpHeaders.DATE, signatureDate(System.currentTimeMillis()).value);
+
+    // interesting headers, sorted by lower case name; a later duplicate name replaces an earlier
+    // one, as it would in a sorted map
+    final Headers interesting = HEADERS.get();
+    interesting.clear();
+    for (final Map.Entry<String, String> header : request.headers().entrySet()) {
+      if (header.getKey() == null) {
+        continue;
+      }
+      final String name = header.getKey().toLowerCase(Locale.ENGLISH);
+      if (CONTENT_TYPE.equals(name) || CONTENT_MD5.equals(name) || DATE.equals(name)
+          || name.startsWith(AMAZON_PREFIX)) {
+        interesting.put(name, header.getValue());
+      }
+    }
+    if (interesting.contains(X_AMZ_DATE)) {
+      interesting.put(DATE, "");
+    }
+    if (!interesting.contains(CONTENT_TYPE)) {
+      interesting.put(CONTENT_TYPE, "");
+    }
+    if (!interesting.contains(CONTENT_MD5)) {
+      interesting.put(CONTENT_MD5, "");
+    }
+    final Map<String, List<String>> parameters = request.getQueryParameters();
+    for (final Map.Entry<String, List<String>> parameter : parameters.entrySet()) {
+      if (parameter.getKey().startsWith(AMAZON_PREFIX)) {
+        final StringBuilder values = new StringBuilder();
+        for (final String value : parameter.getValue()) {
+          if (values.length() > 0) {
+            values.append(',');
+          }
+          values.append(value);
+        }
+        interesting.put(parameter.getKey(), values.toString());
+      }
+    }
+    interesting.sort();
+
+    final StringBuilder s = SigningUtil.builder();
+    s.append(request.getMethod()).append('\n');
+    for (int i = 0; i < interesting.size; i++) {
+      final String name = interesting.names[i];
+      final String value = interesting.values[i];
+      if (name.startsWith(AMAZON_PREFIX)) {
+        s.append(name).append(':');
+      }
+      if (value != null) {
+        s.append(value);
+      }
+      s.append('\n');
+    }
+    appendResource(s, SigningUtil.urlEncode(resourcePath, true));
+    if (!parameters.isEmpty()) {
+      final String[] names = parameters.keySet().toArray(new String[parameters.size()]);
+      Arrays.sort(names);
+      char separator = '?';
+      for (final String name : names) {
+        if (!SIGNED_PARAMETERS.contains(name)) {
+          continue;
+        }
+        for (final String value : parameters.get(name)) {
+          s.append(separator).append(name);
+          if (value != null) {
+            s.append('=').append(value);
+          }
+          separator = '&';
+        }
+      }
+    }
+
+    final Mac mac = MAC.get();
+    try {
+      mac.init(new SecretKeySpec(secretKey.getBytes(StandardCharsets.UTF_8), HMAC_SHA1));
+    } catch (final InvalidKeyException e) {
+      throw new IllegalArgumentException(e);
+    }
+    final String signature = BaseEncoding.base64().encode(SigningUtil.doFinal(mac, s));
+    request.addHeader(HttpHeaders.AUTHORIZATION, "AWS " + accessKey + ":" + signature);
+  }
+
+  // the encoded resource path with a leading slash and with "//" escaped as "/%2F"
+  private static void appendResource(final StringBuilder s, final String path) {
+    if (path.isEmpty()) {
+      s.append('/');
+      return;
+    }
+    if (path.charAt(0) != '/') {
+      s.append('/');
+    }
+    s.append(path.indexOf("//") >= 0 ? path.replace("//", "/%2F") : path);
+  }
+
+  /**
+   * Interesting header names and values, reused by a thread for each request
+   */
+  private static final class Headers {
+    private String[] names = new String[16];
+    private String[] values = new String[16];
+    private int size;
+
+    private void clear() {
+      Arrays.fill(this.names, 0, this.size, null);
+      Arrays.fill(this.values, 0, this.size, null);
+      this.size = 0;
+    }
+
+    private boolean contains(final String name) {
+      return indexOf(name) >= 0;
+    }
+
+    private int indexOf(final String name) {
+      for (int i = 0; i < this.size; i++) {
+        if (this.names[i].equals(name)) {
+          return i;
+        }
+      }
+      return -1;
+    }
+
+    private void put(final String name, final String value) {
+      final int i = indexOf(name);
+      if (i >= 0) {
+        this.values[i] = value;
+        return;
+      }
+      if (this.size == this.names.length) {
+        this.names = Arrays.copyOf(this.names, 2 * this.size);
+        this.values = Arrays.copyOf(this.values, 2 * this.size);
+      }
+      this.names[this.size] = name;
+      this.values[this.size] = value;
+      this.size++;
+    }
+
+    // insertion sort by name; there are only a few interesting headers
+    private void sort() {
+      for (int i = 1; i < this.size; i++) {
+        final String name = this.names[i];
+        final String value = this.values[i];
+        int j = i - 1;
+        while (j >= 0 && this.names[j].compareTo(name) > 0) {
+          this.names[j + 1] = this.names[j];
+          this.values[j + 1] = this.values[j];
+          j--;
+        }
+        this.names[j + 1] = name;
+        this.values[j + 1] = value;
+      }
+    }
+  }
+
+  /**
+   * The {@code Date} header value of a second, formatted once and shared by every request signed
+   * in that second
+   */
+  private static final class SignatureDate {
+    private final long second;
+    private final String value;
+
+    private SignatureDate(final long second) {
+      this.second = second;
+      this.value = RFC_822.format(Instant.ofEpochSecond(second));
+    }
+  }
+
+  private static SignatureDate signatureDate(final long millis) {
+    final long second = Math.floorDiv(millis, 1000);
+    SignatureDate date = signatureDate;
+    if (date.second != second) {
+      date = new SignatureDate(second);
+      signatureDate = date;
+    }
+    return date;
+  }
+}
@@ -8,25 +8,30 @@ package com.ibm.og.s3.v4;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
 import javax.inject.Inject;
 import javax.inject.Named;
 
-import com.ibm.og.api.AuthType;
 import com.ibm.og.http.AuthenticatedHttpRequest;
 import com.ibm.og.http.HttpAuth;
-import com.ibm.og.s3.SignableRequestAdapter;
 import com.ibm.og.util.Context;
 import com.ibm.og.util.io.Streams;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.amazonaws.SignableRequest;
-import com.amazonaws.auth.AWSCredentials;
-import com.amazonaws.auth.BasicAWSCredentials;
+import com.amazonaws.util.endpoint.DefaultRegionFromEndpointResolver;
 import com.ibm.og.api.AuthenticatedRequest;
 import com.ibm.og.api.DataType;
 import com.ibm.og.api.Request;
 import com.ibm.og.http.Bodies;
+import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
@@ -34,23 +39,84 @@ import com.google.common.hash.Hashing;
 import com.google.common.hash.HashingInputStream;
 
 /**
- * An http auth implementation which authenticates using the aws v4 algorithm
+ * An http auth implementation which authenticates using the aws v4 algorithm. Requests are signed
+ * with an {@code Authorization} header, optionally with an {@code UNSIGNED-PAYLOAD} content hash,
+ * or presigned with query string authentication. Presigned uris are reused for requests with the
+ * same method, uri, credential and presigned headers, so repeated requests are not signed again.
  * 
  * @since 1.0
  */
 public class AWSV4Auth implements HttpAuth {
   private static Logger _logger = LoggerFactory.getLogger(AWSV4Auth.class);
+  private static final String SERVICE_NAME = "s3";
+  private static final String DEFAULT_REGION = "us-east-1";
+  // the longest expiration s3 accepts for a presigned url, in seconds
+  static final int MAX_PRESIGNED_EXPIRATION = 604800;
   private final boolean chunkedEncoding;
+  private final int chunkSize;
   private final int cacheSize;
+  private final boolean unsignedPayload;
+  private final boolean presigned;
+  private final int presignedExpiration;
   private final DataType data;
   private final LoadingCache<Long, byte[]> digestCache;
+  // presigned uris by method, uri, access key and presigned headers
+  private final Cache<String, V4Signer.Presigned> presignedUris;
+  // signer per uri authority
+  private final ConcurrentMap<String, V4Signer> signers;
+
+  public AWSV4Auth(final boolean chunkedEncoding, final int cacheSize, final DataType data) {
+    this(chunkedEncoding, AwsChunkedEncodingInputStream.DEFAULT_CHUNK_SIZE, cacheSize, false, false,
+        0, 0, data);
+  }
 
+  /**
+   * Constructs an aws v4 auth instance
+   * 
+   * @param chunkedEncoding whether to sign put content in aws-chunked chunks
+   * @param chunkSize the size of aws-chunked chunks, other than the last
+   * @param cacheSize the size of the digest cache for zeroes content, or 0 to hash all content
+   * @param unsignedPayload whether to send content with an {@code UNSIGNED-PAYLOAD} content hash
+   * @param presigned whether to authenticate with presigned uris rather than an
+   *        {@code Authorization} header
+   * @param presignedExpiration the number of seconds a presigned uri is valid for
+   * @param presignedCacheSize the maximum number of presigned uris to reuse
+   * @param data the data type of request content
+   */
   @Inject
   public AWSV4Auth(@Named("authentication.awsChunked") final boolean chunkedEncoding,
-      @Named("authentication.awsCacheSize") final int cacheSize, final DataType data) {
+      @Named("authentication.awsChunkSize") final int chunkSize,
+      @Named("authentication.awsCacheSize") final int cacheSize,
+      @Named("authentication.awsUnsignedPayload") final boolean unsignedPayload,
+      @Named("authentication.awsPresigned") final boolean presigned,
+      @Named("authentication.awsPresignedExpiration") final int presignedExpiration,
+      @Named("authentication.awsPresignedCacheSize") final int presignedCacheSize,
+      final DataType data) {
     this.chunkedEncoding = chunkedEncoding;
+    checkArgument(chunkSize >= AwsChunkedEncodingInputStream.MIN_CHUNK_SIZE,
+        "chunkSize must be >= %s [%s]", AwsChunkedEncodingInputStream.MIN_CHUNK_SIZE, chunkSize);
+    this.chunkSize = chunkSize;
     checkArgument(cacheSize >= 0, "cacheSize must be >= 0 [%s]", cacheSize);
     this.cacheSize = cacheSize;
+    checkArgument(!(chunkedEncoding && unsignedPayload),
+        "chunkedEncoding and unsignedPayload are mutually exclusive");
+    this.unsignedPayload = unsignedPayload;
+    this.presigned = presigned;
+    this.presignedExpiration = presignedExpiration;
+    if (presigned) {
+      checkArgument(!chunkedEncoding, "chunkedEncoding is not supported with presigned uris");
+      checkArgument(presignedExpiration > 0 && presignedExpiration <= MAX_PRESIGNED_EXPIRATION,
+          "presignedExpiration must be in range [1, %s] [%s]", MAX_PRESIGNED_EXPIRATION,
+          presignedExpiration);
+      checkArgument(presignedCacheSize >= 0, "presignedCacheSize must be >= 0 [%s]",
+          presignedCacheSize);
+      // reuse a presigned uri for half its lifetime, so a request never carries a uri which is
+      // about to expire
+      this.presignedUris = CacheBuilder.newBuilder().maximumSize(presignedCacheSize)
+          .expireAfterWrite(presignedExpiration * 500L, TimeUnit.MILLISECONDS).build();
+    } else {
+      this.presignedUris = null;
+    }
     this.data = checkNotNull(data);
     checkArgument(data != DataType.NONE, "data must not be NONE");
 
@@ -60,6 +126,7 @@ public class AWSV4Auth implements HttpAuth {
     } else {
       this.digestCache = null;
     }
+    this.signers = new ConcurrentHashMap<String, V4Signer>();
   }
 
   static class DigestLoader extends CacheLoader<Long, byte[]> {
@@ -85,23 +152,62 @@ public class AWSV4Auth implements HttpAuth {
     checkNotNull(request);
     final String accessKeyId = checkNotNull(request.getContext().get(Context.X_OG_USERNAME));
     final String secretAccessKey = checkNotNull(request.getContext().get(Context.X_OG_PASSWORD));
-    final AWSCredentials credentials = new BasicAWSCredentials(accessKeyId, secretAccessKey);
-
-    final AWSS3V4Signer signer = new AWSS3V4Signer(this.chunkedEncoding, this.digestCache);
-    signer.setServiceName("s3");
 
     final AuthenticatedHttpRequest authenticatedRequest = new AuthenticatedHttpRequest(request);
-    final SignableRequest<Request> signableRequest =
-        new SignableRequestAdapter(authenticatedRequest, AuthType.AWSV4);
-
-    signer.sign(signableRequest, credentials);
+    final V4Signer signer = signer(request.getUri());
+    if (this.presigned) {
+      presign(signer, authenticatedRequest, accessKeyId, secretAccessKey);
+    } else {
+      signer.sign(authenticatedRequest, accessKeyId, secretAccessKey);
+    }
 
     return authenticatedRequest;
   }
 
+  private void presign(final V4Signer signer, final AuthenticatedHttpRequest request,
+      final String accessKeyId, final String secretAccessKey) {
+    final Map<String, String> signedHeaders = signer.presignedHeaders(request);
+    final String key = request.getMethod() + " " + request.getUri() + "\n" + accessKeyId.trim()
+        + "\n" + signedHeaders;
+    final V4Signer.Presigned presigned;
+    try {
+      presigned = this.presignedUris.get(key, new Callable<V4Signer.Presigned>() {
+        @Override
+        public V4Signer.Presigned call() {
+          return signer.presign(request, signedHeaders, accessKeyId, secretAccessKey,
+              AWSV4Auth.this.presignedExpiration);
+        }
+      });
+    } catch (final ExecutionException e) {
+      throw new RuntimeException(e);
+    }
+    presigned.apply(request);
+  }
+
+  /**
+   * Returns the signer for the endpoint of a uri. Its region is resolved from the host once, in the
+   * same way the sdk signer resolves it for every request.
+   */
+  private V4Signer signer(final URI uri) {
+    final String authority = uri.getAuthority();
+    V4Signer signer = this.signers.get(authority);
+    if (signer == null || !signer.getScheme().equals(uri.getScheme())) {
+      final URI endpoint = URI.create(uri.getScheme() + "://" + authority);
+      final String region = new DefaultRegionFromEndpointResolver()
+          .guessRegionFromEndpoint(endpoint.getHost(), SERVICE_NAME);
+      signer = new V4Signer(endpoint, region != null ? region : DEFAULT_REGION, SERVICE_NAME,
+          this.chunkedEncoding, this.chunkSize, this.unsignedPayload, this.digestCache);
+      this.signers.put(authority, signer);
+    }
+    return signer;
+  }
+
   @Override
   public String toString() {
-    return String.format("AWSV4Auth [chunkedEncoding=%s, cacheSize=%s, data=%s]",
-        this.chunkedEncoding, this.cacheSize, this.data);
+    return String.format(
+        "AWSV4Auth [chunkedEncoding=%s, chunkSize=%s, cacheSize=%s, unsignedPayload=%s, "
+            + "presigned=%s, presignedExpiration=%s, data=%s]",
+        this.chunkedEncoding, this.chunkSize, this.cacheSize, this.unsignedPayload, this.presigned,
+        this.presignedExpiration, this.data);
   }
 }
@@ -12,59 +12,92 @@
  */
 package com.ibm.og.s3.v4;
 
-import static com.amazonaws.util.StringUtils.UTF8;
+import static com.google.common.base.Preconditions.checkArgument;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.security.InvalidKeyException;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestException;
 import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
-import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
 
 import javax.annotation.Nullable;
 import javax.crypto.Mac;
+import javax.crypto.ShortBufferException;
 import javax.crypto.spec.SecretKeySpec;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
-import com.amazonaws.AmazonClientException;
 import com.amazonaws.auth.AWS4Signer;
 import com.amazonaws.auth.AbstractAWSSigner;
-import com.amazonaws.auth.SigningAlgorithm;
 import com.amazonaws.internal.SdkInputStream;
-import com.amazonaws.util.BinaryUtils;
 import com.google.common.cache.LoadingCache;
 
 /**
  * A wrapper class of InputStream that implements chunked-encoding.
+ * <p>
+ * Each chunk is read into a single buffer, borrowed from a pool shared by all streams of the same
+ * chunk size, which has room for the chunk header ahead of the content and for the chunk's
+ * trailing CRLF after it. The header is written in place once the chunk is signed, so the encoded
+ * chunk is returned straight from the buffer and encoding a chunk allocates nothing. The buffer is
+ * returned to the pool once the final chunk has been read, or when the stream is closed.
  */
 public final class AwsChunkedEncodingInputStream extends SdkInputStream {
   protected static final String DEFAULT_ENCODING = "UTF-8";
 
-  private static final int DEFAULT_CHUNK_SIZE = 128 * 1024;
-  private static final int DEFAULT_BUFFER_SIZE = 256 * 1024;
+  static final int DEFAULT_CHUNK_SIZE = 128 * 1024;
+  // the smallest chunk s3 accepts, other than the final chunk
+  static final int MIN_CHUNK_SIZE = 8 * 1024;
+  static final int DEFAULT_BUFFER_SIZE = 256 * 1024;
+  // buffers kept per chunk size for reuse by later streams
+  private static final int POOLED_BUFFERS = 256;
 
   private static final String CRLF = "\r\n";
   private static final String CHUNK_STRING_TO_SIGN_PREFIX = "AWS4-HMAC-SHA256-PAYLOAD";
+  private static final String TRAILER_STRING_TO_SIGN_PREFIX = "AWS4-HMAC-SHA256-TRAILER";
   private static final String CHUNK_SIGNATURE_HEADER = ";chunk-signature=";
+  private static final String TRAILER_SIGNATURE_HEADER = "x-amz-trailer-signature:";
   private static final int SIGNATURE_LENGTH = 64;
-  private static final byte[] FINAL_CHUNK = new byte[0];
+  private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+  private static final byte[] CHUNK_SIGNATURE_HEADER_BYTES =
+      CHUNK_SIGNATURE_HEADER.getBytes(StandardCharsets.US_ASCII);
+  // the part of each chunk's string to sign between the prior signature and the chunk's hash
+  private static final byte[] EMPTY_HASH_LINE =
+      ("\n" + AbstractAWSSigner.EMPTY_STRING_SHA256_HEX + "\n")
+          .getBytes(StandardCharsets.US_ASCII);
+
+  private static final ConcurrentMap<Integer, BlockingQueue<byte[]>> BUFFER_POOLS =
+      new ConcurrentHashMap<Integer, BlockingQueue<byte[]>>();
 
   private InputStream is = null;
   private final int maxBufferSize;
+  private final int chunkSize;
+  // the largest chunk header, which precedes the content in the buffer
+  private final int headerLength;
   private final String dateTime;
   private final String keyPath;
-  private final String headerSignature;
-  private String priorChunkSignature;
-  private final AWS4Signer aws4Signer;
-
-  private final MessageDigest sha256;
-  private final Mac hmacSha256;
-
-  /** Iterator on the current chunk that has been signed */
-  private ChunkContentIterator currentChunkIterator;
+  private final byte[] headerSignature;
+  // hex signature of the previous chunk, or the header signature before the first chunk
+  private final byte[] priorChunkSignature;
+  // the start of each chunk's string to sign, which is the same for every chunk of this stream
+  private final byte[] chunkStringToSignPrefix;
+  private final byte[] digest;
+  private final byte[] digestHex;
+  private final byte[] signature;
+
+  // the mac and digest are borrowed per chunk from SigningCrypto, since a stream may be read on
+  // a different thread than the one which created it
+  private final SecretKeySpec signingKey;
+
+  // the encoded chunk being read, from position to limit in buffer
+  private byte[] buffer;
+  private int position;
+  private int limit;
 
   /**
    * Iterator on the buffer of the decoded stream, Null if the wrapped stream is marksupported,
@@ -79,34 +112,57 @@ public final class AwsChunkedEncodingInputStream extends SdkInputStream {
 
   private final LoadingCache<Long, byte[]> digestCache;
 
+  /** Checksum of the content sent as a signed trailer, or null if there is no trailer */
+  private final TrailingChecksum checksum;
+
+  // the public constructors accept an AWS4Signer for compatibility only; chunks are signed
+  // directly with the signing key
   public AwsChunkedEncodingInputStream(final InputStream in, final byte[] kSigning,
       final String datetime, final String keyPath, final String headerSignature,
       final AWS4Signer aws4Signer, @Nullable final LoadingCache<Long, byte[]> digestCache) {
-    this(in, DEFAULT_BUFFER_SIZE, kSigning, datetime, keyPath, headerSignature, aws4Signer,
-        digestCache);
+    this(in, DEFAULT_BUFFER_SIZE, DEFAULT_CHUNK_SIZE, kSigning, datetime, keyPath,
+        headerSignature, digestCache, null);
+  }
+
+  AwsChunkedEncodingInputStream(final InputStream in, final byte[] kSigning,
+      final String datetime, final String keyPath, final String headerSignature,
+      @Nullable final LoadingCache<Long, byte[]> digestCache,
+      @Nullable final TrailingChecksum checksum) {
+    this(in, DEFAULT_BUFFER_SIZE, DEFAULT_CHUNK_SIZE, kSigning, datetime, keyPath,
+        headerSignature, digestCache, checksum);
+  }
+
+  public AwsChunkedEncodingInputStream(final InputStream in, final int maxBufferSize,
+      final byte[] kSigning, final String datetime, final String keyPath,
+      final String headerSignature, final AWS4Signer aws4Signer,
+      final LoadingCache<Long, byte[]> digestCache) {
+    this(in, maxBufferSize, DEFAULT_CHUNK_SIZE, kSigning, datetime, keyPath, headerSignature,
+        digestCache, null);
   }
 
   /**
    * A wrapper of InputStream that implements pseudo-chunked-encoding. Each chunk will be buffered
    * for the calculation of the chunk signature which is added at the head of each chunk.<br>
-   * The default chunk size cannot be customized, since we need to calculate the expected encoded
-   * stream length before reading the wrapped stream.<br>
+   * The chunk size must also be used to calculate the expected encoded stream length before
+   * reading the wrapped stream.<br>
    * This class will use the mark() & reset() of the wrapped InputStream if they are supported,
    * otherwise it will create a buffer for bytes read from the wrapped stream.
    * 
    * @param in The original InputStream.
    * @param maxBufferSize Maximum number of bytes buffered by this class.
+   * @param chunkSize The size of each chunk but the last, which may be shorter.
    * @param kSigning Signing key.
    * @param datetime Datetime, as used in SigV4.
    * @param keyPath Keypath/Scope, as used in SigV4.
    * @param headerSignature The signature of the signed headers. This will be used for calculating
    *        the signature of the first chunk.
-   * @param aws4Signer The AWS4Signer used for hashing and signing.
+   * @param checksum Checksum computed over the content and sent as a signed trailer after the
+   *        final chunk, or null to send no trailer.
    */
-  public AwsChunkedEncodingInputStream(final InputStream in, int maxBufferSize,
+  AwsChunkedEncodingInputStream(final InputStream in, int maxBufferSize, final int chunkSize,
       final byte[] kSigning, final String datetime, final String keyPath,
-      final String headerSignature, final AWS4Signer aws4Signer,
-      final LoadingCache<Long, byte[]> digestCache) {
+      final String headerSignature, final LoadingCache<Long, byte[]> digestCache,
+      @Nullable final TrailingChecksum checksum) {
     if (in instanceof AwsChunkedEncodingInputStream) {
       // This could happen when the request is retried, and we need to re-calculate the signatures.
       final AwsChunkedEncodingInputStream originalChunkedStream =
@@ -119,26 +175,29 @@ public final class AwsChunkedEncodingInputStream extends SdkInputStream {
       this.decodedStreamBuffer = null;
     }
 
-    if (maxBufferSize < DEFAULT_CHUNK_SIZE) {
+    checkArgument(chunkSize >= MIN_CHUNK_SIZE, "chunkSize must be >= %s [%s]", MIN_CHUNK_SIZE,
+        chunkSize);
+    if (maxBufferSize < chunkSize) {
       throw new IllegalArgumentException("Max buffer size should not be less than chunk size");
     }
-    try {
-      this.sha256 = MessageDigest.getInstance("SHA-256");
-      final String signingAlgo = SigningAlgorithm.HmacSHA256.toString();
-      this.hmacSha256 = Mac.getInstance(signingAlgo);
-      this.hmacSha256.init(new SecretKeySpec(kSigning, signingAlgo));
-    } catch (final NoSuchAlgorithmException e) {
-      throw new IllegalStateException(e);
-    } catch (final InvalidKeyException e) {
-      throw new IllegalArgumentException(e);
-    }
+    this.signingKey = new SecretKeySpec(kSigning, SigningCrypto.HMAC_SHA256);
     this.maxBufferSize = maxBufferSize;
+    this.chunkSize = chunkSize;
+    this.headerLength = chunkHeaderLength(chunkSize);
     this.dateTime = datetime;
     this.keyPath = keyPath;
-    this.headerSignature = headerSignature;
-    this.priorChunkSignature = headerSignature;
-    this.aws4Signer = aws4Signer;
+    this.headerSignature = headerSignature.getBytes(StandardCharsets.US_ASCII);
+    checkArgument(this.headerSignature.length == SIGNATURE_LENGTH,
+        "headerSignature must be %s hex characters [%s]", SIGNATURE_LENGTH, headerSignature);
+    this.priorChunkSignature = this.headerSignature.clone();
+    this.chunkStringToSignPrefix =
+        (CHUNK_STRING_TO_SIGN_PREFIX + "\n" + datetime + "\n" + keyPath + "\n")
+            .getBytes(StandardCharsets.UTF_8);
+    this.digest = new byte[32];
+    this.digestHex = new byte[2 * this.digest.length];
+    this.signature = new byte[32];
     this.digestCache = digestCache;
+    this.checksum = checksum;
   }
 
   @Override
@@ -167,20 +226,24 @@ public final class AwsChunkedEncodingInputStream extends SdkInputStream {
       return 0;
     }
 
-    if (null == this.currentChunkIterator || !this.currentChunkIterator.hasNext()) {
+    if (this.position == this.limit) {
       if (this.isTerminating) {
+        releaseBuffer();
         return -1;
       } else {
         this.isTerminating = setUpNextChunk();
       }
     }
 
-    final int count = this.currentChunkIterator.read(b, off, len);
-    if (count > 0) {
-      this.isAtStart = false;
-      if (log.isTraceEnabled()) {
-        log.trace(count + " byte read from the stream.");
-      }
+    final int count = Math.min(len, this.limit - this.position);
+    System.arraycopy(this.buffer, this.position, b, off, count);
+    this.position += count;
+    this.isAtStart = false;
+    if (log.isTraceEnabled()) {
+      log.trace(count + " byte read from the stream.");
+    }
+    if (this.isTerminating && this.position == this.limit) {
+      releaseBuffer();
     }
     return count;
   }
@@ -244,8 +307,9 @@ public final class AwsChunkedEncodingInputStream extends SdkInputStream {
   public void reset() throws IOException {
     abortIfNeeded();
     // Clear up any encoded data
-    this.currentChunkIterator = null;
-    this.priorChunkSignature = this.headerSignature;
+    this.position = 0;
+    this.limit = 0;
+    System.arraycopy(this.headerSignature, 0, this.priorChunkSignature, 0, SIGNATURE_LENGTH);
     // Reset the wrapped stream if it is mark-supported,
     // otherwise use our buffered data.
     if (this.is.markSupported()) {
@@ -265,48 +329,94 @@ public final class AwsChunkedEncodingInputStream extends SdkInputStream {
       this.decodedStreamBuffer.startReadBuffer();
     }
 
-    this.currentChunkIterator = null;
+    if (this.checksum != null) {
+      this.checksum.reset();
+    }
     this.isAtStart = true;
     this.isTerminating = false;
   }
 
+  /**
+   * Returns the chunk buffer to the pool. The wrapped stream is not closed.
+   */
+  @Override
+  public void close() throws IOException {
+    releaseBuffer();
+    super.close();
+  }
+
   public static long calculateStreamContentLength(final long originalLength) {
+    return calculateStreamContentLength(originalLength, DEFAULT_CHUNK_SIZE);
+  }
+
+  /**
+   * Calculates the length of the encoded stream for a chunk size
+   */
+  static long calculateStreamContentLength(final long originalLength, final int chunkSize) {
     if (originalLength < 0) {
       throw new IllegalArgumentException("Nonnegative content length expected.");
     }
 
-    final long maxSizeChunks = originalLength / DEFAULT_CHUNK_SIZE;
-    final long remainingBytes = originalLength % DEFAULT_CHUNK_SIZE;
-    return maxSizeChunks * calculateSignedChunkLength(DEFAULT_CHUNK_SIZE)
+    final long maxSizeChunks = originalLength / chunkSize;
+    final long remainingBytes = originalLength % chunkSize;
+    return maxSizeChunks * calculateSignedChunkLength(chunkSize)
         + (remainingBytes > 0 ? calculateSignedChunkLength(remainingBytes) : 0)
         + calculateSignedChunkLength(0);
   }
 
+  /**
+   * Calculates the length of the encoded stream when a signed checksum trailer follows the final
+   * chunk
+   */
+  static long calculateStreamContentLength(final long originalLength,
+      final TrailingChecksum checksum) {
+    return calculateStreamContentLength(originalLength, checksum, DEFAULT_CHUNK_SIZE);
+  }
+
+  static long calculateStreamContentLength(final long originalLength,
+      final TrailingChecksum checksum, final int chunkSize) {
+    return calculateStreamContentLength(originalLength, chunkSize) + checksum.getTrailerLength()
+        + TRAILER_SIGNATURE_HEADER.length() + SIGNATURE_LENGTH + CRLF.length();
+  }
+
   private static long calculateSignedChunkLength(final long chunkDataSize) {
     return Long.toHexString(chunkDataSize).length() + CHUNK_SIGNATURE_HEADER.length()
         + SIGNATURE_LENGTH + CRLF.length() + chunkDataSize + CRLF.length();
   }
 
+  private static int chunkHeaderLength(final int chunkDataSize) {
+    return hexLength(chunkDataSize) + CHUNK_SIGNATURE_HEADER.length() + SIGNATURE_LENGTH
+        + CRLF.length();
+  }
+
+  private static int hexLength(final int value) {
+    return Math.max(1, (Integer.SIZE - Integer.numberOfLeadingZeros(value) + 3) / 4);
+  }
+
   /**
    * Read in the next chunk of data, and create the necessary chunk extensions.
    * 
    * @return Returns true if next chunk is the last empty chunk.
    */
   private boolean setUpNextChunk() throws IOException {
-    byte[] chunkData = new byte[DEFAULT_CHUNK_SIZE];
+    if (this.buffer == null) {
+      this.buffer = borrowBuffer(this.headerLength + this.chunkSize + trailerCapacity());
+    }
+    final byte[] chunkData = this.buffer;
+    final int dataOffset = this.headerLength;
     int chunkSizeInBytes = 0;
-    while (chunkSizeInBytes < DEFAULT_CHUNK_SIZE) {
+    while (chunkSizeInBytes < this.chunkSize) {
       /** Read from the buffer of the decoded stream */
       if (null != this.decodedStreamBuffer && this.decodedStreamBuffer.hasNext()) {
-        chunkData[chunkSizeInBytes++] = this.decodedStreamBuffer.next();
+        chunkData[dataOffset + chunkSizeInBytes++] = this.decodedStreamBuffer.next();
       }
       /** Read from the wrapped stream */
       else {
-        final int bytesToRead = DEFAULT_CHUNK_SIZE - chunkSizeInBytes;
-        final int count = this.is.read(chunkData, chunkSizeInBytes, bytesToRead);
+        final int bytesToRead = this.chunkSize - chunkSizeInBytes;
+        final int count = this.is.read(chunkData, dataOffset + chunkSizeInBytes, bytesToRead);
         if (count != -1) {
           if (null != this.decodedStreamBuffer) {
-            this.decodedStreamBuffer.buffer(chunkData, chunkSizeInBytes, count);
+            this.decodedStreamBuffer.buffer(chunkData, dataOffset + chunkSizeInBytes, count);
           }
           chunkSizeInBytes += count;
         } else {
@@ -314,56 +424,150 @@ public final class AwsChunkedEncodingInputStream extends SdkInputStream {
         }
       }
     }
-    if (chunkSizeInBytes == 0) {
-      final byte[] signedFinalChunk = createSignedChunk(FINAL_CHUNK);
-      this.currentChunkIterator = new ChunkContentIterator(signedFinalChunk);
-      return true;
-    } else {
-      if (chunkSizeInBytes < chunkData.length) {
-        chunkData = Arrays.copyOf(chunkData, chunkSizeInBytes);
-      }
-      final byte[] signedChunkContent = createSignedChunk(chunkData);
-      this.currentChunkIterator = new ChunkContentIterator(signedChunkContent);
-      return false;
+    if (chunkSizeInBytes > 0 && this.checksum != null) {
+      this.checksum.update(chunkData, dataOffset, chunkSizeInBytes);
+    }
+    signChunk(chunkSizeInBytes);
+    if (chunkSizeInBytes == 0 && this.checksum != null) {
+      appendSignedTrailer();
     }
+    return chunkSizeInBytes == 0;
   }
 
-  private byte[] createSignedChunk(final byte[] chunkData) {
-    final StringBuilder chunkHeader = new StringBuilder();
-    // chunk-size
-    chunkHeader.append(Integer.toHexString(chunkData.length));
+  // room after the final chunk's header for the checksum trailer and its signature
+  private int trailerCapacity() {
+    if (this.checksum == null) {
+      return CRLF.length();
+    }
+    return Math.max(CRLF.length(), this.checksum.getTrailerLength()
+        + TRAILER_SIGNATURE_HEADER.length() + SIGNATURE_LENGTH + 2 * CRLF.length()
+        - this.chunkSize);
+  }
 
-    byte[] chunkDigest;
+  /**
+   * Signs the chunk of the given length at the head of the content area of the buffer, and writes
+   * its header before it and CRLF after it:
+   *
+   * <pre>
+   * &lt;hex length&gt;;chunk-signature=&lt;signature&gt;\r\n
+   * &lt;content&gt;\r\n
+   * </pre>
+   */
+  private void signChunk(final int length) {
+    final byte[] chunkDigest;
     if (this.digestCache != null) {
       try {
-        chunkDigest = this.digestCache.get((long) chunkData.length);
+        chunkDigest = this.digestCache.get((long) length);
       } catch (final ExecutionException e) {
         throw new RuntimeException(e);
       }
     } else {
-      chunkDigest = this.sha256.digest(chunkData);
+      final MessageDigest sha256 = SigningCrypto.sha256();
+      sha256.update(this.buffer, this.headerLength, length);
+      try {
+        sha256.digest(this.digest, 0, this.digest.length);
+      } catch (final DigestException e) {
+        throw new IllegalStateException(e);
+      }
+      chunkDigest = this.digest;
     }
+    toHex(chunkDigest, this.digestHex, 0);
+
+    final Mac mac = SigningCrypto.hmacSha256(this.signingKey);
+    mac.update(this.chunkStringToSignPrefix);
+    mac.update(this.priorChunkSignature);
+    mac.update(EMPTY_HASH_LINE);
+    mac.update(this.digestHex);
+    doFinal(mac);
+
+    final byte[] b = this.buffer;
+    int pos = this.headerLength - chunkHeaderLength(length);
+    this.position = pos;
+    for (int shift = 4 * (hexLength(length) - 1); shift >= 0; shift -= 4) {
+      b[pos++] = HEX[(length >>> shift) & 0xF];
+    }
+    System.arraycopy(CHUNK_SIGNATURE_HEADER_BYTES, 0, b, pos, CHUNK_SIGNATURE_HEADER_BYTES.length);
+    pos += CHUNK_SIGNATURE_HEADER_BYTES.length;
+    System.arraycopy(this.priorChunkSignature, 0, b, pos, SIGNATURE_LENGTH);
+    pos += SIGNATURE_LENGTH;
+    b[pos++] = '\r';
+    b[pos++] = '\n';
+    pos += length;
+    b[pos++] = '\r';
+    b[pos++] = '\n';
+    this.limit = pos;
+  }
 
-    // sig-extension
-    final String chunkStringToSign = CHUNK_STRING_TO_SIGN_PREFIX + "\n" + this.dateTime + "\n"
-        + this.keyPath + "\n" + this.priorChunkSignature + "\n"
-        + AbstractAWSSigner.EMPTY_STRING_SHA256_HEX + "\n" + BinaryUtils.toHex(chunkDigest);
+  /**
+   * Replaces the terminating CRLF of the final chunk with the checksum trailer and its signature,
+   * which chains from the signature of the final chunk:
+   *
+   * <pre>
+   * 0;chunk-signature=&lt;signature&gt;\r\n
+   * x-amz-checksum-crc32:&lt;base64 value&gt;\r\n
+   * x-amz-trailer-signature:&lt;signature&gt;\r\n
+   * \r\n
+   * </pre>
+   */
+  private void appendSignedTrailer() {
+    final String trailer = this.checksum.getTrailer();
+    final MessageDigest sha256 = SigningCrypto.sha256();
+    sha256.update((trailer + "\n").getBytes(StandardCharsets.UTF_8));
+    toHex(sha256.digest(), this.digestHex, 0);
+    final Mac mac = SigningCrypto.hmacSha256(this.signingKey);
+    mac.update((TRAILER_STRING_TO_SIGN_PREFIX + "\n" + this.dateTime + "\n" + this.keyPath + "\n")
+        .getBytes(StandardCharsets.UTF_8));
+    mac.update(this.priorChunkSignature);
+    mac.update((byte) '\n');
+    mac.update(this.digestHex);
+    doFinal(mac);
+
+    final byte[] trailerLines = (trailer + CRLF + TRAILER_SIGNATURE_HEADER
+        + new String(this.priorChunkSignature, StandardCharsets.US_ASCII) + CRLF + CRLF)
+            .getBytes(StandardCharsets.UTF_8);
+    final int pos = this.limit - CRLF.length();
+    System.arraycopy(trailerLines, 0, this.buffer, pos, trailerLines.length);
+    this.limit = pos + trailerLines.length;
+  }
 
-    final String chunkSignature =
-        BinaryUtils.toHex(this.aws4Signer.signWithMac(chunkStringToSign, this.hmacSha256));
-    this.priorChunkSignature = chunkSignature;
-    chunkHeader.append(CHUNK_SIGNATURE_HEADER).append(chunkSignature).append(CRLF);
+  // completes a signature, which becomes the prior signature of the next chunk
+  private void doFinal(final Mac mac) {
     try {
-      final byte[] header = chunkHeader.toString().getBytes(UTF8);
-      final byte[] trailer = CRLF.getBytes(UTF8);
-      final byte[] signedChunk = new byte[header.length + chunkData.length + trailer.length];
-      System.arraycopy(header, 0, signedChunk, 0, header.length);
-      System.arraycopy(chunkData, 0, signedChunk, header.length, chunkData.length);
-      System.arraycopy(trailer, 0, signedChunk, header.length + chunkData.length, trailer.length);
-      return signedChunk;
-    } catch (final Exception e) {
-      throw new AmazonClientException("Unable to sign the chunked data. " + e.getMessage(), e);
+      mac.doFinal(this.signature, 0);
+    } catch (final ShortBufferException e) {
+      throw new IllegalStateException(e);
+    }
+    toHex(this.signature, this.priorChunkSignature, 0);
+  }
+
+  private static void toHex(final byte[] bytes, final byte[] hex, final int offset) {
+    for (int i = 0; i < bytes.length; i++) {
+      hex[offset + 2 * i] = HEX[(bytes[i] >> 4) & 0xF];
+      hex[offset + 2 * i + 1] = HEX[bytes[i] & 0xF];
+    }
+  }
+
+  private static byte[] borrowBuffer(final int length) {
+    final BlockingQueue<byte[]> pool = BUFFER_POOLS.get(length);
+    final byte[] buffer = pool != null ? pool.poll() : null;
+    return buffer != null ? buffer : new byte[length];
+  }
+
+  private void releaseBuffer() {
+    if (this.buffer == null) {
+      return;
+    }
+    BlockingQueue<byte[]> pool = BUFFER_POOLS.get(this.buffer.length);
+    if (pool == null) {
+      final BlockingQueue<byte[]> newPool = new ArrayBlockingQueue<byte[]>(POOLED_BUFFERS);
+      pool = BUFFER_POOLS.putIfAbsent(this.buffer.length, newPool);
+      if (pool == null) {
+        pool = newPool;
+      }
     }
+    // the pool is bounded, so a buffer is simply dropped if the pool is full
+    pool.offer(this.buffer);
+    this.buffer = null;
   }
 
   @Override
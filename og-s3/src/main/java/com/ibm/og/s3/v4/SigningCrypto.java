@@ -0,0 +1,84 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.s3.v4;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.security.InvalidKeyException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Per-thread {@code HmacSHA256} and {@code SHA-256} instances for signing. Looking up a provider
+ * instance is far more expensive than the hashing done for a typical request, so instances are
+ * created once per thread and reused. An instance must only be used until the next call to this
+ * class from the same thread, since a later call reinitializes it.
+ *
+ * @since 1.0
+ */
+final class SigningCrypto {
+  static final String HMAC_SHA256 = "HmacSHA256";
+
+  private static final ThreadLocal<Mac> MAC = new ThreadLocal<Mac>() {
+    @Override
+    protected Mac initialValue() {
+      try {
+        return Mac.getInstance(HMAC_SHA256);
+      } catch (final NoSuchAlgorithmException e) {
+        throw new IllegalStateException(e);
+      }
+    }
+  };
+
+  private static final ThreadLocal<MessageDigest> SHA256 = new ThreadLocal<MessageDigest>() {
+    @Override
+    protected MessageDigest initialValue() {
+      try {
+        return MessageDigest.getInstance("SHA-256");
+      } catch (final NoSuchAlgorithmException e) {
+        throw new IllegalStateException(e);
+      }
+    }
+  };
+
+  private SigningCrypto() {}
+
+  /**
+   * @param key the signing key
+   * @return this thread's mac, initialized with the provided key
+   */
+  static Mac hmacSha256(final SecretKeySpec key) {
+    checkNotNull(key);
+    final Mac mac = MAC.get();
+    try {
+      mac.init(key);
+    } catch (final InvalidKeyException e) {
+      throw new IllegalArgumentException(e);
+    }
+    return mac;
+  }
+
+  /**
+   * @param key the raw signing key
+   * @param data the data to sign
+   * @return the HmacSHA256 of data using key
+   */
+  static byte[] hmacSha256(final byte[] key, final byte[] data) {
+    return hmacSha256(new SecretKeySpec(key, HMAC_SHA256)).doFinal(data);
+  }
+
+  /**
+   * @return this thread's digest, reset
+   */
+  static MessageDigest sha256() {
+    final MessageDigest digest = SHA256.get();
+    digest.reset();
+    return digest;
+  }
+}
@@ -0,0 +1,93 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.s3.v4;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.nio.charset.StandardCharsets;
+
+import javax.crypto.spec.SecretKeySpec;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Derived aws v4 signing keys, kept per secret key, day, region and service. Deriving a key takes
+ * four chained HMACs, which at high request rates costs more than signing the request itself. The
+ * sdk signer keeps only a few hundred keys and evicts them in insertion order, so a test which
+ * cycles through a large pool of credentials would derive a key for most requests.
+ *
+ * @since 1.0
+ */
+final class SigningKeys {
+  static final int CACHE_SIZE = 10000;
+  private static final String TERMINATOR = "aws4_request";
+  // shared by all signers; the key includes the date stamp, so entries for previous days are never
+  // hit again and age out of the cache
+  private static final Cache<String, SecretKeySpec> SIGNING_KEYS =
+      CacheBuilder.newBuilder().maximumSize(CACHE_SIZE).build();
+
+  private static final ThreadLocal<KeyMemo> KEY_MEMO = new ThreadLocal<KeyMemo>() {
+    @Override
+    protected KeyMemo initialValue() {
+      return new KeyMemo();
+    }
+  };
+
+  private SigningKeys() {}
+
+  /**
+   * Returns the signing key for a credential, day, region and service, deriving it on first use
+   *
+   * @param secretKey the secret access key
+   * @param dateStamp the day, formatted {@code yyyyMMdd}
+   * @param region the region
+   * @param service the service
+   * @return the signing key
+   */
+  static SecretKeySpec get(final String secretKey, final String dateStamp, final String region,
+      final String service) {
+    checkNotNull(secretKey);
+    checkNotNull(dateStamp);
+    checkNotNull(region);
+    checkNotNull(service);
+    // most threads sign for one credential at a time, so remember the last key per thread before
+    // consulting the shared cache
+    final KeyMemo memo = KEY_MEMO.get();
+    if (secretKey.equals(memo.secretKey) && dateStamp.equals(memo.dateStamp)
+        && region.equals(memo.region) && service.equals(memo.service)) {
+      return memo.signingKey;
+    }
+    final String cacheKey = secretKey + "/" + dateStamp + "/" + region + "/" + service;
+    SecretKeySpec signingKey = SIGNING_KEYS.getIfPresent(cacheKey);
+    if (signingKey == null) {
+      final byte[] kSecret = ("AWS4" + secretKey).getBytes(StandardCharsets.UTF_8);
+      final byte[] kDate = hmac(kSecret, dateStamp);
+      final byte[] kRegion = hmac(kDate, region);
+      final byte[] kService = hmac(kRegion, service);
+      signingKey = new SecretKeySpec(hmac(kService, TERMINATOR), SigningCrypto.HMAC_SHA256);
+      SIGNING_KEYS.put(cacheKey, signingKey);
+    }
+    memo.secretKey = secretKey;
+    memo.dateStamp = dateStamp;
+    memo.region = region;
+    memo.service = service;
+    memo.signingKey = signingKey;
+    return signingKey;
+  }
+
+  private static byte[] hmac(final byte[] key, final String data) {
+    return SigningCrypto.hmacSha256(key, data.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static final class KeyMemo {
+    private String secretKey;
+    private String dateStamp;
+    private String region;
+    private String service;
+    private SecretKeySpec signingKey;
+  }
+}
@@ -0,0 +1,168 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.s3.v4;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Locale;
+import java.util.zip.CRC32;
+import java.util.zip.CRC32C;
+import java.util.zip.Checksum;
+
+import com.google.common.io.BaseEncoding;
+import com.ibm.og.api.ChecksumType;
+
+import software.amazon.awssdk.crt.checksums.CRC64NVME;
+
+/**
+ * A checksum of request content which is computed while the content is streamed and sent as an
+ * aws-chunked trailer, such as {@code x-amz-checksum-crc32:<base64 value>}
+ *
+ * @since 1.0
+ */
+final class TrailingChecksum {
+  static final String HEADER_PREFIX = "x-amz-checksum-";
+  private final String headerName;
+  private final Checksum checksum;
+  private final MessageDigest digest;
+  private final int length;
+
+  private TrailingChecksum(final String headerName, final Checksum checksum,
+      final MessageDigest digest, final int length) {
+    this.headerName = headerName;
+    this.checksum = checksum;
+    this.digest = digest;
+    this.length = length;
+  }
+
+  /**
+   * Creates a trailing checksum for the provided checksum type
+   *
+   * @param type the checksum type
+   * @return a new trailing checksum
+   * @throws IllegalArgumentException if type cannot be sent as a trailer
+   */
+  static TrailingChecksum create(final ChecksumType type) {
+    checkNotNull(type);
+    final String headerName = headerName(type);
+    switch (type) {
+      case CRC32:
+        return new TrailingChecksum(headerName, new CRC32(), null, 4);
+      case CRC32C:
+        return new TrailingChecksum(headerName, new CRC32C(), null, 4);
+      case CRC64NVME:
+        return new TrailingChecksum(headerName, new CRC64NVME(), null, 8);
+      case SHA1:
+        return new TrailingChecksum(headerName, null, digest("SHA-1"), 20);
+      case SHA256:
+        return new TrailingChecksum(headerName, null, digest("SHA-256"), 32);
+      default:
+        throw new IllegalArgumentException(
+            String.format("Unsupported trailing checksum [%s]", type));
+    }
+  }
+
+  /**
+   * Creates a trailing checksum from the value of an {@code x-amz-trailer} header
+   *
+   * @param trailer the name of the trailing header, such as {@code x-amz-checksum-crc32}
+   * @return a new trailing checksum
+   * @throws IllegalArgumentException if trailer is not a supported checksum header
+   */
+  static TrailingChecksum forTrailer(final String trailer) {
+    checkNotNull(trailer);
+    final String name = trailer.trim().toLowerCase(Locale.US);
+    for (final ChecksumType type : ChecksumType.values()) {
+      if (type != ChecksumType.NONE && type != ChecksumType.MD5
+          && headerName(type).equals(name)) {
+        return create(type);
+      }
+    }
+    throw new IllegalArgumentException(String.format("Unsupported trailer [%s]", trailer));
+  }
+
+  /**
+   * @param type the checksum type
+   * @return the name of the header which carries a checksum of the provided type
+   */
+  static String headerName(final ChecksumType type) {
+    return HEADER_PREFIX + type.toString().toLowerCase(Locale.US);
+  }
+
+  private static MessageDigest digest(final String algorithm) {
+    try {
+      return MessageDigest.getInstance(algorithm);
+    } catch (final NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  void update(final byte[] b, final int off, final int len) {
+    if (this.checksum != null) {
+      this.checksum.update(b, off, len);
+    } else {
+      this.digest.update(b, off, len);
+    }
+  }
+
+  void reset() {
+    if (this.checksum != null) {
+      this.checksum.reset();
+    } else {
+      this.digest.reset();
+    }
+  }
+
+  String getHeaderName() {
+    return this.headerName;
+  }
+
+  /**
+   * @return the base64 encoded checksum of the content seen so far
+   */
+  String getValue() {
+    final byte[] value;
+    if (this.checksum != null) {
+      final ByteBuffer buffer = ByteBuffer.allocate(this.length);
+      if (this.length == 4) {
+        buffer.putInt((int) this.checksum.getValue());
+      } else {
+        buffer.putLong(this.checksum.getValue());
+      }
+      value = buffer.array();
+    } else {
+      // digest a copy so that the running digest is not reset
+      try {
+        value = ((MessageDigest) this.digest.clone()).digest();
+      } catch (final CloneNotSupportedException e) {
+        throw new IllegalStateException(e);
+      }
+    }
+    return BaseEncoding.base64().encode(value);
+  }
+
+  /**
+   * @return the length in bytes of the trailer line, {@code name:value\r\n}
+   */
+  int getTrailerLength() {
+    return this.headerName.length() + 1 + 4 * ((this.length + 2) / 3) + 2;
+  }
+
+  /**
+   * @return the trailer line, {@code name:value}, without a line terminator
+   */
+  String getTrailer() {
+    return this.headerName + ":" + getValue();
+  }
+
+  @Override
+  public String toString() {
+    return String.format("TrailingChecksum [headerName=%s]", this.headerName);
+  }
+}
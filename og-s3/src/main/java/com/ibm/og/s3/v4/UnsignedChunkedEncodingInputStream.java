@@ -0,0 +1,196 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.s3.v4;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * An input stream which aws-chunked encodes content for a
+ * {@code STREAMING-UNSIGNED-PAYLOAD-TRAILER} request. Chunks carry no signature, so content is
+ * passed through without being buffered, and a checksum of the content is computed as it is read
+ * and sent as a trailer after the final chunk:
+ *
+ * <pre>
+ * 20000\r\n
+ * &lt;131072 bytes&gt;\r\n
+ * ...
+ * 0\r\n
+ * x-amz-checksum-crc32:&lt;base64 value&gt;\r\n
+ * \r\n
+ * </pre>
+ *
+ * The length of the content must be known up front, since it determines the length of each chunk.
+ * The wrapped stream must support mark and reset if this stream is to be reset.
+ *
+ * @since 1.0
+ */
+public class UnsignedChunkedEncodingInputStream extends InputStream {
+  static final int DEFAULT_CHUNK_SIZE = 128 * 1024;
+  private static final String CRLF = "\r\n";
+
+  private final InputStream in;
+  private final TrailingChecksum checksum;
+  private final long contentLength;
+  private final int chunkSize;
+  // content not yet framed into a chunk
+  private long remaining;
+  // encoded framing not yet returned to the caller
+  private byte[] pending;
+  private int pendingPosition;
+  // content remaining in the current chunk
+  private int chunkRemaining;
+  private boolean finished;
+
+  UnsignedChunkedEncodingInputStream(final InputStream in, final TrailingChecksum checksum,
+      final long contentLength) {
+    this(in, checksum, contentLength, DEFAULT_CHUNK_SIZE);
+  }
+
+  UnsignedChunkedEncodingInputStream(final InputStream in, final TrailingChecksum checksum,
+      final long contentLength, final int chunkSize) {
+    this.in = checkNotNull(in);
+    this.checksum = checkNotNull(checksum);
+    checkArgument(contentLength >= 0, "contentLength must be >= 0 [%s]", contentLength);
+    checkArgument(chunkSize > 0, "chunkSize must be > 0 [%s]", chunkSize);
+    this.contentLength = contentLength;
+    this.chunkSize = chunkSize;
+    start();
+  }
+
+  private void start() {
+    this.remaining = this.contentLength;
+    this.pending = null;
+    this.pendingPosition = 0;
+    this.chunkRemaining = 0;
+    this.finished = false;
+  }
+
+  /**
+   * Calculates the length of the encoded stream
+   *
+   * @param originalLength the length of the content
+   * @param checksum the trailing checksum
+   * @return the length of the encoded content, including framing and trailer
+   */
+  static long calculateStreamContentLength(final long originalLength,
+      final TrailingChecksum checksum) {
+    return calculateStreamContentLength(originalLength, checksum, DEFAULT_CHUNK_SIZE);
+  }
+
+  static long calculateStreamContentLength(final long originalLength,
+      final TrailingChecksum checksum, final int chunkSize) {
+    checkArgument(originalLength >= 0, "originalLength must be >= 0 [%s]", originalLength);
+    final long fullChunks = originalLength / chunkSize;
+    final long remainingBytes = originalLength % chunkSize;
+    return fullChunks * chunkLength(chunkSize)
+        + (remainingBytes > 0 ? chunkLength(remainingBytes) : 0)
+        // final chunk, trailer and terminating line
+        + 1 + CRLF.length() + checksum.getTrailerLength() + CRLF.length();
+  }
+
+  private static long chunkLength(final long chunkDataSize) {
+    return Long.toHexString(chunkDataSize).length() + CRLF.length() + chunkDataSize
+        + CRLF.length();
+  }
+
+  @Override
+  public int read() throws IOException {
+    final byte[] b = new byte[1];
+    final int count = read(b, 0, 1);
+    return count == -1 ? -1 : b[0] & 0xFF;
+  }
+
+  @Override
+  public int read(final byte[] b, final int off, final int len) throws IOException {
+    checkNotNull(b);
+    if (off < 0 || len < 0 || len > b.length - off) {
+      throw new IndexOutOfBoundsException();
+    } else if (len == 0) {
+      return 0;
+    }
+
+    while (true) {
+      if (this.pending != null) {
+        final int count = Math.min(len, this.pending.length - this.pendingPosition);
+        System.arraycopy(this.pending, this.pendingPosition, b, off, count);
+        this.pendingPosition += count;
+        if (this.pendingPosition == this.pending.length) {
+          this.pending = null;
+        }
+        return count;
+      }
+      if (this.finished) {
+        return -1;
+      }
+      if (this.chunkRemaining > 0) {
+        final int count = this.in.read(b, off, Math.min(len, this.chunkRemaining));
+        if (count == -1) {
+          throw new IOException("Content ended before the declared chunk length");
+        }
+        this.checksum.update(b, off, count);
+        this.chunkRemaining -= count;
+        if (this.chunkRemaining == 0) {
+          setPending(CRLF);
+        }
+        return count;
+      }
+      nextChunk();
+    }
+  }
+
+  // frames the next chunk, or the final chunk and trailer if the content is exhausted
+  private void nextChunk() {
+    if (this.remaining > 0) {
+      this.chunkRemaining = (int) Math.min(this.chunkSize, this.remaining);
+      this.remaining -= this.chunkRemaining;
+      setPending(Integer.toHexString(this.chunkRemaining) + CRLF);
+    } else {
+      this.finished = true;
+      setPending("0" + CRLF + this.checksum.getTrailer() + CRLF + CRLF);
+    }
+  }
+
+  private void setPending(final String framing) {
+    this.pending = framing.getBytes(StandardCharsets.US_ASCII);
+    this.pendingPosition = 0;
+  }
+
+  @Override
+  public boolean markSupported() {
+    return this.in.markSupported();
+  }
+
+  /**
+   * Marks the wrapped stream; only supported at the start of this stream
+   */
+  @Override
+  public void mark(final int readlimit) {
+    this.in.mark(readlimit);
+  }
+
+  @Override
+  public void reset() throws IOException {
+    this.in.reset();
+    this.checksum.reset();
+    start();
+  }
+
+  @Override
+  public void close() throws IOException {
+    this.in.close();
+  }
+
+  @Override
+  public String toString() {
+    return String.format("UnsignedChunkedEncodingInputStream [checksum=%s, chunkSize=%s]",
+        this.checksum, this.chunkSize);
+  }
+}
@@ -0,0 +1,591 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.s3.v4;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+
+import javax.annotation.Nullable;
+import javax.crypto.spec.SecretKeySpec;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.LoadingCache;
+import com.google.common.net.HttpHeaders;
+import com.ibm.og.api.Method;
+import com.ibm.og.http.AuthenticatedHttpRequest;
+import com.ibm.og.s3.SigningUtil;
+
+/**
+ * An aws v4 signer for s3 which signs an {@code AuthenticatedHttpRequest} directly from its
+ * headers, query parameters and uri. It produces the same headers and content as the sdk's s3
+ * signer, including aws-chunked and trailing checksum payloads, without adapting each request to
+ * the sdk's request model. Canonical requests are built in a per-thread builder, the sorted
+ * canonical form of each distinct set of header names is computed once per thread, and derived
+ * signing keys are cached per credential, day, region and service. Content may instead be sent as
+ * {@code UNSIGNED-PAYLOAD}, and requests may be presigned with query string authentication.
+ * <p>
+ * A signer is bound to one endpoint and is safe for use by multiple threads.
+ *
+ * @since 1.0
+ */
+final class V4Signer {
+  static final String ALGORITHM = "AWS4-HMAC-SHA256";
+  static final String TERMINATOR = "aws4_request";
+  static final String X_AMZ_DATE = "X-Amz-Date";
+  static final String X_AMZ_CONTENT_SHA256 = "x-amz-content-sha256";
+  static final String X_AMZ_ALGORITHM = "X-Amz-Algorithm";
+  static final String X_AMZ_CREDENTIAL = "X-Amz-Credential";
+  static final String X_AMZ_EXPIRES = "X-Amz-Expires";
+  static final String X_AMZ_SIGNED_HEADERS = "X-Amz-SignedHeaders";
+  static final String X_AMZ_SIGNATURE = "X-Amz-Signature";
+  static final String UNSIGNED_PAYLOAD = "UNSIGNED-PAYLOAD";
+  private static final String AMAZON_PREFIX = "x-amz-";
+  private static final String HOST = "Host";
+  private static final String TRAILER = "x-amz-trailer";
+  private static final String DECODED_CONTENT_LENGTH = "x-amz-decoded-content-length";
+  private static final String STREAMING_PAYLOAD = "STREAMING-AWS4-HMAC-SHA256-PAYLOAD";
+  private static final String STREAMING_PAYLOAD_TRAILER =
+      "STREAMING-AWS4-HMAC-SHA256-PAYLOAD-TRAILER";
+  private static final String STREAMING_UNSIGNED_PAYLOAD_TRAILER =
+      "STREAMING-UNSIGNED-PAYLOAD-TRAILER";
+  // headers the sdk never signs, in lower case
+  private static final List<String> UNSIGNED_HEADERS =
+      Arrays.asList("connection", "x-amzn-trace-id");
+  private static final int HEADER_SETS = 8;
+
+  private static final DateTimeFormatter DATE_TIME =
+      DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC);
+  private static final DateTimeFormatter DATE_STAMP =
+      DateTimeFormatter.ofPattern("yyyyMMdd").withZone(ZoneOffset.UTC);
+  private static volatile SigningTime signingTime = new SigningTime(0);
+
+  private static final ThreadLocal<HeaderSet[]> HEADER_SET_CACHE =
+      new ThreadLocal<HeaderSet[]>() {
+        @Override
+        protected HeaderSet[] initialValue() {
+          return new HeaderSet[HEADER_SETS];
+        }
+      };
+
+  private final String scheme;
+  private final String host;
+  private final String region;
+  private final String service;
+  private final boolean chunkedEncoding;
+  private final int chunkSize;
+  private final boolean unsignedPayload;
+  private final LoadingCache<Long, byte[]> digestCache;
+
+  V4Signer(final URI endpoint, final String region, final String service,
+      final boolean chunkedEncoding, final boolean unsignedPayload,
+      @Nullable final LoadingCache<Long, byte[]> digestCache) {
+    this(endpoint, region, service, chunkedEncoding,
+        AwsChunkedEncodingInputStream.DEFAULT_CHUNK_SIZE, unsignedPayload, digestCache);
+  }
+
+  /**
+   * Constructs a signer for requests to an endpoint
+   *
+   * @param endpoint the scheme and authority which requests are sent to
+   * @param region the region to sign for
+   * @param service the service to sign for
+   * @param chunkedEncoding whether to send put content aws-chunked with signed chunks
+   * @param chunkSize the size of aws-chunked chunks, other than the last
+   * @param unsignedPayload whether to send content with an {@code UNSIGNED-PAYLOAD} content hash
+   *        rather than hashing it
+   * @param digestCache optional digest cache for like-sized objects
+   * @throws IllegalArgumentException if both chunkedEncoding and unsignedPayload are set, or if
+   *         chunkSize is smaller than the smallest chunk s3 accepts
+   */
+  V4Signer(final URI endpoint, final String region, final String service,
+      final boolean chunkedEncoding, final int chunkSize, final boolean unsignedPayload,
+      @Nullable final LoadingCache<Long, byte[]> digestCache) {
+    checkNotNull(endpoint);
+    checkArgument(!(chunkedEncoding && unsignedPayload),
+        "chunkedEncoding and unsignedPayload are mutually exclusive");
+    checkArgument(chunkSize >= AwsChunkedEncodingInputStream.MIN_CHUNK_SIZE,
+        "chunkSize must be >= %s [%s]", AwsChunkedEncodingInputStream.MIN_CHUNK_SIZE, chunkSize);
+    this.scheme = checkNotNull(endpoint.getScheme());
+    this.host = hostHeader(endpoint);
+    this.region = checkNotNull(region);
+    this.service = checkNotNull(service);
+    this.chunkedEncoding = chunkedEncoding;
+    this.chunkSize = chunkSize;
+    this.unsignedPayload = unsignedPayload;
+    this.digestCache = digestCache;
+  }
+
+  // host, with the port if it is not the default port of the scheme
+  private static String hostHeader(final URI endpoint) {
+    final String host = endpoint.getHost();
+    if (host == null) {
+      throw new IllegalArgumentException(
+          "Request endpoint must have a valid hostname, but it did not: " + endpoint);
+    }
+    final int port = endpoint.getPort();
+    final String scheme = endpoint.getScheme().toLowerCase();
+    if (port > 0 && (("http".equals(scheme) && port != 80)
+        || ("https".equals(scheme) && port != 443))) {
+      return host + ":" + port;
+    }
+    return host;
+  }
+
+  String getScheme() {
+    return this.scheme;
+  }
+
+  /**
+   * Signs a request, adding {@code Host}, {@code X-Amz-Date}, {@code x-amz-content-sha256} and
+   * {@code Authorization} headers and, for streaming payloads, wrapping its content
+   *
+   * @param request the request to sign
+   * @param accessKeyId the access key id
+   * @param secretAccessKey the secret access key
+   */
+  void sign(final AuthenticatedHttpRequest request, final String accessKeyId,
+      final String secretAccessKey) {
+    final String accessKey = accessKeyId.trim();
+    final String secretKey = secretAccessKey.trim();
+    final Map<String, String> headers = request.headers();
+    if (!headers.containsKey(HOST)) {
+      request.addHeader(HOST, this.host);
+    }
+    final SigningTime time = signingTime(System.currentTimeMillis());
+    request.addHeader(X_AMZ_DATE, time.dateTime);
+
+    final TrailingChecksum checksum = trailingChecksum(request);
+    final boolean chunked = this.chunkedEncoding && request.getMethod() == Method.PUT;
+    final String contentSha256 = contentHash(request, chunked, checksum);
+    request.addHeader(X_AMZ_CONTENT_SHA256, contentSha256);
+
+    final HeaderSet headerSet = headerSet(headers);
+    final StringBuilder s = SigningUtil.builder();
+    appendCanonicalRequest(s, request, request.getQueryParameters(), headers, headerSet,
+        contentSha256);
+    final String scope = scope(time);
+    final SecretKeySpec signingKey =
+        SigningKeys.get(secretKey, time.dateStamp, this.region, this.service);
+    final byte[] signature = signature(s, time, scope, signingKey);
+
+    s.setLength(0);
+    s.append(ALGORITHM).append(" Credential=").append(accessKey).append('/').append(scope)
+        .append(", SignedHeaders=").append(headerSet.signedHeaders).append(", Signature=");
+    SigningUtil.appendHex(s, signature);
+    request.addHeader(HttpHeaders.AUTHORIZATION, s.toString());
+
+    if (chunked) {
+      final String headerSignature = SigningUtil.appendHex(SigningUtil.builder(), signature)
+          .toString();
+      request.setContent(new AwsChunkedEncodingInputStream(request.getContent(),
+          Math.max(AwsChunkedEncodingInputStream.DEFAULT_BUFFER_SIZE, this.chunkSize),
+          this.chunkSize, signingKey.getEncoded(), time.dateTime, scope, headerSignature,
+          this.digestCache, checksum));
+    } else if (checksum != null) {
+      final long decodedContentLength = Long.parseLong(headers.get(DECODED_CONTENT_LENGTH));
+      request.setContent(new UnsignedChunkedEncodingInputStream(request.getContent(), checksum,
+          decodedContentLength, this.chunkSize));
+    }
+  }
+
+  /**
+   * Returns the headers which a presigned request signs: {@code Host}, added with the endpoint's
+   * host if the request does not set it, and every {@code x-amz-*} header, which s3 rejects unless
+   * signed. Other headers are sent unsigned, so requests which differ only in those headers share a
+   * presigned uri.
+   *
+   * @param request the request to be presigned
+   * @return the headers to sign, sorted case insensitively
+   */
+  Map<String, String> presignedHeaders(final AuthenticatedHttpRequest request) {
+    final Map<String, String> signed = new TreeMap<String, String>(String.CASE_INSENSITIVE_ORDER);
+    final Map<String, String> headers = request.headers();
+    signed.put(HOST, headers.containsKey(HOST) ? headers.get(HOST) : this.host);
+    for (final Map.Entry<String, String> header : headers.entrySet()) {
+      if (header.getKey().toLowerCase(Locale.ENGLISH).startsWith(AMAZON_PREFIX)) {
+        signed.put(header.getKey(), header.getValue());
+      }
+    }
+    return signed;
+  }
+
+  /**
+   * Presigns a request with query string authentication. The content is not signed, and neither
+   * the signed headers nor the uri depend on it, so the result may be applied to any request with
+   * the same method, uri and presigned headers until it expires.
+   *
+   * @param request the request to presign
+   * @param signedHeaders the headers to sign, as returned by {@link #presignedHeaders}
+   * @param accessKeyId the access key id
+   * @param secretAccessKey the secret access key
+   * @param expires the number of seconds the presigned uri is valid for
+   * @return the presigned uri and query parameters
+   */
+  Presigned presign(final AuthenticatedHttpRequest request,
+      final Map<String, String> signedHeaders, final String accessKeyId,
+      final String secretAccessKey, final long expires) {
+    checkArgument(expires > 0, "expires must be > 0 [%s]", expires);
+    final String accessKey = accessKeyId.trim();
+    final String secretKey = secretAccessKey.trim();
+    final SigningTime time = signingTime(System.currentTimeMillis());
+    final String scope = scope(time);
+    final HeaderSet headerSet = new HeaderSet(signedHeaders);
+    final String[] parameters = new String[] {X_AMZ_ALGORITHM, ALGORITHM, X_AMZ_CREDENTIAL,
+        accessKey + "/" + scope, X_AMZ_DATE, time.dateTime, X_AMZ_EXPIRES,
+        Long.toString(expires), X_AMZ_SIGNED_HEADERS, headerSet.signedHeaders, X_AMZ_SIGNATURE,
+        null};
+
+    final Map<String, List<String>> queryParameters =
+        new HashMap<String, List<String>>(request.getQueryParameters());
+    for (int i = 0; i < parameters.length - 2; i += 2) {
+      queryParameters.put(parameters[i], Collections.singletonList(parameters[i + 1]));
+    }
+    final StringBuilder s = SigningUtil.builder();
+    appendCanonicalRequest(s, request, queryParameters, signedHeaders, headerSet,
+        UNSIGNED_PAYLOAD);
+    final byte[] signature = signature(s, time, scope,
+        SigningKeys.get(secretKey, time.dateStamp, this.region, this.service));
+    s.setLength(0);
+    parameters[parameters.length - 1] = SigningUtil.appendHex(s, signature).toString();
+
+    final URI uri = request.getUri();
+    final StringBuilder presigned = new StringBuilder(uri.toString());
+    char separator = uri.getRawQuery() == null ? '?' : '&';
+    for (int i = 0; i < parameters.length; i += 2) {
+      presigned.append(separator).append(SigningUtil.urlEncode(parameters[i], false)).append('=')
+          .append(SigningUtil.urlEncode(parameters[i + 1], false));
+      separator = '&';
+    }
+    return new Presigned(signedHeaders.get(HOST), URI.create(presigned.toString()), parameters);
+  }
+
+  /**
+   * A presigned uri, along with the {@code Host} header and query parameters it was signed with
+   */
+  static final class Presigned {
+    private final String host;
+    private final URI uri;
+    // names and values, alternately
+    private final String[] parameters;
+
+    private Presigned(final String host, final URI uri, final String[] parameters) {
+      this.host = host;
+      this.uri = uri;
+      this.parameters = parameters;
+    }
+
+    /**
+     * Sets the uri of a request to the presigned uri, adding the {@code Host} header and the
+     * authentication query parameters
+     *
+     * @param request the request to apply this presigned uri to
+     */
+    void apply(final AuthenticatedHttpRequest request) {
+      if (!request.headers().containsKey(HOST)) {
+        request.addHeader(HOST, this.host);
+      }
+      request.setUri(this.uri);
+      for (int i = 0; i < this.parameters.length; i += 2) {
+        request.addQueryParameter(this.parameters[i], this.parameters[i + 1]);
+      }
+    }
+
+    URI getUri() {
+      return this.uri;
+    }
+  }
+
+  private static void appendCanonicalRequest(final StringBuilder s,
+      final AuthenticatedHttpRequest request, final Map<String, List<String>> queryParameters,
+      final Map<String, String> headers, final HeaderSet headerSet, final String contentSha256) {
+    s.append(request.getMethod()).append('\n');
+    appendCanonicalPath(s, request.getUri().getPath());
+    s.append('\n');
+    appendCanonicalQuery(s, queryParameters);
+    s.append('\n');
+    for (int i = 0; i < headerSet.names.length; i++) {
+      s.append(headerSet.canonicalNames[i]).append(':');
+      final String value = headers.get(headerSet.names[i]);
+      if (value != null) {
+        SigningUtil.appendCompacted(s, value.trim());
+      }
+      s.append('\n');
+    }
+    s.append('\n').append(headerSet.signedHeaders).append('\n').append(contentSha256);
+  }
+
+  private String scope(final SigningTime time) {
+    return time.dateStamp + "/" + this.region + "/" + this.service + "/" + TERMINATOR;
+  }
+
+  // signs the canonical request in s, reusing s to build the string to sign
+  private static byte[] signature(final StringBuilder s, final SigningTime time,
+      final String scope, final SecretKeySpec signingKey) {
+    final MessageDigest sha256 = SigningCrypto.sha256();
+    SigningUtil.update(sha256, s);
+    final byte[] canonicalRequestHash = sha256.digest();
+    s.setLength(0);
+    s.append(ALGORITHM).append('\n').append(time.dateTime).append('\n').append(scope)
+        .append('\n');
+    SigningUtil.appendHex(s, canonicalRequestHash);
+    return SigningUtil.doFinal(SigningCrypto.hmacSha256(signingKey), s);
+  }
+
+  @Nullable
+  private static TrailingChecksum trailingChecksum(final AuthenticatedHttpRequest request) {
+    if (request.getMethod() != Method.PUT) {
+      return null;
+    }
+    final String trailer = request.headers().get(TRAILER);
+    return trailer != null ? TrailingChecksum.forTrailer(trailer) : null;
+  }
+
+  // the payload hash, setting the content headers of streaming payloads as the sdk's s3 signer does
+  private String contentHash(final AuthenticatedHttpRequest request, final boolean chunked,
+      @Nullable final TrailingChecksum checksum) {
+    final String contentLength = request.headers().get(HttpHeaders.CONTENT_LENGTH);
+    if (chunked || checksum != null) {
+      final long originalContentLength =
+          contentLength != null ? Long.parseLong(contentLength) : countContent(request);
+      request.addHeader(DECODED_CONTENT_LENGTH, Long.toString(originalContentLength));
+      if (checksum == null) {
+        request.addHeader(HttpHeaders.CONTENT_LENGTH, Long.toString(AwsChunkedEncodingInputStream
+            .calculateStreamContentLength(originalContentLength, this.chunkSize)));
+        return STREAMING_PAYLOAD;
+      }
+      request.addHeader(HttpHeaders.CONTENT_ENCODING, "aws-chunked");
+      if (chunked) {
+        request.addHeader(HttpHeaders.CONTENT_LENGTH, Long.toString(AwsChunkedEncodingInputStream
+            .calculateStreamContentLength(originalContentLength, checksum, this.chunkSize)));
+        return STREAMING_PAYLOAD_TRAILER;
+      }
+      request.addHeader(HttpHeaders.CONTENT_LENGTH, Long.toString(
+          UnsignedChunkedEncodingInputStream.calculateStreamContentLength(originalContentLength,
+              checksum, this.chunkSize)));
+      return STREAMING_UNSIGNED_PAYLOAD_TRAILER;
+    }
+
+    if (this.unsignedPayload) {
+      return UNSIGNED_PAYLOAD;
+    }
+    final byte[] digest;
+    if (this.digestCache != null) {
+      try {
+        digest = this.digestCache.get(contentLength != null ? Long.parseLong(contentLength) : 0);
+      } catch (final ExecutionException e) {
+        throw new RuntimeException(e);
+      }
+    } else {
+      digest = hashContent(request);
+    }
+    return SigningUtil.appendHex(SigningUtil.builder(), digest).toString();
+  }
+
+  private static byte[] hashContent(final AuthenticatedHttpRequest request) {
+    final MessageDigest sha256 = SigningCrypto.sha256();
+    final InputStream content = request.getContent();
+    final byte[] buffer = new byte[4096];
+    try {
+      content.mark(Integer.MAX_VALUE);
+      int read;
+      while ((read = content.read(buffer)) != -1) {
+        sha256.update(buffer, 0, read);
+      }
+      content.reset();
+    } catch (final IOException e) {
+      throw new IllegalStateException("Unable to hash request content", e);
+    }
+    return sha256.digest();
+  }
+
+  private static long countContent(final AuthenticatedHttpRequest request) {
+    final InputStream content = request.getContent();
+    final byte[] buffer = new byte[4096];
+    long length = 0;
+    try {
+      content.mark(Integer.MAX_VALUE);
+      int read;
+      while ((read = content.read(buffer)) != -1) {
+        length += read;
+      }
+      content.reset();
+    } catch (final IOException e) {
+      throw new IllegalStateException("Unable to read request content length", e);
+    }
+    return length;
+  }
+
+  private static void appendCanonicalPath(final StringBuilder s, final String path) {
+    if (path == null || path.isEmpty()) {
+      s.append('/');
+    } else {
+      if (path.charAt(0) != '/') {
+        s.append('/');
+      }
+      s.append(path);
+    }
+  }
+
+  // sorted by encoded name, then by encoded value
+  private static void appendCanonicalQuery(final StringBuilder s,
+      final Map<String, List<String>> parameters) {
+    if (parameters.isEmpty()) {
+      return;
+    }
+    final String[][] encoded = new String[parameters.size()][];
+    int count = 0;
+    for (final Map.Entry<String, List<String>> parameter : parameters.entrySet()) {
+      final List<String> values = parameter.getValue();
+      final String[] entry = new String[values.size() + 1];
+      entry[0] = SigningUtil.urlEncode(parameter.getKey(), false);
+      for (int i = 0; i < values.size(); i++) {
+        entry[i + 1] = SigningUtil.urlEncode(values.get(i), false);
+      }
+      Arrays.sort(entry, 1, entry.length);
+      encoded[count++] = entry;
+    }
+    if (count > 1) {
+      Arrays.sort(encoded, new Comparator<String[]>() {
+        @Override
+        public int compare(final String[] o1, final String[] o2) {
+          return o1[0].compareTo(o2[0]);
+        }
+      });
+    }
+    boolean first = true;
+    for (final String[] entry : encoded) {
+      for (int i = 1; i < entry.length; i++) {
+        if (!first) {
+          s.append('&');
+        }
+        s.append(entry[0]).append('=').append(entry[i]);
+        first = false;
+      }
+    }
+  }
+
+  /**
+   * The signed header names of a request, sorted case insensitively, with their canonical names and
+   * the signed headers list. Requests of a given operation usually share the same header names, so
+   * the sorted form is cached per thread for a small number of recently seen name sets.
+   */
+  private static final class HeaderSet {
+    // every header name, including those which are not signed
+    private final String[] allNames;
+    private final String[] names;
+    private final String[] canonicalNames;
+    private final String signedHeaders;
+
+    private HeaderSet(final Map<String, String> headers) {
+      this.allNames = headers.keySet().toArray(new String[headers.size()]);
+      final String[] sorted = this.allNames.clone();
+      Arrays.sort(sorted, String.CASE_INSENSITIVE_ORDER);
+      int signed = 0;
+      for (final String name : sorted) {
+        if (!UNSIGNED_HEADERS.contains(name.toLowerCase())) {
+          sorted[signed++] = name;
+        }
+      }
+      this.names = Arrays.copyOf(sorted, signed);
+      this.canonicalNames = new String[signed];
+      final StringBuilder signedHeaders = new StringBuilder();
+      for (int i = 0; i < signed; i++) {
+        final String lowerCase = this.names[i].toLowerCase(Locale.ENGLISH);
+        final StringBuilder canonical = new StringBuilder(lowerCase.length());
+        SigningUtil.appendCompacted(canonical, lowerCase);
+        this.canonicalNames[i] = canonical.toString();
+        if (i > 0) {
+          signedHeaders.append(';');
+        }
+        signedHeaders.append(lowerCase);
+      }
+      this.signedHeaders = signedHeaders.toString();
+    }
+
+    private boolean matches(final Map<String, String> headers) {
+      if (headers.size() != this.allNames.length) {
+        return false;
+      }
+      for (final String name : this.allNames) {
+        if (!headers.containsKey(name)) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+
+  private static HeaderSet headerSet(final Map<String, String> headers) {
+    final HeaderSet[] cache = HEADER_SET_CACHE.get();
+    for (int i = 0; i < cache.length && cache[i] != null; i++) {
+      if (cache[i].matches(headers)) {
+        final HeaderSet headerSet = cache[i];
+        // move to the front so that the least recently used set is replaced
+        System.arraycopy(cache, 0, cache, 1, i);
+        cache[0] = headerSet;
+        return headerSet;
+      }
+    }
+    final HeaderSet headerSet = new HeaderSet(headers);
+    System.arraycopy(cache, 0, cache, 1, cache.length - 1);
+    cache[0] = headerSet;
+    return headerSet;
+  }
+
+
+  /**
+   * The signing date and time of a second, formatted once and shared by every request signed in
+   * that second
+   */
+  static final class SigningTime {
+    private final long second;
+    final String dateTime;
+    final String dateStamp;
+
+    private SigningTime(final long second) {
+      this.second = second;
+      final Instant instant = Instant.ofEpochSecond(second);
+      this.dateTime = DATE_TIME.format(instant);
+      this.dateStamp = DATE_STAMP.format(instant);
+    }
+  }
+
+  static SigningTime signingTime(final long millis) {
+    final long second = Math.floorDiv(millis, 1000);
+    SigningTime time = signingTime;
+    if (time.second != second) {
+      time = new SigningTime(second);
+      signingTime = time;
+    }
+    return time;
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "V4Signer [host=%s, region=%s, service=%s, chunkedEncoding=%s, chunkSize=%s, "
+            + "unsignedPayload=%s]",
+        this.host, this.region, this.service, this.chunkedEncoding, this.chunkSize,
+        this.unsignedPayload);
+  }
+}
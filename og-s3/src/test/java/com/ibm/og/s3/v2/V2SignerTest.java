@@ -0,0 +1,79 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.s3.v2;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.net.URI;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import com.amazonaws.auth.BasicAWSCredentials;
+import com.amazonaws.services.s3.internal.S3Signer;
+import com.ibm.og.api.AuthType;
+import com.ibm.og.api.Method;
+import com.ibm.og.api.Operation;
+import com.ibm.og.http.AuthenticatedHttpRequest;
+import com.ibm.og.http.Bodies;
+import com.ibm.og.http.HttpRequest;
+import com.ibm.og.s3.SignableRequestAdapter;
+import com.ibm.og.util.Context;
+import com.tngtech.java.junit.dataprovider.DataProvider;
+import com.tngtech.java.junit.dataprovider.DataProviderRunner;
+import com.tngtech.java.junit.dataprovider.UseDataProvider;
+
+@RunWith(DataProviderRunner.class)
+public class V2SignerTest {
+  @DataProvider
+  public static Object[][] provideRequest() {
+    final HttpRequest get = new HttpRequest.Builder(Method.GET,
+        URI.create("http://127.0.0.1/container/object"), Operation.READ).build();
+    final HttpRequest put = new HttpRequest.Builder(Method.PUT,
+        URI.create("http://127.0.0.1:8080/container/obj%20ect+*~"), Operation.WRITE)
+            .withBody(Bodies.zeroes(1024)).withHeader("X-Amz-Meta-B", " b ")
+            .withHeader("x-amz-meta-a", "a").withHeader("Content-Type", "text/plain")
+            .withHeader("Content-MD5", "md5").withHeader("X-Custom", "value").build();
+    final HttpRequest multipart = new HttpRequest.Builder(Method.POST,
+        URI.create("http://127.0.0.1/container//object"), Operation.MULTIPART_WRITE_INITIATE)
+            .withQueryParameter("uploads", null).withQueryParameter("prefix", "p")
+            .withQueryParameter("x-amz-param", "b").withQueryParameter("x-amz-param", "a")
+            .build();
+    final HttpRequest part = new HttpRequest.Builder(Method.PUT,
+        URI.create("http://127.0.0.1/container/object"), Operation.MULTIPART_WRITE_PART)
+            .withQueryParameter("uploadId", "id").withQueryParameter("partNumber", "2")
+            .withHeader("x-amz-date", "Wed, 15 Feb 2012 11:33:20 GMT").build();
+    final HttpRequest version = new HttpRequest.Builder(Method.DELETE,
+        URI.create("http://127.0.0.1/container/été"), Operation.DELETE)
+            .withQueryParameter("versionId", "1").withQueryParameter("acl", "").build();
+    final HttpRequest website = new HttpRequest.Builder(Method.GET,
+        URI.create("http://127.0.0.1/object"), Operation.READ)
+            .withHeader("Host", "bucket.website.example.com")
+            .withContext(Context.X_OG_STATIC_WEBSITE_VIRTUAL_HOST_SUFFIX, "website.example.com")
+            .build();
+    return new Object[][] {{get}, {put}, {multipart}, {part}, {version}, {website}};
+  }
+
+  @Test
+  @UseDataProvider("provideRequest")
+  public void matchesSdkSigner(final HttpRequest request) {
+    // signatures cover the time of signing, so only compare those made in the same second
+    for (int i = 0; i < 3; i++) {
+      final AuthenticatedHttpRequest actual = new AuthenticatedHttpRequest(request);
+      V2Signer.sign(actual, AWSV2Auth.resourcePath(actual), " username ", "password");
+      final AuthenticatedHttpRequest expected = new AuthenticatedHttpRequest(request);
+      final SignableRequestAdapter adapter = new SignableRequestAdapter(expected, AuthType.AWSV2);
+      new S3Signer(adapter.getHttpMethod().toString(), adapter.getResourcePath()).sign(adapter,
+          new BasicAWSCredentials(" username ", "password"));
+      if (actual.headers().get("Date").equals(expected.headers().get("Date"))) {
+        assertThat(actual.headers(), is(expected.headers()));
+        return;
+      }
+    }
+    throw new AssertionError("Could not sign requests within the same second");
+  }
+}
@@ -34,10 +34,16 @@ import com.amazonaws.util.BinaryUtils;
 import com.google.common.cache.LoadingCache;
 
 /**
- * AWS4 signer implementation for AWS S3
+ * AWS4 signer implementation for AWS S3, built on the sdk's signer. It is used by tests as a
+ * reference for the signatures and content produced by {@link V4Signer}.
  */
 public class AWSS3V4Signer extends AWS4Signer {
   private static final String CONTENT_SHA_256 = "STREAMING-AWS4-HMAC-SHA256-PAYLOAD";
+  private static final String CONTENT_SHA_256_TRAILER =
+      "STREAMING-AWS4-HMAC-SHA256-PAYLOAD-TRAILER";
+  private static final String UNSIGNED_PAYLOAD_TRAILER = "STREAMING-UNSIGNED-PAYLOAD-TRAILER";
+  private static final String TRAILER = "x-amz-trailer";
+  private static final String DECODED_CONTENT_LENGTH = "x-amz-decoded-content-length";
 
   private final boolean chunkedEncoding;
   private final LoadingCache<Long, byte[]> digestCache;
@@ -56,16 +62,24 @@ public class AWSS3V4Signer extends AWS4Signer {
   }
 
   /**
-   * If necessary, creates a chunk-encoding wrapper on the request payload.
+   * If necessary, creates a chunk-encoding wrapper on the request payload. When the request has an
+   * {@code x-amz-trailer} header, the wrapper computes a checksum of the content as it is streamed
+   * and sends it as a trailer after the final chunk.
    */
   @Override
   protected void processRequestPayload(final SignableRequest<?> request, final byte[] signature,
       final byte[] signingKey, final AWS4SignerRequestParams signerRequestParams) {
+    final TrailingChecksum checksum = trailingChecksum(request);
     if (useChunkEncoding(request)) {
       final AwsChunkedEncodingInputStream chunkEncodededStream = new AwsChunkedEncodingInputStream(
           request.getContent(), signingKey, signerRequestParams.getFormattedSigningDateTime(),
-          signerRequestParams.getScope(), BinaryUtils.toHex(signature), this, this.digestCache);
+          signerRequestParams.getScope(), BinaryUtils.toHex(signature), this.digestCache, checksum);
       request.setContent(chunkEncodededStream);
+    } else if (checksum != null) {
+      final long decodedContentLength =
+          Long.parseLong(request.getHeaders().get(DECODED_CONTENT_LENGTH));
+      request.setContent(new UnsignedChunkedEncodingInputStream(request.getContent(), checksum,
+          decodedContentLength));
     }
   }
 
@@ -86,7 +100,8 @@ public class AWSS3V4Signer extends AWS4Signer {
     // notified to pick up the header value returned by this method.
     request.addHeader(X_AMZ_CONTENT_SHA256, "required");
     final String contentLength = request.getHeaders().get(Headers.CONTENT_LENGTH);
-    if (useChunkEncoding(request)) {
+    final TrailingChecksum checksum = trailingChecksum(request);
+    if (useChunkEncoding(request) || checksum != null) {
       final long originalContentLength;
       if (contentLength != null) {
         originalContentLength = Long.parseLong(contentLength);
@@ -105,12 +120,24 @@ public class AWSS3V4Signer extends AWS4Signer {
               e);
         }
       }
-      request.addHeader("x-amz-decoded-content-length", Long.toString(originalContentLength));
-      // Make sure "Content-Length" header is not empty so that HttpClient
-      // won't cache the stream again to recover Content-Length
-      request.addHeader(Headers.CONTENT_LENGTH, Long.toString(
-          AwsChunkedEncodingInputStream.calculateStreamContentLength(originalContentLength)));
-      return CONTENT_SHA_256;
+      request.addHeader(DECODED_CONTENT_LENGTH, Long.toString(originalContentLength));
+      if (checksum == null) {
+        // Make sure "Content-Length" header is not empty so that HttpClient
+        // won't cache the stream again to recover Content-Length
+        request.addHeader(Headers.CONTENT_LENGTH, Long.toString(
+            AwsChunkedEncodingInputStream.calculateStreamContentLength(originalContentLength)));
+        return CONTENT_SHA_256;
+      }
+      request.addHeader(Headers.CONTENT_ENCODING, "aws-chunked");
+      if (useChunkEncoding(request)) {
+        request.addHeader(Headers.CONTENT_LENGTH,
+            Long.toString(AwsChunkedEncodingInputStream
+                .calculateStreamContentLength(originalContentLength, checksum)));
+        return CONTENT_SHA_256_TRAILER;
+      }
+      request.addHeader(Headers.CONTENT_LENGTH, Long.toString(UnsignedChunkedEncodingInputStream
+          .calculateStreamContentLength(originalContentLength, checksum)));
+      return UNSIGNED_PAYLOAD_TRAILER;
     }
 
     if (this.digestCache != null) {
@@ -137,6 +164,19 @@ public class AWSS3V4Signer extends AWS4Signer {
     return this.chunkedEncoding && request.getHttpMethod() == HttpMethodName.PUT;
   }
 
+  /**
+   * @return the checksum named by the request's {@code x-amz-trailer} header, or null if the
+   *         request has no trailer
+   */
+  @Nullable
+  private static TrailingChecksum trailingChecksum(final SignableRequest<?> request) {
+    if (request.getHttpMethod() != HttpMethodName.PUT) {
+      return null;
+    }
+    final String trailer = request.getHeaders().get(TRAILER);
+    return trailer != null ? TrailingChecksum.forTrailer(trailer) : null;
+  }
+
   /**
    * @return True if chunked encoding has been explicitly disabled per the request. False otherwise.
    */
@@ -0,0 +1,104 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.s3.v4;
+
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.amazonaws.auth.BasicAWSCredentials;
+import com.ibm.og.api.AuthType;
+import com.ibm.og.api.DataType;
+import com.ibm.og.api.Method;
+import com.ibm.og.api.Operation;
+import com.ibm.og.api.Request;
+import com.ibm.og.http.AuthenticatedHttpRequest;
+import com.ibm.og.http.Bodies;
+import com.ibm.og.http.HttpRequest;
+import com.ibm.og.s3.SignableRequestAdapter;
+import com.ibm.og.util.Context;
+import com.tngtech.java.junit.dataprovider.DataProvider;
+import com.tngtech.java.junit.dataprovider.DataProviderRunner;
+import com.tngtech.java.junit.dataprovider.UseDataProvider;
+
+/**
+ * Measures single threaded signatures per second of {@code AWSV4Auth}, which signs with the native
+ * {@code V4Signer}, against a new sdk signer per request, which is how requests were originally
+ * signed, for a single credential and for a pool of credentials larger than the sdk's signing key
+ * cache. Run with {@code mvn verify}; the duration of each measurement may be set with the
+ * {@code og.benchmark.millis} system property.
+ */
+@RunWith(DataProviderRunner.class)
+public class AWSV4AuthBenchmarkIT {
+  private static final Logger _logger = LoggerFactory.getLogger(AWSV4AuthBenchmarkIT.class);
+  private static final long MILLIS = Long.getLong("og.benchmark.millis", 2000);
+
+  @DataProvider
+  public static Object[][] provideCredentials() {
+    return new Object[][] {{1}, {1000}};
+  }
+
+  @Test
+  @UseDataProvider("provideCredentials")
+  public void signaturesPerSecond(final int credentials) {
+    final Request[] requests = new Request[credentials];
+    for (int i = 0; i < credentials; i++) {
+      requests[i] = new HttpRequest.Builder(Method.PUT,
+          URI.create("http://s3.us-east-1.amazonaws.com/container/object"), Operation.WRITE)
+              .withBody(Bodies.zeroes(0)).withHeader("x-amz-meta-a", "b")
+              .withContext(Context.X_OG_USERNAME, "username" + i)
+              .withContext(Context.X_OG_PASSWORD, "password" + i).build();
+    }
+
+    final AWSV4Auth auth = new AWSV4Auth(false, 0, DataType.ZEROES);
+    final Signer nativeSigner = new Signer() {
+      @Override
+      public void sign(final Request request) {
+        auth.authenticate(request);
+      }
+    };
+    final Signer perRequest = new Signer() {
+      @Override
+      public void sign(final Request request) {
+        final AWSS3V4Signer signer = new AWSS3V4Signer(false, null);
+        signer.setServiceName("s3");
+        signer.sign(
+            new SignableRequestAdapter(new AuthenticatedHttpRequest(request), AuthType.AWSV4),
+            new BasicAWSCredentials(request.getContext().get(Context.X_OG_USERNAME),
+                request.getContext().get(Context.X_OG_PASSWORD)));
+      }
+    };
+
+    // warm up both paths before measuring either
+    measure(perRequest, requests);
+    measure(nativeSigner, requests);
+    final double before = measure(perRequest, requests);
+    final double after = measure(nativeSigner, requests);
+    _logger.info(String.format(
+        "%ncredentials [%s]%n%12s %14s%n%12s %14.0f%n%12s %14.0f%n%12s %14.2f", credentials,
+        "signer", "signatures/s", "per request", before, "native", after, "speedup",
+        after / before));
+  }
+
+  private interface Signer {
+    void sign(Request request);
+  }
+
+  private static double measure(final Signer signer, final Request[] requests) {
+    final long begin = System.nanoTime();
+    final long deadline = begin + TimeUnit.MILLISECONDS.toNanos(MILLIS);
+    long signatures = 0;
+    while (System.nanoTime() < deadline) {
+      signer.sign(requests[(int) (signatures % requests.length)]);
+      signatures++;
+    }
+    return signatures / ((System.nanoTime() - begin) / 1e9);
+  }
+}
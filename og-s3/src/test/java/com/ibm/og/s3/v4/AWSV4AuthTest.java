@@ -6,15 +6,48 @@
 package com.ibm.og.s3.v4;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.endsWith;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.hamcrest.Matchers.startsWith;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
 
 import org.junit.Test;
+import org.junit.runner.RunWith;
 
+import com.amazonaws.auth.BasicAWSCredentials;
 import com.amazonaws.util.BinaryUtils;
+import com.google.common.io.BaseEncoding;
+import com.google.common.io.ByteStreams;
+import com.google.common.primitives.Ints;
+import com.ibm.og.api.AuthType;
+import com.ibm.og.api.AuthenticatedRequest;
+import com.ibm.og.api.Body;
 import com.ibm.og.api.DataType;
+import com.ibm.og.api.Method;
+import com.ibm.og.api.Operation;
+import com.ibm.og.http.AuthenticatedHttpRequest;
+import com.ibm.og.http.Bodies;
+import com.ibm.og.http.HttpRequest;
+import com.ibm.og.s3.SignableRequestAdapter;
 import com.ibm.og.s3.v4.AWSV4Auth.DigestLoader;
+import com.ibm.og.util.Context;
+import com.ibm.og.util.io.Streams;
+import com.tngtech.java.junit.dataprovider.DataProvider;
+import com.tngtech.java.junit.dataprovider.DataProviderRunner;
+import com.tngtech.java.junit.dataprovider.UseDataProvider;
 
+@RunWith(DataProviderRunner.class)
 public class AWSV4AuthTest {
+  private static final int CHUNK_SIZE = AwsChunkedEncodingInputStream.DEFAULT_CHUNK_SIZE;
+
   @Test(expected = IllegalArgumentException.class)
   public void negativeCacheSize() {
     new AWSV4Auth(false, -1, DataType.ZEROES);
@@ -35,12 +68,187 @@ public class AWSV4AuthTest {
     new AWSV4Auth(false, 1, DataType.RANDOM);
   }
 
+  @Test(expected = IllegalArgumentException.class)
+  public void chunkedUnsignedPayload() {
+    new AWSV4Auth(true, CHUNK_SIZE, 0, true, false, 0, 0, DataType.RANDOM);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void chunkedPresigned() {
+    new AWSV4Auth(true, CHUNK_SIZE, 0, false, true, 3600, 10, DataType.RANDOM);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void smallChunkSize() {
+    new AWSV4Auth(true, AwsChunkedEncodingInputStream.MIN_CHUNK_SIZE - 1, 0, false, false, 0, 0,
+        DataType.RANDOM);
+  }
+
+  @DataProvider
+  public static Object[][] provideInvalidPresigned() {
+    return new Object[][] {{0, 10}, {AWSV4Auth.MAX_PRESIGNED_EXPIRATION + 1, 10}, {3600, -1}};
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  @UseDataProvider("provideInvalidPresigned")
+  public void invalidPresigned(final int expiration, final int cacheSize) {
+    new AWSV4Auth(false, CHUNK_SIZE, 0, false, true, expiration, cacheSize, DataType.RANDOM);
+  }
+
   @Test
   public void digestLoaderCacheZeroDigest() throws Exception {
     final DigestLoader loader = new AWSV4Auth.DigestLoader();
     assertThat(BinaryUtils.toHex(loader.load(0L)),
         is("e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855"));
   }
-}
 
+  @Test
+  public void unsignedTrailingChecksum() throws IOException {
+    final Body body = Bodies.random(300000);
+    final AuthenticatedRequest request =
+        new AWSV4Auth(false, 0, DataType.RANDOM).authenticate(trailingChecksumRequest(body));
+    assertThat(request.headers().get("x-amz-content-sha256"),
+        is("STREAMING-UNSIGNED-PAYLOAD-TRAILER"));
+    assertThat(request.headers().get("Content-Encoding"), is("aws-chunked"));
+    assertThat(request.headers().get("x-amz-decoded-content-length"), is("300000"));
+
+    final byte[] encoded = ByteStreams.toByteArray(request.getContent());
+    assertThat((long) encoded.length, is(request.getContentLength()));
+    assertThat(new String(encoded, StandardCharsets.US_ASCII),
+        endsWith("0\r\nx-amz-checksum-crc32:" + expectedCrc32(body) + "\r\n\r\n"));
+  }
+
+  @Test
+  public void signedTrailingChecksum() throws IOException {
+    final Body body = Bodies.random(300000);
+    final AuthenticatedRequest request =
+        new AWSV4Auth(true, 0, DataType.RANDOM).authenticate(trailingChecksumRequest(body));
+    assertThat(request.headers().get("x-amz-content-sha256"),
+        is("STREAMING-AWS4-HMAC-SHA256-PAYLOAD-TRAILER"));
+    assertThat(request.headers().get("Content-Encoding"), is("aws-chunked"));
+    assertThat(request.headers().get("x-amz-decoded-content-length"), is("300000"));
+
+    final byte[] encoded = ByteStreams.toByteArray(request.getContent());
+    assertThat((long) encoded.length, is(request.getContentLength()));
+    final String content = new String(encoded, StandardCharsets.US_ASCII);
+    final String trailer = content.substring(content.lastIndexOf("\r\n0;chunk-signature=") + 2);
+    final String expected = "0;chunk-signature=[0-9a-f]{64}\r\nx-amz-checksum-crc32:"
+        + Pattern.quote(expectedCrc32(body)) + "\r\nx-amz-trailer-signature:[0-9a-f]{64}\r\n\r\n";
+    assertThat(trailer.matches(expected), is(true));
+  }
+
+  @DataProvider
+  public static Object[][] provideChunked() {
+    return new Object[][] {{false}, {true}};
+  }
+
+  @Test
+  @UseDataProvider("provideChunked")
+  public void chunkSize(final boolean chunked) throws IOException {
+    final int chunkSize = AwsChunkedEncodingInputStream.MIN_CHUNK_SIZE;
+    final AuthenticatedRequest request =
+        new AWSV4Auth(chunked, chunkSize, 0, false, false, 0, 0, DataType.RANDOM)
+            .authenticate(trailingChecksumRequest(Bodies.random(3 * chunkSize + 1)));
+    final byte[] encoded = ByteStreams.toByteArray(request.getContent());
+    assertThat((long) encoded.length, is(request.getContentLength()));
+    final String content = new String(encoded, StandardCharsets.ISO_8859_1);
+    assertThat(content, startsWith(Integer.toHexString(chunkSize) + (chunked ? ";" : "\r\n")));
+    assertThat(content, containsString("\r\n1" + (chunked ? ";" : "\r\n")));
+  }
+
+  @Test
+  public void unsignedPayload() throws IOException {
+    final Body body = Bodies.random(1024);
+    final AuthenticatedRequest request = new AWSV4Auth(false, CHUNK_SIZE, 0, true, false, 0, 0,
+        DataType.RANDOM).authenticate(signatureRequest("http://127.0.0.1", body, "username"));
+    assertThat(request.headers().get("x-amz-content-sha256"), is("UNSIGNED-PAYLOAD"));
+    assertThat(request.headers().get("Authorization"), startsWith("AWS4-HMAC-SHA256 "));
+    assertThat(ByteStreams.toByteArray(request.getContent()),
+        is(ByteStreams.toByteArray(Streams.create(body))));
+  }
+
+  @Test
+  public void presigned() throws IOException {
+    final Body body = Bodies.random(1024);
+    final AWSV4Auth auth =
+        new AWSV4Auth(false, CHUNK_SIZE, 0, false, true, 3600, 10, DataType.RANDOM);
+    final HttpRequest request = signatureRequest("http://127.0.0.1", body, "username");
+    final AuthenticatedRequest presigned = auth.authenticate(request);
+    assertThat(presigned.headers().containsKey("Authorization"), is(false));
+    assertThat(presigned.headers().containsKey("x-amz-content-sha256"), is(false));
+    assertThat(presigned.headers().get("Host"), is("127.0.0.1"));
+    assertThat(presigned.getUri().getRawQuery(), containsString(
+        "X-Amz-Expires=3600&X-Amz-SignedHeaders=host%3Bx-amz-meta-a&X-Amz-Signature="));
+    assertThat(ByteStreams.toByteArray(presigned.getContent()),
+        is(ByteStreams.toByteArray(Streams.create(body))));
+
+    // a repeated request reuses the presigned uri, while another credential does not
+    assertThat(auth.authenticate(request).getUri(), sameInstance(presigned.getUri()));
+    assertThat(auth.authenticate(signatureRequest("http://127.0.0.1", body, "other")).getUri(),
+        not(presigned.getUri()));
+  }
+
+  @DataProvider
+  public static Object[][] provideEndpoint() {
+    return new Object[][] {{"http://127.0.0.1", "us-east-1"},
+        {"https://s3.us-west-2.amazonaws.com:443", "us-west-2"},
+        {"http://bucket.s3.eu-central-1.amazonaws.com", "eu-central-1"}};
+  }
 
+  @Test
+  @UseDataProvider("provideEndpoint")
+  public void reusedSignerMatchesNewSigner(final String endpoint, final String region) {
+    final AWSV4Auth auth = new AWSV4Auth(false, 0, DataType.ZEROES);
+    for (int i = 0; i < 3; i++) {
+      final HttpRequest request = signatureRequest(endpoint, "username" + i, "password" + i);
+      // sign twice so that the second signature uses the reused signer and cached signing key
+      auth.authenticate(request);
+      final AuthenticatedRequest reused = auth.authenticate(request);
+      final AuthenticatedHttpRequest expected = new AuthenticatedHttpRequest(request);
+      final AWSS3V4Signer signer = new AWSS3V4Signer(false, null);
+      signer.setServiceName("s3");
+      signer.sign(new SignableRequestAdapter(expected, AuthType.AWSV4),
+          new BasicAWSCredentials("username" + i, "password" + i));
+
+      // signatures cover the time of signing, so only compare those made in the same second
+      if (reused.headers().get("X-Amz-Date").equals(expected.headers().get("X-Amz-Date"))) {
+        assertThat(reused.headers().get("Authorization"),
+            containsString("/" + region + "/s3/aws4_request"));
+        assertThat(reused.headers().get("Authorization"),
+            is(expected.headers().get("Authorization")));
+        return;
+      }
+    }
+    throw new AssertionError("Could not sign requests within the same second");
+  }
+
+  private static HttpRequest signatureRequest(final String endpoint, final String username,
+      final String password) {
+    return new HttpRequest.Builder(Method.PUT, URI.create(endpoint + "/container/object"),
+        Operation.WRITE).withBody(Bodies.zeroes(1024)).withHeader("x-amz-meta-a", "b")
+            .withContext(Context.X_OG_USERNAME, username)
+            .withContext(Context.X_OG_PASSWORD, password).build();
+  }
+
+  private static HttpRequest signatureRequest(final String endpoint, final Body body,
+      final String username) {
+    return new HttpRequest.Builder(Method.PUT, URI.create(endpoint + "/container/object"),
+        Operation.WRITE).withBody(body).withHeader("x-amz-meta-a", "b")
+            .withContext(Context.X_OG_USERNAME, username)
+            .withContext(Context.X_OG_PASSWORD, "password").build();
+  }
+
+  private static HttpRequest trailingChecksumRequest(final Body body) {
+    return new HttpRequest.Builder(Method.PUT, URI.create("http://127.0.0.1/container/object"),
+        Operation.WRITE).withBody(body)
+            .withHeader("x-amz-trailer", "x-amz-checksum-crc32")
+            .withContext(Context.X_OG_USERNAME, "username")
+            .withContext(Context.X_OG_PASSWORD, "password").build();
+  }
+
+  private static String expectedCrc32(final Body body) throws IOException {
+    final CRC32 crc = new CRC32();
+    crc.update(ByteStreams.toByteArray(Streams.create(body)));
+    return BaseEncoding.base64().encode(Ints.toByteArray((int) crc.getValue()));
+  }
+}
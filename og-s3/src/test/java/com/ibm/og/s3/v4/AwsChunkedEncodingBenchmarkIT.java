@@ -0,0 +1,113 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.s3.v4;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.amazonaws.auth.AWS4Signer;
+import com.tngtech.java.junit.dataprovider.DataProvider;
+import com.tngtech.java.junit.dataprovider.DataProviderRunner;
+import com.tngtech.java.junit.dataprovider.UseDataProvider;
+
+/**
+ * Measures single threaded aws-chunked encoding throughput and allocation of
+ * {@code AwsChunkedEncodingInputStream}, for several chunk sizes, against the sdk's stream, which
+ * allocates and copies each of its fixed 128 KiB chunks. Run with {@code mvn verify}; the duration
+ * of each measurement may be set with the {@code og.benchmark.millis} system property.
+ */
+@RunWith(DataProviderRunner.class)
+public class AwsChunkedEncodingBenchmarkIT {
+  private static final Logger _logger =
+      LoggerFactory.getLogger(AwsChunkedEncodingBenchmarkIT.class);
+  private static final long MILLIS = Long.getLong("og.benchmark.millis", 2000);
+  private static final byte[] KEY = new byte[32];
+  private static final String DATE_TIME = "20120215T113320Z";
+  private static final String SCOPE = "20120215/us-east-1/s3/aws4_request";
+  private static final String HEADER_SIGNATURE =
+      "4f232c4386841ef735655705268965c44a0e4690baa4adea153f7db9fa80a0a9";
+  private static final byte[] CONTENT = new byte[16 * 1024 * 1024];
+
+  static {
+    new Random(0).nextBytes(CONTENT);
+  }
+
+  @DataProvider
+  public static Object[][] provideChunkSize() {
+    return new Object[][] {{AwsChunkedEncodingInputStream.DEFAULT_CHUNK_SIZE}, {1024 * 1024}};
+  }
+
+  @Test
+  @UseDataProvider("provideChunkSize")
+  public void throughput(final int chunkSize) throws IOException {
+    final Encoder sdk = new Encoder() {
+      @Override
+      public InputStream encode(final InputStream in) {
+        return new com.amazonaws.auth.AwsChunkedEncodingInputStream(in, KEY, DATE_TIME, SCOPE,
+            HEADER_SIGNATURE, new AWS4Signer());
+      }
+    };
+    final Encoder pooled = new Encoder() {
+      @Override
+      public InputStream encode(final InputStream in) {
+        return new AwsChunkedEncodingInputStream(in,
+            Math.max(AwsChunkedEncodingInputStream.DEFAULT_BUFFER_SIZE, chunkSize), chunkSize,
+            KEY, DATE_TIME, SCOPE, HEADER_SIGNATURE, null, null);
+      }
+    };
+
+    // warm up both paths before measuring either
+    measure(sdk);
+    measure(pooled);
+    final double[] before = measure(sdk);
+    final double[] after = measure(pooled);
+    _logger.info(String.format(
+        "%nchunk size [%s]%n%12s %10s %16s%n%12s %10.0f %16.0f%n%12s %10.0f %16.0f%n%12s %10.2f",
+        chunkSize, "stream", "MB/s", "allocated B/MB", "sdk", before[0], before[1], "pooled",
+        after[0], after[1], "speedup", after[0] / before[0]));
+  }
+
+  private interface Encoder {
+    InputStream encode(InputStream in);
+  }
+
+  // returns encoded megabytes per second and bytes allocated per encoded megabyte
+  private static double[] measure(final Encoder encoder) throws IOException {
+    final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    final com.sun.management.ThreadMXBean allocation =
+        threads instanceof com.sun.management.ThreadMXBean
+            ? (com.sun.management.ThreadMXBean) threads : null;
+    final long threadId = Thread.currentThread().getId();
+    final long allocatedBefore = allocation != null ? allocation.getThreadAllocatedBytes(threadId)
+        : 0;
+    final byte[] buffer = new byte[64 * 1024];
+    final long begin = System.nanoTime();
+    final long deadline = begin + TimeUnit.MILLISECONDS.toNanos(MILLIS);
+    long bytes = 0;
+    while (System.nanoTime() < deadline) {
+      final InputStream in = encoder.encode(new ByteArrayInputStream(CONTENT));
+      int read;
+      while ((read = in.read(buffer)) != -1) {
+        bytes += read;
+      }
+      in.close();
+    }
+    final double megabytes = bytes / (1024.0 * 1024.0);
+    final double allocated = allocation != null
+        ? (allocation.getThreadAllocatedBytes(threadId) - allocatedBefore) / megabytes : -1;
+    return new double[] {megabytes / ((System.nanoTime() - begin) / 1e9), allocated};
+  }
+}
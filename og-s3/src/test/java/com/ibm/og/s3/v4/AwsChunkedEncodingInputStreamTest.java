@@ -0,0 +1,196 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.s3.v4;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import com.amazonaws.auth.AWS4Signer;
+import com.amazonaws.auth.AbstractAWSSigner;
+import com.amazonaws.util.BinaryUtils;
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
+import com.tngtech.java.junit.dataprovider.DataProvider;
+import com.tngtech.java.junit.dataprovider.DataProviderRunner;
+import com.tngtech.java.junit.dataprovider.UseDataProvider;
+
+@RunWith(DataProviderRunner.class)
+public class AwsChunkedEncodingInputStreamTest {
+  private static final byte[] KEY = new byte[32];
+  private static final String DATE_TIME = "20120215T113320Z";
+  private static final String SCOPE = "20120215/us-east-1/s3/aws4_request";
+  private static final String HEADER_SIGNATURE =
+      "4f232c4386841ef735655705268965c44a0e4690baa4adea153f7db9fa80a0a9";
+  private static final int CHUNK = AwsChunkedEncodingInputStream.DEFAULT_CHUNK_SIZE;
+
+  @DataProvider
+  public static Object[][] provideLength() {
+    return new Object[][] {{0}, {1}, {CHUNK - 1}, {CHUNK}, {CHUNK + 1}, {3 * CHUNK + 17}};
+  }
+
+  @Test
+  @UseDataProvider("provideLength")
+  public void matchesSdkStream(final int length) throws IOException {
+    final byte[] content = content(length);
+    final byte[] expected = ByteStreams.toByteArray(
+        new com.amazonaws.auth.AwsChunkedEncodingInputStream(new ByteArrayInputStream(content),
+            KEY, DATE_TIME, SCOPE, HEADER_SIGNATURE, new AWS4Signer()));
+
+    // repeat, so that later streams encode into pooled buffers
+    for (int i = 0; i < 3; i++) {
+      final byte[] encoded = ByteStreams.toByteArray(stream(content, CHUNK));
+      assertThat(encoded, is(expected));
+      assertThat((long) encoded.length,
+          is(AwsChunkedEncodingInputStream.calculateStreamContentLength(length)));
+    }
+  }
+
+  @DataProvider
+  public static Object[][] provideChunkSize() {
+    return new Object[][] {{AwsChunkedEncodingInputStream.MIN_CHUNK_SIZE, 0},
+        {AwsChunkedEncodingInputStream.MIN_CHUNK_SIZE, 100000}, {1024 * 1024, 3 * 1024 * 1024},
+        {1024 * 1024 + 1, 3 * 1024 * 1024}};
+  }
+
+  @Test
+  @UseDataProvider("provideChunkSize")
+  public void chunkSize(final int chunkSize, final int length) throws Exception {
+    final byte[] content = content(length);
+    final byte[] encoded = ByteStreams.toByteArray(stream(content, chunkSize));
+    assertThat((long) encoded.length,
+        is(AwsChunkedEncodingInputStream.calculateStreamContentLength(length, chunkSize)));
+    assertThat(decode(encoded, chunkSize), is(content));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void smallChunkSize() {
+    stream(new byte[0], AwsChunkedEncodingInputStream.MIN_CHUNK_SIZE - 1);
+  }
+
+  @DataProvider
+  public static Object[][] provideMarkSupported() {
+    return new Object[][] {{true}, {false}};
+  }
+
+  @Test
+  @UseDataProvider("provideMarkSupported")
+  public void reset(final boolean markSupported) throws IOException {
+    final byte[] content = content(2 * CHUNK + 5);
+    InputStream in = new ByteArrayInputStream(content);
+    if (!markSupported) {
+      in = new FilterInputStream(in) {
+        @Override
+        public boolean markSupported() {
+          return false;
+        }
+      };
+    }
+    final AwsChunkedEncodingInputStream stream =
+        new AwsChunkedEncodingInputStream(in, 4 * CHUNK, CHUNK, KEY, DATE_TIME, SCOPE,
+            HEADER_SIGNATURE, null, null);
+    stream.mark(Integer.MAX_VALUE);
+    final byte[] partial = new byte[CHUNK + 100];
+    ByteStreams.readFully(stream, partial);
+    stream.reset();
+    final byte[] first = ByteStreams.toByteArray(stream);
+    stream.reset();
+    final byte[] second = ByteStreams.toByteArray(stream);
+
+    final byte[] expected = ByteStreams.toByteArray(stream(content, CHUNK));
+    assertThat(first, is(expected));
+    assertThat(second, is(expected));
+    assertThat(Arrays.copyOf(expected, partial.length), is(partial));
+  }
+
+  @Test
+  public void trailer() throws IOException {
+    final byte[] content = content(CHUNK + 1);
+    final TrailingChecksum checksum = TrailingChecksum.forTrailer("x-amz-checksum-crc32");
+    final AwsChunkedEncodingInputStream stream =
+        new AwsChunkedEncodingInputStream(new ByteArrayInputStream(content),
+            AwsChunkedEncodingInputStream.DEFAULT_BUFFER_SIZE,
+            AwsChunkedEncodingInputStream.MIN_CHUNK_SIZE, KEY, DATE_TIME, SCOPE,
+            HEADER_SIGNATURE, null, checksum);
+    final byte[] encoded = ByteStreams.toByteArray(stream);
+    assertThat((long) encoded.length, is(AwsChunkedEncodingInputStream
+        .calculateStreamContentLength(content.length, checksum,
+            AwsChunkedEncodingInputStream.MIN_CHUNK_SIZE)));
+    final String s = new String(encoded, StandardCharsets.ISO_8859_1);
+    assertThat(s.endsWith("\r\n\r\n"), is(true));
+    assertThat(s.contains("\r\n" + checksum.getTrailer() + "\r\nx-amz-trailer-signature:"),
+        is(true));
+  }
+
+  private static AwsChunkedEncodingInputStream stream(final byte[] content, final int chunkSize) {
+    return new AwsChunkedEncodingInputStream(new ByteArrayInputStream(content),
+        Math.max(AwsChunkedEncodingInputStream.DEFAULT_BUFFER_SIZE, chunkSize), chunkSize, KEY,
+        DATE_TIME, SCOPE, HEADER_SIGNATURE, null, null);
+  }
+
+  private static byte[] content(final int length) {
+    final byte[] content = new byte[length];
+    new Random(length).nextBytes(content);
+    return content;
+  }
+
+  // decodes an aws-chunked stream, checking the length and signature of each chunk
+  private static byte[] decode(final byte[] encoded, final int chunkSize) throws Exception {
+    final Mac mac = Mac.getInstance("HmacSHA256");
+    mac.init(new SecretKeySpec(KEY, "HmacSHA256"));
+    final byte[] decoded = new byte[encoded.length];
+    int decodedLength = 0;
+    int pos = 0;
+    String priorSignature = HEADER_SIGNATURE;
+    while (true) {
+      final int lineEnd = indexOfCrlf(encoded, pos);
+      final String[] header =
+          new String(encoded, pos, lineEnd - pos, StandardCharsets.US_ASCII).split(";");
+      final int length = Integer.parseInt(header[0], 16);
+      final byte[] data = Arrays.copyOfRange(encoded, lineEnd + 2, lineEnd + 2 + length);
+      final String stringToSign = "AWS4-HMAC-SHA256-PAYLOAD\n" + DATE_TIME + "\n" + SCOPE + "\n"
+          + priorSignature + "\n" + AbstractAWSSigner.EMPTY_STRING_SHA256_HEX + "\n"
+          + Hashing.sha256().hashBytes(data);
+      final String signature = BinaryUtils
+          .toHex(mac.doFinal(stringToSign.getBytes(StandardCharsets.UTF_8)));
+      assertThat(header[1], is("chunk-signature=" + signature));
+      priorSignature = signature;
+      System.arraycopy(data, 0, decoded, decodedLength, length);
+      decodedLength += length;
+      pos = lineEnd + 2 + length + 2;
+      if (length == 0) {
+        assertThat(pos, is(encoded.length));
+        return Arrays.copyOf(decoded, decodedLength);
+      }
+      if (pos < encoded.length && length != chunkSize) {
+        // only the last chunk with content may be shorter than the chunk size
+        assertThat(encoded[pos], is((byte) '0'));
+      }
+    }
+  }
+
+  private static int indexOfCrlf(final byte[] b, final int from) {
+    for (int i = from; i < b.length - 1; i++) {
+      if (b[i] == '\r' && b[i + 1] == '\n') {
+        return i;
+      }
+    }
+    throw new AssertionError("No CRLF after position " + from);
+  }
+}
@@ -0,0 +1,47 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.s3.v4;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+import javax.crypto.spec.SecretKeySpec;
+
+import org.junit.Test;
+
+import com.amazonaws.util.BinaryUtils;
+
+public class SigningKeysTest {
+  private static final String SECRET = "wJalrXUtnFEMI/K7MDENG+bPxRfiCYEXAMPLEKEY";
+
+  @Test(expected = NullPointerException.class)
+  public void nullSecretKey() {
+    SigningKeys.get(null, "20120215", "us-east-1", "iam");
+  }
+
+  @Test
+  public void signingKey() {
+    // example from the aws signature version 4 documentation
+    assertThat(
+        BinaryUtils.toHex(SigningKeys.get(SECRET, "20120215", "us-east-1", "iam").getEncoded()),
+        is("f4780e2d9f65fa895f9c67b32ce1baf0b0d8a43505a000a1a9e090d414db404d"));
+  }
+
+  @Test
+  public void cached() {
+    final SecretKeySpec key = SigningKeys.get(SECRET, "20120215", "us-east-1", "s3");
+    assertThat(SigningKeys.get(SECRET, "20120215", "us-east-1", "s3"), sameInstance(key));
+    // a key for another credential replaces the per thread key but not the shared one
+    final SecretKeySpec other = SigningKeys.get("secret", "20120215", "us-east-1", "s3");
+    assertThat(other, not(sameInstance(key)));
+    assertThat(SigningKeys.get(SECRET, "20120215", "us-east-1", "s3"), sameInstance(key));
+    // keys are derived again for a new day
+    assertThat(SigningKeys.get(SECRET, "20120216", "us-east-1", "s3").getEncoded(),
+        not(key.getEncoded()));
+  }
+}
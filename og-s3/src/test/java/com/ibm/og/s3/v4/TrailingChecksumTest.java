@@ -0,0 +1,85 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.s3.v4;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import com.ibm.og.api.ChecksumType;
+import com.tngtech.java.junit.dataprovider.DataProvider;
+import com.tngtech.java.junit.dataprovider.DataProviderRunner;
+import com.tngtech.java.junit.dataprovider.UseDataProvider;
+
+@RunWith(DataProviderRunner.class)
+public class TrailingChecksumTest {
+  private static final byte[] CHECK = "123456789".getBytes(StandardCharsets.US_ASCII);
+
+  @DataProvider
+  public static Object[][] provideChecksum() {
+    return new Object[][] {{ChecksumType.CRC32, "x-amz-checksum-crc32", "y/Q5Jg=="},
+        {ChecksumType.CRC32C, "x-amz-checksum-crc32c", "4waSgw=="},
+        {ChecksumType.SHA1, "x-amz-checksum-sha1", "98O8HYCOBHMq32eZZczDTKeuNEE="},
+        {ChecksumType.SHA256, "x-amz-checksum-sha256",
+            "FeKw08M4keuw8e9gnsQZQgwg4yDOlMZfvIwzEkSOsiU="}};
+  }
+
+  @Test
+  @UseDataProvider("provideChecksum")
+  public void checksum(final ChecksumType type, final String headerName, final String value) {
+    final TrailingChecksum checksum = TrailingChecksum.create(type);
+    checksum.update(CHECK, 0, 4);
+    checksum.update(CHECK, 4, CHECK.length - 4);
+    assertThat(checksum.getHeaderName(), is(headerName));
+    assertThat(checksum.getValue(), is(value));
+    // reading the value must not disturb the running checksum
+    assertThat(checksum.getValue(), is(value));
+    assertThat(checksum.getTrailer(), is(headerName + ":" + value));
+    assertThat(checksum.getTrailerLength(), is(checksum.getTrailer().length() + 2));
+  }
+
+  @Test
+  public void crc64nvme() {
+    final TrailingChecksum checksum = TrailingChecksum.create(ChecksumType.CRC64NVME);
+    checksum.update(CHECK, 0, CHECK.length);
+    assertThat(checksum.getTrailerLength(), is(checksum.getTrailer().length() + 2));
+  }
+
+  @Test
+  public void reset() {
+    final TrailingChecksum checksum = TrailingChecksum.create(ChecksumType.CRC32);
+    checksum.update(CHECK, 0, 3);
+    checksum.reset();
+    checksum.update(CHECK, 0, CHECK.length);
+    assertThat(checksum.getValue(), is("y/Q5Jg=="));
+  }
+
+  @Test
+  public void forTrailer() {
+    assertThat(TrailingChecksum.forTrailer("X-Amz-Checksum-CRC32C").getHeaderName(),
+        is("x-amz-checksum-crc32c"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void forUnknownTrailer() {
+    TrailingChecksum.forTrailer("x-amz-checksum-md5");
+  }
+
+  @DataProvider
+  public static Object[][] provideUnsupportedType() {
+    return new Object[][] {{ChecksumType.NONE}, {ChecksumType.MD5}};
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  @UseDataProvider("provideUnsupportedType")
+  public void unsupportedType(final ChecksumType type) {
+    TrailingChecksum.create(type);
+  }
+}
@@ -0,0 +1,100 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.s3.v4;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import com.google.common.io.ByteStreams;
+import com.ibm.og.api.ChecksumType;
+import com.tngtech.java.junit.dataprovider.DataProvider;
+import com.tngtech.java.junit.dataprovider.DataProviderRunner;
+import com.tngtech.java.junit.dataprovider.UseDataProvider;
+
+@RunWith(DataProviderRunner.class)
+public class UnsignedChunkedEncodingInputStreamTest {
+  private static final byte[] CHECK = "123456789".getBytes(StandardCharsets.US_ASCII);
+
+  private static UnsignedChunkedEncodingInputStream create(final byte[] content,
+      final int chunkSize) {
+    return new UnsignedChunkedEncodingInputStream(new ByteArrayInputStream(content),
+        TrailingChecksum.create(ChecksumType.CRC32), content.length, chunkSize);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void negativeContentLength() {
+    new UnsignedChunkedEncodingInputStream(new ByteArrayInputStream(CHECK),
+        TrailingChecksum.create(ChecksumType.CRC32), -1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void zeroChunkSize() {
+    create(CHECK, 0);
+  }
+
+  @Test
+  public void encoding() throws IOException {
+    final String encoded = new String(ByteStreams.toByteArray(create(CHECK, 4)),
+        StandardCharsets.US_ASCII);
+    assertThat(encoded, is("4\r\n1234\r\n4\r\n5678\r\n1\r\n9\r\n0\r\n"
+        + "x-amz-checksum-crc32:y/Q5Jg==\r\n\r\n"));
+  }
+
+  @Test
+  public void emptyContent() throws IOException {
+    final String encoded = new String(ByteStreams.toByteArray(create(new byte[0], 4)),
+        StandardCharsets.US_ASCII);
+    assertThat(encoded, is("0\r\nx-amz-checksum-crc32:AAAAAA==\r\n\r\n"));
+  }
+
+  @DataProvider
+  public static Object[][] provideLength() {
+    return new Object[][] {{0, 16}, {1, 16}, {16, 16}, {17, 16}, {1000, 16},
+        {300000, UnsignedChunkedEncodingInputStream.DEFAULT_CHUNK_SIZE}};
+  }
+
+  @Test
+  @UseDataProvider("provideLength")
+  public void calculateStreamContentLength(final int length, final int chunkSize)
+      throws IOException {
+    final byte[] encoded = ByteStreams.toByteArray(create(new byte[length], chunkSize));
+    assertThat((long) encoded.length,
+        is(UnsignedChunkedEncodingInputStream.calculateStreamContentLength(length,
+            TrailingChecksum.create(ChecksumType.CRC32), chunkSize)));
+  }
+
+  @Test
+  public void singleByteReads() throws IOException {
+    final byte[] expected = ByteStreams.toByteArray(create(CHECK, 4));
+    final UnsignedChunkedEncodingInputStream in = create(CHECK, 4);
+    for (int i = 0; i < expected.length; i++) {
+      assertThat(in.read(), is(expected[i] & 0xFF));
+    }
+    assertThat(in.read(), is(-1));
+  }
+
+  @Test
+  public void reset() throws IOException {
+    final UnsignedChunkedEncodingInputStream in = create(CHECK, 4);
+    in.mark(Integer.MAX_VALUE);
+    final byte[] first = ByteStreams.toByteArray(in);
+    in.reset();
+    assertThat(ByteStreams.toByteArray(in), is(first));
+  }
+
+  @Test(expected = IOException.class)
+  public void truncatedContent() throws IOException {
+    ByteStreams.toByteArray(new UnsignedChunkedEncodingInputStream(
+        new ByteArrayInputStream(CHECK), TrailingChecksum.create(ChecksumType.CRC32), 10, 4));
+  }
+}
@@ -0,0 +1,196 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.s3.v4;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.endsWith;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Date;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import com.amazonaws.SignableRequest;
+import com.amazonaws.auth.BasicAWSCredentials;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.LoadingCache;
+import com.google.common.io.ByteStreams;
+import com.ibm.og.api.AuthType;
+import com.ibm.og.api.Body;
+import com.ibm.og.api.Method;
+import com.ibm.og.api.Operation;
+import com.ibm.og.http.AuthenticatedHttpRequest;
+import com.ibm.og.http.Bodies;
+import com.ibm.og.http.HttpRequest;
+import com.ibm.og.s3.SignableRequestAdapter;
+import com.tngtech.java.junit.dataprovider.DataProvider;
+import com.tngtech.java.junit.dataprovider.DataProviderRunner;
+import com.tngtech.java.junit.dataprovider.UseDataProvider;
+
+@RunWith(DataProviderRunner.class)
+public class V4SignerTest {
+  private static final String REGION = "us-east-1";
+  private static final Body BODY = Bodies.zeroes(300000);
+
+  private enum Payload {
+    HASHED, CACHED, CHUNKED, UNSIGNED_TRAILER, SIGNED_TRAILER, UNSIGNED
+  }
+
+  @DataProvider
+  public static Object[][] provideRequest() {
+    final HttpRequest get = new HttpRequest.Builder(Method.GET,
+        URI.create("http://127.0.0.1/container/object"), Operation.READ).build();
+    final HttpRequest put = new HttpRequest.Builder(Method.PUT,
+        URI.create("https://s3.example.com:8443/container/obj%20ect+*~"), Operation.WRITE)
+            .withBody(BODY).withHeader("x-amz-meta-a", "  b \t  c  ")
+            .withHeader("Content-Type", "text/plain").withHeader("Connection", "keep-alive")
+            .withHeader("X-Custom", "value").build();
+    final HttpRequest query = new HttpRequest.Builder(Method.GET,
+        URI.create("http://127.0.0.1:80/container"), Operation.LIST)
+            .withQueryParameter("prefix", "a b/c*~").withQueryParameter("uploads", null)
+            .withQueryParameter("marker", "z").withQueryParameter("marker", "a")
+            .withQueryParameter("été", "☃").build();
+    final HttpRequest host = new HttpRequest.Builder(Method.DELETE,
+        URI.create("http://127.0.0.1:8080/container/object"), Operation.DELETE)
+            .withHeader("Host", "bucket.example.com").withQueryParameter("versionId", "1").build();
+    final HttpRequest root = new HttpRequest.Builder(Method.HEAD,
+        URI.create("https://127.0.0.1:443"), Operation.METADATA).build();
+    return new Object[][] {{get}, {put}, {query}, {host}, {root}};
+  }
+
+  @Test
+  @UseDataProvider("provideRequest")
+  public void matchesSdkSigner(final HttpRequest request) throws IOException {
+    assertMatchesSdkSigner(request, Payload.HASHED);
+  }
+
+  @DataProvider
+  public static Object[][] providePayload() {
+    return new Object[][] {{Payload.CACHED}, {Payload.CHUNKED}, {Payload.UNSIGNED_TRAILER},
+        {Payload.SIGNED_TRAILER}, {Payload.UNSIGNED}};
+  }
+
+  @Test
+  @UseDataProvider("providePayload")
+  public void payloadMatchesSdkSigner(final Payload payload) throws IOException {
+    final HttpRequest.Builder builder = new HttpRequest.Builder(Method.PUT,
+        URI.create("http://127.0.0.1/container/object"), Operation.WRITE).withBody(BODY);
+    if (payload == Payload.UNSIGNED_TRAILER || payload == Payload.SIGNED_TRAILER) {
+      builder.withHeader("x-amz-trailer", "x-amz-checksum-crc32c");
+    }
+    assertMatchesSdkSigner(builder.build(), payload);
+  }
+
+  private static void assertMatchesSdkSigner(final HttpRequest request, final Payload payload)
+      throws IOException {
+    final boolean chunked = payload == Payload.CHUNKED || payload == Payload.SIGNED_TRAILER;
+    final LoadingCache<Long, byte[]> digestCache = payload == Payload.CACHED
+        ? CacheBuilder.newBuilder().build(new AWSV4Auth.DigestLoader()) : null;
+    final URI uri = request.getUri();
+    final boolean unsigned = payload == Payload.UNSIGNED;
+    final V4Signer signer = new V4Signer(URI.create(uri.getScheme() + "://" + uri.getAuthority()),
+        REGION, "s3", chunked, unsigned, digestCache);
+    final AWSS3V4Signer sdkSigner = unsigned ? new UnsignedPayloadSigner()
+        : new AWSS3V4Signer(chunked, digestCache);
+    sdkSigner.setServiceName("s3");
+    sdkSigner.setRegionName(REGION);
+
+    // signatures cover the time of signing, so only compare those made in the same second
+    for (int i = 0; i < 3; i++) {
+      final AuthenticatedHttpRequest actual = new AuthenticatedHttpRequest(request);
+      signer.sign(actual, " username ", "password");
+      final AuthenticatedHttpRequest expected = new AuthenticatedHttpRequest(request);
+      sdkSigner.sign(new SignableRequestAdapter(expected, AuthType.AWSV4),
+          new BasicAWSCredentials(" username ", "password"));
+      if (actual.headers().get(V4Signer.X_AMZ_DATE)
+          .equals(expected.headers().get(V4Signer.X_AMZ_DATE))) {
+        assertThat(actual.headers(), is(expected.headers()));
+        assertThat(ByteStreams.toByteArray(actual.getContent()),
+            is(ByteStreams.toByteArray(expected.getContent())));
+        return;
+      }
+    }
+    throw new AssertionError("Could not sign requests within the same second");
+  }
+
+  // the sdk signer with the content hash replaced, as the sdk itself does for unsigned payloads
+  private static class UnsignedPayloadSigner extends AWSS3V4Signer {
+    public UnsignedPayloadSigner() {
+      super(false, null);
+    }
+
+    @Override
+    protected String calculateContentHash(final SignableRequest<?> request) {
+      request.addHeader(V4Signer.X_AMZ_CONTENT_SHA256, "required");
+      return V4Signer.UNSIGNED_PAYLOAD;
+    }
+  }
+
+  @DataProvider
+  public static Object[][] providePresignRequest() {
+    final HttpRequest get = new HttpRequest.Builder(Method.GET,
+        URI.create("http://127.0.0.1:8080/container/object"), Operation.READ).build();
+    final HttpRequest query = new HttpRequest.Builder(Method.GET,
+        URI.create("https://s3.example.com/container/object?versionId=a%2Fb"), Operation.READ)
+            .withQueryParameter("versionId", "a/b").withHeader("x-amz-meta-a", " b  c ")
+            .withHeader("X-Amz-Meta-B", "d").build();
+    return new Object[][] {{get}, {query}};
+  }
+
+  @Test
+  @UseDataProvider("providePresignRequest")
+  public void presignMatchesSdkSigner(final HttpRequest request) {
+    final URI uri = request.getUri();
+    final V4Signer signer = new V4Signer(URI.create(uri.getScheme() + "://" + uri.getAuthority()),
+        REGION, "s3", false, false, null);
+    final AWSS3V4Signer sdkSigner = new AWSS3V4Signer(false, null);
+    sdkSigner.setServiceName("s3");
+    sdkSigner.setRegionName(REGION);
+
+    for (int i = 0; i < 3; i++) {
+      final AuthenticatedHttpRequest actual = new AuthenticatedHttpRequest(request);
+      signer.presign(actual, signer.presignedHeaders(actual), " username ", "password", 3600)
+          .apply(actual);
+      final AuthenticatedHttpRequest expected = new AuthenticatedHttpRequest(request);
+      // the sdk truncates the time remaining until expiration to whole seconds
+      sdkSigner.presignRequest(new SignableRequestAdapter(expected, AuthType.AWSV4),
+          new BasicAWSCredentials(" username ", "password"),
+          new Date(System.currentTimeMillis() + 3600999));
+      if (actual.getQueryParameters().get(V4Signer.X_AMZ_DATE)
+          .equals(expected.getQueryParameters().get(V4Signer.X_AMZ_DATE))
+          && actual.getQueryParameters().get(V4Signer.X_AMZ_EXPIRES)
+              .equals(expected.getQueryParameters().get(V4Signer.X_AMZ_EXPIRES))) {
+        assertThat(actual.headers(), is(expected.headers()));
+        assertThat(actual.getQueryParameters(), is(expected.getQueryParameters()));
+        final String signature =
+            expected.getQueryParameters().get(V4Signer.X_AMZ_SIGNATURE).get(0);
+        assertThat(actual.getUri().toString(),
+            startsWith(uri + (uri.getRawQuery() == null ? "?" : "&")
+                + "X-Amz-Algorithm=AWS4-HMAC-SHA256&X-Amz-Credential=username%2F"));
+        assertThat(actual.getUri().toString(), endsWith("&X-Amz-Signature=" + signature));
+        return;
+      }
+    }
+    throw new AssertionError("Could not sign requests within the same second");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void chunkedUnsignedPayload() {
+    new V4Signer(URI.create("http://127.0.0.1"), REGION, "s3", true, true, null);
+  }
+
+
+  @Test
+  public void signingTime() {
+    final V4Signer.SigningTime time = V4Signer.signingTime(1329305600123L);
+    assertThat(time.dateTime, is("20120215T113320Z"));
+    assertThat(time.dateStamp, is("20120215"));
+  }
+}
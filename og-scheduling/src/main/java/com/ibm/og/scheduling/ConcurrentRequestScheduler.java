@@ -30,11 +30,14 @@ import com.google.common.util.concurrent.Uninterruptibles;
  */
 public class ConcurrentRequestScheduler implements Scheduler {
   private static final Logger _logger = LoggerFactory.getLogger(ConcurrentRequestScheduler.class);
+  // how often the number of permits is updated to follow a profile
+  private static final long PROFILE_UPDATE_MILLIS = 100;
   private final int concurrentRequests;
   private final double rampup;
   private final TimeUnit rampupUnit;
   private final Semaphore permits;
   private final CountDownLatch started;
+  private final RateProfile profile;
 
   /**
    * Constructs an instance with the provided concurrency
@@ -51,6 +54,7 @@ public class ConcurrentRequestScheduler implements Scheduler {
     this.rampup = rampup;
     this.rampupUnit = rampupUnit;
     this.started = new CountDownLatch(1);
+    this.profile = null;
 
     if (DoubleMath.fuzzyEquals(rampup, 0.0, Math.pow(0.1, 6))) {
       this.permits = new Semaphore(concurrentRequests);
@@ -84,15 +88,83 @@ public class ConcurrentRequestScheduler implements Scheduler {
     }
   }
 
+  /**
+   * Constructs an instance whose number of concurrent requests follows a profile. Levels are
+   * rounded to whole requests; when the level falls, no new requests are permitted until enough
+   * in progress requests have completed.
+   *
+   * @param profile the concurrency profile
+   * @throws NullPointerException if profile is null
+   */
+  public ConcurrentRequestScheduler(final RateProfile profile) {
+    this.profile = checkNotNull(profile);
+    this.concurrentRequests = (int) Math.round(profile.finalLevel());
+    this.rampup = 0.0;
+    this.rampupUnit = TimeUnit.SECONDS;
+    this.started = new CountDownLatch(1);
+    final ProfileSemaphore permits = new ProfileSemaphore();
+    this.permits = permits;
+    final Thread profileThread = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        _logger.debug("Awaiting start latch");
+        Uninterruptibles.awaitUninterruptibly(ConcurrentRequestScheduler.this.started);
+
+        _logger.info("Starting profile");
+        final long begin = System.nanoTime();
+        int current = 0;
+        while (true) {
+          final long elapsed = System.nanoTime() - begin;
+          final int target = (int) Math.round(profile.level(elapsed));
+          if (target > current) {
+            permits.release(target - current);
+          } else if (target < current) {
+            permits.reducePermits(current - target);
+          }
+          if (target != current) {
+            _logger.debug("Concurrent requests [{}]", target);
+          }
+          current = target;
+          if (elapsed >= profile.durationNanos()) {
+            break;
+          }
+          Uninterruptibles.sleepUninterruptibly(PROFILE_UPDATE_MILLIS, TimeUnit.MILLISECONDS);
+        }
+        _logger.info("Finished profile");
+      }
+    }, "concurrent-scheduler-profile");
+    profileThread.setDaemon(true);
+    profileThread.start();
+  }
+
+  /**
+   * A semaphore whose permits may be reduced below the number in use
+   */
+  private static class ProfileSemaphore extends Semaphore {
+    private static final long serialVersionUID = 1L;
+
+    private ProfileSemaphore() {
+      super(0);
+    }
+
+    @Override
+    protected void reducePermits(final int reduction) {
+      super.reducePermits(reduction);
+    }
+  }
+
   /**
    * {@inheritDoc}
    * 
-   * This implementation blocks until a previously scheduled request has completed
+   * This implementation blocks until a previously scheduled request has completed. A new request
+   * is intended to start as soon as an earlier one completes, so the intended start is the time
+   * at which the permit was acquired.
    */
   @Override
-  public void schedule() {
+  public long schedule() {
     this.started.countDown();
     this.permits.acquireUninterruptibly();
+    return System.nanoTime();
   }
 
   /**
@@ -108,7 +180,7 @@ public class ConcurrentRequestScheduler implements Scheduler {
   @Override
   public String toString() {
     return String.format(
-        "ConcurrentRequestScheduler [concurrentRequests=%s, rampup=%s, rampupUnit=%s]",
-        this.concurrentRequests, this.rampup, this.rampupUnit);
+        "ConcurrentRequestScheduler [concurrentRequests=%s, rampup=%s, rampupUnit=%s, profile=%s]",
+        this.concurrentRequests, this.rampup, this.rampupUnit, this.profile);
   }
 }
@@ -0,0 +1,101 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.scheduling;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.util.concurrent.Uninterruptibles;
+
+/**
+ * The intended start times of an open loop schedule. Each start time follows the previous one by
+ * an interval, regardless of when callers actually arrive. A caller which has fallen behind is
+ * permitted immediately and is given its original, past start time; unlike a rate limiter, the
+ * schedule is never reset to the current time, so a backlog is never forgotten.
+ *
+ * @since 1.0
+ */
+final class OpenLoopSchedule {
+  private long first;
+  private long next;
+  private boolean started;
+
+  /**
+   * The interval which follows a start time, for schedules whose rate varies over time
+   */
+  interface Interval {
+    /**
+     * @param elapsedNanos a start time, in nanoseconds since the first start time of the schedule
+     * @return the interval between that start time and the one after it, in nanoseconds
+     */
+    long after(long elapsedNanos);
+  }
+
+  /**
+   * Reserves the next start time
+   *
+   * @param intervalNanos the interval between the reserved start time and the one after it
+   * @return the reserved start time, in {@link System#nanoTime} units
+   */
+  synchronized long reserve(final long intervalNanos) {
+    checkArgument(intervalNanos >= 0, "intervalNanos must be >= 0 [%s]", intervalNanos);
+    final long start = start();
+    this.next += intervalNanos;
+    return start;
+  }
+
+  /**
+   * Reserves the next start time
+   *
+   * @param interval the interval between the reserved start time and the one after it
+   * @return the reserved start time, in {@link System#nanoTime} units
+   */
+  synchronized long reserve(final Interval interval) {
+    final long start = start();
+    final long intervalNanos = interval.after(start - this.first);
+    checkArgument(intervalNanos >= 0, "intervalNanos must be >= 0 [%s]", intervalNanos);
+    this.next += intervalNanos;
+    return start;
+  }
+
+  private long start() {
+    if (!this.started) {
+      this.first = System.nanoTime();
+      this.next = this.first;
+      this.started = true;
+    }
+    return this.next;
+  }
+
+  /**
+   * Reserves the next start time and blocks until it is reached
+   *
+   * @param intervalNanos the interval between the reserved start time and the one after it
+   * @return the reserved start time, in {@link System#nanoTime} units
+   */
+  long acquire(final long intervalNanos) {
+    return await(reserve(intervalNanos));
+  }
+
+  /**
+   * Reserves the next start time and blocks until it is reached
+   *
+   * @param interval the interval between the reserved start time and the one after it
+   * @return the reserved start time, in {@link System#nanoTime} units
+   */
+  long acquire(final Interval interval) {
+    return await(reserve(interval));
+  }
+
+  private static long await(final long start) {
+    final long wait = start - System.nanoTime();
+    if (wait > 0) {
+      Uninterruptibles.sleepUninterruptibly(wait, TimeUnit.NANOSECONDS);
+    }
+    return start;
+  }
+}
@@ -13,13 +13,11 @@ import org.slf4j.LoggerFactory;
 import java.math.RoundingMode;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.ThreadLocalRandom;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
-import com.ibm.og.scheduling.customratelimiters.PoissonRateLimiter;
-
 /**
  * A scheduler which permits calls being generated at a varying rate, based on a Poisson process.
  * 
@@ -31,8 +29,12 @@ public class PoissonRequestRateScheduler implements Scheduler {
   private final TimeUnit unit;
   private final double rampup;
   private final TimeUnit rampupUnit;
-  private final AtomicReference<PoissonRateLimiter> permits;
+  private final OpenLoopSchedule schedule;
+  // requests per second, updated in steps while ramping up
+  private volatile double currentRate;
   private final CountDownLatch started;
+  private final RateProfile profile;
+  private final OpenLoopSchedule.Interval interval;
 
   /**
    * Constructs an instance using the provided rate {@code count / unit }
@@ -50,7 +52,7 @@ public class PoissonRequestRateScheduler implements Scheduler {
     checkArgument(rampup >= 0.0, "rampup must be >= 0.0 [%s]", rampup);
     this.rampup = rampup;
     this.rampupUnit = checkNotNull(rampupUnit);
-    this.permits = new AtomicReference<PoissonRateLimiter>();
+    this.schedule = new OpenLoopSchedule();
 
     // convert arbitrary rate unit to rate/second
     final double requestsPerSecond = requestsPerSecond(rate, unit);
@@ -59,8 +61,7 @@ public class PoissonRequestRateScheduler implements Scheduler {
 
 
     if (DoubleMath.fuzzyEquals(rampup, 0.0, Math.pow(0.1, 6))) {
-      final PoissonRateLimiter steady = PoissonRateLimiter.create(requestsPerSecond);
-      this.permits.set(steady);
+      this.currentRate = requestsPerSecond;
     } else {
       // the warmup Ratelimiter will not work if the permit request rate is slow enough to not being able to reach the
       // threshold from left. The permits are accumulated faster than the request rate here.
@@ -72,7 +73,7 @@ public class PoissonRequestRateScheduler implements Scheduler {
       final double slope  = requestsPerSecond / (rampupUnit.toSeconds((long)rampup));
       final int rampStepWidth = calculateStepWidth(rate, rampup, rampupUnit);
 
-      this.permits.set(PoissonRateLimiter.create(slope *  rampStepWidth * 1));
+      this.currentRate = slope * rampStepWidth * 1;
 
       final Thread rampupThread = new Thread(new Runnable() {
         @Override
@@ -83,7 +84,6 @@ public class PoissonRequestRateScheduler implements Scheduler {
           _logger.info("Starting ramp");
 
           double requestsPerSecondNow;
-          PoissonRateLimiter rampRateLimiter;
           int rampStepNum = 1;
           int rampSteps =  DoubleMath.roundToInt(((rampupUnit.toSeconds((long) rampup)) / rampStepWidth),
                   RoundingMode.DOWN);
@@ -93,11 +93,9 @@ public class PoissonRequestRateScheduler implements Scheduler {
             rampStepNum++;
             requestsPerSecondNow = slope *  rampStepWidth * rampStepNum;
             _logger.debug("slope {} rampStep  {}  targetRequestPerSecond {} ", slope, rampStepNum, requestsPerSecondNow);
-            rampRateLimiter = PoissonRateLimiter.create(requestsPerSecondNow);
-            PoissonRequestRateScheduler.this.permits.set(rampRateLimiter);
+            PoissonRequestRateScheduler.this.currentRate = requestsPerSecondNow;
           }
-          final PoissonRateLimiter steady = PoissonRateLimiter.create(requestsPerSecond);
-          PoissonRequestRateScheduler.this.permits.set(steady);
+          PoissonRequestRateScheduler.this.currentRate = requestsPerSecond;
 
           _logger.info("Finished ramp");
         }
@@ -107,16 +105,63 @@ public class PoissonRequestRateScheduler implements Scheduler {
       rampupThread.start();
     }
     this.started = new CountDownLatch(1);
+    this.profile = null;
+    this.interval = null;
+  }
+
+  /**
+   * Constructs an instance whose rate follows a profile
+   *
+   * @param profile the rate profile, whose levels are rates of {@code count / unit}
+   * @param unit the denominator of the profile's rates
+   * @throws IllegalArgumentException if the profile ends at a rate of 0
+   */
+  public PoissonRequestRateScheduler(final RateProfile profile, final TimeUnit unit) {
+    checkNotNull(profile);
+    checkArgument(profile.finalLevel() > 0.0, "profile must end at a rate > 0.0 [%s]",
+        profile.finalLevel());
+    this.rate = profile.finalLevel();
+    this.unit = checkNotNull(unit);
+    this.rampup = 0.0;
+    this.rampupUnit = TimeUnit.SECONDS;
+    this.schedule = new OpenLoopSchedule();
+    this.started = new CountDownLatch(1);
+    this.profile = profile;
+    final double perSecond = requestsPerSecond(1.0, unit);
+    this.interval = new OpenLoopSchedule.Interval() {
+      @Override
+      public long after(final long elapsedNanos) {
+        // an exponentially distributed number of requests at the profile's rate
+        final double requests = -Math.log(1.0 - ThreadLocalRandom.current().nextDouble());
+        return profile.nanosUntil(elapsedNanos, requests, perSecond);
+      }
+    };
   }
 
   double requestsPerSecond(final double rate, final TimeUnit unit) {
     return rate / (unit.toNanos(1) / (double) TimeUnit.SECONDS.toNanos(1));
   }
 
+  /**
+   * {@inheritDoc}
+   * 
+   * This implementation permits calls on an open loop schedule with exponentially distributed
+   * intervals between intended starts, scaled to the rate profile if there is one. Calls which
+   * fall behind are not dropped from the schedule; they are permitted immediately, each with its
+   * originally intended start.
+   */
   @Override
-  public void schedule() {
+  public long schedule() {
     this.started.countDown();
-    this.permits.get().acquire();
+    if (this.interval != null) {
+      // intervals span an exponentially distributed number of requests at the profile's rate,
+      // which makes a poisson process whose rate follows the profile
+      return this.schedule.acquire(this.interval);
+    }
+    // the intervals between events of a poisson process are exponentially distributed
+    final double seconds = -Math.log(1.0 - ThreadLocalRandom.current().nextDouble())
+        / this.currentRate;
+    return this.schedule.acquire((long) (seconds * TimeUnit.SECONDS.toNanos(1)));
   }
 
   @Override
@@ -126,8 +171,9 @@ public class PoissonRequestRateScheduler implements Scheduler {
 
   @Override
   public String toString() {
-    return String.format("RequestRateScheduler [rate=%s, unit=%s, rampup=%s, rampupUnit=%s]",
-        this.rate, this.unit, this.rampup, this.rampupUnit);
+    return String.format(
+        "PoissonRequestRateScheduler [rate=%s, unit=%s, rampup=%s, rampupUnit=%s, profile=%s]",
+        this.rate, this.unit, this.rampup, this.rampupUnit, this.profile);
   }
 
   private int calculateStepWidth(double ops, double warmUp, TimeUnit rampupUnit) {
@@ -0,0 +1,345 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.scheduling;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+
+/**
+ * A timeline of load levels, such as a request rate or a number of concurrent requests, built from
+ * consecutive segments. Each segment holds, ramps to, or oscillates around a level for a duration;
+ * once the last segment ends, the level it ended at is held.
+ *
+ * @since 1.0
+ */
+public class RateProfile {
+  private final List<Segment> segments;
+  private final long durationNanos;
+  private final double finalLevel;
+
+  private RateProfile(final Builder builder) {
+    checkArgument(!builder.segments.isEmpty(), "profile must have at least one segment");
+    this.segments = ImmutableList.copyOf(builder.segments);
+    final Segment last = this.segments.get(this.segments.size() - 1);
+    this.durationNanos = last.start + last.duration;
+    this.finalLevel = last.level(last.duration);
+  }
+
+  /**
+   * Gets the level at a point in the timeline
+   *
+   * @param elapsedNanos nanoseconds since the start of the timeline
+   * @return the level at that time
+   */
+  public double level(final long elapsedNanos) {
+    if (elapsedNanos >= this.durationNanos) {
+      return this.finalLevel;
+    }
+    for (final Segment segment : this.segments) {
+      if (elapsedNanos < segment.start + segment.duration) {
+        return segment.level(Math.max(0, elapsedNanos - segment.start));
+      }
+    }
+    return this.finalLevel;
+  }
+
+  /**
+   * @return the duration of this timeline in nanoseconds, after which the final level is held
+   */
+  public long durationNanos() {
+    return this.durationNanos;
+  }
+
+  /**
+   * @return the level held once this timeline has ended
+   */
+  public double finalLevel() {
+    return this.finalLevel;
+  }
+
+  /**
+   * Gets the time it takes for a number of requests to be scheduled, treating each level as a
+   * request rate. Whole segments are skipped while the requests exceed their integral, and the
+   * point at which they are reached is solved for within the segment that reaches them.
+   *
+   * @param elapsedNanos the time at which to start, in nanoseconds since the start of the timeline
+   * @param requests the number of requests, which need not be whole
+   * @param perSecond the factor which converts a level to requests per second
+   * @return nanoseconds after {@code elapsedNanos} at which the requests have been scheduled
+   * @throws IllegalStateException if the requests are never scheduled because the final level is 0
+   */
+  long nanosUntil(final long elapsedNanos, final double requests, final double perSecond) {
+    // the requests as an integral of the level over time, in level nanoseconds
+    double remaining = requests * TimeUnit.SECONDS.toNanos(1) / perSecond;
+    for (final Segment segment : this.segments) {
+      final long offset = elapsedNanos - segment.start;
+      if (offset >= segment.duration) {
+        continue;
+      }
+      final long from = Math.max(0, offset);
+      final double area = segment.area(from);
+      if (area > 0.0 && remaining <= area) {
+        return segment.start + (long) segment.offsetAfter(from, remaining) - elapsedNanos;
+      }
+      remaining -= area;
+    }
+    checkState(this.finalLevel > 0.0, "requests are never scheduled at final level 0.0");
+    final long t = Math.max(elapsedNanos, this.durationNanos);
+    return t + (long) (remaining / this.finalLevel) - elapsedNanos;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("RateProfile [segments=%s]", this.segments);
+  }
+
+  private abstract static class Segment {
+    final long start;
+    final long duration;
+
+    Segment(final long start, final long duration) {
+      this.start = start;
+      this.duration = duration;
+    }
+
+    // the level at an offset into this segment
+    abstract double level(long offset);
+
+    // the integral of the level from an offset to the end of this segment, in level nanoseconds
+    abstract double area(long from);
+
+    // the offset at which the integral of the level from an offset reaches an area, which is at
+    // most area(from)
+    abstract double offsetAfter(long from, double area);
+  }
+
+  private static class Step extends Segment {
+    private final double level;
+
+    Step(final long start, final long duration, final double level) {
+      super(start, duration);
+      this.level = level;
+    }
+
+    @Override
+    double level(final long offset) {
+      return this.level;
+    }
+
+    @Override
+    double area(final long from) {
+      return this.level * (this.duration - from);
+    }
+
+    @Override
+    double offsetAfter(final long from, final double area) {
+      return Math.min(this.duration, from + area / this.level);
+    }
+
+    @Override
+    public String toString() {
+      return String.format("step [level=%s, durationNanos=%s]", this.level, this.duration);
+    }
+  }
+
+  private static class Ramp extends Segment {
+    private final double from;
+    private final double to;
+
+    Ramp(final long start, final long duration, final double from, final double to) {
+      super(start, duration);
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    double level(final long offset) {
+      return this.from + (this.to - this.from) * ((double) offset / this.duration);
+    }
+
+    @Override
+    double area(final long from) {
+      return (this.duration - from) * (level(from) + this.to) / 2;
+    }
+
+    @Override
+    double offsetAfter(final long from, final double area) {
+      // solves level(from) * x + slope * x^2 / 2 = area for x, in a form which is stable for
+      // falling ramps and for ramps which start at 0
+      final double level = level(from);
+      final double slope = (this.to - this.from) / this.duration;
+      final double root = Math.sqrt(Math.max(0.0, level * level + 2 * slope * area));
+      return Math.min(this.duration, from + 2 * area / (level + root));
+    }
+
+    @Override
+    public String toString() {
+      return String.format("ramp [from=%s, to=%s, durationNanos=%s]", this.from, this.to,
+          this.duration);
+    }
+  }
+
+  private static class Sine extends Segment {
+    private final double mean;
+    private final double amplitude;
+    private final long period;
+
+    Sine(final long start, final long duration, final double mean, final double amplitude,
+        final long period) {
+      super(start, duration);
+      this.mean = mean;
+      this.amplitude = amplitude;
+      this.period = period;
+    }
+
+    @Override
+    double level(final long offset) {
+      return level((double) offset);
+    }
+
+    private double level(final double offset) {
+      return this.mean + this.amplitude * Math.sin(2 * Math.PI * offset / this.period);
+    }
+
+    // the integral of the level from offset a to offset b
+    private double integral(final double a, final double b) {
+      final double w = 2 * Math.PI / this.period;
+      return this.mean * (b - a) + this.amplitude / w * (Math.cos(w * a) - Math.cos(w * b));
+    }
+
+    @Override
+    double area(final long from) {
+      return integral(from, this.duration);
+    }
+
+    @Override
+    double offsetAfter(final long from, final double area) {
+      // the integral has no closed form inverse, so newton's method is used, falling back to
+      // bisection whenever a step leaves the interval known to contain the offset
+      double lo = from;
+      double hi = this.duration;
+      double x = Math.min(hi, from + area / this.mean);
+      for (int i = 0; i < 100 && hi - lo > 1.0; i++) {
+        final double level = level(x);
+        final double error = integral(from, x) - area;
+        if (Math.abs(error) <= level) {
+          // within a nanosecond of the offset
+          break;
+        }
+        if (error > 0.0) {
+          hi = x;
+        } else {
+          lo = x;
+        }
+        final double next = level > 0.0 ? x - error / level : Double.NaN;
+        x = next > lo && next < hi ? next : (lo + hi) / 2;
+      }
+      return x;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("sine [mean=%s, amplitude=%s, periodNanos=%s, durationNanos=%s]",
+          this.mean, this.amplitude, this.period, this.duration);
+    }
+  }
+
+  /**
+   * A builder of rate profiles, which appends segments in order
+   */
+  public static class Builder {
+    private final List<Segment> segments;
+    private long end;
+    private double level;
+
+    /**
+     * Constructs a builder for a timeline which starts at level 0
+     */
+    public Builder() {
+      this.segments = Lists.newArrayList();
+      this.end = 0;
+      this.level = 0.0;
+    }
+
+    /**
+     * Holds a level for a duration
+     *
+     * @param level the level to hold
+     * @param duration the duration of this segment
+     * @param unit the duration unit
+     * @return this builder
+     * @throws IllegalArgumentException if level is negative or duration is not positive
+     */
+    public Builder step(final double level, final double duration, final TimeUnit unit) {
+      checkArgument(level >= 0.0, "level must be >= 0.0 [%s]", level);
+      return add(new Step(this.end, nanos(duration, unit), level));
+    }
+
+    /**
+     * Changes linearly from the level at the end of the previous segment, or from 0 if this is the
+     * first segment, to a level over a duration
+     *
+     * @param level the level at the end of this segment
+     * @param duration the duration of this segment
+     * @param unit the duration unit
+     * @return this builder
+     * @throws IllegalArgumentException if level is negative or duration is not positive
+     */
+    public Builder ramp(final double level, final double duration, final TimeUnit unit) {
+      checkArgument(level >= 0.0, "level must be >= 0.0 [%s]", level);
+      return add(new Ramp(this.end, nanos(duration, unit), this.level, level));
+    }
+
+    /**
+     * Oscillates sinusoidally around a mean level for a duration, starting at the mean and rising
+     *
+     * @param mean the mean level
+     * @param amplitude the largest difference from the mean level
+     * @param period the duration of one oscillation, in {@code unit}
+     * @param duration the duration of this segment
+     * @param unit the period and duration unit
+     * @return this builder
+     * @throws IllegalArgumentException if amplitude is negative or greater than mean, or if period
+     *         or duration is not positive
+     */
+    public Builder sine(final double mean, final double amplitude, final double period,
+        final double duration, final TimeUnit unit) {
+      checkArgument(amplitude >= 0.0, "amplitude must be >= 0.0 [%s]", amplitude);
+      checkArgument(amplitude <= mean, "amplitude must be <= mean [%s, %s]", amplitude, mean);
+      return add(new Sine(this.end, nanos(duration, unit), mean, amplitude, nanos(period, unit)));
+    }
+
+    private Builder add(final Segment segment) {
+      this.segments.add(segment);
+      this.end += segment.duration;
+      this.level = segment.level(segment.duration);
+      return this;
+    }
+
+    private static long nanos(final double duration, final TimeUnit unit) {
+      checkNotNull(unit);
+      checkArgument(duration > 0.0, "duration must be > 0.0 [%s]", duration);
+      return (long) (duration * unit.toNanos(1));
+    }
+
+    /**
+     * Constructs a rate profile instance
+     *
+     * @return a new rate profile instance
+     * @throws IllegalArgumentException if no segments were added
+     */
+    public RateProfile build() {
+      return new RateProfile(this);
+    }
+  }
+}
@@ -11,17 +11,16 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import java.math.RoundingMode;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicReference;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.common.math.DoubleMath;
-import com.google.common.util.concurrent.RateLimiter;
 import com.google.common.util.concurrent.Uninterruptibles;
 
 /**
- * A scheduler which permits calls at a configured rate
+ * A scheduler which permits calls at a configured rate, independent of how quickly earlier calls
+ * complete
  * 
  * @since 1.0
  */
@@ -31,8 +30,12 @@ public class RequestRateScheduler implements Scheduler {
   private final TimeUnit unit;
   private final double rampup;
   private final TimeUnit rampupUnit;
-  private final AtomicReference<RateLimiter> permits;
+  private final OpenLoopSchedule schedule;
+  // requests per second, updated in steps while ramping up
+  private volatile double currentRate;
   private final CountDownLatch started;
+  private final RateProfile profile;
+  private final OpenLoopSchedule.Interval interval;
 
   /**
    * Constructs an instance using the provided rate {@code count / unit }
@@ -50,7 +53,7 @@ public class RequestRateScheduler implements Scheduler {
     checkArgument(rampup >= 0.0, "rampup must be >= 0.0 [%s]", rampup);
     this.rampup = rampup;
     this.rampupUnit = checkNotNull(rampupUnit);
-    this.permits = new AtomicReference<RateLimiter>();
+    this.schedule = new OpenLoopSchedule();
 
     // convert arbitrary rate unit to rate/second
     final double requestsPerSecond = requestsPerSecond(rate, unit);
@@ -59,8 +62,7 @@ public class RequestRateScheduler implements Scheduler {
 
 
     if (DoubleMath.fuzzyEquals(rampup, 0.0, Math.pow(0.1, 6))) {
-      final RateLimiter steady = RateLimiter.create(requestsPerSecond);
-      this.permits.set(steady);
+      this.currentRate = requestsPerSecond;
     } else {
       // the warmup Ratelimiter will not work if the permit request rate is slow enough to not being able to reach the
       // threshold from left. The permits are accumulated faster than the request rate here.
@@ -72,7 +74,7 @@ public class RequestRateScheduler implements Scheduler {
       final double slope  = requestsPerSecond / (rampupUnit.toSeconds((long)rampup));
       final int rampStepWidth = calculateStepWidth(rate, rampup, rampupUnit);
 
-      this.permits.set(RateLimiter.create(slope *  rampStepWidth * 1));
+      this.currentRate = slope * rampStepWidth * 1;
 
       final Thread rampupThread = new Thread(new Runnable() {
         @Override
@@ -83,7 +85,6 @@ public class RequestRateScheduler implements Scheduler {
           _logger.info("Starting ramp");
 
           double requestsPerSecondNow;
-          RateLimiter rampRateLimiter;
           int rampStepNum = 1;
           int rampSteps =  DoubleMath.roundToInt(((rampupUnit.toSeconds((long) rampup)) / rampStepWidth),
                   RoundingMode.DOWN);
@@ -93,11 +94,9 @@ public class RequestRateScheduler implements Scheduler {
             rampStepNum++;
             requestsPerSecondNow = slope *  rampStepWidth * rampStepNum;
             _logger.debug("slope {} rampStep  {}  targetRequestPerSecond {} ", slope, rampStepNum, requestsPerSecondNow);
-            rampRateLimiter = RateLimiter.create(requestsPerSecondNow);
-            RequestRateScheduler.this.permits.set(rampRateLimiter);
+            RequestRateScheduler.this.currentRate = requestsPerSecondNow;
           }
-          final RateLimiter steady = RateLimiter.create(requestsPerSecond);
-          RequestRateScheduler.this.permits.set(steady);
+          RequestRateScheduler.this.currentRate = requestsPerSecond;
 
           _logger.info("Finished ramp");
         }
@@ -107,16 +106,56 @@ public class RequestRateScheduler implements Scheduler {
       rampupThread.start();
     }
     this.started = new CountDownLatch(1);
+    this.profile = null;
+    this.interval = null;
+  }
+
+  /**
+   * Constructs an instance whose rate follows a profile
+   *
+   * @param profile the rate profile, whose levels are rates of {@code count / unit}
+   * @param unit the denominator of the profile's rates
+   * @throws IllegalArgumentException if the profile ends at a rate of 0
+   */
+  public RequestRateScheduler(final RateProfile profile, final TimeUnit unit) {
+    checkNotNull(profile);
+    checkArgument(profile.finalLevel() > 0.0, "profile must end at a rate > 0.0 [%s]",
+        profile.finalLevel());
+    this.rate = profile.finalLevel();
+    this.unit = checkNotNull(unit);
+    this.rampup = 0.0;
+    this.rampupUnit = TimeUnit.SECONDS;
+    this.schedule = new OpenLoopSchedule();
+    this.started = new CountDownLatch(1);
+    this.profile = profile;
+    final double perSecond = requestsPerSecond(1.0, unit);
+    this.interval = new OpenLoopSchedule.Interval() {
+      @Override
+      public long after(final long elapsedNanos) {
+        return profile.nanosUntil(elapsedNanos, 1.0, perSecond);
+      }
+    };
   }
 
   double requestsPerSecond(final double rate, final TimeUnit unit) {
     return rate / (unit.toNanos(1) / (double) TimeUnit.SECONDS.toNanos(1));
   }
 
+  /**
+   * {@inheritDoc}
+   * 
+   * This implementation permits calls on an open loop schedule with a fixed interval between
+   * intended starts, or an interval which follows the rate profile. Calls which fall behind are
+   * not dropped from the schedule; they are permitted immediately, each with its originally
+   * intended start.
+   */
   @Override
-  public void schedule() {
+  public long schedule() {
     this.started.countDown();
-    this.permits.get().acquire();
+    if (this.interval != null) {
+      return this.schedule.acquire(this.interval);
+    }
+    return this.schedule.acquire((long) (TimeUnit.SECONDS.toNanos(1) / this.currentRate));
   }
 
   @Override
@@ -126,8 +165,9 @@ public class RequestRateScheduler implements Scheduler {
 
   @Override
   public String toString() {
-    return String.format("RequestRateScheduler [rate=%s, unit=%s, rampup=%s, rampupUnit=%s]",
-        this.rate, this.unit, this.rampup, this.rampupUnit);
+    return String.format(
+        "RequestRateScheduler [rate=%s, unit=%s, rampup=%s, rampupUnit=%s, profile=%s]", this.rate,
+        this.unit, this.rampup, this.rampupUnit, this.profile);
   }
 
   private int calculateStepWidth(double ops, double warmUp, TimeUnit rampupUnit) {
@@ -13,8 +13,12 @@ package com.ibm.og.scheduling;
 public interface Scheduler {
   /**
    * Blocks until permitted to continue
+   * 
+   * @return the time, in {@link System#nanoTime} units, at which the permitted call was intended
+   *         to start. A rate based scheduler which has fallen behind returns immediately with an
+   *         intended start in the past, so that latency measured from it includes the delay.
    */
-  void schedule();
+  long schedule();
   /**
    * Signals request completion
    */
@@ -0,0 +1,151 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.scheduling;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nullable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Predicate;
+import com.google.common.util.concurrent.Uninterruptibles;
+import com.ibm.og.scheduling.trace.TraceEntry;
+import com.ibm.og.scheduling.trace.TraceReader;
+
+/**
+ * A scheduler which replays the start times of a recorded trace. Each call to {@link #schedule}
+ * reads the next entry of the trace and blocks until its start time, relative to the first entry,
+ * has been reached; the entry is then available to the calling thread via {@link #current}. As
+ * with the rate based schedulers, a call which has fallen behind is permitted immediately and
+ * keeps its original start time. The trace is read as it is replayed, so it is never held in
+ * memory.
+ *
+ * @since 1.0
+ */
+public class TraceScheduler implements Scheduler {
+  private static final Logger _logger = LoggerFactory.getLogger(TraceScheduler.class);
+  private final TraceReader reader;
+  private final double speed;
+  private final Predicate<TraceEntry> filter;
+  private final ThreadLocal<TraceEntry> current;
+  private final CountDownLatch stopped;
+  private boolean started;
+  private long first;
+  private long origin;
+  private boolean exhausted;
+  private long replayed;
+  private long skipped;
+
+  /**
+   * Constructs an instance
+   *
+   * @param reader the trace to replay
+   * @param speed the factor by which to speed up the trace; 2.0 replays it in half its duration
+   * @param filter the entries to replay; other entries are skipped
+   * @throws NullPointerException if reader or filter is null
+   * @throws IllegalArgumentException if speed is not positive
+   */
+  public TraceScheduler(final TraceReader reader, final double speed,
+      final Predicate<TraceEntry> filter) {
+    this.reader = checkNotNull(reader);
+    checkArgument(speed > 0.0, "speed must be > 0.0 [%s]", speed);
+    this.speed = speed;
+    this.filter = checkNotNull(filter);
+    this.current = new ThreadLocal<TraceEntry>();
+    this.stopped = new CountDownLatch(1);
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * This implementation returns immediately once the trace has been replayed or this scheduler
+   * has been stopped, after which {@link #current} returns null.
+   */
+  @Override
+  public long schedule() {
+    final TraceEntry entry;
+    final long intendedStart;
+    synchronized (this) {
+      entry = next();
+      if (entry == null) {
+        intendedStart = System.nanoTime();
+      } else {
+        if (!this.started) {
+          this.first = System.nanoTime();
+          this.origin = entry.getTimestamp();
+          this.started = true;
+        }
+        intendedStart = this.first + (long) ((entry.getTimestamp() - this.origin) / this.speed);
+      }
+    }
+
+    this.current.set(entry);
+    if (entry != null) {
+      final long wait = intendedStart - System.nanoTime();
+      if (wait > 0
+          && Uninterruptibles.awaitUninterruptibly(this.stopped, wait, TimeUnit.NANOSECONDS)) {
+        this.current.set(null);
+      }
+    }
+    return intendedStart;
+  }
+
+  private TraceEntry next() {
+    if (this.exhausted || this.stopped.getCount() == 0) {
+      return null;
+    }
+    try {
+      TraceEntry entry;
+      while ((entry = this.reader.next()) != null) {
+        if (this.filter.apply(entry)) {
+          this.replayed++;
+          return entry;
+        }
+        this.skipped++;
+      }
+      this.exhausted = true;
+      _logger.info("Finished trace, replayed [{}] entries, skipped [{}] entries", this.replayed,
+          this.skipped);
+      this.reader.close();
+      return null;
+    } catch (final IOException e) {
+      throw new IllegalStateException("Unable to read trace", e);
+    }
+  }
+
+  /**
+   * @return the trace entry most recently scheduled by the calling thread, or null if the trace
+   *         has been replayed or this scheduler has been stopped
+   */
+  @Nullable
+  public TraceEntry current() {
+    return this.current.get();
+  }
+
+  /**
+   * Stops replaying the trace, releasing any calls to {@link #schedule} which are waiting
+   */
+  public void stop() {
+    this.stopped.countDown();
+  }
+
+  @Override
+  public void complete() {
+    // requests start at their recorded times regardless of completions
+  }
+
+  @Override
+  public String toString() {
+    return String.format("TraceScheduler [reader=%s, speed=%s]", this.reader, this.speed);
+  }
+}
@@ -0,0 +1,103 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.scheduling;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A scheduler which permits calls at a rate which can be changed while a test is running. Like
+ * {@link RequestRateScheduler}, calls are permitted on an open loop schedule; each change of rate
+ * starts a new schedule, so a backlog built up at one rate is not carried over to the next.
+ *
+ * @since 1.0
+ */
+public class VariableRequestRateScheduler implements Scheduler {
+  private static final Logger _logger = LoggerFactory.getLogger(VariableRequestRateScheduler.class);
+  private final TimeUnit unit;
+  private volatile Rate current;
+
+  /**
+   * Constructs an instance using the provided initial rate {@code rate / unit}
+   *
+   * @param rate the numerator of the initial rate
+   * @param unit the denominator of this scheduler's rates
+   * @throws NullPointerException if unit is null
+   * @throws IllegalArgumentException if rate is not positive
+   */
+  public VariableRequestRateScheduler(final double rate, final TimeUnit unit) {
+    this.unit = checkNotNull(unit);
+    setRate(rate);
+  }
+
+  /**
+   * Changes the rate at which calls are permitted, starting a new schedule
+   *
+   * @param rate the numerator of the new rate, whose denominator is this scheduler's unit
+   * @throws IllegalArgumentException if rate is not positive
+   */
+  public void setRate(final double rate) {
+    checkArgument(rate > 0.0, "rate must be > 0.0 [%s]", rate);
+    final double requestsPerSecond =
+        rate / (this.unit.toNanos(1) / (double) TimeUnit.SECONDS.toNanos(1));
+    _logger.debug("Setting requests per second [{}]", requestsPerSecond);
+    this.current = new Rate(rate, (long) (TimeUnit.SECONDS.toNanos(1) / requestsPerSecond));
+  }
+
+  /**
+   * @return the numerator of the current rate, whose denominator is this scheduler's unit
+   */
+  public double getRate() {
+    return this.current.rate;
+  }
+
+  /**
+   * @return the denominator of this scheduler's rates
+   */
+  public TimeUnit getUnit() {
+    return this.unit;
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * This implementation permits calls on an open loop schedule with a fixed interval between
+   * intended starts, which is reset whenever the rate is changed.
+   */
+  @Override
+  public long schedule() {
+    final Rate rate = this.current;
+    return rate.schedule.acquire(rate.intervalNanos);
+  }
+
+  @Override
+  public void complete() {
+    // nothing to do for this scheduler type
+  }
+
+  @Override
+  public String toString() {
+    return String.format("VariableRequestRateScheduler [rate=%s, unit=%s]", getRate(), this.unit);
+  }
+
+  // a rate and the schedule of calls at that rate, replaced together
+  private static class Rate {
+    final double rate;
+    final long intervalNanos;
+    final OpenLoopSchedule schedule;
+
+    Rate(final double rate, final long intervalNanos) {
+      this.rate = rate;
+      this.intervalNanos = intervalNanos;
+      this.schedule = new OpenLoopSchedule();
+    }
+  }
+}
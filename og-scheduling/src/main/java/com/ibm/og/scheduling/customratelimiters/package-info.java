@@ -1,5 +0,0 @@
-/**
- * This package contains code for non-standard rate limiters external to Guava.
- */
-package com.ibm.og.scheduling.customratelimiters;
-
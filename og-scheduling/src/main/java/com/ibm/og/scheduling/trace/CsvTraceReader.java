@@ -0,0 +1,81 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.scheduling.trace;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import com.ibm.og.api.Operation;
+
+/**
+ * A reader of comma separated traces, in which each line is
+ * {@code timestamp,operation,object[,size]}. The timestamp is the start of the request in
+ * milliseconds and may be fractional; the operation is an operation name such as {@code write} or
+ * {@code read}; the size, in bytes, may be omitted or left empty. Blank lines and lines starting
+ * with {@code #} are ignored.
+ *
+ * @since 1.0
+ */
+public class CsvTraceReader implements TraceReader {
+  private final BufferedReader in;
+  private long lineNumber;
+
+  /**
+   * Constructs an instance
+   *
+   * @param in the trace
+   * @throws NullPointerException if in is null
+   */
+  public CsvTraceReader(final BufferedReader in) {
+    this.in = checkNotNull(in);
+    this.lineNumber = 0;
+  }
+
+  @Override
+  public TraceEntry next() throws IOException {
+    String line;
+    while ((line = this.in.readLine()) != null) {
+      this.lineNumber++;
+      final String trimmed = line.trim();
+      if (!trimmed.isEmpty() && !trimmed.startsWith("#")) {
+        return parse(trimmed);
+      }
+    }
+    return null;
+  }
+
+  private TraceEntry parse(final String line) {
+    try {
+      final String[] fields = line.split(",", -1);
+      checkArgument(fields.length == 3 || fields.length == 4, "expected 3 or 4 fields [%s]",
+          fields.length);
+      final double start = Double.parseDouble(fields[0].trim());
+      final Operation operation = Operation.valueOf(fields[1].trim().toUpperCase(Locale.US));
+      final String object = fields[2].trim();
+      final String size = fields.length == 4 ? fields[3].trim() : "";
+      return new TraceEntry((long) (start * TimeUnit.MILLISECONDS.toNanos(1)), operation,
+          object.isEmpty() ? null : object, size.isEmpty() ? null : Long.parseLong(size));
+    } catch (final RuntimeException e) {
+      throw new IllegalArgumentException(
+          String.format("Unable to parse trace line %s [%s]", this.lineNumber, line), e);
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    this.in.close();
+  }
+
+  @Override
+  public String toString() {
+    return "CsvTraceReader []";
+  }
+}
@@ -0,0 +1,101 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.scheduling.trace;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.collect.ComparisonChain;
+
+/**
+ * A trace reader which puts the entries of another reader in timestamp order, for traces whose
+ * entries are at most a fixed window out of order. Only the entries within the window are held in
+ * memory. An entry which arrives further out of order than the window is returned as soon as it is
+ * read.
+ *
+ * @since 1.0
+ */
+public class OrderedTraceReader implements TraceReader {
+  private final TraceReader in;
+  private final double window;
+  private final TimeUnit unit;
+  private final long windowNanos;
+  private final PriorityQueue<Sequenced> entries;
+  private long sequence;
+  private long latest;
+  private boolean exhausted;
+
+  /**
+   * Constructs an instance
+   *
+   * @param in the reader whose entries to order
+   * @param window how far out of order entries may be
+   * @param unit the window unit
+   * @throws NullPointerException if in or unit is null
+   * @throws IllegalArgumentException if window is negative
+   */
+  public OrderedTraceReader(final TraceReader in, final double window, final TimeUnit unit) {
+    this.in = checkNotNull(in);
+    checkArgument(window >= 0.0, "window must be >= 0.0 [%s]", window);
+    this.window = window;
+    this.unit = checkNotNull(unit);
+    this.windowNanos = (long) (window * unit.toNanos(1));
+    this.entries = new PriorityQueue<Sequenced>(11, new Comparator<Sequenced>() {
+      @Override
+      public int compare(final Sequenced o1, final Sequenced o2) {
+        // entries with equal timestamps keep the order in which they were read
+        return ComparisonChain.start().compare(o1.entry.getTimestamp(), o2.entry.getTimestamp())
+            .compare(o1.sequence, o2.sequence).result();
+      }
+    });
+    this.sequence = 0;
+    this.latest = Long.MIN_VALUE;
+    this.exhausted = false;
+  }
+
+  @Override
+  public TraceEntry next() throws IOException {
+    // an entry may be returned once every entry which could precede it has been read
+    while (!this.exhausted && (this.entries.isEmpty()
+        || this.entries.peek().entry.getTimestamp() > this.latest - this.windowNanos)) {
+      final TraceEntry entry = this.in.next();
+      if (entry == null) {
+        this.exhausted = true;
+      } else {
+        this.entries.add(new Sequenced(entry, this.sequence++));
+        this.latest = Math.max(this.latest, entry.getTimestamp());
+      }
+    }
+    final Sequenced next = this.entries.poll();
+    return next != null ? next.entry : null;
+  }
+
+  private static class Sequenced {
+    private final TraceEntry entry;
+    private final long sequence;
+
+    private Sequenced(final TraceEntry entry, final long sequence) {
+      this.entry = entry;
+      this.sequence = sequence;
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    this.in.close();
+  }
+
+  @Override
+  public String toString() {
+    return String.format("OrderedTraceReader [in=%s, window=%s, unit=%s]", this.in, this.window,
+        this.unit);
+  }
+}
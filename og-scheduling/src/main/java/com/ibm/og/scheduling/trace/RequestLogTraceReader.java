@@ -0,0 +1,83 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.scheduling.trace;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.ibm.og.api.Operation;
+
+/**
+ * A reader of the request log written by a previous test, in which each line is a json request
+ * entry. Entries are logged as requests complete, so they are not in order of their start times;
+ * see {@link OrderedTraceReader}.
+ *
+ * @since 1.0
+ */
+public class RequestLogTraceReader implements TraceReader {
+  private final BufferedReader in;
+  private final JsonParser parser;
+  private long lineNumber;
+
+  /**
+   * Constructs an instance
+   *
+   * @param in the request log
+   * @throws NullPointerException if in is null
+   */
+  public RequestLogTraceReader(final BufferedReader in) {
+    this.in = checkNotNull(in);
+    this.parser = new JsonParser();
+    this.lineNumber = 0;
+  }
+
+  @Override
+  public TraceEntry next() throws IOException {
+    String line;
+    while ((line = this.in.readLine()) != null) {
+      this.lineNumber++;
+      if (!line.trim().isEmpty()) {
+        return parse(line);
+      }
+    }
+    return null;
+  }
+
+  private TraceEntry parse(final String line) {
+    try {
+      final JsonObject entry = this.parser.parse(line).getAsJsonObject();
+      final long start = entry.get("timestamp_start").getAsLong();
+      final Operation operation = Operation.valueOf(entry.get("operation").getAsString());
+      final JsonElement object = entry.get("object_name");
+      final JsonElement size = entry.get("object_length");
+      return new TraceEntry(TimeUnit.MILLISECONDS.toNanos(start), operation,
+          isNull(object) ? null : object.getAsString(), isNull(size) ? null : size.getAsLong());
+    } catch (final RuntimeException e) {
+      throw new IllegalArgumentException(
+          String.format("Unable to parse request log line %s [%s]", this.lineNumber, line), e);
+    }
+  }
+
+  private static boolean isNull(final JsonElement element) {
+    return element == null || element.isJsonNull();
+  }
+
+  @Override
+  public void close() throws IOException {
+    this.in.close();
+  }
+
+  @Override
+  public String toString() {
+    return "RequestLogTraceReader []";
+  }
+}
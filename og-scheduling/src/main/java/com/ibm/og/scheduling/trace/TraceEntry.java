@@ -0,0 +1,69 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.scheduling.trace;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import javax.annotation.Nullable;
+
+import com.ibm.og.api.Operation;
+
+/**
+ * A recorded request
+ *
+ * @since 1.0
+ */
+public class TraceEntry {
+  private final long timestamp;
+  private final Operation operation;
+  private final String object;
+  private final Long size;
+
+  /**
+   * Constructs an instance
+   *
+   * @param timestamp the time at which the request started, in nanoseconds; only the differences
+   *        between the timestamps of a trace are meaningful
+   * @param operation the operation of the request
+   * @param object the object name of the request, if any
+   * @param size the object size of the request, if known
+   * @throws NullPointerException if operation is null
+   */
+  public TraceEntry(final long timestamp, final Operation operation, @Nullable final String object,
+      @Nullable final Long size) {
+    this.timestamp = timestamp;
+    this.operation = checkNotNull(operation);
+    this.object = object;
+    this.size = size;
+  }
+
+  /**
+   * @return the time at which the request started, in nanoseconds
+   */
+  public long getTimestamp() {
+    return this.timestamp;
+  }
+
+  public Operation getOperation() {
+    return this.operation;
+  }
+
+  @Nullable
+  public String getObject() {
+    return this.object;
+  }
+
+  @Nullable
+  public Long getSize() {
+    return this.size;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("TraceEntry [timestamp=%s, operation=%s, object=%s, size=%s]",
+        this.timestamp, this.operation, this.object, this.size);
+  }
+}
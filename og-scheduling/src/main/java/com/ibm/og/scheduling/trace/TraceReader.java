@@ -0,0 +1,26 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.scheduling.trace;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * A reader of recorded requests. Entries are read one at a time, so that a trace of any length
+ * may be replayed without loading it into memory.
+ *
+ * @since 1.0
+ */
+public interface TraceReader extends Closeable {
+  /**
+   * Reads the next entry of this trace
+   *
+   * @return the next entry, or null if there are no more entries
+   * @throws IOException if the trace could not be read
+   * @throws IllegalArgumentException if the next entry could not be parsed
+   */
+  TraceEntry next() throws IOException;
+}
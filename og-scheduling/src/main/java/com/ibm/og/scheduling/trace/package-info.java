@@ -0,0 +1,13 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+/**
+ * This package contains streaming readers of recorded workloads, for replay by
+ * {@link com.ibm.og.scheduling.TraceScheduler}.
+ */
+@ParametersAreNonnullByDefault
+package com.ibm.og.scheduling.trace;
+
+import javax.annotation.ParametersAreNonnullByDefault;
@@ -9,6 +9,7 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.Mockito.mock;
 
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -80,4 +81,44 @@ public class ConcurrentRequestSchedulerTest {
     }
     assertThat(count, is(concurrentRequests));
   }
+
+  @Test
+  public void profileRise() {
+    final ConcurrentRequestScheduler scheduler = new ConcurrentRequestScheduler(
+        new RateProfile.Builder().step(1, 500, TimeUnit.MILLISECONDS).step(3, 1, TimeUnit.HOURS)
+            .build());
+    assertThat(scheduled(scheduler), is(true));
+    assertThat(scheduled(scheduler), is(false));
+    // the rise permits the blocked call above and one more
+    Uninterruptibles.sleepUninterruptibly(500, TimeUnit.MILLISECONDS);
+    assertThat(scheduled(scheduler), is(true));
+  }
+
+  @Test
+  public void profileFall() {
+    final ConcurrentRequestScheduler scheduler = new ConcurrentRequestScheduler(
+        new RateProfile.Builder().step(2, 200, TimeUnit.MILLISECONDS).step(1, 1, TimeUnit.HOURS)
+            .build());
+    assertThat(scheduled(scheduler), is(true));
+    assertThat(scheduled(scheduler), is(true));
+    // the level falls while both requests are in progress, so completing one permits no others
+    Uninterruptibles.sleepUninterruptibly(400, TimeUnit.MILLISECONDS);
+    scheduler.complete();
+    assertThat(scheduled(scheduler), is(false));
+  }
+
+  // whether a call to schedule is permitted within a short time
+  private static boolean scheduled(final Scheduler scheduler) {
+    final CountDownLatch scheduled = new CountDownLatch(1);
+    final Thread thread = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        scheduler.schedule();
+        scheduled.countDown();
+      }
+    });
+    thread.setDaemon(true);
+    thread.start();
+    return Uninterruptibles.awaitUninterruptibly(scheduled, 250, TimeUnit.MILLISECONDS);
+  }
 }
@@ -0,0 +1,56 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.scheduling;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.google.common.util.concurrent.Uninterruptibles;
+
+public class OpenLoopScheduleTest {
+  private static final long INTERVAL = TimeUnit.MILLISECONDS.toNanos(10);
+
+  @Test(expected = IllegalArgumentException.class)
+  public void negativeInterval() {
+    new OpenLoopSchedule().reserve(-1);
+  }
+
+  @Test
+  public void reserve() {
+    final OpenLoopSchedule schedule = new OpenLoopSchedule();
+    final long first = schedule.reserve(INTERVAL);
+    assertThat(schedule.reserve(2 * INTERVAL), is(first + INTERVAL));
+    assertThat(schedule.reserve(INTERVAL), is(first + 3 * INTERVAL));
+  }
+
+  @Test
+  public void acquire() {
+    final OpenLoopSchedule schedule = new OpenLoopSchedule();
+    final long first = schedule.acquire(INTERVAL);
+    assertThat(schedule.acquire(INTERVAL) - first, is(INTERVAL));
+    assertThat(System.nanoTime() - first, greaterThanOrEqualTo(INTERVAL));
+  }
+
+  @Test
+  public void behindSchedule() {
+    final OpenLoopSchedule schedule = new OpenLoopSchedule();
+    final long first = schedule.acquire(INTERVAL);
+    Uninterruptibles.sleepUninterruptibly(10 * INTERVAL, TimeUnit.NANOSECONDS);
+
+    // the backlog is permitted immediately, each call keeping its intended start
+    final long begin = System.nanoTime();
+    for (int i = 1; i <= 5; i++) {
+      assertThat(schedule.acquire(INTERVAL), is(first + i * INTERVAL));
+    }
+    assertThat(System.nanoTime() - begin, lessThan(5 * INTERVAL));
+  }
+}
@@ -9,7 +9,6 @@ import static org.hamcrest.Matchers.both;
 import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.lessThan;
 
-import com.ibm.og.scheduling.customratelimiters.PoissonSmoothRateLimiter;
 import org.junit.Test;
 import org.junit.Ignore;
 import org.junit.runner.RunWith;
@@ -42,21 +41,12 @@ public class PoissonRequestRateSchedulerIT {
         final long start = System.nanoTime();
         final Scheduler scheduler = new PoissonRequestRateScheduler(rate, unit, rampup, rampupUnit);
 
-        // Turn on statistics.
-
-        PoissonSmoothRateLimiter.enableTestStatistics();
-
         for (int i = 0; i < operations; i++) {
             scheduler.schedule();
         }
         final long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
         final long error = (long) (expectedMillis * percentError);
 
-        // Turn off statistics and print them.
-
-        PoissonSmoothRateLimiter.disableTestStatistics();
-        PoissonSmoothRateLimiter.printTestStatistics();
-
         assertThat(millis,
                 both(greaterThan(expectedMillis - error)).and(lessThan(expectedMillis + error)));
     }
@@ -0,0 +1,160 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.scheduling;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.is;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+
+import com.tngtech.java.junit.dataprovider.DataProvider;
+import com.tngtech.java.junit.dataprovider.DataProviderRunner;
+import com.tngtech.java.junit.dataprovider.UseDataProvider;
+
+@RunWith(DataProviderRunner.class)
+public class RateProfileTest {
+  private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+  private static final double ERROR = Math.pow(0.1, 6);
+  @Rule
+  public ExpectedException thrown = ExpectedException.none();
+
+  @Test
+  public void noSegments() {
+    this.thrown.expect(IllegalArgumentException.class);
+    new RateProfile.Builder().build();
+  }
+
+  @DataProvider
+  public static Object[][] provideInvalidSegment() {
+    final TimeUnit unit = TimeUnit.SECONDS;
+    return new Object[][] {{-1.0, 0.0, 1.0, 1.0, unit, IllegalArgumentException.class},
+        {1.0, -1.0, 1.0, 1.0, unit, IllegalArgumentException.class},
+        {1.0, 2.0, 1.0, 1.0, unit, IllegalArgumentException.class},
+        {1.0, 0.0, 0.0, 1.0, unit, IllegalArgumentException.class},
+        {1.0, 0.0, 1.0, 0.0, unit, IllegalArgumentException.class},
+        {1.0, 0.0, 1.0, 1.0, null, NullPointerException.class}};
+  }
+
+  @Test
+  @UseDataProvider("provideInvalidSegment")
+  public void invalidSine(final double mean, final double amplitude, final double period,
+      final double duration, final TimeUnit unit, final Class<Exception> expectedException) {
+    this.thrown.expect(expectedException);
+    new RateProfile.Builder().sine(mean, amplitude, period, duration, unit);
+  }
+
+  @Test
+  public void invalidStep() {
+    this.thrown.expect(IllegalArgumentException.class);
+    new RateProfile.Builder().step(-1.0, 1.0, TimeUnit.SECONDS);
+  }
+
+  @Test
+  public void invalidRamp() {
+    this.thrown.expect(IllegalArgumentException.class);
+    new RateProfile.Builder().ramp(1.0, 0.0, TimeUnit.SECONDS);
+  }
+
+  @Test
+  public void level() {
+    final RateProfile profile = new RateProfile.Builder().ramp(100, 10, TimeUnit.SECONDS)
+        .step(100, 10, TimeUnit.SECONDS).sine(100, 50, 4, 8, TimeUnit.SECONDS)
+        .step(500, 1, TimeUnit.SECONDS).ramp(200, 10, TimeUnit.SECONDS).build();
+    assertThat(profile.durationNanos(), is(39 * SECOND));
+    // ramps start from 0, or from where the previous segment ended
+    assertThat(profile.level(0), closeTo(0.0, ERROR));
+    assertThat(profile.level(5 * SECOND), closeTo(50.0, ERROR));
+    assertThat(profile.level(15 * SECOND), closeTo(100.0, ERROR));
+    assertThat(profile.level(20 * SECOND), closeTo(100.0, ERROR));
+    assertThat(profile.level(21 * SECOND), closeTo(150.0, ERROR));
+    assertThat(profile.level(23 * SECOND), closeTo(50.0, ERROR));
+    assertThat(profile.level(28 * SECOND), closeTo(500.0, ERROR));
+    assertThat(profile.level(34 * SECOND), closeTo(350.0, ERROR));
+    // the final level is held
+    assertThat(profile.level(40 * SECOND), closeTo(200.0, ERROR));
+    assertThat(profile.finalLevel(), closeTo(200.0, ERROR));
+  }
+
+  @Test
+  public void nanosUntil() {
+    final RateProfile profile = new RateProfile.Builder().step(10, 1, TimeUnit.SECONDS)
+        .step(0, 1, TimeUnit.SECONDS).step(100, 1, TimeUnit.MINUTES).build();
+    // 10 requests per second, so 100 milliseconds per request
+    assertThat(seconds(profile.nanosUntil(0, 1.0, 1.0)), closeTo(0.1, ERROR));
+    // no requests are scheduled while the level is 0
+    assertThat(seconds(profile.nanosUntil(SECOND - SECOND / 20, 1.0, 1.0)),
+        closeTo(0.05 + 1.0 + 0.005, ERROR));
+    // levels in requests per minute: 1/6 of a request in the first second, none in the next, then
+    // the remainder at 100 requests per minute
+    assertThat(seconds(profile.nanosUntil(0, 1.0, 1.0 / 60)), closeTo(2.5, ERROR));
+  }
+
+  @Test
+  public void nanosUntilRamp() {
+    final RateProfile profile =
+        new RateProfile.Builder().ramp(100, 1, TimeUnit.SECONDS).build();
+    // the rate at time t is 100t, so 2 requests have been scheduled once 50t^2 = 2
+    assertThat(seconds(profile.nanosUntil(0, 2.0, 1.0)), closeTo(0.2, ERROR));
+    // 50 requests over the whole ramp, then 100 requests per second
+    assertThat(seconds(profile.nanosUntil(0, 60.0, 1.0)), closeTo(1.1, ERROR));
+  }
+
+  @Test
+  public void nanosUntilFallingRamp() {
+    final RateProfile profile = new RateProfile.Builder().step(100, 1, TimeUnit.SECONDS)
+        .ramp(0, 1, TimeUnit.SECONDS).step(100, 1, TimeUnit.SECONDS).build();
+    // the rate t seconds into the ramp is 100 - 100t, so 100t - 50t^2 = 37.5 at t = 0.5
+    assertThat(seconds(profile.nanosUntil(SECOND, 37.5, 1.0)), closeTo(0.5, ERROR));
+    // 12.5 requests in the rest of the ramp, none at its end, then 100 requests per second
+    assertThat(seconds(profile.nanosUntil(SECOND + SECOND / 2, 22.5, 1.0)), closeTo(0.6, ERROR));
+  }
+
+  @Test
+  public void nanosUntilSine() {
+    final RateProfile profile =
+        new RateProfile.Builder().sine(100, 50, 1, 10, TimeUnit.SECONDS).build();
+    // the rise and fall of a whole period cancel out
+    assertThat(seconds(profile.nanosUntil(0, 100.0, 1.0)), closeTo(1.0, ERROR));
+    // the first half period adds 50 / pi requests to the mean
+    assertThat(seconds(profile.nanosUntil(0, 50.0 + 50.0 / Math.PI, 1.0)), closeTo(0.5, ERROR));
+    // the second half period takes them away again
+    assertThat(seconds(profile.nanosUntil(SECOND / 2, 50.0 - 50.0 / Math.PI, 1.0)),
+        closeTo(0.5, ERROR));
+    // starting from the peak
+    assertThat(seconds(profile.nanosUntil(SECOND / 4, 25.0 + 25.0 / Math.PI, 1.0)),
+        closeTo(0.25, ERROR));
+  }
+
+  @Test
+  public void nanosUntilAfterProfile() {
+    final RateProfile profile = new RateProfile.Builder().step(0, 1, TimeUnit.HOURS)
+        .step(10, 1, TimeUnit.SECONDS).build();
+    // a long segment at level 0 is skipped as a whole
+    assertThat(seconds(profile.nanosUntil(0, 1.0, 1.0)), closeTo(3600.1, ERROR));
+    // the final level is held once the profile ends
+    assertThat(seconds(profile.nanosUntil(3600 * SECOND + SECOND / 2, 10.0, 1.0)),
+        closeTo(1.0, ERROR));
+    assertThat(seconds(profile.nanosUntil(3602 * SECOND, 1.0, 1.0)), closeTo(0.1, ERROR));
+  }
+
+  @Test
+  public void nanosUntilFinalLevelZero() {
+    final RateProfile profile = new RateProfile.Builder().step(10, 1, TimeUnit.SECONDS)
+        .step(0, 1, TimeUnit.SECONDS).build();
+    this.thrown.expect(IllegalStateException.class);
+    profile.nanosUntil(0, 20.0, 1.0);
+  }
+
+  private static double seconds(final long nanos) {
+    return (double) nanos / SECOND;
+  }
+}
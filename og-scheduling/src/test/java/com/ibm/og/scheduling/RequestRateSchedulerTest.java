@@ -7,6 +7,7 @@ package com.ibm.og.scheduling;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.is;
 
 import java.util.concurrent.TimeUnit;
 
@@ -15,6 +16,7 @@ import org.junit.Test;
 import org.junit.rules.ExpectedException;
 import org.junit.runner.RunWith;
 
+import com.google.common.util.concurrent.Uninterruptibles;
 import com.tngtech.java.junit.dataprovider.DataProvider;
 import com.tngtech.java.junit.dataprovider.DataProviderRunner;
 import com.tngtech.java.junit.dataprovider.UseDataProvider;
@@ -61,4 +63,38 @@ public class RequestRateSchedulerTest {
     assertThat(s.requestsPerSecond(rate, unit),
         closeTo(expectedRequestsPerSecond, Math.pow(0.1, 6)));
   }
+
+  @Test
+  public void behindSchedule() {
+    final Scheduler s = new RequestRateScheduler(100.0, TimeUnit.SECONDS, 0.0, TimeUnit.SECONDS);
+    final long first = s.schedule();
+    Uninterruptibles.sleepUninterruptibly(100, TimeUnit.MILLISECONDS);
+
+    // requests which fall behind keep their intended start rather than being rescheduled from now
+    for (int i = 1; i <= 5; i++) {
+      assertThat(s.schedule() - first, is(i * TimeUnit.MILLISECONDS.toNanos(10)));
+    }
+  }
+
+  @Test
+  public void profile() {
+    final RateProfile profile = new RateProfile.Builder().step(1000, 10, TimeUnit.MILLISECONDS)
+        .step(100, 1, TimeUnit.HOURS).build();
+    final Scheduler s = new RequestRateScheduler(profile, TimeUnit.SECONDS);
+    final long first = s.schedule();
+    long previous = first;
+    for (int i = 1; i <= 12; i++) {
+      final long start = s.schedule();
+      // 1 millisecond apart for the first 10 milliseconds, then 10 milliseconds apart
+      final long expected = TimeUnit.MILLISECONDS.toNanos(i <= 10 ? 1 : 10);
+      assertThat((double) (start - previous), closeTo(expected, 1000));
+      previous = start;
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void profileEndsAtZero() {
+    new RequestRateScheduler(new RateProfile.Builder().ramp(0, 1, TimeUnit.SECONDS).build(),
+        TimeUnit.SECONDS);
+  }
 }
@@ -0,0 +1,133 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.scheduling;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+
+import com.google.common.base.Predicate;
+import com.google.common.base.Predicates;
+import com.google.common.util.concurrent.Uninterruptibles;
+import com.ibm.og.api.Operation;
+import com.ibm.og.scheduling.trace.CsvTraceReader;
+import com.ibm.og.scheduling.trace.TraceEntry;
+import com.ibm.og.scheduling.trace.TraceReader;
+import com.tngtech.java.junit.dataprovider.DataProvider;
+import com.tngtech.java.junit.dataprovider.DataProviderRunner;
+import com.tngtech.java.junit.dataprovider.UseDataProvider;
+
+@RunWith(DataProviderRunner.class)
+public class TraceSchedulerTest {
+  private static final String TRACE =
+      "1000,write,a,10\n" + "1010,read,a\n" + "1010,list,\n" + "1050,delete,a\n";
+  @Rule
+  public ExpectedException thrown = ExpectedException.none();
+
+  @DataProvider
+  public static Object[][] provideInvalidTraceScheduler() {
+    final TraceReader reader = reader(TRACE);
+    final Predicate<TraceEntry> filter = Predicates.alwaysTrue();
+    return new Object[][] {{null, 1.0, filter, NullPointerException.class},
+        {reader, 0.0, filter, IllegalArgumentException.class},
+        {reader, 1.0, null, NullPointerException.class}};
+  }
+
+  @Test
+  @UseDataProvider("provideInvalidTraceScheduler")
+  public void invalidTraceScheduler(final TraceReader reader, final double speed,
+      final Predicate<TraceEntry> filter, final Class<Exception> expectedException) {
+    this.thrown.expect(expectedException);
+    new TraceScheduler(reader, speed, filter);
+  }
+
+  @DataProvider
+  public static Object[][] provideSpeed() {
+    return new Object[][] {{1.0}, {2.0}, {0.5}};
+  }
+
+  @Test
+  @UseDataProvider("provideSpeed")
+  public void replay(final double speed) {
+    final TraceScheduler s = new TraceScheduler(reader(TRACE), speed, new Predicate<TraceEntry>() {
+      @Override
+      public boolean apply(final TraceEntry input) {
+        return input.getOperation() != Operation.LIST;
+      }
+    });
+    final long first = s.schedule();
+    assertThat(s.current().getOperation(), is(Operation.WRITE));
+
+    // start times follow the trace, scaled by speed, and the filtered entry is skipped
+    assertThat(s.schedule() - first, is(millis(10, speed)));
+    assertThat(s.current().getOperation(), is(Operation.READ));
+    assertThat(s.schedule() - first, is(millis(50, speed)));
+    assertThat(s.current().getOperation(), is(Operation.DELETE));
+    assertThat(System.nanoTime() - first, greaterThanOrEqualTo(millis(50, speed)));
+
+    s.schedule();
+    assertThat(s.current(), nullValue());
+  }
+
+  @Test
+  public void behindSchedule() {
+    final TraceScheduler s =
+        new TraceScheduler(reader(TRACE), 1.0, Predicates.<TraceEntry>alwaysTrue());
+    final long first = s.schedule();
+    Uninterruptibles.sleepUninterruptibly(100, TimeUnit.MILLISECONDS);
+
+    // entries which fall behind keep their recorded start times
+    final long begin = System.nanoTime();
+    assertThat(s.schedule() - first, is(millis(10, 1.0)));
+    assertThat(s.schedule() - first, is(millis(10, 1.0)));
+    assertThat(s.schedule() - first, is(millis(50, 1.0)));
+    assertThat(System.nanoTime() - begin, lessThan(millis(10, 1.0)));
+  }
+
+  @Test
+  public void stop() {
+    final TraceScheduler s = new TraceScheduler(reader("0,write,a,10\n" + "60000,write,b,10\n"),
+        1.0, Predicates.<TraceEntry>alwaysTrue());
+    s.schedule();
+    new Thread() {
+      @Override
+      public void run() {
+        Uninterruptibles.sleepUninterruptibly(50, TimeUnit.MILLISECONDS);
+        s.stop();
+      }
+    }.start();
+
+    // a call waiting for a distant entry is released without it
+    final long begin = System.nanoTime();
+    s.schedule();
+    assertThat(System.nanoTime() - begin, lessThan(TimeUnit.SECONDS.toNanos(10)));
+    assertThat(s.current(), nullValue());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void invalidTrace() {
+    new TraceScheduler(reader("1000,write"), 1.0, Predicates.<TraceEntry>alwaysTrue()).schedule();
+  }
+
+  private static long millis(final long millis, final double speed) {
+    return (long) (TimeUnit.MILLISECONDS.toNanos(millis) / speed);
+  }
+
+  private static TraceReader reader(final String trace) {
+    return new CsvTraceReader(new BufferedReader(new StringReader(trace)));
+  }
+}
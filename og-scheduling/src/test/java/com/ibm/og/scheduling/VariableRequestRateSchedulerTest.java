@@ -0,0 +1,77 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.scheduling;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+
+import com.google.common.util.concurrent.Uninterruptibles;
+import com.tngtech.java.junit.dataprovider.DataProvider;
+import com.tngtech.java.junit.dataprovider.DataProviderRunner;
+import com.tngtech.java.junit.dataprovider.UseDataProvider;
+
+@RunWith(DataProviderRunner.class)
+public class VariableRequestRateSchedulerTest {
+  @Rule
+  public ExpectedException thrown = ExpectedException.none();
+
+  @DataProvider
+  public static Object[][] provideInvalidVariableRequestRateScheduler() {
+    return new Object[][] {{0.0, TimeUnit.SECONDS, IllegalArgumentException.class},
+        {-1.0, TimeUnit.SECONDS, IllegalArgumentException.class},
+        {1.0, null, NullPointerException.class}};
+  }
+
+  @Test
+  @UseDataProvider("provideInvalidVariableRequestRateScheduler")
+  public void invalidVariableRequestRateScheduler(final double rate, final TimeUnit unit,
+      final Class<Exception> expectedException) {
+    this.thrown.expect(expectedException);
+    new VariableRequestRateScheduler(rate, unit);
+  }
+
+  @Test
+  public void invalidSetRate() {
+    this.thrown.expect(IllegalArgumentException.class);
+    new VariableRequestRateScheduler(1.0, TimeUnit.SECONDS).setRate(0.0);
+  }
+
+  @Test
+  public void setRate() {
+    final VariableRequestRateScheduler s =
+        new VariableRequestRateScheduler(100.0, TimeUnit.SECONDS);
+    assertThat(s.getRate(), is(100.0));
+    final long first = s.schedule();
+    assertThat(s.schedule() - first, is(TimeUnit.MILLISECONDS.toNanos(10)));
+
+    s.setRate(2.0);
+    assertThat(s.getRate(), is(2.0));
+    assertThat(s.getUnit(), is(TimeUnit.SECONDS));
+    final long second = s.schedule();
+    assertThat(s.schedule() - second, is(TimeUnit.MILLISECONDS.toNanos(500)));
+  }
+
+  @Test
+  public void setRateDropsBacklog() {
+    final VariableRequestRateScheduler s =
+        new VariableRequestRateScheduler(100.0, TimeUnit.SECONDS);
+    s.schedule();
+    Uninterruptibles.sleepUninterruptibly(100, TimeUnit.MILLISECONDS);
+
+    // a new rate starts a new schedule from now rather than working through the backlog
+    final long begin = System.nanoTime();
+    s.setRate(100.0);
+    assertThat(s.schedule(), greaterThanOrEqualTo(begin));
+  }
+}
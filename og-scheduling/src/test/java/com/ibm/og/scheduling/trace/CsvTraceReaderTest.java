@@ -0,0 +1,66 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.scheduling.trace;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import com.ibm.og.api.Operation;
+import com.tngtech.java.junit.dataprovider.DataProvider;
+import com.tngtech.java.junit.dataprovider.DataProviderRunner;
+import com.tngtech.java.junit.dataprovider.UseDataProvider;
+
+@RunWith(DataProviderRunner.class)
+public class CsvTraceReaderTest {
+  @Test(expected = NullPointerException.class)
+  public void nullReader() {
+    new CsvTraceReader(null);
+  }
+
+  @Test
+  public void read() throws IOException {
+    final CsvTraceReader reader = reader("# timestamp,operation,object,size\n"
+        + "1000,write,object1,1024\n" + "\n" + "1000.5, READ ,object1,\n" + "1002,delete,object1");
+
+    assertEntry(reader.next(), 1000000000L, Operation.WRITE, "object1", 1024L);
+    assertEntry(reader.next(), 1000500000L, Operation.READ, "object1", null);
+    assertEntry(reader.next(), 1002000000L, Operation.DELETE, "object1", null);
+    assertThat(reader.next(), nullValue());
+    reader.close();
+  }
+
+  @DataProvider
+  public static Object[][] provideInvalidLine() {
+    return new Object[][] {{"1000,write"}, {"1000,write,object1,1024,extra"},
+        {"time,write,object1,1024"}, {"1000,unknown,object1,1024"}, {"1000,write,object1,size"}};
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  @UseDataProvider("provideInvalidLine")
+  public void invalidLine(final String line) throws IOException {
+    reader(line).next();
+  }
+
+  static void assertEntry(final TraceEntry entry, final long timestamp, final Operation operation,
+      final String object, final Long size) {
+    assertThat(entry.getTimestamp(), is(timestamp));
+    assertThat(entry.getOperation(), is(operation));
+    assertThat(entry.getObject(), is(object));
+    assertThat(entry.getSize(), is(size));
+  }
+
+  private static CsvTraceReader reader(final String trace) {
+    return new CsvTraceReader(new BufferedReader(new StringReader(trace)));
+  }
+}
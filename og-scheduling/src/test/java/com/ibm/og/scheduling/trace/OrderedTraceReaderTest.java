@@ -0,0 +1,74 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.scheduling.trace;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+
+public class OrderedTraceReaderTest {
+  // objects are named by their read order, timestamps are out of order by up to 3 milliseconds
+  private static final String TRACE = "3,write,a\n" + "1,write,b\n" + "2,write,c\n"
+      + "6,write,d\n" + "1,write,e\n" + "9,write,f\n" + "7,write,g\n";
+
+  @Test(expected = NullPointerException.class)
+  public void nullReader() {
+    new OrderedTraceReader(null, 1.0, TimeUnit.SECONDS);
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void nullUnit() {
+    new OrderedTraceReader(reader(TRACE), 1.0, null);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void negativeWindow() {
+    new OrderedTraceReader(reader(TRACE), -1.0, TimeUnit.SECONDS);
+  }
+
+  @Test
+  public void ordered() throws IOException {
+    // equal timestamps keep their read order
+    assertThat(objects(new OrderedTraceReader(reader(TRACE), 5, TimeUnit.MILLISECONDS)),
+        contains("b", "e", "c", "a", "d", "g", "f"));
+  }
+
+  @Test
+  public void beyondWindow() throws IOException {
+    // e is 5 milliseconds behind d, so it is returned as soon as it is read
+    assertThat(objects(new OrderedTraceReader(reader(TRACE), 3, TimeUnit.MILLISECONDS)),
+        contains("b", "c", "a", "e", "d", "g", "f"));
+  }
+
+  @Test
+  public void noWindow() throws IOException {
+    assertThat(objects(new OrderedTraceReader(reader(TRACE), 0, TimeUnit.MILLISECONDS)),
+        contains("a", "b", "c", "d", "e", "f", "g"));
+  }
+
+  private static List<String> objects(final TraceReader reader) throws IOException {
+    final List<String> objects = Lists.newArrayList();
+    TraceEntry entry;
+    while ((entry = reader.next()) != null) {
+      objects.add(entry.getObject());
+    }
+    reader.close();
+    return objects;
+  }
+
+  private static TraceReader reader(final String trace) {
+    return new CsvTraceReader(new BufferedReader(new StringReader(trace)));
+  }
+}
@@ -0,0 +1,56 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.scheduling.trace;
+
+import static com.ibm.og.scheduling.trace.CsvTraceReaderTest.assertEntry;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+
+import org.junit.Test;
+
+import com.ibm.og.api.Operation;
+
+public class RequestLogTraceReaderTest {
+  @Test(expected = NullPointerException.class)
+  public void nullReader() {
+    new RequestLogTraceReader(null);
+  }
+
+  @Test
+  public void read() throws IOException {
+    final RequestLogTraceReader reader = reader("{\"operation\":\"WRITE\",\"type\":\"http\","
+        + "\"timestamp_start\":\"1459188000000\",\"timestamp_finish\":\"1459188000020\","
+        + "\"request_method\":\"PUT\",\"status\":200,\"request_length\":\"1024\","
+        + "\"object_length\":\"1024\",\"object_name\":\"object1\"}\n" + "\n"
+        + "{\"operation\":\"READ\",\"timestamp_start\":1459188000010,"
+        + "\"object_name\":\"object1\"}\n" + "{\"operation\":\"LIST\",\"timestamp_start\":"
+        + "\"1459188000015\"}");
+
+    assertEntry(reader.next(), 1459188000000000000L, Operation.WRITE, "object1", 1024L);
+    assertEntry(reader.next(), 1459188000010000000L, Operation.READ, "object1", null);
+    assertEntry(reader.next(), 1459188000015000000L, Operation.LIST, null, null);
+    assertThat(reader.next(), nullValue());
+    reader.close();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void missingTimestamp() throws IOException {
+    reader("{\"operation\":\"WRITE\",\"object_name\":\"object1\"}").next();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void notJson() throws IOException {
+    reader("1000,write,object1,1024").next();
+  }
+
+  private static RequestLogTraceReader reader(final String trace) {
+    return new RequestLogTraceReader(new BufferedReader(new StringReader(trace)));
+  }
+}
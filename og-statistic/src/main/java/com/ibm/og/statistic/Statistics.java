@@ -9,14 +9,23 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
+import com.ibm.og.api.CompletionListener;
+import com.ibm.og.api.RequestPhase;
 import com.ibm.og.api.RequestTimestamps;
 import com.ibm.og.util.Context;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -27,6 +36,7 @@ import com.ibm.og.api.Operation;
 import com.ibm.og.util.Pair;
 import com.ibm.og.util.TestState;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import com.google.common.eventbus.Subscribe;
 import com.google.common.util.concurrent.AtomicLongMap;
 
@@ -36,6 +46,8 @@ import com.google.common.util.concurrent.AtomicLongMap;
  * <li>operations</li>
  * <li>bytes</li>
  * <li>status codes</li>
+ * <li>latency histograms</li>
+ * <li>request phase latency histograms</li>
  * </ul>
  * <p>
  * statistics are gathered and stored for the following operation types:
@@ -49,11 +61,16 @@ import com.google.common.util.concurrent.AtomicLongMap;
  * @since 1.0
  */
 @Singleton
-public class Statistics {
+public class Statistics implements CompletionListener {
   private static final Logger _logger = LoggerFactory.getLogger(Statistics.class);
+  private static final int LATENCY_SIGNIFICANT_DIGITS = 3;
   private volatile boolean running;
   private final Map<Operation, AtomicLongMap<Counter>> counters;
   private final Map<Operation, AtomicLongMap<Integer>> scCounters;
+  private final Map<Operation, Histogram> latencies;
+  private final Map<Operation, Recorder> intervalLatencies;
+  private final Map<Operation, Map<RequestPhase, Histogram>> phaseLatencies;
+  private final Map<Operation, Map<RequestPhase, Recorder>> intervalPhaseLatencies;
 
   /**
    * Constructs an instance
@@ -63,9 +80,24 @@ public class Statistics {
     this.running = true;
     this.counters = Maps.newHashMap();
     this.scCounters = Maps.newHashMap();
+    this.latencies = Maps.newHashMap();
+    this.intervalLatencies = Maps.newHashMap();
+    this.phaseLatencies = Maps.newHashMap();
+    this.intervalPhaseLatencies = Maps.newHashMap();
     for (final Operation operation : Operation.values()) {
       this.counters.put(operation, AtomicLongMap.<Counter>create());
       this.scCounters.put(operation, AtomicLongMap.<Integer>create());
+      this.latencies.put(operation, new ConcurrentHistogram(LATENCY_SIGNIFICANT_DIGITS));
+      this.intervalLatencies.put(operation, new Recorder(LATENCY_SIGNIFICANT_DIGITS));
+      final Map<RequestPhase, Histogram> phases = new EnumMap<RequestPhase, Histogram>(RequestPhase.class);
+      final Map<RequestPhase, Recorder> intervalPhases =
+          new EnumMap<RequestPhase, Recorder>(RequestPhase.class);
+      for (final RequestPhase phase : RequestPhase.values()) {
+        phases.put(phase, new ConcurrentHistogram(LATENCY_SIGNIFICANT_DIGITS));
+        intervalPhases.put(phase, new Recorder(LATENCY_SIGNIFICANT_DIGITS));
+      }
+      this.phaseLatencies.put(operation, phases);
+      this.intervalPhaseLatencies.put(operation, intervalPhases);
     }
   }
 
@@ -106,12 +138,24 @@ public class Statistics {
    * 
    * @param result the completed operation
    */
-  @Subscribe
   public void update(final Pair<Request, Response> result) {
     checkNotNull(result);
-    final Request request = result.getKey();
-    final Response response = result.getValue();
+    complete(result.getKey(), result.getValue());
+  }
+
+  @Override
+  public Set<Operation> operations() {
+    return Sets.immutableEnumSet(EnumSet.allOf(Operation.class));
+  }
 
+  /**
+   * Updates this instance with data from a completed operation
+   * 
+   * @param request the completed request
+   * @param response the response for request
+   */
+  @Override
+  public void complete(final Request request, final Response response) {
     final Operation operation = request.getOperation();
     updateCounter(operation, Counter.ACTIVE_OPERATIONS, -1);
     updateCounter(Operation.ALL, Counter.ACTIVE_OPERATIONS, -1);
@@ -121,6 +165,8 @@ public class Statistics {
       updateCounter(operation, Counter.OPERATIONS, 1);
       final long latency = getLatency(operation, request, response);
       updateCounter(operation, Counter.LATENCY, latency);
+      updateLatency(operation, latency);
+      updatePhaseLatencies(operation, response.getRequestTimestamps());
       List<Operation> invalidCountOps = new ArrayList<Operation>();
       invalidCountOps.add(Operation.MULTIPART_WRITE);
       invalidCountOps.add(Operation.MULTIPART_WRITE_INITIATE);
@@ -170,6 +216,27 @@ public class Statistics {
     this.counters.get(operation).addAndGet(counter, value);
   }
 
+  private void updateLatency(final Operation operation, final long latency) {
+    // guard against clock adjustments between start and finish
+    final long value = Math.max(0, latency);
+    this.latencies.get(operation).recordValue(value);
+    this.intervalLatencies.get(operation).recordValue(value);
+  }
+
+  private void updatePhaseLatencies(final Operation operation, final RequestTimestamps timestamps) {
+    final Map<RequestPhase, Histogram> phases = this.phaseLatencies.get(operation);
+    final Map<RequestPhase, Recorder> intervalPhases = this.intervalPhaseLatencies.get(operation);
+    for (final RequestPhase phase : RequestPhase.values()) {
+      final long duration = phase.duration(timestamps);
+      // phases the request did not go through, e.g. request content for a read, are not recorded
+      if (duration >= 0) {
+        final long micros = TimeUnit.NANOSECONDS.toMicros(duration);
+        phases.get(phase).recordValue(micros);
+        intervalPhases.get(phase).recordValue(micros);
+      }
+    }
+  }
+
   private void updateStatusCode(final Operation operation, final int statusCode) {
     this.scCounters.get(operation).incrementAndGet(statusCode);
   }
@@ -213,6 +280,63 @@ public class Statistics {
     return this.scCounters.get(operation).asMap();
   }
 
+  /**
+   * Gets a snapshot of the latency histogram for a given operation type, covering all operations
+   * recorded since this instance was created. Values are in milliseconds.
+   * 
+   * @param operation the operation type of the histogram to get
+   * @return a copy of the cumulative latency histogram
+   */
+  public Histogram latencyHistogram(final Operation operation) {
+    checkNotNull(operation);
+    return this.latencies.get(operation).copy();
+  }
+
+  /**
+   * Gets the latency histogram for a given operation type, covering operations recorded since the
+   * previous call to this method for that operation type (or since this instance was created).
+   * Values are in milliseconds. Recording is double-buffered, so calling this method never blocks
+   * concurrent updates.
+   * 
+   * @param operation the operation type of the histogram to get
+   * @return the interval latency histogram
+   */
+  public Histogram intervalLatencyHistogram(final Operation operation) {
+    checkNotNull(operation);
+    return this.intervalLatencies.get(operation).getIntervalHistogram();
+  }
+
+  /**
+   * Gets a snapshot of the latency histogram for a given operation type and request phase, covering
+   * all operations recorded since this instance was created. Values are in microseconds.
+   * 
+   * @param operation the operation type of the histogram to get
+   * @param phase the request phase of the histogram to get
+   * @return a copy of the cumulative phase latency histogram
+   */
+  public Histogram phaseLatencyHistogram(final Operation operation, final RequestPhase phase) {
+    checkNotNull(operation);
+    checkNotNull(phase);
+    return this.phaseLatencies.get(operation).get(phase).copy();
+  }
+
+  /**
+   * Gets the latency histogram for a given operation type and request phase, covering operations
+   * recorded since the previous call to this method for that operation type and phase. Values are
+   * in microseconds.
+   * 
+   * @param operation the operation type of the histogram to get
+   * @param phase the request phase of the histogram to get
+   * @return the interval phase latency histogram
+   * @see #intervalLatencyHistogram(Operation)
+   */
+  public Histogram intervalPhaseLatencyHistogram(final Operation operation,
+      final RequestPhase phase) {
+    checkNotNull(operation);
+    checkNotNull(phase);
+    return this.intervalPhaseLatencies.get(operation).get(phase).getIntervalHistogram();
+  }
+
   @Override
   public String toString() {
     return "Statistics []";
@@ -13,7 +13,9 @@ import static org.mockito.Mockito.when;
 import java.util.List;
 import java.util.Map.Entry;
 
+import com.ibm.og.api.RequestPhase;
 import com.ibm.og.api.RequestTimestamps;
+import org.HdrHistogram.Histogram;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -168,6 +170,92 @@ public class StatisticsTest {
     this.stats.get(Operation.WRITE, null);
   }
 
+  @Test
+  public void latencyHistogram() {
+    this.stats.update(this.operation);
+    this.stats.update(this.operation);
+    final Histogram histogram = this.stats.latencyHistogram(Operation.WRITE);
+
+    assertThat(histogram.getTotalCount(), is(2L));
+    assertThat(histogram.getValueAtPercentile(99.0), is(17L));
+    assertThat(histogram.getMaxValue(), is(17L));
+    assertThat(this.stats.latencyHistogram(Operation.READ).getTotalCount(), is(0L));
+  }
+
+  @Test
+  public void latencyHistogramIsSnapshot() {
+    this.stats.update(this.operation);
+    final Histogram histogram = this.stats.latencyHistogram(Operation.WRITE);
+    this.stats.update(this.operation);
+
+    assertThat(histogram.getTotalCount(), is(1L));
+    assertThat(this.stats.latencyHistogram(Operation.WRITE).getTotalCount(), is(2L));
+  }
+
+  @Test
+  public void intervalLatencyHistogram() {
+    this.stats.update(this.operation);
+    this.stats.update(this.operation);
+    assertThat(this.stats.intervalLatencyHistogram(Operation.WRITE).getTotalCount(), is(2L));
+
+    this.stats.update(this.operation);
+    final Histogram interval = this.stats.intervalLatencyHistogram(Operation.WRITE);
+    assertThat(interval.getTotalCount(), is(1L));
+    assertThat(interval.getMaxValue(), is(17L));
+    assertThat(this.stats.intervalLatencyHistogram(Operation.WRITE).getTotalCount(), is(0L));
+    // cumulative histogram is unaffected by interval snapshots
+    assertThat(this.stats.latencyHistogram(Operation.WRITE).getTotalCount(), is(3L));
+  }
+
+  @Test
+  public void phaseLatencyHistogram() {
+    final RequestTimestamps timestamps = this.response.getRequestTimestamps();
+    timestamps.intendedStart = 960000;
+    timestamps.start = 1000000;
+    timestamps.requestContentStart = timestamps.start + 1000;
+    timestamps.requestContentFinish = timestamps.start + 1000000;
+    timestamps.finish = timestamps.start + 2000000;
+    this.stats.update(this.operation);
+
+    // values are recorded in microseconds
+    assertThat(phaseMax(RequestPhase.REQUEST_CONTENT), is(999L));
+    assertThat(phaseMax(RequestPhase.CLOSE_LATENCY), is(1000L));
+    assertThat(phaseMax(RequestPhase.TOTAL), is(2000L));
+    assertThat(phaseMax(RequestPhase.SCHEDULE_DELAY), is(40L));
+    assertThat(phaseMax(RequestPhase.RESPONSE_TIME), is(2040L));
+    // no response body, so these phases are not recorded
+    assertThat(this.stats.phaseLatencyHistogram(Operation.WRITE, RequestPhase.TTFB).getTotalCount(),
+        is(0L));
+    assertThat(this.stats
+        .phaseLatencyHistogram(Operation.WRITE, RequestPhase.RESPONSE_CONTENT).getTotalCount(),
+        is(0L));
+
+    final Histogram interval =
+        this.stats.intervalPhaseLatencyHistogram(Operation.WRITE, RequestPhase.TOTAL);
+    assertThat(interval.getTotalCount(), is(1L));
+    assertThat(this.stats.intervalPhaseLatencyHistogram(Operation.WRITE, RequestPhase.TOTAL)
+        .getTotalCount(), is(0L));
+  }
+
+  private long phaseMax(final RequestPhase phase) {
+    return this.stats.phaseLatencyHistogram(Operation.WRITE, phase).getMaxValue();
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void phaseLatencyHistogramNullPhase() {
+    this.stats.phaseLatencyHistogram(Operation.WRITE, null);
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void latencyHistogramNullOperation() {
+    this.stats.latencyHistogram(null);
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void intervalLatencyHistogramNullOperation() {
+    this.stats.intervalLatencyHistogram(null);
+  }
+
   @DataProvider
   public static Object[][] provideInvalidStatusCode() {
     final Operation operation = Operation.WRITE;
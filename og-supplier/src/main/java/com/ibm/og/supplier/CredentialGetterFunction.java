@@ -14,7 +14,6 @@ import com.ibm.og.util.json.type.CaseInsensitiveEnumTypeAdapterFactory;
 import com.google.common.base.Charsets;
 import com.google.common.base.Function;
 import com.ibm.og.api.AuthType;
-import com.google.common.collect.Iterators;
 import com.google.common.collect.Maps;
 import com.google.common.io.Closer;
 import com.google.gson.FieldNamingPolicy;
@@ -28,10 +27,11 @@ import java.io.InputStreamReader;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.lang.Exception;
-import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
@@ -46,7 +46,9 @@ public class CredentialGetterFunction implements Function<Map<String, String>, C
     private Map<String, Account> accountsMap;
     private Map<String, String> containerAccountMap;
     private Set<Map.Entry<String,Account>> entrySet;
-    private Iterator<Map.Entry<String,Account>> cyclicAccountsIterator;
+    // accounts are handed out in turn, also when called concurrently
+    private List<String> accountNames;
+    private final AtomicLong nextAccount = new AtomicLong();
 
     public CredentialGetterFunction(AuthType authType, File credentialFile, final Api api)
             throws Exception {
@@ -87,8 +89,7 @@ public class CredentialGetterFunction implements Function<Map<String, String>, C
             }
             populateContainerAccountMap();
 
-            Set<Map.Entry<String,Account>> entrySet = accountsMap.entrySet();
-            cyclicAccountsIterator = Iterators.cycle(entrySet);
+            accountNames = ImmutableList.copyOf(accountsMap.keySet());
 
         } catch (NullPointerException e) {
             StringBuffer sb = new StringBuffer().
@@ -123,7 +124,8 @@ public class CredentialGetterFunction implements Function<Map<String, String>, C
         String containerName = context.get(Context.X_OG_CONTAINER_NAME);
         String accountName = containerAccountMap.get(containerName);
         if (accountName == null) {
-            accountName = cyclicAccountsIterator.next().getKey();
+            accountName = accountNames.get(
+                    (int) (nextAccount.getAndIncrement() % accountNames.size()));
         }
         Account account = accountsMap.get(accountName);
         checkNotNull(account);
@@ -10,60 +10,54 @@ import com.google.common.collect.Lists;
 
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 public class RandomPercentageSupplier<T> implements Supplier<T> {
     private final List<RandomPercentageSupplier.Choice<T>> choices;
+    // null when each thread should use its own random instance
     private final Random random;
 
     private static class Choice<S> {
         private final S value;
         private final Supplier<? extends Number> percentage;
-        private double currentPercentage;
 
         private Choice(final S choice, final Supplier<? extends Number> percentage) {
             this.value = choice;
             this.percentage = percentage;
-            this.currentPercentage = 0.0;
         }
     }
     private RandomPercentageSupplier(final RandomPercentageSupplier.Builder<T> builder) {
         this.choices = checkNotNull(builder.choices);
         checkArgument(!this.choices.isEmpty(), "choices must not be empty");
-        this.random = checkNotNull(builder.random);
+        this.random = builder.random;
     }
 
     @Override
     public T get() {
-        final double totalPercent = getCurrentPercents();
-        final double rnd = this.random.nextDouble() * totalPercent;
+        // percentages are sampled once per call into a local array so that concurrent callers do
+        // not see each other's percentages
+        final double[] currentPercents = new double[this.choices.size()];
+        double totalPercent = 0.0;
+        for (int i = 0; i < currentPercents.length; i++) {
+            currentPercents[i] = this.choices.get(i).percentage.get().doubleValue();
+            totalPercent += currentPercents[i];
+        }
+        final Random random = this.random != null ? this.random : ThreadLocalRandom.current();
+        final double rnd = random.nextDouble() * totalPercent;
         double previousPercents = 0.0;
 
-        RandomPercentageSupplier.Choice<T> unUsedChoice = this.choices.get(this.choices.size()-1);
-        for (final RandomPercentageSupplier.Choice<T> choice : this.choices) {
-            if (rnd < previousPercents + choice.currentPercentage) {
-                if (choice.value != null) {
-                    return choice.value;
-                } else {
-                    return null;
-                }
+        for (int i = 0; i < currentPercents.length; i++) {
+            if (rnd < previousPercents + currentPercents[i]) {
+                return this.choices.get(i).value;
             }
-            previousPercents += choice.currentPercentage;
+            previousPercents += currentPercents[i];
         }
         throw new IllegalStateException("Incorrect percentage calculation");
     }
 
-    private double getCurrentPercents() {
-        double currentTotalPercent = 0.0;
-        for (final RandomPercentageSupplier.Choice<T> choice : this.choices) {
-            choice.currentPercentage = choice.percentage.get().doubleValue();
-            currentTotalPercent += choice.currentPercentage;
-        }
-        return currentTotalPercent;
-    }
-
     /**
      * A builder of random choice supplier instances
      *
@@ -80,7 +74,7 @@ public class RandomPercentageSupplier<T> implements Supplier<T> {
          */
         public Builder() {
             this.choices = Lists.newArrayList();
-            this.random = new Random();
+            this.random = null;
         }
 
         /**
@@ -136,7 +130,7 @@ public class RandomPercentageSupplier<T> implements Supplier<T> {
          * @return this builder
          */
         public RandomPercentageSupplier.Builder<T> withRandom(final Random random) {
-            this.random = random;
+            this.random = checkNotNull(random);
             return this;
         }
 
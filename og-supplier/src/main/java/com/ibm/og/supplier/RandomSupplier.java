@@ -10,62 +10,62 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 import com.google.common.base.Supplier;
 import com.google.common.collect.Lists;
 
 /**
- * A supplier which chooses a random value to supply
+ * A supplier which chooses a random value to supply. Instances are thread safe; unless a random
+ * instance is provided, each thread draws from its own {@link ThreadLocalRandom}.
  * 
  * @param <T> the type of values to supply
  * @since 1.0
  */
 public class RandomSupplier<T> implements Supplier<T> {
   private final List<Choice<T>> choices;
+  // null when each thread should use its own random instance
   private final Random random;
 
   private RandomSupplier(final Builder<T> builder) {
     this.choices = checkNotNull(builder.choices);
     checkArgument(!this.choices.isEmpty(), "choices must not be empty");
-    this.random = checkNotNull(builder.random);
+    this.random = builder.random;
   }
 
   private static class Choice<S> {
     private final S value;
     private final Supplier<? extends Number> weight;
-    private double currentWeight;
 
     private Choice(final S choice, final Supplier<? extends Number> weight) {
       this.value = choice;
       this.weight = weight;
-      this.currentWeight = 0.0;
     }
   }
 
   @Override
   public T get() {
-    final double totalWeight = getCurrentWeights();
-    final double rnd = this.random.nextDouble() * totalWeight;
+    // weights may be dynamic; they are sampled once per call into a local array so that
+    // concurrent callers do not see each other's weights
+    final double[] currentWeights = new double[this.choices.size()];
+    double totalWeight = 0.0;
+    for (int i = 0; i < currentWeights.length; i++) {
+      currentWeights[i] = this.choices.get(i).weight.get().doubleValue();
+      totalWeight += currentWeights[i];
+    }
+    final Random random = this.random != null ? this.random : ThreadLocalRandom.current();
+    final double rnd = random.nextDouble() * totalWeight;
     double previousWeights = 0.0;
 
-    for (final Choice<T> choice : this.choices) {
-      if (rnd < previousWeights + choice.currentWeight) {
-        return choice.value;
+    for (int i = 0; i < currentWeights.length; i++) {
+      if (rnd < previousWeights + currentWeights[i]) {
+        return this.choices.get(i).value;
       }
-      previousWeights += choice.currentWeight;
+      previousWeights += currentWeights[i];
     }
     throw new IllegalStateException("Incorrect weight calculation");
   }
 
-  private double getCurrentWeights() {
-    double currentTotalWeight = 0.0;
-    for (final Choice<T> choice : this.choices) {
-      choice.currentWeight = choice.weight.get().doubleValue();
-      currentTotalWeight += choice.currentWeight;
-    }
-    return currentTotalWeight;
-  }
-
   /**
    * A builder of random choice supplier instances
    * 
@@ -80,7 +80,7 @@ public class RandomSupplier<T> implements Supplier<T> {
      */
     public Builder() {
       this.choices = Lists.newArrayList();
-      this.random = new Random();
+      this.random = null;
     }
 
     /**
@@ -125,9 +125,10 @@ public class RandomSupplier<T> implements Supplier<T> {
      * 
      * @param random the random instance to use for value selection
      * @return this builder
+     * @throws NullPointerException if random is null
      */
     public Builder<T> withRandom(final Random random) {
-      this.random = random;
+      this.random = checkNotNull(random);
       return this;
     }
 
@@ -15,8 +15,6 @@ import java.util.List;
 import java.util.Map;
 
 import com.google.common.base.Charsets;
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.LoadingCache;
 import com.google.common.hash.Hasher;
 import com.google.common.hash.Hashing;
 import com.google.common.io.BaseEncoding;
@@ -25,8 +23,7 @@ import com.ibm.og.api.ChecksumType;
 import com.ibm.og.api.Method;
 import com.ibm.og.api.Operation;
 import com.ibm.og.api.Request;
-import com.ibm.og.http.DigestLoader;
-import com.ibm.og.http.MD5DigestLoader;
+import com.ibm.og.http.DigestCaches;
 import com.ibm.og.http.Credential;
 import com.ibm.og.http.HttpRequest;
 import com.ibm.og.http.QueryParameters;
@@ -74,12 +71,7 @@ public class RequestSupplier implements Supplier<Request> {
   private final boolean contentMd5;
 
   private final ChecksumType checksumType;
-  private final LoadingCache<Long, byte[]> md5ContentCache;
-  private final LoadingCache<Long, byte[]> sha1ContentCache;
-  private final LoadingCache<Long, byte[]> sha256ContentCache;
-  private final LoadingCache<Long, byte[]> crc32ContentCache;
-  private final LoadingCache<Long, byte[]> crc32CContentCache;
-  private final LoadingCache<Long, byte[]> crc64NvmeContentCache;
+  private final DigestCaches digestCaches;
   private final Function<Map<String, String>, String> staticWebsiteVirtualHostSuffix;
 
 
@@ -121,6 +113,33 @@ public class RequestSupplier implements Supplier<Request> {
       final boolean contentMd5, final Function<Map<String, String>, String> delimiter,
       final Function<Map<String, String>, String> staticWebsiteVirtualHostSuffix,
                          final ChecksumType checksumType) {
+    this(operation, id, method, scheme, host, port, uriRoot, container, apiVersion, object,
+        queryParameters, trailingSlash, headers, context, sseSourceContext, credentials, body,
+        virtualHost, retention, legalHold, contentMd5, delimiter, staticWebsiteVirtualHostSuffix,
+        checksumType, new DigestCaches(DigestCaches.DEFAULT_MAXIMUM_SIZE));
+  }
+
+  /**
+   * Creates an instance which looks up the digests of zero filled bodies in shared caches
+   *
+   * @param digestCaches caches of {@code Content-MD5} and checksum values by body size
+   */
+  public RequestSupplier(final Operation operation, final Function<Map<String, String>, String> id,
+      final Method method, final Scheme scheme, final Function<Map<String, String>, String> host,
+      final Integer port, final String uriRoot, final Function<Map<String, String>, String> container,
+      final String apiVersion,
+      final Function<Map<String, String>, String> object,
+      final Map<String, Function<Map<String, String>, String>> queryParameters,
+      final boolean trailingSlash, final Map<String, Function<Map<String, String>, String>> headers,
+      final List<Function<Map<String, String>, String>> context,
+      final List<Function<Map<String, String>, String>> sseSourceContext,
+      final Function<Map<String, String>, Credential> credentials,
+      final Function<Map<String, String>, Body> body, final boolean virtualHost,
+      final Function<Map<String, String>, Long> retention,
+      final Supplier<Function<Map<String, String>, String>> legalHold,
+      final boolean contentMd5, final Function<Map<String, String>, String> delimiter,
+      final Function<Map<String, String>, String> staticWebsiteVirtualHostSuffix,
+      final ChecksumType checksumType, final DigestCaches digestCaches) {
 
     this.id = id;
     this.method = checkNotNull(method);
@@ -146,12 +165,7 @@ public class RequestSupplier implements Supplier<Request> {
     this.contentMd5 = contentMd5;
     this.checksumType = checksumType;
     this.staticWebsiteVirtualHostSuffix = staticWebsiteVirtualHostSuffix;
-    this.md5ContentCache = CacheBuilder.newBuilder().maximumSize(100).build(new MD5DigestLoader());
-    this.sha1ContentCache = CacheBuilder.newBuilder().maximumSize(100).build(new DigestLoader(ChecksumType.SHA1));
-    this.sha256ContentCache = CacheBuilder.newBuilder().maximumSize(100).build(new DigestLoader(ChecksumType.SHA256));
-    this.crc32ContentCache = CacheBuilder.newBuilder().maximumSize(100).build(new DigestLoader(ChecksumType.CRC32));
-    this.crc32CContentCache = CacheBuilder.newBuilder().maximumSize(100).build(new DigestLoader(ChecksumType.CRC32C));
-    this.crc64NvmeContentCache = CacheBuilder.newBuilder().maximumSize(100).build(new DigestLoader(ChecksumType.CRC64NVME));
+    this.digestCaches = checkNotNull(digestCaches);
 
     checkArgument(!(this.container == null && this.object != null));
   }
@@ -283,7 +297,7 @@ public class RequestSupplier implements Supplier<Request> {
                             .putString(body.getContent(), Charsets.UTF_8).hash().asBytes()));
           }
           else {
-            md5 = md5ContentCache.get(size);
+            md5 = this.digestCaches.get(ChecksumType.MD5).get(size);
             builder.withHeader(Context.X_OG_CONTENT_MD5, BaseEncoding.base64().encode(md5));
           }
 
@@ -299,19 +313,19 @@ public class RequestSupplier implements Supplier<Request> {
             Long size = body.getSize();
             if (this.checksumType == checksumType.SHA1) {
               builder.withHeader(Context.X_OG_AMZ_CHECKSUM_SHA1, BaseEncoding.base64().encode(
-                      sha1ContentCache.get(size)));
+                      this.digestCaches.get(ChecksumType.SHA1).get(size)));
             } else if (this.checksumType == checksumType.SHA256) {
               builder.withHeader(Context.X_OG_AMZ_CHECKSUM_SHA256, BaseEncoding.base64().encode(
-                      sha256ContentCache.get(size)));
+                      this.digestCaches.get(ChecksumType.SHA256).get(size)));
             } else if (this.checksumType == checksumType.CRC32) {
               builder.withHeader(Context.X_OG_AMZ_CHECKSUM_CRC32, BaseEncoding.base64().encode(
-                      crc32ContentCache.get(size)));
+                      this.digestCaches.get(ChecksumType.CRC32).get(size)));
             } else if (this.checksumType == checksumType.CRC32C) {
               builder.withHeader(Context.X_OG_AMZ_CHECKSUM_CRC32C, BaseEncoding.base64().encode(
-                      crc32CContentCache.get(size)));
+                      this.digestCaches.get(ChecksumType.CRC32C).get(size)));
             } else if (this.checksumType == checksumType.CRC64NVME) {
               builder.withHeader(Context.X_OG_AMZ_CHECKSUM_CRC64NVME, BaseEncoding.base64().encode(
-                      crc64NvmeContentCache.get(size)));
+                      this.digestCaches.get(ChecksumType.CRC64NVME).get(size)));
             }
           } catch (Exception e) {
             _logger.error(e.getMessage());
@@ -8,13 +8,12 @@ package com.ibm.og.supplier;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
-import java.util.Iterator;
 import java.util.List;
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
 
 import com.google.common.base.Supplier;
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.Iterators;
 
 /**
  * A utility class for creating supplier instances
@@ -56,11 +55,12 @@ public class Suppliers {
   public static <T> Supplier<T> cycle(final List<T> values) {
     final List<T> copy = ImmutableList.copyOf(values);
     checkArgument(!copy.isEmpty(), "values must not be empty");
-    final Iterator<T> it = Iterators.cycle(copy);
+    // an atomic position, so that concurrent callers still step through the cycle in turn
+    final AtomicLong position = new AtomicLong();
     return new Supplier<T>() {
       @Override
       public T get() {
-        return it.next();
+        return copy.get((int) (position.getAndIncrement() % copy.size()));
       }
 
       @Override
@@ -81,17 +81,18 @@ public class Suppliers {
         maxValue);
 
     return new Supplier<Long>() {
-      // FIXME simplify this implementation
-      long currentValue = minValue - 1;
+      private final AtomicLong position = new AtomicLong();
 
       @Override
       public Long get() {
-        this.currentValue = (this.currentValue + 1) % (maxValue + 1);
-        if (this.currentValue == 0) {
-          this.currentValue = minValue;
+        // an atomic position, so that concurrent callers still step through the cycle in turn;
+        // a range spanning every non-negative long must not overflow
+        final long range = maxValue - minValue;
+        final long offset = this.position.getAndIncrement();
+        if (range == Long.MAX_VALUE) {
+          return offset & Long.MAX_VALUE;
         }
-
-        return this.currentValue;
+        return minValue + offset % (range + 1);
       }
 
       @Override
@@ -119,12 +120,12 @@ public class Suppliers {
     checkArgument(minValue >= 0, "minValue must be >= 0 [%s]", minValue);
     checkArgument(minValue <= maxValue, "minValue must be <= maxValue, [%s, %s]", minValue,
         maxValue);
-    final Random random = new Random();
     return new Supplier<Long>() {
 
       @Override
       public Long get() {
-        return minValue + Math.round(random.nextDouble() * (maxValue - minValue));
+        return minValue
+            + Math.round(ThreadLocalRandom.current().nextDouble() * (maxValue - minValue));
       }
 
       @Override
@@ -8,13 +8,18 @@ package com.ibm.og.supplier;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.junit.Test;
 
 import com.google.common.base.Supplier;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 
 public class RandomSupplierTest {
@@ -71,4 +76,35 @@ public class RandomSupplierTest {
       assertThat(count, greaterThan(0));
     }
   }
+
+  @Test
+  public void dynamicWeightsConcurrently() throws InterruptedException {
+    // weights which change on every call; each caller chooses using the weights it sampled
+    final Supplier<Integer> s = new RandomSupplier.Builder<Integer>()
+        .withChoice(1, Suppliers.cycle(ImmutableList.of(1.0, 1000000.0)))
+        .withChoice(2, Suppliers.cycle(ImmutableList.of(1000000.0, 1.0))).build();
+    final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+    final List<Thread> threads = Lists.newArrayList();
+    for (int i = 0; i < 4; i++) {
+      threads.add(new Thread(new Runnable() {
+        @Override
+        public void run() {
+          try {
+            for (int j = 0; j < 10000; j++) {
+              s.get();
+            }
+          } catch (final Throwable t) {
+            failure.set(t);
+          }
+        }
+      }));
+    }
+    for (final Thread thread : threads) {
+      thread.start();
+    }
+    for (final Thread thread : threads) {
+      thread.join();
+    }
+    assertThat(failure.get(), nullValue());
+  }
 }
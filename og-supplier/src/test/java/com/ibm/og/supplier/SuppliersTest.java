@@ -9,12 +9,15 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
 
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.junit.Test;
 
 import com.google.common.base.Supplier;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
 
 public class SuppliersTest {
   @Test(expected = NullPointerException.class)
@@ -99,6 +102,31 @@ public class SuppliersTest {
     assertThat(cycle.get(), is(1L));
   }
 
+  @Test
+  public void cycleConcurrently() throws InterruptedException {
+    // each value in the range is supplied exactly once when the threads together take one cycle
+    final Supplier<Long> cycle = Suppliers.cycle(0, 399999);
+    final Set<Long> values = Sets.newSetFromMap(new ConcurrentHashMap<Long, Boolean>());
+    final List<Thread> threads = Lists.newArrayList();
+    for (int i = 0; i < 4; i++) {
+      threads.add(new Thread(new Runnable() {
+        @Override
+        public void run() {
+          for (int j = 0; j < 100000; j++) {
+            values.add(cycle.get());
+          }
+        }
+      }));
+    }
+    for (final Thread thread : threads) {
+      thread.start();
+    }
+    for (final Thread thread : threads) {
+      thread.join();
+    }
+    assertThat(values.size(), is(400000));
+  }
+
   @Test(expected = IllegalArgumentException.class)
   public void randomNegativeMinValue() {
     Suppliers.random(-1, 100);
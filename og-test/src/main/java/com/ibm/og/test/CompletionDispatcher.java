@@ -0,0 +1,105 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.test;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.ibm.og.api.CompletionListener;
+import com.ibm.og.api.Operation;
+import com.ibm.og.api.Request;
+import com.ibm.og.api.Response;
+
+/**
+ * A dispatcher of completed operations to {@code CompletionListener} instances. Listeners are
+ * indexed by operation type at registration, so dispatching a completed operation only visits the
+ * listeners for that operation type. Dispatch does not acquire any locks; operations completed
+ * concurrently are delivered to listeners concurrently.
+ * <p>
+ * Listeners are notified in registration order. Registering the same listener more than once has
+ * no effect. An exception thrown by a listener is handed to the configured exception handler, which
+ * aborts the load test, and does not prevent subsequent listeners from being notified.
+ * 
+ * @since 1.0
+ */
+public class CompletionDispatcher {
+  private static final Logger _logger = LoggerFactory.getLogger(CompletionDispatcher.class);
+  private final LoadTestSubscriberExceptionHandler handler;
+  private final Map<Operation, Set<CompletionListener>> listeners;
+
+  /**
+   * Creates an instance
+   * 
+   * @param handler the handler to notify when a listener throws an exception
+   * @throws NullPointerException if handler is null
+   */
+  public CompletionDispatcher(final LoadTestSubscriberExceptionHandler handler) {
+    this.handler = checkNotNull(handler);
+    this.listeners = new EnumMap<Operation, Set<CompletionListener>>(Operation.class);
+    for (final Operation operation : Operation.values()) {
+      this.listeners.put(operation, new CopyOnWriteArraySet<CompletionListener>());
+    }
+  }
+
+  /**
+   * Registers a listener for the operation types it declares
+   * 
+   * @param listener the listener to register
+   * @throws NullPointerException if listener is null
+   */
+  public void register(final CompletionListener listener) {
+    checkNotNull(listener);
+    for (final Operation operation : checkNotNull(listener.operations())) {
+      this.listeners.get(operation).add(listener);
+    }
+    _logger.debug("Registered completion listener {} for {}", listener, listener.operations());
+  }
+
+  /**
+   * Notifies all listeners registered for the operation type of a completed operation
+   * 
+   * @param request the request which was executed
+   * @param response the response for request
+   * @throws NullPointerException if request or response is null
+   */
+  public void dispatch(final Request request, final Response response) {
+    checkNotNull(request);
+    checkNotNull(response);
+    for (final CompletionListener listener : this.listeners.get(request.getOperation())) {
+      try {
+        listener.complete(request, response);
+      } catch (final RuntimeException e) {
+        this.handler.handleException(e);
+      }
+    }
+  }
+
+  /**
+   * Waits until all previously dispatched operations have been delivered to listeners. Dispatch is
+   * synchronous, so this implementation returns immediately; subclasses which deliver operations
+   * asynchronously must override it.
+   *
+   * @param timeout maximum time to wait
+   * @param unit the unit of timeout
+   * @return true if all operations were delivered, false if the timeout elapsed first
+   */
+  public boolean shutdown(final long timeout, final TimeUnit unit) {
+    return true;
+  }
+
+  @Override
+  public String toString() {
+    return "CompletionDispatcher []";
+  }
+}
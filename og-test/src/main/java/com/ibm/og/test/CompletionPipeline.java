@@ -0,0 +1,299 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.test;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.ibm.og.api.CompletionListener;
+import com.ibm.og.api.Request;
+import com.ibm.og.api.Response;
+import com.ibm.og.statistic.Statistics;
+import com.ibm.og.test.condition.TestCondition;
+import com.lmax.disruptor.BlockingWaitStrategy;
+import com.lmax.disruptor.EventFactory;
+import com.lmax.disruptor.EventHandler;
+import com.lmax.disruptor.ExceptionHandler;
+import com.lmax.disruptor.InsufficientCapacityException;
+import com.lmax.disruptor.RingBuffer;
+import com.lmax.disruptor.TimeoutException;
+import com.lmax.disruptor.dsl.Disruptor;
+import com.lmax.disruptor.dsl.ProducerType;
+
+/**
+ * A completion dispatcher which hands completed operations to a pre-allocated, multi-producer ring
+ * buffer rather than notifying listeners on the calling thread. Each {@link Stage} drains the ring
+ * buffer on its own consumer thread and notifies the listeners assigned to it, so the thread which
+ * completed the operation returns as soon as the operation is published.
+ * <p>
+ * Statistics and object manager listeners are notified concurrently; test condition listeners are
+ * notified only after the statistics stage has processed an operation, so conditions which consult
+ * statistics observe it. Once every stage has processed an operation its slot drops the request
+ * and response, so a slot does not keep a completed operation reachable until the ring buffer
+ * wraps. When the ring buffer is full, dispatch blocks until the slowest stage frees a slot.
+ *
+ * @since 1.0
+ */
+public class CompletionPipeline extends CompletionDispatcher {
+  private static final Logger _logger = LoggerFactory.getLogger(CompletionPipeline.class);
+
+  /**
+   * A consumer stage of the pipeline
+   */
+  public enum Stage {
+    /** {@code Statistics} listeners */
+    STATISTICS,
+    /** listeners which update the object manager or other request suppliers */
+    OBJECTS,
+    /** {@code TestCondition} listeners, notified after the statistics stage */
+    CONDITIONS
+  }
+
+  private final LoadTestSubscriberExceptionHandler handler;
+  private final Map<Stage, CompletionDispatcher> stages;
+  private final Map<Stage, StageHandler> handlers;
+  private final Disruptor<CompletionEvent> disruptor;
+  private final RingBuffer<CompletionEvent> ringBuffer;
+  private final AtomicLong stalls;
+  private volatile boolean running;
+
+  /**
+   * Creates and starts an instance
+   *
+   * @param handler the handler to notify when a listener throws an exception
+   * @param bufferSize the number of slots in the ring buffer, must be a power of 2
+   * @throws NullPointerException if handler is null
+   * @throws IllegalArgumentException if bufferSize is not a positive power of 2
+   */
+  public CompletionPipeline(final LoadTestSubscriberExceptionHandler handler,
+      final int bufferSize) {
+    super(handler);
+    this.handler = handler;
+    checkArgument(bufferSize > 0 && Integer.bitCount(bufferSize) == 1,
+        "bufferSize must be a positive power of 2 [%s]", bufferSize);
+    this.stages = new EnumMap<Stage, CompletionDispatcher>(Stage.class);
+    this.handlers = new EnumMap<Stage, StageHandler>(Stage.class);
+    for (final Stage stage : Stage.values()) {
+      final CompletionDispatcher dispatcher = new CompletionDispatcher(handler);
+      this.stages.put(stage, dispatcher);
+      this.handlers.put(stage, new StageHandler(dispatcher));
+    }
+    this.stalls = new AtomicLong();
+
+    final ThreadFactory threadFactory =
+        new ThreadFactoryBuilder().setNameFormat("completion-pipeline-%d").setDaemon(true).build();
+    this.disruptor = new Disruptor<CompletionEvent>(CompletionEvent.FACTORY, bufferSize,
+        threadFactory, ProducerType.MULTI, new BlockingWaitStrategy());
+    this.disruptor.setDefaultExceptionHandler(new PipelineExceptionHandler());
+    this.disruptor.handleEventsWith(this.handlers.get(Stage.STATISTICS),
+        this.handlers.get(Stage.OBJECTS));
+    this.disruptor.after(this.handlers.get(Stage.STATISTICS))
+        .handleEventsWith(this.handlers.get(Stage.CONDITIONS));
+    this.disruptor.after(this.handlers.get(Stage.OBJECTS), this.handlers.get(Stage.CONDITIONS))
+        .handleEventsWith(new ReleaseHandler());
+    this.ringBuffer = this.disruptor.start();
+    this.running = true;
+  }
+
+  /**
+   * Registers a listener with the stage responsible for its type
+   *
+   * @param listener the listener to register
+   * @throws NullPointerException if listener is null
+   */
+  @Override
+  public void register(final CompletionListener listener) {
+    checkNotNull(listener);
+    this.stages.get(stageOf(listener)).register(listener);
+  }
+
+  private static Stage stageOf(final CompletionListener listener) {
+    if (listener instanceof Statistics) {
+      return Stage.STATISTICS;
+    }
+    if (listener instanceof TestCondition) {
+      return Stage.CONDITIONS;
+    }
+    return Stage.OBJECTS;
+  }
+
+  /**
+   * Publishes a completed operation to the ring buffer, blocking while the ring buffer is full. Once
+   * this pipeline has been shut down, listeners are instead notified on the calling thread.
+   *
+   * @param request the request which was executed
+   * @param response the response for request
+   * @throws NullPointerException if request or response is null
+   */
+  @Override
+  public void dispatch(final Request request, final Response response) {
+    checkNotNull(request);
+    checkNotNull(response);
+    if (!this.running) {
+      for (final Stage stage : Stage.values()) {
+        this.stages.get(stage).dispatch(request, response);
+      }
+      return;
+    }
+
+    long sequence;
+    try {
+      sequence = this.ringBuffer.tryNext();
+    } catch (final InsufficientCapacityException e) {
+      this.stalls.incrementAndGet();
+      sequence = this.ringBuffer.next();
+    }
+    try {
+      final CompletionEvent event = this.ringBuffer.get(sequence);
+      event.request = request;
+      event.response = response;
+    } finally {
+      this.ringBuffer.publish(sequence);
+    }
+  }
+
+  /**
+   * Waits until every published operation has been processed by all stages, then stops the
+   * consumer threads. Operations dispatched after this method returns are delivered on the
+   * dispatching thread.
+   *
+   * @param timeout maximum time to wait
+   * @param unit the unit of timeout
+   * @return true if all published operations were processed, false if the timeout elapsed first
+   */
+  @Override
+  public boolean shutdown(final long timeout, final TimeUnit unit) {
+    checkNotNull(unit);
+    boolean drained = true;
+    try {
+      this.disruptor.shutdown(timeout, unit);
+    } catch (final TimeoutException e) {
+      _logger.warn("Timed out draining completion pipeline, {} operations unprocessed",
+          queueDepth());
+      this.disruptor.halt();
+      drained = false;
+    }
+    this.running = false;
+    _logger.info("Completion pipeline shutdown {}", metrics());
+    return drained;
+  }
+
+  /**
+   * Returns the number of published operations which have not yet been processed by every stage
+   *
+   * @return the current queue depth
+   */
+  public long queueDepth() {
+    return this.ringBuffer.getBufferSize() - this.ringBuffer.remainingCapacity();
+  }
+
+  /**
+   * Returns the number of published operations which have not yet been processed by a stage
+   *
+   * @param stage the stage to query
+   * @return the current lag of stage
+   * @throws NullPointerException if stage is null
+   */
+  public long lag(final Stage stage) {
+    checkNotNull(stage);
+    final long processed = this.disruptor.getSequenceValueFor(this.handlers.get(stage));
+    return Math.max(0, this.ringBuffer.getCursor() - processed);
+  }
+
+  /**
+   * Returns the number of dispatches which found the ring buffer full and had to wait
+   *
+   * @return the number of stalled dispatches
+   */
+  public long stalls() {
+    return this.stalls.get();
+  }
+
+  /**
+   * Returns a point in time snapshot of this pipeline's metrics, suitable for logging
+   *
+   * @return a description of the queue depth, per stage lag and stall count
+   */
+  public String metrics() {
+    final Map<Stage, Long> lag = new EnumMap<Stage, Long>(Stage.class);
+    for (final Stage stage : Stage.values()) {
+      lag.put(stage, lag(stage));
+    }
+    return String.format("[queueDepth=%s, bufferSize=%s, lag=%s, stalls=%s]", queueDepth(),
+        this.ringBuffer.getBufferSize(), lag, stalls());
+  }
+
+  @Override
+  public String toString() {
+    return String.format("CompletionPipeline [bufferSize=%s]", this.ringBuffer.getBufferSize());
+  }
+
+  private static class CompletionEvent {
+    static final EventFactory<CompletionEvent> FACTORY = new EventFactory<CompletionEvent>() {
+      @Override
+      public CompletionEvent newInstance() {
+        return new CompletionEvent();
+      }
+    };
+
+    Request request;
+    Response response;
+  }
+
+  private static class StageHandler implements EventHandler<CompletionEvent> {
+    private final CompletionDispatcher dispatcher;
+
+    StageHandler(final CompletionDispatcher dispatcher) {
+      this.dispatcher = dispatcher;
+    }
+
+    @Override
+    public void onEvent(final CompletionEvent event, final long sequence,
+        final boolean endOfBatch) {
+      this.dispatcher.dispatch(event.request, event.response);
+    }
+  }
+
+  // runs after the last stage so that a slot does not retain its request and response
+  private static class ReleaseHandler implements EventHandler<CompletionEvent> {
+    @Override
+    public void onEvent(final CompletionEvent event, final long sequence,
+        final boolean endOfBatch) {
+      event.request = null;
+      event.response = null;
+    }
+  }
+
+  // listener exceptions are handled by each stage's dispatcher; this only sees errors, which must
+  // not terminate a consumer thread and leave producers blocked on a full ring buffer
+  private class PipelineExceptionHandler implements ExceptionHandler<CompletionEvent> {
+    @Override
+    public void handleEventException(final Throwable ex, final long sequence,
+        final CompletionEvent event) {
+      CompletionPipeline.this.handler.handleException(ex);
+    }
+
+    @Override
+    public void handleOnStartException(final Throwable ex) {
+      _logger.error("Exception starting completion pipeline", ex);
+    }
+
+    @Override
+    public void handleOnShutdownException(final Throwable ex) {
+      _logger.error("Exception stopping completion pipeline", ex);
+    }
+  }
+}
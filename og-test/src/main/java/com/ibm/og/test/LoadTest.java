@@ -5,11 +5,17 @@
 
 package com.ibm.og.test;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -23,7 +29,6 @@ import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.ListeningExecutorService;
 import com.google.common.util.concurrent.MoreExecutors;
-import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.common.util.concurrent.Uninterruptibles;
 import com.ibm.og.http.HttpResponse;
 import com.ibm.og.scheduling.Scheduler;
@@ -33,9 +38,10 @@ import org.slf4j.LoggerFactory;
 
 import com.ibm.og.api.Client;
 import com.ibm.og.api.Request;
+import com.ibm.og.api.RequestTimestamps;
 import com.ibm.og.api.Response;
-import com.ibm.og.util.Pair;
 import com.ibm.og.util.TestState;
+import com.ibm.og.util.ThreadPools;
 import com.google.common.eventbus.EventBus;
 
 /**
@@ -51,8 +57,12 @@ public class   LoadTest implements Callable<LoadTestResult> {
   private final RequestManager requestManager;
   private final Client client;
   private final Scheduler scheduler;
-  private final Thread schedulerThread;
+  private final List<Thread> schedulerThreads;
+  // producers hold the read lock while handing a request to the client, shutdown takes the write
+  // lock so that the client and callback executor are not shut down under a producer
+  private final ReadWriteLock submitLock;
   private final EventBus eventBus;
+  private final CompletionDispatcher dispatcher;
   private final boolean abortMpuWhenStopping;
   private final boolean shutdownImmediate;
   private final int shutdownTimeout;
@@ -62,8 +72,11 @@ public class   LoadTest implements Callable<LoadTestResult> {
   private volatile int result;
   private final AtomicBoolean noMoreRequests;
   private final CountDownLatch completed;
+  // runs response callbacks for the synchronous dispatcher, null when completions are published
+  // to a completion pipeline
   private final ListeningExecutorService executorService;
-  private ArrayList<String> messages;
+  private final Executor callbackExecutor;
+  private final List<String> messages;
 
   public static final int RESULT_SUCCESS = 0;
   public static final int RESULT_FAILURE = -1;
@@ -75,23 +88,41 @@ public class   LoadTest implements Callable<LoadTestResult> {
    * @param client a request executor
    * @param scheduler a scheduler which determines request rate
    * @param eventBus an event bus for notifying components of events in the system
+   * @param dispatcher a dispatcher for notifying components of completed operations
    * @param shutdownImmediate if true, abort all in-progress requests at shutdown,
    *        else wait for all current requests to finish and shutdown
    * @param shutdownTimeout time in seconds to wait for requests to gracefully complete
-   * @throws NullPointerException if requestSupplier, client, scheduler, or eventBus are null
+   * @param abortMpuWhenStopping if true, abort in-progress multipart uploads at shutdown
+   * @param virtualThreads if true, run response callbacks on virtual threads when supported; not
+   *        used when dispatcher is a {@code CompletionPipeline}
+   * @param producerThreads the number of threads which wait on the scheduler and execute requests;
+   *        each thread creates its own requests concurrently with the others
+   * @throws NullPointerException if requestSupplier, client, scheduler, eventBus, or dispatcher are
+   *         null
+   * @throws IllegalArgumentException if producerThreads is less than 1
    */
   @Inject
   public LoadTest(final RequestManager requestManager, final Client client,
-      final Scheduler scheduler, final EventBus eventBus,
+      final Scheduler scheduler, final EventBus eventBus, final CompletionDispatcher dispatcher,
       @Named("shutdownImmediate") final boolean shutdownImmediate,
       @Named("shutdownTimeout") final int shutdownTimeout,
-      @Named("abortMpuWhenStopping") final boolean abortMpuWhenStopping) {
+      @Named("abortMpuWhenStopping") final boolean abortMpuWhenStopping,
+      @Named("virtualThreads") final boolean virtualThreads,
+      @Named("producerThreads") final int producerThreads) {
     this.requestManager = checkNotNull(requestManager);
     this.client = checkNotNull(client);
     this.scheduler = checkNotNull(scheduler);
-    this.schedulerThread = new Thread(new SchedulerRunnable(), "loadtest-scheduler");
-    this.schedulerThread.setDaemon(true);
+    checkArgument(producerThreads > 0, "producerThreads must be > 0 [%s]", producerThreads);
+    this.schedulerThreads = new ArrayList<Thread>(producerThreads);
+    for (int i = 0; i < producerThreads; i++) {
+      final String name = producerThreads == 1 ? "loadtest-scheduler" : "loadtest-scheduler-" + i;
+      final Thread schedulerThread = new Thread(new SchedulerRunnable(), name);
+      schedulerThread.setDaemon(true);
+      this.schedulerThreads.add(schedulerThread);
+    }
+    this.submitLock = new ReentrantReadWriteLock();
     this.eventBus = checkNotNull(eventBus);
+    this.dispatcher = checkNotNull(dispatcher);
     this.abortMpuWhenStopping = abortMpuWhenStopping;
     this.shutdownImmediate = shutdownImmediate;
     this.shutdownTimeout = shutdownTimeout;
@@ -99,9 +130,17 @@ public class   LoadTest implements Callable<LoadTestResult> {
     this.noMoreRequests = new AtomicBoolean(false);
     this.result = RESULT_SUCCESS;
     this.completed = new CountDownLatch(1);
-    this.messages =  new ArrayList<String>();
-    final ThreadFactory fac = new ThreadFactoryBuilder().setNameFormat("clientCallback-%d").build();
-    this.executorService = MoreExecutors.listeningDecorator(Executors.newCachedThreadPool(fac));
+    this.messages = Collections.synchronizedList(new ArrayList<String>());
+    if (dispatcher instanceof CompletionPipeline) {
+      // publishing to the pipeline only claims a ring buffer slot, so completions are published
+      // straight from the client's completion thread rather than handed to another thread first
+      this.executorService = null;
+      this.callbackExecutor = MoreExecutors.directExecutor();
+    } else {
+      this.executorService = MoreExecutors
+          .listeningDecorator(ThreadPools.newCachedThreadPool("clientCallback-%d", virtualThreads));
+      this.callbackExecutor = this.executorService;
+    }
   }
 
   private class SchedulerRunnable implements Runnable {
@@ -109,7 +148,7 @@ public class   LoadTest implements Callable<LoadTestResult> {
     public void run() {
       try {
         while (LoadTest.this.running.get()) {
-          LoadTest.this.scheduler.schedule();
+          final long intendedStart = LoadTest.this.scheduler.schedule();
           if (LoadTest.this.noMoreRequests.get()) {
             stopScheduler();
           }
@@ -120,10 +159,16 @@ public class   LoadTest implements Callable<LoadTestResult> {
               // RequestManager.get() could block (in case of Multipart supplier) and when it returns the test may be stopped and client could be shutdown.
               // We cannot submit a new request if client is shutdown. So check again to make sure that the test is
               // still running.
-              if (LoadTest.this.running.get()) {
-                final ListenableFuture<Response> future = LoadTest.this.client.execute(request);
-                LoadTest.this.eventBus.post(request);
-                addCallback(request, future);
+              final Lock submit = LoadTest.this.submitLock.readLock();
+              submit.lock();
+              try {
+                if (LoadTest.this.running.get()) {
+                  final ListenableFuture<Response> future = LoadTest.this.client.execute(request);
+                  LoadTest.this.eventBus.post(request);
+                  addCallback(request, future, intendedStart);
+                }
+              } finally {
+                submit.unlock();
               }
             } catch(NoMoreRequestsException nre) {
               _logger.info("NoMoreRequestsException thrown. All requests are cleanly aborted");
@@ -153,8 +198,10 @@ public class   LoadTest implements Callable<LoadTestResult> {
     _logger.debug("Posting TestState.RUNNING to event bus");
     this.eventBus.post(TestState.RUNNING);
 
-    _logger.debug("Starting scheduler thread");
-    this.schedulerThread.start();
+    _logger.debug("Starting scheduler threads");
+    for (final Thread schedulerThread : this.schedulerThreads) {
+      schedulerThread.start();
+    }
 
     _logger.debug("Waiting for test complete");
     Uninterruptibles.awaitUninterruptibly(this.completed);
@@ -195,6 +242,12 @@ public class   LoadTest implements Callable<LoadTestResult> {
             _logger.debug("Posting TestState.STOPPING to event bus");
             LoadTest.this.eventBus.post(TestState.STOPPING);
 
+            // wait for producers which saw the test still running to finish submitting; any later
+            // producer sees that it has stopped
+            _logger.debug("Waiting for producers to finish submitting requests");
+            LoadTest.this.submitLock.writeLock().lock();
+            LoadTest.this.submitLock.writeLock().unlock();
+
             _logger.debug("Waiting on client shutdown future");
             Integer result = Uninterruptibles.getUninterruptibly(
                     LoadTest.this.client.shutdown(LoadTest.this.shutdownImmediate, LoadTest.this.shutdownTimeout));
@@ -211,18 +264,25 @@ public class   LoadTest implements Callable<LoadTestResult> {
           } catch (final Exception e) {
             _logger.error("Exception while attempting to shutdown client", e);
           }
+          try {
+            // After terminating the client, shut down the executor service for handling http
+            // response callbacks and deliver completions still queued for listeners before the
+            // test is reported complete; 5 seconds should be enough for any callback events
+            // processing to finish
+            if (LoadTest.this.executorService != null) {
+              LoadTest.this.executorService.shutdown();
+              LoadTest.this.executorService.awaitTermination(5, TimeUnit.SECONDS);
+            }
+            if (!LoadTest.this.dispatcher.shutdown(5, TimeUnit.SECONDS)) {
+              _logger.warn("Not all completed operations were delivered to listeners");
+            }
+          } catch (final InterruptedException e) {
+            _logger.warn("loadtest-shutdown Thread interrupted while delivering completed operations");
+          }
           LoadTest.this.completed.countDown();
         }
       }.start();
     }
-    // After terminating ApacheClient, start shutting down the executor service for handling http response callbacks
-    this.executorService.shutdown();
-    try {
-      // 5 seconds should be enough for any callback events processing to finish
-      this.executorService.awaitTermination(5, TimeUnit.SECONDS);
-    } catch (InterruptedException e) {
-      _logger.warn("loadtest-shutdown Thread interrupted while waiting termination of callbacks executor service");
-    }
   }
 
   /**
@@ -244,7 +304,8 @@ public class   LoadTest implements Callable<LoadTestResult> {
     stopTest();
   }
 
-  private void addCallback(final Request request, final ListenableFuture<Response> future) {
+  private void addCallback(final Request request, final ListenableFuture<Response> future,
+      final long intendedStart) {
     Futures.addCallback(future, new FutureCallback<Response>() {
       @Override
       public void onSuccess(final Response response) {
@@ -260,19 +321,25 @@ public class   LoadTest implements Callable<LoadTestResult> {
       }
 
       private void postOperation(final Response response) {
-        LoadTest.this.eventBus.post(response);
-        LoadTest.this.eventBus.post(Pair.of(request, response));
+        // latency is also measured from the intended start, which includes any time the request
+        // spent waiting behind schedule, rather than only from when the client sent it
+        final RequestTimestamps timestamps = response.getRequestTimestamps();
+        if (timestamps != null) {
+          timestamps.intendedStart = intendedStart;
+        }
+        LoadTest.this.dispatcher.dispatch(request, response);
         LoadTest.this.scheduler.complete();
       }
-    }, executorService);
+    }, this.callbackExecutor);
   }
 
   @Override
   public String toString() {
     return String.format(
         "LoadTest [%n" + "requestManager=%s,%n" + "scheduler=%s,%n" + "client=%s,%n"
-            + "shutdownImmediate=%s,%n" + "shutdownTimeout=%s%n" + "]",
-        this.requestManager, this.scheduler, this.client, this.shutdownImmediate, this.shutdownTimeout);
+            + "shutdownImmediate=%s,%n" + "shutdownTimeout=%s,%n" + "producerThreads=%s%n" + "]",
+        this.requestManager, this.scheduler, this.client, this.shutdownImmediate,
+        this.shutdownTimeout, this.schedulerThreads.size());
   }
   
 }
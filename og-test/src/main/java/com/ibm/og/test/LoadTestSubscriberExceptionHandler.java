@@ -14,8 +14,8 @@ import com.google.common.eventbus.SubscriberExceptionContext;
 import com.google.common.eventbus.SubscriberExceptionHandler;
 
 /**
- * An {@code EventBus} exception handler. This handler aborts the OG load test when an eventbus
- * exception occurs.
+ * An {@code EventBus} and {@code CompletionDispatcher} exception handler. This handler aborts the OG
+ * load test when a subscriber or listener exception occurs.
  * 
  * @since 1.0
  */
@@ -32,6 +32,15 @@ public class LoadTestSubscriberExceptionHandler implements SubscriberExceptionHa
 
   @Override
   public void handleException(final Throwable exception, final SubscriberExceptionContext context) {
+    handleException(exception);
+  }
+
+  /**
+   * Handles an exception thrown by a subscriber or completion listener by aborting the load test
+   * 
+   * @param exception the exception thrown
+   */
+  public void handleException(final Throwable exception) {
     _logger.error("Exception while processing subscriber", exception);
     _exceptionLogger.error("Exception while processing subscriber", exception);
     this.test.abortTest(String.format("%s %s", getClass().getSimpleName(), exception.getMessage()));
@@ -30,7 +30,7 @@ public class SimpleRequestManager implements RequestManager {
   private static final Logger _logger = LoggerFactory.getLogger(SimpleRequestManager.class);
   private final Supplier<Supplier<Request>> requestSupplier;
   private final MultipartRequestSupplier multipartWriteSupplier;
-  private boolean abort = false;
+  private volatile boolean abort = false;
 
   /**
    * Creates an instance. This manager determines which type of request to generate based on the
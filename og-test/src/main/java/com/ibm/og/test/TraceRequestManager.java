@@ -0,0 +1,113 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.test;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Map;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import com.google.common.base.Predicate;
+import com.google.common.base.Supplier;
+import com.google.common.collect.ImmutableMap;
+import com.ibm.og.api.Operation;
+import com.ibm.og.api.Request;
+import com.ibm.og.scheduling.TraceScheduler;
+import com.ibm.og.scheduling.trace.TraceEntry;
+
+/**
+ * A request manager which replays the operations of a recorded trace. Each request is created for
+ * the trace entry most recently scheduled by the calling thread, by the supplier of its operation;
+ * those suppliers are expected to take the entry's object name and size from the
+ * {@code TraceScheduler}.
+ *
+ * @since 1.0
+ */
+public class TraceRequestManager implements RequestManager {
+  /**
+   * The trace entries which can be replayed: writes, overwrites, reads, metadata requests and
+   * deletes of named objects, with a size for writes and overwrites
+   */
+  public static final Predicate<TraceEntry> REPLAYABLE = new Predicate<TraceEntry>() {
+    @Override
+    public boolean apply(final TraceEntry input) {
+      switch (input.getOperation()) {
+        case WRITE:
+        case OVERWRITE:
+          return input.getObject() != null && input.getSize() != null;
+        case READ:
+        case METADATA:
+        case DELETE:
+          return input.getObject() != null;
+        default:
+          return false;
+      }
+    }
+  };
+  private final TraceScheduler scheduler;
+  private final Map<Operation, Supplier<Request>> suppliers;
+
+  /**
+   * Creates an instance
+   *
+   * @param scheduler the scheduler which replays the trace
+   * @param write a supplier of write requests
+   * @param overwrite a supplier of overwrite requests
+   * @param read a supplier of read requests
+   * @param metadata a supplier of metadata (HEAD) requests
+   * @param delete a supplier of delete requests
+   * @throws NullPointerException if any argument is null
+   */
+  @Inject
+  @Singleton
+  public TraceRequestManager(final TraceScheduler scheduler,
+      @Named("write") final Supplier<Request> write,
+      @Named("overwrite") final Supplier<Request> overwrite,
+      @Named("read") final Supplier<Request> read,
+      @Named("metadata") final Supplier<Request> metadata,
+      @Named("delete") final Supplier<Request> delete) {
+    this.scheduler = checkNotNull(scheduler);
+    this.suppliers = ImmutableMap.of(Operation.WRITE, checkNotNull(write), Operation.OVERWRITE,
+        checkNotNull(overwrite), Operation.READ, checkNotNull(read), Operation.METADATA,
+        checkNotNull(metadata), Operation.DELETE, checkNotNull(delete));
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @throws NoMoreRequestsException once the trace has been replayed or the test is stopping
+   */
+  @Override
+  public Request get() {
+    final TraceEntry entry = this.scheduler.current();
+    if (entry == null) {
+      throw new NoMoreRequestsException("Finished replaying trace");
+    }
+    return this.suppliers.get(entry.getOperation()).get();
+  }
+
+  @Override
+  public void setAbort(final boolean abort) {
+    if (abort) {
+      this.scheduler.stop();
+    }
+  }
+
+  @Override
+  public void setShutdownImmediate(final boolean shutdownImmediate) {
+    if (shutdownImmediate) {
+      this.scheduler.stop();
+    }
+  }
+
+  @Override
+  public String toString() {
+    return String.format("TraceRequestManager [scheduler=%s]", this.scheduler);
+  }
+}
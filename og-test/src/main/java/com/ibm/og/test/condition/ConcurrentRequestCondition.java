@@ -5,6 +5,8 @@
 
 package com.ibm.og.test.condition;
 
+import java.util.Set;
+
 import com.ibm.og.api.Request;
 import com.ibm.og.api.Response;
 import com.ibm.og.statistic.Counter;
@@ -12,6 +14,7 @@ import com.ibm.og.statistic.Statistics;
 import com.ibm.og.test.LoadTest;
 import com.ibm.og.api.Operation;
 import com.ibm.og.util.Pair;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.eventbus.Subscribe;
 
 /**
@@ -37,12 +40,22 @@ public class ConcurrentRequestCondition extends CounterCondition {
     }
   }
 
-  @Subscribe
   @Override
   public void update(final Pair<Request, Response> operation) {
     // prevent parent class implementation from being invoked
   }
 
+  @Override
+  public Set<Operation> operations() {
+    // only checked as requests are started, never on completion
+    return ImmutableSet.of();
+  }
+
+  @Override
+  public void complete(final Request request, final Response response) {
+    // prevent parent class implementation from being invoked
+  }
+
 
   @Override
   public String toString() {
@@ -8,9 +8,13 @@ package com.ibm.og.test.condition;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.ibm.og.api.CompletionListener;
 import com.ibm.og.api.Request;
 import com.ibm.og.api.Response;
 import com.ibm.og.statistic.Counter;
@@ -18,14 +22,15 @@ import com.ibm.og.statistic.Statistics;
 import com.ibm.og.test.LoadTest;
 import com.ibm.og.api.Operation;
 import com.ibm.og.util.Pair;
-import com.google.common.eventbus.Subscribe;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
 
 /**
  * A test condition which is triggered when a counter reaches a threshold value
  * 
  * @since 1.0
  */
-public class CounterCondition implements TestCondition {
+public class CounterCondition implements TestCondition, CompletionListener {
   private static final Logger _logger = LoggerFactory.getLogger(CounterCondition.class);
   protected final Operation operation;
   private final Counter counter;
@@ -61,8 +66,21 @@ public class CounterCondition implements TestCondition {
    * 
    * @param operation a completed request
    */
-  @Subscribe
   public void update(final Pair<Request, Response> operation) {
+    complete(operation.getKey(), operation.getValue());
+  }
+
+  @Override
+  public Set<Operation> operations() {
+    // a counter for a specific operation type only changes when that operation type completes
+    if (Operation.ALL == this.operation) {
+      return Sets.immutableEnumSet(EnumSet.allOf(Operation.class));
+    }
+    return ImmutableSet.of(this.operation);
+  }
+
+  @Override
+  public void complete(final Request request, final Response response) {
     if (isTriggered()) {
       if (this.failureCondition) {
         this.test.abortTest(String.format("Failed Condition: %s", toString()));
@@ -0,0 +1,115 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.test.condition;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * A search for the highest rate which passes a test. Starting from an initial rate, the rate is
+ * doubled after each pass, or halved after each failure, until a passing and a failing rate have
+ * been found; the interval between the highest passing rate and the lowest failing rate is then
+ * bisected until it is within a precision of the failing rate.
+ *
+ * @since 1.0
+ */
+final class RateSearch {
+  private final double minRate;
+  private final double maxRate;
+  private final double precision;
+  private double rate;
+  // the highest passing rate and the lowest failing rate found so far, or 0.0 if none
+  private double passed;
+  private double failed;
+  private boolean done;
+
+  /**
+   * Creates an instance
+   *
+   * @param initialRate the first rate to test
+   * @param minRate the rate below which the search gives up
+   * @param maxRate the rate above which the search does not go
+   * @param precision the width of the final interval, as a fraction of its failing rate
+   * @throws IllegalArgumentException if the rates are not positive and ordered, or if precision is
+   *         not between 0.0 and 1.0
+   */
+  RateSearch(final double initialRate, final double minRate, final double maxRate,
+      final double precision) {
+    checkArgument(minRate > 0.0, "minRate must be > 0.0 [%s]", minRate);
+    checkArgument(initialRate >= minRate, "initialRate must be >= minRate [%s, %s]",
+        initialRate, minRate);
+    checkArgument(maxRate >= initialRate, "maxRate must be >= initialRate [%s, %s]", maxRate,
+        initialRate);
+    checkArgument(precision > 0.0 && precision < 1.0, "precision must be in range (0.0, 1.0) [%s]",
+        precision);
+    this.minRate = minRate;
+    this.maxRate = maxRate;
+    this.precision = precision;
+    this.rate = initialRate;
+  }
+
+  /**
+   * @return the rate to test next
+   * @throws IllegalStateException if the search is done
+   */
+  double rate() {
+    checkState(!this.done, "search is done");
+    return this.rate;
+  }
+
+  /**
+   * Records the outcome of testing the current rate and chooses the next rate
+   *
+   * @param pass whether the current rate passed
+   * @throws IllegalStateException if the search is done
+   */
+  void update(final boolean pass) {
+    checkState(!this.done, "search is done");
+    if (pass) {
+      this.passed = this.rate;
+    } else {
+      this.failed = this.rate;
+    }
+
+    if (this.failed == 0.0) {
+      if (this.rate >= this.maxRate) {
+        this.done = true;
+      } else {
+        this.rate = Math.min(2 * this.rate, this.maxRate);
+      }
+    } else if (this.passed == 0.0) {
+      if (this.rate / 2 < this.minRate) {
+        this.done = true;
+      } else {
+        this.rate = this.rate / 2;
+      }
+    } else if (this.failed - this.passed <= this.precision * this.failed) {
+      this.done = true;
+    } else {
+      this.rate = (this.passed + this.failed) / 2;
+    }
+  }
+
+  /**
+   * @return whether the search is done
+   */
+  boolean isDone() {
+    return this.done;
+  }
+
+  /**
+   * @return the highest passing rate, or 0.0 if no rate has passed
+   */
+  double passed() {
+    return this.passed;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("RateSearch [rate=%s, passed=%s, failed=%s, done=%s]", this.rate,
+        this.passed, this.failed, this.done);
+  }
+}
@@ -0,0 +1,389 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.test.condition;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import com.google.common.eventbus.Subscribe;
+import com.google.common.util.concurrent.Uninterruptibles;
+import com.ibm.og.api.CompletionListener;
+import com.ibm.og.api.Operation;
+import com.ibm.og.api.Request;
+import com.ibm.og.api.RequestPhase;
+import com.ibm.og.api.RequestTimestamps;
+import com.ibm.og.api.Response;
+import com.ibm.og.http.HttpUtil;
+import com.ibm.og.scheduling.VariableRequestRateScheduler;
+import com.ibm.og.test.LoadTest;
+import com.ibm.og.util.TestState;
+
+/**
+ * A test condition which searches for the highest request rate a target sustains within a latency
+ * and error rate objective, and is triggered once the search is done. The rate is held for a fixed
+ * step at a time; a step passes when the configured percentile of response times, measured from
+ * each request's intended start, is within the latency objective, the fraction of requests which
+ * failed is within the error rate objective, and most of the step's requests completed. Requests
+ * scheduled before a step started, or while the target settles during the first tenth of the step,
+ * are not counted towards it. When a step ends, requests started after it are no longer counted and
+ * the search waits for the step's requests still in flight, for at most the latency objective plus
+ * a tenth of the step; a request which has not completed by then is counted as exceeding the
+ * latency objective. Once the search is done, the throughput and latency of each step and the
+ * knee, the highest passing rate, are reported and the test is stopped.
+ *
+ * @since 1.0
+ */
+public class SaturationCondition implements TestCondition, CompletionListener {
+  private static final Logger _logger = LoggerFactory.getLogger(SaturationCondition.class);
+  private static final Logger _consoleLogger = LoggerFactory.getLogger("ConsoleLogger");
+  // the fraction of a step during which the target settles at the new rate and is not measured
+  private static final double SETTLE = 0.1;
+  // the fraction of a step's measured requests which must complete for it to pass
+  private static final double MIN_COMPLETED = 0.9;
+  private final LoadTest test;
+  private final VariableRequestRateScheduler scheduler;
+  private final double percentile;
+  private final long latencyNanos;
+  private final double errorRate;
+  private final long stepNanos;
+  private final long drainNanos;
+  private final RateSearch search;
+  private final Recorder latencies;
+  private final AtomicLong completed;
+  private final AtomicLong errors;
+  private final List<Step> steps;
+  // the requests started while the current step is measured, and when each was started
+  private final ConcurrentMap<Request, Long> inFlight;
+  private volatile long measureStart;
+  private volatile long measureEnd;
+  private volatile boolean started;
+  private volatile boolean stopping;
+  private volatile boolean triggered;
+
+  /**
+   * Creates an instance
+   *
+   * @param test the load test to stop when the search is done
+   * @param scheduler the scheduler whose rate is searched, starting from its current rate
+   * @param percentile the response time percentile to compare with the latency objective
+   * @param latency the latency objective
+   * @param latencyUnit the latency unit
+   * @param errorRate the largest fraction of failed requests which passes a step
+   * @param minRate the rate below which the search gives up
+   * @param maxRate the rate above which the search does not go
+   * @param precision the width of the interval in which the knee is found, as a fraction of the
+   *        interval's failing rate
+   * @param stepDuration the duration of each step
+   * @param stepUnit the step duration unit
+   * @throws NullPointerException if test, scheduler, latencyUnit or stepUnit is null
+   * @throws IllegalArgumentException if percentile is not in range (0.0, 100.0], if latency or
+   *         stepDuration is not positive, if errorRate is not in range [0.0, 1.0], or if the rates
+   *         or precision are invalid
+   */
+  public SaturationCondition(final LoadTest test, final VariableRequestRateScheduler scheduler,
+      final double percentile, final double latency, final TimeUnit latencyUnit,
+      final double errorRate, final double minRate, final double maxRate, final double precision,
+      final double stepDuration, final TimeUnit stepUnit) {
+    this.test = checkNotNull(test);
+    this.scheduler = checkNotNull(scheduler);
+    checkArgument(percentile > 0.0 && percentile <= 100.0,
+        "percentile must be in range (0.0, 100.0] [%s]", percentile);
+    this.percentile = percentile;
+    checkArgument(latency > 0.0, "latency must be > 0.0 [%s]", latency);
+    checkNotNull(latencyUnit);
+    this.latencyNanos = (long) (latency * latencyUnit.toNanos(1));
+    checkArgument(errorRate >= 0.0 && errorRate <= 1.0,
+        "errorRate must be in range [0.0, 1.0] [%s]", errorRate);
+    this.errorRate = errorRate;
+    checkArgument(stepDuration > 0.0, "stepDuration must be > 0.0 [%s]", stepDuration);
+    checkNotNull(stepUnit);
+    this.stepNanos = (long) (stepDuration * stepUnit.toNanos(1));
+    // a request which meets the latency objective completes within it of being started, the rest
+    // of the time allows for delivering its completion
+    this.drainNanos = this.latencyNanos + (long) (SETTLE * this.stepNanos);
+    this.search = new RateSearch(scheduler.getRate(), minRate, maxRate, precision);
+    this.latencies = new Recorder(3);
+    this.completed = new AtomicLong();
+    this.errors = new AtomicLong();
+    this.steps = Lists.newCopyOnWriteArrayList();
+    this.inFlight = new ConcurrentHashMap<Request, Long>();
+    this.measureStart = Long.MAX_VALUE;
+    this.measureEnd = Long.MAX_VALUE;
+  }
+
+  /**
+   * Starts the search when the test starts running, and abandons it when the test is stopping
+   *
+   * @param state the new test state
+   */
+  @Subscribe
+  public void update(final TestState state) {
+    checkNotNull(state);
+    if (state == TestState.STOPPING) {
+      this.stopping = true;
+    } else if (state == TestState.RUNNING && !this.started) {
+      this.started = true;
+      final Thread t = new Thread(new Runnable() {
+        @Override
+        public void run() {
+          search();
+        }
+      });
+      t.setName("saturation-condition");
+      t.setDaemon(true);
+      t.start();
+    }
+  }
+
+  /**
+   * Tracks a request started while the current step is measured
+   *
+   * @param request the started request
+   */
+  @Subscribe
+  public void update(final Request request) {
+    checkNotNull(request);
+    final long now = System.nanoTime();
+    if (now >= this.measureStart && now < this.measureEnd) {
+      this.inFlight.put(request, now);
+      // the next step may have started meanwhile, in which case the request is not its own
+      if (now < this.measureStart) {
+        this.inFlight.remove(request);
+      }
+    }
+  }
+
+  private void search() {
+    while (!this.search.isDone()) {
+      final double rate = this.search.rate();
+      this.measureStart = Long.MAX_VALUE;
+      this.measureEnd = Long.MAX_VALUE;
+      this.inFlight.clear();
+      this.latencies.reset();
+      this.completed.set(0);
+      this.errors.set(0);
+      final long stepStart = System.nanoTime();
+      this.measureStart = stepStart + (long) (SETTLE * this.stepNanos);
+      this.measureEnd = stepStart + this.stepNanos;
+      this.scheduler.setRate(rate);
+      _logger.info("Starting saturation step at rate [{}]", rate);
+
+      Uninterruptibles.sleepUninterruptibly(this.stepNanos, TimeUnit.NANOSECONDS);
+      drain();
+      if (this.stopping) {
+        report();
+        return;
+      }
+      final Step step = measure(rate);
+      _logger.info("Finished saturation {}", step);
+      this.steps.add(step);
+      this.search.update(step.pass);
+    }
+    report();
+    this.triggered = true;
+    this.test.stopTest();
+  }
+
+  // waits for the step's requests still in flight, and counts those which do not complete in time
+  // as exceeding the latency objective
+  private void drain() {
+    final long deadline = this.measureEnd + this.drainNanos;
+    while (!this.inFlight.isEmpty() && !this.stopping && System.nanoTime() < deadline) {
+      Uninterruptibles.sleepUninterruptibly(1, TimeUnit.MILLISECONDS);
+    }
+    final long now = System.nanoTime();
+    long timedOut = 0;
+    for (final Request request : this.inFlight.keySet()) {
+      final Long started = this.inFlight.remove(request);
+      if (started != null) {
+        // started before the step ended, so it has been in flight for longer than the objective
+        this.latencies.recordValue(TimeUnit.NANOSECONDS.toMicros(now - started));
+        timedOut++;
+      }
+    }
+    if (timedOut > 0) {
+      _logger.info("[{}] saturation step requests did not complete in time", timedOut);
+    }
+  }
+
+  private Step measure(final double rate) {
+    final Histogram histogram = this.latencies.getIntervalHistogram();
+    final long completed = this.completed.get();
+    final long errors = this.errors.get();
+    final double measuredNanos = (1 - SETTLE) * this.stepNanos;
+    final double measuredSeconds = measuredNanos / TimeUnit.SECONDS.toNanos(1);
+    final double scheduled = rate * measuredNanos / this.scheduler.getUnit().toNanos(1);
+    final long latencyMicros = histogram.getValueAtPercentile(this.percentile);
+    final double stepErrorRate = completed > 0 ? (double) errors / completed : 0.0;
+
+    final boolean pass = completed > 0 && completed >= MIN_COMPLETED * scheduled
+        && TimeUnit.MICROSECONDS.toNanos(latencyMicros) <= this.latencyNanos
+        && stepErrorRate <= this.errorRate;
+    return new Step(rate, completed / measuredSeconds, latencyMicros / 1000.0, stepErrorRate, pass);
+  }
+
+  private void report() {
+    final StringBuilder s = new StringBuilder();
+    s.append(String.format("Saturation search (p%s <= %s ms, error rate <= %s)%n", this.percentile,
+        this.latencyNanos / 1000000.0, this.errorRate));
+    s.append(String.format("%12s %14s %16s %12s %6s%n", "rate", "throughput/s", "latency (ms)",
+        "error rate", "pass"));
+    Step knee = null;
+    for (final Step step : this.steps) {
+      s.append(String.format("%12.2f %14.2f %16.3f %12.5f %6s%n", step.rate, step.throughput,
+          step.latencyMillis, step.errorRate, step.pass));
+      if (step.pass && (knee == null || step.rate > knee.rate)) {
+        knee = step;
+      }
+    }
+    if (knee != null) {
+      s.append(String.format("Knee at rate [%.2f], throughput [%.2f/s], latency [%.3f ms]",
+          knee.rate, knee.throughput, knee.latencyMillis));
+    } else {
+      s.append("No rate met the objective");
+    }
+    _logger.info("{}", s);
+    _consoleLogger.info("{}", s);
+  }
+
+  @Override
+  public Set<Operation> operations() {
+    return Sets.immutableEnumSet(EnumSet.allOf(Operation.class));
+  }
+
+  @Override
+  public void complete(final Request request, final Response response) {
+    // only requests started while this step is measured are counted
+    if (this.inFlight.remove(request) == null) {
+      return;
+    }
+    // a request which failed without a response has no timestamps and only counts as an error
+    final RequestTimestamps timestamps = response.getRequestTimestamps();
+    if (timestamps != null) {
+      final long intendedStart =
+          timestamps.intendedStart > 0 ? timestamps.intendedStart : timestamps.start;
+      // requests scheduled at an earlier rate, or while settling at this one, are not measured
+      if (intendedStart < this.measureStart) {
+        return;
+      }
+      final long latency = Math.max(0, RequestPhase.RESPONSE_TIME.duration(timestamps));
+      this.latencies.recordValue(TimeUnit.NANOSECONDS.toMicros(latency));
+    }
+    this.completed.incrementAndGet();
+    if (!HttpUtil.SUCCESS_STATUS_CODES.contains(response.getStatusCode())) {
+      this.errors.incrementAndGet();
+    }
+  }
+
+  /**
+   * @return the highest rate which met the objective so far, or 0.0 if none has
+   */
+  public double getKnee() {
+    return this.search.passed();
+  }
+
+  /**
+   * @return the steps measured so far, in order
+   */
+  public List<Step> getSteps() {
+    return ImmutableList.copyOf(this.steps);
+  }
+
+  @Override
+  public boolean isTriggered() {
+    if (this.triggered) {
+      _logger.info("{} is triggered [{}]", toString(), getKnee());
+      return true;
+    }
+    return false;
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "SaturationCondition [%n" + "percentile=%s,%n" + "latencyNanos=%s,%n" + "errorRate=%s,%n"
+            + "stepNanos=%s,%n" + "search=%s%n" + "]",
+        this.percentile, this.latencyNanos, this.errorRate, this.stepNanos, this.search);
+  }
+
+  /**
+   * The measurements of one step of the search
+   */
+  public static class Step {
+    private final double rate;
+    private final double throughput;
+    private final double latencyMillis;
+    private final double errorRate;
+    private final boolean pass;
+
+    Step(final double rate, final double throughput, final double latencyMillis,
+        final double errorRate, final boolean pass) {
+      this.rate = rate;
+      this.throughput = throughput;
+      this.latencyMillis = latencyMillis;
+      this.errorRate = errorRate;
+      this.pass = pass;
+    }
+
+    /**
+     * @return the scheduled request rate
+     */
+    public double getRate() {
+      return this.rate;
+    }
+
+    /**
+     * @return the completed requests per second
+     */
+    public double getThroughput() {
+      return this.throughput;
+    }
+
+    /**
+     * @return the response time at the configured percentile, in milliseconds
+     */
+    public double getLatencyMillis() {
+      return this.latencyMillis;
+    }
+
+    /**
+     * @return the fraction of completed requests which failed
+     */
+    public double getErrorRate() {
+      return this.errorRate;
+    }
+
+    /**
+     * @return whether this step met the objective
+     */
+    public boolean isPass() {
+      return this.pass;
+    }
+
+    @Override
+    public String toString() {
+      return String.format(
+          "step [rate=%s, throughput=%s, latencyMillis=%s, errorRate=%s, pass=%s]", this.rate,
+          this.throughput, this.latencyMillis, this.errorRate, this.pass);
+    }
+  }
+}
@@ -0,0 +1,193 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.ibm.og.api.CompletionListener;
+import com.ibm.og.api.Operation;
+import com.ibm.og.api.Request;
+import com.ibm.og.api.Response;
+
+public class CompletionDispatcherTest {
+  private LoadTestSubscriberExceptionHandler handler;
+  private CompletionDispatcher dispatcher;
+  private Request write;
+  private Request read;
+  private Response response;
+
+  @Before
+  public void before() {
+    this.handler = mock(LoadTestSubscriberExceptionHandler.class);
+    this.dispatcher = new CompletionDispatcher(this.handler);
+    this.write = mock(Request.class);
+    when(this.write.getOperation()).thenReturn(Operation.WRITE);
+    this.read = mock(Request.class);
+    when(this.read.getOperation()).thenReturn(Operation.READ);
+    this.response = mock(Response.class);
+  }
+
+  private static class RecordingListener implements CompletionListener {
+    private final Set<Operation> operations;
+    private final List<String> log;
+    private final String name;
+
+    RecordingListener(final String name, final List<String> log, final Operation... operations) {
+      this.name = name;
+      this.log = log;
+      this.operations = ImmutableSet.copyOf(operations);
+    }
+
+    @Override
+    public Set<Operation> operations() {
+      return this.operations;
+    }
+
+    @Override
+    public void complete(final Request request, final Response response) {
+      this.log.add(String.format("%s:%s", this.name, request.getOperation()));
+    }
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void nullHandler() {
+    new CompletionDispatcher(null);
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void registerNullListener() {
+    this.dispatcher.register(null);
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void dispatchNullRequest() {
+    this.dispatcher.dispatch(null, this.response);
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void dispatchNullResponse() {
+    this.dispatcher.dispatch(this.write, null);
+  }
+
+  @Test
+  public void dispatchByOperation() {
+    final List<String> log = Lists.newArrayList();
+    this.dispatcher.register(new RecordingListener("w", log, Operation.WRITE));
+    this.dispatcher.register(new RecordingListener("r", log, Operation.READ));
+    this.dispatcher.register(new RecordingListener("wr", log, Operation.WRITE, Operation.READ));
+
+    this.dispatcher.dispatch(this.write, this.response);
+    assertThat(log, contains("w:WRITE", "wr:WRITE"));
+
+    log.clear();
+    this.dispatcher.dispatch(this.read, this.response);
+    assertThat(log, contains("r:READ", "wr:READ"));
+  }
+
+  @Test
+  public void noListeners() {
+    final List<String> log = Lists.newArrayList();
+    this.dispatcher.register(new RecordingListener("none", log));
+    this.dispatcher.dispatch(this.write, this.response);
+    assertThat(log, is(empty()));
+  }
+
+  @Test
+  public void duplicateRegistration() {
+    final List<String> log = Lists.newArrayList();
+    final CompletionListener listener = new RecordingListener("w", log, Operation.WRITE);
+    this.dispatcher.register(listener);
+    this.dispatcher.register(listener);
+    this.dispatcher.dispatch(this.write, this.response);
+    assertThat(log, contains("w:WRITE"));
+  }
+
+  @Test
+  public void listenerException() {
+    final List<String> log = Lists.newArrayList();
+    final RuntimeException e = new RuntimeException();
+    this.dispatcher.register(new CompletionListener() {
+      @Override
+      public Set<Operation> operations() {
+        return ImmutableSet.of(Operation.WRITE);
+      }
+
+      @Override
+      public void complete(final Request request, final Response response) {
+        throw e;
+      }
+    });
+    this.dispatcher.register(new RecordingListener("w", log, Operation.WRITE));
+
+    this.dispatcher.dispatch(this.write, this.response);
+    verify(this.handler).handleException(e);
+    // subsequent listeners are still notified
+    assertThat(log, contains("w:WRITE"));
+  }
+
+  @Test
+  public void concurrentDispatch() throws InterruptedException {
+    // listeners are not serialized, a listener blocked by one completion must not block another
+    final CountDownLatch entered = new CountDownLatch(2);
+    final AtomicInteger completed = new AtomicInteger();
+    this.dispatcher.register(new CompletionListener() {
+      @Override
+      public Set<Operation> operations() {
+        return ImmutableSet.of(Operation.WRITE);
+      }
+
+      @Override
+      public void complete(final Request request, final Response response) {
+        entered.countDown();
+        try {
+          if (entered.await(5, TimeUnit.SECONDS)) {
+            completed.incrementAndGet();
+          }
+        } catch (final InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    });
+
+    final List<Thread> threads = Lists.newArrayList();
+    for (int i = 0; i < 2; i++) {
+      threads.add(new Thread(new Runnable() {
+        @Override
+        public void run() {
+          CompletionDispatcherTest.this.dispatcher.dispatch(CompletionDispatcherTest.this.write,
+              CompletionDispatcherTest.this.response);
+        }
+      }));
+    }
+    for (final Thread thread : threads) {
+      thread.start();
+    }
+    for (final Thread thread : threads) {
+      thread.join();
+    }
+    assertThat(completed.get(), is(2));
+    verify(this.handler, never()).handleException(any(Throwable.class));
+  }
+}
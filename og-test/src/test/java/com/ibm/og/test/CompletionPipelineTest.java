@@ -0,0 +1,251 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.lang.ref.WeakReference;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.Uninterruptibles;
+import com.ibm.og.api.CompletionListener;
+import com.ibm.og.api.Method;
+import com.ibm.og.api.Operation;
+import com.ibm.og.api.Request;
+import com.ibm.og.api.Response;
+import com.ibm.og.http.HttpRequest;
+import com.ibm.og.statistic.Statistics;
+import com.ibm.og.test.CompletionPipeline.Stage;
+import com.ibm.og.test.condition.TestCondition;
+
+public class CompletionPipelineTest {
+  private LoadTestSubscriberExceptionHandler handler;
+  private CompletionPipeline pipeline;
+  private Request write;
+  private Response response;
+
+  @Before
+  public void before() {
+    this.handler = mock(LoadTestSubscriberExceptionHandler.class);
+    this.pipeline = new CompletionPipeline(this.handler, 16);
+    this.write = mock(Request.class);
+    when(this.write.getOperation()).thenReturn(Operation.WRITE);
+    this.response = mock(Response.class);
+  }
+
+  @After
+  public void after() {
+    this.pipeline.shutdown(5, TimeUnit.SECONDS);
+  }
+
+  private static class CountingListener implements CompletionListener {
+    final AtomicInteger count = new AtomicInteger();
+
+    @Override
+    public Set<Operation> operations() {
+      return ImmutableSet.of(Operation.WRITE);
+    }
+
+    @Override
+    public void complete(final Request request, final Response response) {
+      this.count.incrementAndGet();
+    }
+  }
+
+  private static class CountingCondition extends CountingListener implements TestCondition {
+    @Override
+    public boolean isTriggered() {
+      return false;
+    }
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void nullHandler() {
+    new CompletionPipeline(null, 16);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void zeroBufferSize() {
+    new CompletionPipeline(this.handler, 0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void nonPowerOfTwoBufferSize() {
+    new CompletionPipeline(this.handler, 24);
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void dispatchNullRequest() {
+    this.pipeline.dispatch(null, this.response);
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void dispatchNullResponse() {
+    this.pipeline.dispatch(this.write, null);
+  }
+
+  @Test
+  public void shutdownDrains() {
+    final CountingListener objects = new CountingListener();
+    final CountingCondition condition = new CountingCondition();
+    this.pipeline.register(objects);
+    this.pipeline.register(condition);
+
+    // many more completions than slots, producers must wait on consumers
+    for (int i = 0; i < 1000; i++) {
+      this.pipeline.dispatch(this.write, this.response);
+    }
+    assertThat(this.pipeline.shutdown(5, TimeUnit.SECONDS), is(true));
+    assertThat(objects.count.get(), is(1000));
+    assertThat(condition.count.get(), is(1000));
+    assertThat(this.pipeline.queueDepth(), is(0L));
+    for (final Stage stage : Stage.values()) {
+      assertThat(this.pipeline.lag(stage), is(0L));
+    }
+  }
+
+  @Test
+  public void conditionsFollowStatistics() {
+    final AtomicInteger statsCount = new AtomicInteger();
+    final AtomicInteger violations = new AtomicInteger();
+    final Statistics stats = mock(Statistics.class);
+    when(stats.operations()).thenReturn(ImmutableSet.copyOf(Operation.values()));
+    doAnswer(new Answer<Void>() {
+      @Override
+      public Void answer(final InvocationOnMock invocation) {
+        statsCount.incrementAndGet();
+        return null;
+      }
+    }).when(stats).complete(any(Request.class), any(Response.class));
+    final CountingCondition condition = new CountingCondition() {
+      @Override
+      public void complete(final Request request, final Response response) {
+        if (statsCount.get() <= this.count.getAndIncrement()) {
+          violations.incrementAndGet();
+        }
+      }
+    };
+    this.pipeline.register(condition);
+    this.pipeline.register(stats);
+
+    for (int i = 0; i < 1000; i++) {
+      this.pipeline.dispatch(this.write, this.response);
+    }
+    this.pipeline.shutdown(5, TimeUnit.SECONDS);
+    assertThat(statsCount.get(), is(1000));
+    assertThat(condition.count.get(), is(1000));
+    assertThat(violations.get(), is(0));
+  }
+
+  @Test
+  public void lag() {
+    final CountDownLatch release = new CountDownLatch(1);
+    final CountingCondition condition = new CountingCondition();
+    this.pipeline.register(condition);
+    this.pipeline.register(new CompletionListener() {
+      @Override
+      public Set<Operation> operations() {
+        return ImmutableSet.of(Operation.WRITE);
+      }
+
+      @Override
+      public void complete(final Request request, final Response response) {
+        Uninterruptibles.awaitUninterruptibly(release);
+      }
+    });
+
+    for (int i = 0; i < 3; i++) {
+      this.pipeline.dispatch(this.write, this.response);
+    }
+    // the blocked objects stage holds back the ring buffer, other stages proceed
+    while (condition.count.get() < 3) {
+      Uninterruptibles.sleepUninterruptibly(1, TimeUnit.MILLISECONDS);
+    }
+    assertThat(this.pipeline.lag(Stage.CONDITIONS), is(0L));
+    assertThat(this.pipeline.lag(Stage.STATISTICS), is(0L));
+    assertThat(this.pipeline.queueDepth(), is(3L));
+    assertThat(this.pipeline.lag(Stage.OBJECTS) > 0, is(true));
+
+    release.countDown();
+    assertThat(this.pipeline.shutdown(5, TimeUnit.SECONDS), is(true));
+    assertThat(this.pipeline.queueDepth(), is(0L));
+  }
+
+  @Test
+  public void listenerException() {
+    final RuntimeException e = new RuntimeException();
+    final CountingListener objects = new CountingListener();
+    this.pipeline.register(new CompletionListener() {
+      @Override
+      public Set<Operation> operations() {
+        return ImmutableSet.of(Operation.WRITE);
+      }
+
+      @Override
+      public void complete(final Request request, final Response response) {
+        throw e;
+      }
+    });
+    this.pipeline.register(objects);
+
+    this.pipeline.dispatch(this.write, this.response);
+    this.pipeline.dispatch(this.write, this.response);
+    this.pipeline.shutdown(5, TimeUnit.SECONDS);
+    verify(this.handler, times(2)).handleException(e);
+    assertThat(objects.count.get(), is(2));
+  }
+
+  @Test
+  public void dispatchAfterShutdown() {
+    final CountingListener objects = new CountingListener();
+    this.pipeline.register(objects);
+    this.pipeline.shutdown(5, TimeUnit.SECONDS);
+
+    this.pipeline.dispatch(this.write, this.response);
+    // delivered on the calling thread
+    assertThat(objects.count.get(), is(1));
+    verify(this.handler, never()).handleException(any(Throwable.class));
+  }
+
+  @Test
+  public void releasesCompletedOperations() throws URISyntaxException {
+    this.pipeline.register(new CountingListener());
+    Request request =
+        new HttpRequest.Builder(Method.PUT, new URI("http://127.0.0.1"), Operation.WRITE).build();
+    final WeakReference<Request> reference = new WeakReference<Request>(request);
+    this.pipeline.dispatch(request, this.response);
+    request = null;
+    assertThat(this.pipeline.shutdown(5, TimeUnit.SECONDS), is(true));
+
+    // once every stage has processed it, the ring buffer slot no longer holds the request
+    for (int i = 0; i < 50 && reference.get() != null; i++) {
+      System.gc();
+      Uninterruptibles.sleepUninterruptibly(10, TimeUnit.MILLISECONDS);
+    }
+    assertThat(reference.get(), nullValue());
+  }
+}
@@ -16,7 +16,15 @@ import static org.mockito.Mockito.when;
 
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import com.ibm.og.api.RequestTimestamps;
 import com.ibm.og.test.condition.CounterCondition;
@@ -25,8 +33,11 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 import org.junit.runner.RunWith;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 
 import com.ibm.og.api.Client;
+import com.ibm.og.api.CompletionListener;
 import com.ibm.og.api.Method;
 import com.ibm.og.api.Operation;
 import com.ibm.og.api.Request;
@@ -39,10 +50,13 @@ import com.ibm.og.statistic.Counter;
 import com.ibm.og.statistic.Statistics;
 import com.ibm.og.test.condition.TestCondition;
 import com.ibm.og.util.Context;
-import com.ibm.og.util.Pair;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.eventbus.EventBus;
 import com.google.common.eventbus.Subscribe;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.SettableFuture;
+import com.google.common.util.concurrent.Uninterruptibles;
 import com.tngtech.java.junit.dataprovider.DataProvider;
 import com.tngtech.java.junit.dataprovider.DataProviderRunner;
 import com.tngtech.java.junit.dataprovider.UseDataProvider;
@@ -58,6 +72,7 @@ public class LoadTestTest {
   private Scheduler scheduler;
   private LoadTestSubscriberExceptionHandler handler;
   private EventBus eventBus;
+  private CompletionDispatcher dispatcher;
   private Statistics stats;
   private LoadTest test;
 
@@ -82,8 +97,10 @@ public class LoadTestTest {
     this.scheduler = new ConcurrentRequestScheduler(1, 0.0, TimeUnit.SECONDS);
     this.handler = new LoadTestSubscriberExceptionHandler();
     this.eventBus = new EventBus(this.handler);
+    this.dispatcher = new CompletionDispatcher(this.handler);
     this.stats = new Statistics();
-    this.test = new LoadTest(this.requestManager, this.client, this.scheduler, this.eventBus, true, 0, false);
+    this.test = new LoadTest(this.requestManager, this.client, this.scheduler, this.eventBus,
+        this.dispatcher, true, 0, false, false, 1);
     this.handler.setLoadTest(this.test);
 
     final TestCondition condition =
@@ -91,7 +108,8 @@ public class LoadTestTest {
 
     this.eventBus.register(this.scheduler);
     this.eventBus.register(this.stats);
-    this.eventBus.register(condition);
+    this.dispatcher.register(this.stats);
+    this.dispatcher.register((CompletionListener) condition);
   }
 
   @DataProvider
@@ -100,17 +118,21 @@ public class LoadTestTest {
     final Client client = mock(Client.class);
     final Scheduler scheduler = mock(Scheduler.class);
     final EventBus eventBus = mock(EventBus.class);
-    return new Object[][] {{null, client, scheduler, eventBus},
-        {requestSupplier, null, scheduler, eventBus}, {requestSupplier, client, null, eventBus},
-        {requestSupplier, client, scheduler, null}};
+    final CompletionDispatcher dispatcher = mock(CompletionDispatcher.class);
+    return new Object[][] {{null, client, scheduler, eventBus, dispatcher},
+        {requestSupplier, null, scheduler, eventBus, dispatcher},
+        {requestSupplier, client, null, eventBus, dispatcher},
+        {requestSupplier, client, scheduler, null, dispatcher},
+        {requestSupplier, client, scheduler, eventBus, null}};
   }
 
   @Test
   @UseDataProvider("provideInvalidLoadTest")
   public void invalidLoadTest(final RequestManager requestManager, final Client client,
-      final Scheduler scheduler, final EventBus eventBus) {
+      final Scheduler scheduler, final EventBus eventBus, final CompletionDispatcher dispatcher) {
     this.thrown.expect(NullPointerException.class);
-    new LoadTest(requestManager, client, scheduler, eventBus, true, 0, false);
+    new LoadTest(requestManager, client, scheduler, eventBus, dispatcher, true, 0, false, false,
+        1);
   }
 
   @Test
@@ -125,7 +147,23 @@ public class LoadTestTest {
   public void eventBusSubscriberException() {
     this.eventBus.register(new Object() {
       @Subscribe
-      public void consume(final Pair<Request, Response> operation) {
+      public void consume(final Request request) {
+        throw new RuntimeException();
+      }
+    });
+    assertThat(this.test.call().result, is(-1));
+  }
+
+  @Test
+  public void completionListenerException() {
+    this.dispatcher.register(new CompletionListener() {
+      @Override
+      public Set<Operation> operations() {
+        return ImmutableSet.of(Operation.WRITE);
+      }
+
+      @Override
+      public void complete(final Request request, final Response response) {
         throw new RuntimeException();
       }
     });
@@ -139,4 +177,104 @@ public class LoadTestTest {
     verify(this.client, atLeast(5)).execute(this.request);
     verify(this.client, times(1)).shutdown(true, 0);
   }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void invalidProducerThreads() {
+    new LoadTest(this.requestManager, this.client, this.scheduler, this.eventBus, this.dispatcher,
+        true, 0, false, false, 0);
+  }
+
+  @Test
+  public void multipleProducers() {
+    // every producer enters the request manager before any of them leaves it, which can only
+    // happen if requests are created concurrently
+    final CountDownLatch entered = new CountDownLatch(4);
+    final AtomicBoolean concurrent = new AtomicBoolean();
+    when(this.requestManager.get()).thenAnswer(new Answer<Request>() {
+      @Override
+      public Request answer(final InvocationOnMock invocation) throws InterruptedException {
+        if (entered.getCount() > 0) {
+          entered.countDown();
+          if (entered.await(5, TimeUnit.SECONDS)) {
+            concurrent.set(true);
+          }
+        }
+        return LoadTestTest.this.request;
+      }
+    });
+    final Scheduler scheduler = new ConcurrentRequestScheduler(4, 0.0, TimeUnit.SECONDS);
+    final LoadTest test = new LoadTest(this.requestManager, this.client, scheduler, this.eventBus,
+        this.dispatcher, true, 0, false, false, 4);
+    this.handler.setLoadTest(test);
+    this.dispatcher.register((CompletionListener) new CounterCondition(Operation.WRITE,
+        Counter.OPERATIONS, 50, test, this.stats, false));
+
+    assertThat(test.call().result, is(0));
+    assertThat(this.stats.get(Operation.WRITE, Counter.OPERATIONS), greaterThanOrEqualTo(50L));
+    assertThat(concurrent.get(), is(true));
+  }
+
+  @Test
+  public void multipleProducersStop() {
+    // a client which rejects requests once it is shut down; the 20th request stops the test and is
+    // still being submitted while the other producers stop
+    final AtomicBoolean shutdown = new AtomicBoolean();
+    final AtomicInteger executed = new AtomicInteger();
+    final AtomicReference<LoadTest> test = new AtomicReference<LoadTest>();
+    final Client client = new Client() {
+      @Override
+      public ListenableFuture<Response> execute(final Request request) {
+        if (executed.incrementAndGet() == 20) {
+          test.get().stopTest();
+          final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(500);
+          while (!shutdown.get() && System.nanoTime() < deadline) {
+            Uninterruptibles.sleepUninterruptibly(1, TimeUnit.MILLISECONDS);
+          }
+        }
+        if (shutdown.get()) {
+          throw new RejectedExecutionException("client is shut down");
+        }
+        return Futures.immediateFuture(LoadTestTest.this.response);
+      }
+
+      @Override
+      public ListenableFuture<Integer> shutdown(final boolean immediate, final int timeout) {
+        shutdown.set(true);
+        return Futures.immediateFuture(0);
+      }
+    };
+    final Scheduler scheduler = new ConcurrentRequestScheduler(8, 0.0, TimeUnit.SECONDS);
+    test.set(new LoadTest(this.requestManager, client, scheduler, this.eventBus, this.dispatcher,
+        true, 0, false, false, 8));
+    this.handler.setLoadTest(test.get());
+
+    // the client is shut down only after the request has been submitted, and its completion is
+    // delivered to listeners
+    assertThat(test.get().call().result, is(0));
+    assertThat(this.stats.get(Operation.WRITE, Counter.OPERATIONS), is((long) executed.get()));
+  }
+
+  @Test
+  public void pipelineDispatchesOnCompletionThread() {
+    // completions are published to the pipeline by the thread which completed the request, here
+    // the producer, rather than by a response callback thread
+    final Set<String> threads = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+    final CompletionPipeline pipeline = new CompletionPipeline(this.handler, 16) {
+      @Override
+      public void dispatch(final Request request, final Response response) {
+        threads.add(Thread.currentThread().getName());
+        super.dispatch(request, response);
+      }
+    };
+    final LoadTest test = new LoadTest(this.requestManager, this.client, this.scheduler,
+        this.eventBus, pipeline, true, 0, false, false, 1);
+    this.handler.setLoadTest(test);
+    pipeline.register(this.stats);
+    pipeline.register((CompletionListener) new CounterCondition(Operation.WRITE,
+        Counter.OPERATIONS, 5, test, this.stats, false));
+
+    assertThat(test.call().result, is(0));
+    assertThat(this.stats.get(Operation.WRITE, Counter.OPERATIONS), greaterThanOrEqualTo(5L));
+    assertThat(threads, is((Set<String>) ImmutableSet.of("loadtest-scheduler")));
+  }
 }
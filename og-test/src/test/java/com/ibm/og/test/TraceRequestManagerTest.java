@@ -0,0 +1,87 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import com.google.common.base.Supplier;
+import com.ibm.og.api.Operation;
+import com.ibm.og.api.Request;
+import com.ibm.og.scheduling.TraceScheduler;
+import com.ibm.og.scheduling.trace.TraceEntry;
+import com.tngtech.java.junit.dataprovider.DataProvider;
+import com.tngtech.java.junit.dataprovider.DataProviderRunner;
+import com.tngtech.java.junit.dataprovider.UseDataProvider;
+
+@RunWith(DataProviderRunner.class)
+public class TraceRequestManagerTest {
+  private TraceScheduler scheduler;
+  private Supplier<Request> write;
+  private Supplier<Request> read;
+  private TraceRequestManager manager;
+
+  @SuppressWarnings("unchecked")
+  @Before
+  public void before() {
+    this.scheduler = mock(TraceScheduler.class);
+    this.write = mock(Supplier.class);
+    this.read = mock(Supplier.class);
+    final Supplier<Request> other = mock(Supplier.class);
+    this.manager =
+        new TraceRequestManager(this.scheduler, this.write, other, this.read, other, other);
+  }
+
+  @Test
+  public void get() {
+    final Request writeRequest = mock(Request.class);
+    final Request readRequest = mock(Request.class);
+    when(this.write.get()).thenReturn(writeRequest);
+    when(this.read.get()).thenReturn(readRequest);
+    when(this.scheduler.current()).thenReturn(
+        new TraceEntry(0, Operation.WRITE, "object", 10L),
+        new TraceEntry(1, Operation.READ, "object", null));
+
+    assertThat(this.manager.get(), is(writeRequest));
+    assertThat(this.manager.get(), is(readRequest));
+  }
+
+  @Test(expected = NoMoreRequestsException.class)
+  public void finished() {
+    this.manager.get();
+  }
+
+  @Test
+  public void stop() {
+    this.manager.setShutdownImmediate(true);
+    this.manager.setAbort(true);
+    verify(this.scheduler, times(2)).stop();
+  }
+
+  @DataProvider
+  public static Object[][] provideReplayable() {
+    return new Object[][] {{Operation.WRITE, "object", 10L, true},
+        {Operation.WRITE, "object", null, false}, {Operation.OVERWRITE, null, 10L, false},
+        {Operation.READ, "object", null, true}, {Operation.METADATA, "object", null, true},
+        {Operation.DELETE, null, null, false}, {Operation.LIST, "object", 10L, false}};
+  }
+
+  @Test
+  @UseDataProvider("provideReplayable")
+  public void replayable(final Operation operation, final String object, final Long size,
+      final boolean replayable) {
+    assertThat(TraceRequestManager.REPLAYABLE.apply(new TraceEntry(0, operation, object, size)),
+        is(replayable));
+  }
+}
@@ -0,0 +1,91 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.test.condition;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+
+import com.google.common.collect.Lists;
+import com.tngtech.java.junit.dataprovider.DataProvider;
+import com.tngtech.java.junit.dataprovider.DataProviderRunner;
+import com.tngtech.java.junit.dataprovider.UseDataProvider;
+
+@RunWith(DataProviderRunner.class)
+public class RateSearchTest {
+  @Rule
+  public ExpectedException thrown = ExpectedException.none();
+
+  @DataProvider
+  public static Object[][] provideInvalidRateSearch() {
+    return new Object[][] {{10.0, 0.0, 100.0, 0.1}, {10.0, 20.0, 100.0, 0.1},
+        {10.0, 1.0, 5.0, 0.1}, {10.0, 1.0, 100.0, 0.0}, {10.0, 1.0, 100.0, 1.0}};
+  }
+
+  @Test
+  @UseDataProvider("provideInvalidRateSearch")
+  public void invalidRateSearch(final double initialRate, final double minRate,
+      final double maxRate, final double precision) {
+    this.thrown.expect(IllegalArgumentException.class);
+    new RateSearch(initialRate, minRate, maxRate, precision);
+  }
+
+  // runs a search against a target which sustains rates up to and including knee
+  private static List<Double> search(final RateSearch search, final double knee) {
+    final List<Double> rates = Lists.newArrayList();
+    while (!search.isDone()) {
+      final double rate = search.rate();
+      rates.add(rate);
+      search.update(rate <= knee);
+    }
+    return rates;
+  }
+
+  @Test
+  public void searchUp() {
+    final RateSearch search = new RateSearch(100.0, 1.0, 10000.0, 0.1);
+    assertThat(search(search, 500.0),
+        contains(100.0, 200.0, 400.0, 800.0, 600.0, 500.0, 550.0));
+    assertThat(search.passed(), is(500.0));
+  }
+
+  @Test
+  public void searchDown() {
+    final RateSearch search = new RateSearch(100.0, 1.0, 10000.0, 0.15);
+    assertThat(search(search, 30.0), contains(100.0, 50.0, 25.0, 37.5, 31.25, 28.125));
+    assertThat(search.passed(), is(28.125));
+  }
+
+  @Test
+  public void maxRate() {
+    final RateSearch search = new RateSearch(100.0, 1.0, 300.0, 0.1);
+    assertThat(search(search, 1000.0), contains(100.0, 200.0, 300.0));
+    assertThat(search.passed(), is(300.0));
+  }
+
+  @Test
+  public void minRate() {
+    final RateSearch search = new RateSearch(100.0, 30.0, 1000.0, 0.1);
+    assertThat(search(search, 10.0), contains(100.0, 50.0));
+    assertThat(search.passed(), is(0.0));
+  }
+
+  @Test
+  public void done() {
+    final RateSearch search = new RateSearch(100.0, 1.0, 100.0, 0.1);
+    search.update(true);
+    assertThat(search.isDone(), is(true));
+    this.thrown.expect(IllegalStateException.class);
+    search.rate();
+  }
+}
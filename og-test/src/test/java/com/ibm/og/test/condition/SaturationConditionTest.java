@@ -0,0 +1,200 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.test.condition;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+
+import com.ibm.og.api.Request;
+import com.ibm.og.api.RequestTimestamps;
+import com.ibm.og.api.Response;
+import com.ibm.og.scheduling.VariableRequestRateScheduler;
+import com.ibm.og.test.LoadTest;
+import com.ibm.og.util.TestState;
+import com.tngtech.java.junit.dataprovider.DataProvider;
+import com.tngtech.java.junit.dataprovider.DataProviderRunner;
+import com.tngtech.java.junit.dataprovider.UseDataProvider;
+
+@RunWith(DataProviderRunner.class)
+public class SaturationConditionTest {
+  private static final TimeUnit UNIT = TimeUnit.MILLISECONDS;
+  @Rule
+  public ExpectedException thrown = ExpectedException.none();
+
+  @DataProvider
+  public static Object[][] provideInvalidSaturationCondition() {
+    final LoadTest test = mock(LoadTest.class);
+    final VariableRequestRateScheduler s = new VariableRequestRateScheduler(10.0, TimeUnit.SECONDS);
+    return new Object[][] {
+        {null, s, 99.0, 100.0, UNIT, 0.0, 1.0, 100.0, 200.0, UNIT, NullPointerException.class},
+        {test, null, 99.0, 100.0, UNIT, 0.0, 1.0, 100.0, 200.0, UNIT, NullPointerException.class},
+        {test, s, 0.0, 100.0, UNIT, 0.0, 1.0, 100.0, 200.0, UNIT, IllegalArgumentException.class},
+        {test, s, 101.0, 100.0, UNIT, 0.0, 1.0, 100.0, 200.0, UNIT,
+            IllegalArgumentException.class},
+        {test, s, 99.0, 0.0, UNIT, 0.0, 1.0, 100.0, 200.0, UNIT, IllegalArgumentException.class},
+        {test, s, 99.0, 100.0, null, 0.0, 1.0, 100.0, 200.0, UNIT, NullPointerException.class},
+        {test, s, 99.0, 100.0, UNIT, -0.1, 1.0, 100.0, 200.0, UNIT,
+            IllegalArgumentException.class},
+        {test, s, 99.0, 100.0, UNIT, 1.1, 1.0, 100.0, 200.0, UNIT,
+            IllegalArgumentException.class},
+        {test, s, 99.0, 100.0, UNIT, 0.0, 20.0, 100.0, 200.0, UNIT,
+            IllegalArgumentException.class},
+        {test, s, 99.0, 100.0, UNIT, 0.0, 1.0, 5.0, 200.0, UNIT, IllegalArgumentException.class},
+        {test, s, 99.0, 100.0, UNIT, 0.0, 1.0, 100.0, 0.0, UNIT, IllegalArgumentException.class},
+        {test, s, 99.0, 100.0, UNIT, 0.0, 1.0, 100.0, 200.0, null, NullPointerException.class}};
+  }
+
+  @Test
+  @UseDataProvider("provideInvalidSaturationCondition")
+  public void invalidSaturationCondition(final LoadTest test,
+      final VariableRequestRateScheduler scheduler, final double percentile, final double latency,
+      final TimeUnit latencyUnit, final double errorRate, final double minRate,
+      final double maxRate, final double stepDuration, final TimeUnit stepUnit,
+      final Class<Exception> expectedException) {
+    this.thrown.expect(expectedException);
+    new SaturationCondition(test, scheduler, percentile, latency, latencyUnit, errorRate, minRate,
+        maxRate, 0.1, stepDuration, stepUnit);
+  }
+
+  // drives a simulated target, which responds slowly above a knee rate, until the search is done
+  private static void run(final SaturationCondition condition,
+      final VariableRequestRateScheduler scheduler, final double knee, final int statusCode) {
+    condition.update(TestState.RUNNING);
+    final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+    while (!condition.isTriggered() && System.nanoTime() < deadline) {
+      final long intendedStart = scheduler.schedule();
+      final long latency = scheduler.getRate() <= knee ? 10 : 500;
+      final Request request = mock(Request.class);
+      condition.update(request);
+      condition.complete(request, response(intendedStart, latency, statusCode));
+    }
+  }
+
+  private static Response response(final long intendedStart, final long latencyMillis,
+      final int statusCode) {
+    final RequestTimestamps timestamps = new RequestTimestamps();
+    timestamps.intendedStart = intendedStart;
+    timestamps.start = intendedStart;
+    timestamps.finish = intendedStart + TimeUnit.MILLISECONDS.toNanos(latencyMillis);
+    final Response response = mock(Response.class);
+    when(response.getStatusCode()).thenReturn(statusCode);
+    when(response.getRequestTimestamps()).thenReturn(timestamps);
+    return response;
+  }
+
+  // starts requests at a single rate until the search is done; each request completes after
+  // latencyMillis, or never if latencyMillis is negative
+  private static void runSlow(final SaturationCondition condition,
+      final VariableRequestRateScheduler scheduler, final long latencyMillis) {
+    final ScheduledExecutorService completions = Executors.newSingleThreadScheduledExecutor();
+    try {
+      condition.update(TestState.RUNNING);
+      final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+      while (!condition.isTriggered() && System.nanoTime() < deadline) {
+        final long intendedStart = scheduler.schedule();
+        final Request request = mock(Request.class);
+        condition.update(request);
+        if (latencyMillis >= 0) {
+          final Response response = response(intendedStart, latencyMillis, 200);
+          completions.schedule(new Runnable() {
+            @Override
+            public void run() {
+              condition.complete(request, response);
+            }
+          }, latencyMillis, TimeUnit.MILLISECONDS);
+        }
+      }
+    } finally {
+      completions.shutdownNow();
+    }
+  }
+
+  @Test
+  public void saturationCondition() {
+    final LoadTest test = mock(LoadTest.class);
+    final VariableRequestRateScheduler scheduler =
+        new VariableRequestRateScheduler(100.0, TimeUnit.SECONDS);
+    final SaturationCondition condition = new SaturationCondition(test, scheduler, 99.0, 100.0,
+        TimeUnit.MILLISECONDS, 0.001, 1.0, 10000.0, 0.1, 200.0, TimeUnit.MILLISECONDS);
+
+    assertThat(condition.isTriggered(), is(false));
+    run(condition, scheduler, 500.0, 200);
+
+    verify(test, timeout(1000)).stopTest();
+    assertThat(condition.isTriggered(), is(true));
+    assertThat(condition.getKnee(), is(500.0));
+    // 100, 200, 400, 800, 600, 500, 550
+    assertThat(condition.getSteps(), hasSize(7));
+    assertThat(condition.getSteps().get(3).isPass(), is(false));
+    assertThat(condition.getSteps().get(5).isPass(), is(true));
+  }
+
+  @Test
+  public void errorRate() {
+    final LoadTest test = mock(LoadTest.class);
+    final VariableRequestRateScheduler scheduler =
+        new VariableRequestRateScheduler(100.0, TimeUnit.SECONDS);
+    final SaturationCondition condition = new SaturationCondition(test, scheduler, 99.0, 100.0,
+        TimeUnit.MILLISECONDS, 0.001, 60.0, 1000.0, 0.1, 200.0, TimeUnit.MILLISECONDS);
+
+    run(condition, scheduler, 1000.0, 500);
+
+    verify(test, timeout(1000)).stopTest();
+    assertThat(condition.getKnee(), is(0.0));
+    assertThat(condition.getSteps(), hasSize(1));
+    assertThat(condition.getSteps().get(0).getErrorRate(), is(1.0));
+  }
+
+  @Test
+  public void slowCompletionsAfterStep() {
+    // most of the step's requests complete after the step ends, within the latency objective
+    final LoadTest test = mock(LoadTest.class);
+    final VariableRequestRateScheduler scheduler =
+        new VariableRequestRateScheduler(100.0, TimeUnit.SECONDS);
+    final SaturationCondition condition = new SaturationCondition(test, scheduler, 99.0, 200.0,
+        TimeUnit.MILLISECONDS, 0.0, 100.0, 100.0, 0.1, 200.0, TimeUnit.MILLISECONDS);
+
+    runSlow(condition, scheduler, 150);
+
+    verify(test, timeout(1000)).stopTest();
+    assertThat(condition.getSteps(), hasSize(1));
+    assertThat(condition.getSteps().get(0).isPass(), is(true));
+    assertThat(condition.getKnee(), is(100.0));
+  }
+
+  @Test
+  public void inFlightTimeout() {
+    // requests which never complete are waited for a bounded time and exceed the objective
+    final LoadTest test = mock(LoadTest.class);
+    final VariableRequestRateScheduler scheduler =
+        new VariableRequestRateScheduler(100.0, TimeUnit.SECONDS);
+    final SaturationCondition condition = new SaturationCondition(test, scheduler, 99.0, 200.0,
+        TimeUnit.MILLISECONDS, 0.0, 100.0, 100.0, 0.1, 200.0, TimeUnit.MILLISECONDS);
+
+    runSlow(condition, scheduler, -1);
+
+    verify(test, timeout(1000)).stopTest();
+    assertThat(condition.getSteps(), hasSize(1));
+    assertThat(condition.getSteps().get(0).isPass(), is(false));
+    assertThat(condition.getSteps().get(0).getLatencyMillis(), greaterThan(200.0));
+    assertThat(condition.getKnee(), is(0.0));
+  }
+}
@@ -62,6 +62,8 @@ public class Context {
   public static final String X_OG_AMZ_CHECKSUM_ALGORITHM = "x-amz-checksum-algorithm";
   public static final String X_OG_AMZ_CHECKSUM_TYPE = "x-amz-checksum-type";
   public static final String X_OG_AMZ_CHECKSUM_VALUE = "x-amz-checksum-value";
+  public static final String X_OG_AMZ_TRAILER = "x-amz-trailer";
+  public static final String X_OG_AMZ_SDK_CHECKSUM_ALGORITHM = "x-amz-sdk-checksum-algorithm";
 
 
   public static final String X_OG_OBJECT_RESTORE_PERIOD = "x-og-object-restore-period";
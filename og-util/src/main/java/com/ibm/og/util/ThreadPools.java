@@ -0,0 +1,101 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.util;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * A utility class for creating unbounded executors which run each task on either a pooled platform
+ * thread or a new virtual thread. Virtual threads are resolved reflectively so that og continues to
+ * run on jvms which predate them; on such jvms requests for virtual threads fall back to platform
+ * threads.
+ */
+public class ThreadPools {
+  private static final Logger _logger = LoggerFactory.getLogger(ThreadPools.class);
+  private static final ThreadFactory VIRTUAL_THREAD_FACTORY;
+  private static final Method NEW_THREAD_PER_TASK_EXECUTOR;
+
+  static {
+    ThreadFactory factory = null;
+    Method perTaskExecutor = null;
+    try {
+      final Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+      factory = (ThreadFactory) Class.forName("java.lang.Thread$Builder").getMethod("factory")
+          .invoke(builder);
+      perTaskExecutor = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+    } catch (final Exception e) {
+      // virtual threads are unavailable, or are a disabled preview feature on this jvm
+      factory = null;
+      perTaskExecutor = null;
+    }
+    VIRTUAL_THREAD_FACTORY = factory;
+    NEW_THREAD_PER_TASK_EXECUTOR = perTaskExecutor;
+  }
+
+  private ThreadPools() {}
+
+  /**
+   * Determines whether the running jvm supports virtual threads
+   *
+   * @return true if virtual threads are supported, else false
+   */
+  public static boolean virtualThreadsSupported() {
+    return VIRTUAL_THREAD_FACTORY != null;
+  }
+
+  /**
+   * Creates an unbounded executor. If {@code virtual} is true and virtual threads are supported,
+   * each submitted task is run on a new virtual thread; otherwise tasks are run on a cached pool of
+   * platform threads.
+   *
+   * @param nameFormat a {@link String#format(String, Object...)} compatible format string used to
+   *        name created threads, to which a unique long will be supplied
+   * @param virtual whether to run tasks on virtual threads
+   * @return a new executor
+   * @throws NullPointerException if nameFormat is null
+   */
+  public static ExecutorService newCachedThreadPool(final String nameFormat,
+      final boolean virtual) {
+    checkNotNull(nameFormat);
+    if (virtual) {
+      if (virtualThreadsSupported()) {
+        return newVirtualThreadPerTaskExecutor(nameFormat);
+      }
+      _logger.warn("Virtual threads are not supported by this jvm [{}], using platform threads",
+          System.getProperty("java.version"));
+    }
+    final ThreadFactory fac = new ThreadFactoryBuilder().setNameFormat(nameFormat).build();
+    return Executors.newCachedThreadPool(fac);
+  }
+
+  private static ExecutorService newVirtualThreadPerTaskExecutor(final String nameFormat) {
+    final AtomicLong count = new AtomicLong();
+    final ThreadFactory fac = new ThreadFactory() {
+      @Override
+      public Thread newThread(final Runnable r) {
+        final Thread thread = VIRTUAL_THREAD_FACTORY.newThread(r);
+        thread.setName(String.format(nameFormat, count.getAndIncrement()));
+        return thread;
+      }
+    };
+    try {
+      return (ExecutorService) NEW_THREAD_PER_TASK_EXECUTOR.invoke(null, fac);
+    } catch (final Exception e) {
+      throw new IllegalStateException("Unable to create virtual thread executor", e);
+    }
+  }
+}
@@ -0,0 +1,169 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.util.io;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.InputStream;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+/**
+ * An input stream of pseudorandom bytes which never repeat within a stream. Unlike the repeating
+ * buffer used for {@code RANDOM} data, content produced by this stream is not reduced by
+ * compression or deduplication.
+ * <p>
+ * The stream is counter based: the eight bytes at word offset {@code n} are the {@code n+1}th
+ * output of a SplitMix64 generator seeded with the stream's seed, computed directly rather than by
+ * stepping the generator. Content is therefore fully determined by the seed, any offset can be
+ * reached in constant time, and a range of a stream can be regenerated later for verification
+ * with {@link #fill(long, long, byte[], int, int)}.
+ *
+ * @since 1.0
+ */
+public class EntropyInputStream extends InputStream {
+  private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+  private static final VarHandle LONGS =
+      MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+  private final long seed;
+  private final long size;
+  private long position;
+  private long mark;
+
+  /**
+   * Constructs an input stream of {@code size} pseudorandom bytes
+   *
+   * @param seed the seed which determines the content of this stream
+   * @param size the number of bytes in this stream
+   * @throws IllegalArgumentException if size is negative
+   */
+  public EntropyInputStream(final long seed, final long size) {
+    checkArgument(size >= 0, "size must be >= 0 [%s]", size);
+    this.seed = seed;
+    this.size = size;
+    this.position = 0;
+    this.mark = 0;
+  }
+
+  /**
+   * Returns the eight bytes, in little endian order, at word offset {@code index} of a stream with
+   * the provided seed
+   *
+   * @param seed the seed of the stream
+   * @param index the word offset
+   * @return the word at the provided offset
+   */
+  public static long word(final long seed, final long index) {
+    long z = seed + (index + 1) * GOLDEN_GAMMA;
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+
+  /**
+   * Writes the content of a stream with the provided seed, starting at byte offset
+   * {@code position}, into a byte array
+   *
+   * @param seed the seed of the stream
+   * @param position the offset in the stream of the first byte to write
+   * @param b the destination array
+   * @param off the offset in {@code b} at which to start writing
+   * @param len the number of bytes to write
+   * @throws NullPointerException if b is null
+   * @throws IndexOutOfBoundsException if off or len are out of range for b
+   * @throws IllegalArgumentException if position is negative
+   */
+  public static void fill(final long seed, final long position, final byte[] b, final int off,
+      final int len) {
+    checkNotNull(b);
+    checkArgument(position >= 0, "position must be >= 0 [%s]", position);
+    if (off < 0 || len < 0 || len > b.length - off) {
+      throw new IndexOutOfBoundsException();
+    }
+
+    int i = 0;
+    // leading bytes up to a word boundary
+    while (i < len && ((position + i) & 7) != 0) {
+      b[off + i] = byteAt(seed, position + i);
+      i++;
+    }
+    long index = (position + i) >>> 3;
+    for (; i + 8 <= len; i += 8) {
+      LONGS.set(b, off + i, word(seed, index++));
+    }
+    // trailing partial word
+    for (; i < len; i++) {
+      b[off + i] = byteAt(seed, position + i);
+    }
+  }
+
+  private static byte byteAt(final long seed, final long position) {
+    return (byte) (word(seed, position >>> 3) >>> ((position & 7) << 3));
+  }
+
+  @Override
+  public int read() {
+    if (this.position >= this.size) {
+      return -1;
+    }
+    return byteAt(this.seed, this.position++) & 0xFF;
+  }
+
+  @Override
+  public int read(final byte[] b, final int off, final int len) {
+    checkNotNull(b);
+    if (off < 0 || len < 0 || len > b.length - off) {
+      throw new IndexOutOfBoundsException();
+    } else if (len == 0) {
+      return 0;
+    } else if (this.position >= this.size) {
+      return -1;
+    }
+
+    final int toRead = (int) Math.min(len, this.size - this.position);
+    fill(this.seed, this.position, b, off, toRead);
+    this.position += toRead;
+    return toRead;
+  }
+
+  @Override
+  public long skip(final long n) {
+    if (n <= 0) {
+      return 0;
+    }
+    final long skipped = Math.min(n, this.size - this.position);
+    this.position += skipped;
+    return skipped;
+  }
+
+  @Override
+  public int available() {
+    return (int) Math.min(Integer.MAX_VALUE, this.size - this.position);
+  }
+
+  @Override
+  public void mark(final int readlimit) {
+    this.mark = this.position;
+  }
+
+  @Override
+  public void reset() {
+    this.position = this.mark;
+  }
+
+  @Override
+  public boolean markSupported() {
+    return true;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("EntropyInputStream [seed=%s, size=%s, position=%s]", this.seed,
+        this.size, this.position);
+  }
+}
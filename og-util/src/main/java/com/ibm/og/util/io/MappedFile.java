@@ -0,0 +1,115 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.util.io;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A read-only memory mapping of a file. Files larger than the maximum size of a single mapping are
+ * mapped as several consecutive segments. The mapping is shared by every stream created from this
+ * instance, so file content is read from the page cache rather than copied onto the java heap.
+ *
+ * @since 1.0
+ */
+public class MappedFile {
+  private static final int DEFAULT_SEGMENT_SIZE = 1 << 30;
+  private final File file;
+  private final long size;
+  private final ByteBuffer[] segments;
+
+  /**
+   * Maps the provided file
+   *
+   * @param file the file to map
+   * @throws NullPointerException if file is null
+   * @throws IOException if the file cannot be opened or mapped
+   */
+  public MappedFile(final File file) throws IOException {
+    this(file, DEFAULT_SEGMENT_SIZE);
+  }
+
+  MappedFile(final File file, final int segmentSize) throws IOException {
+    this.file = checkNotNull(file);
+    checkArgument(segmentSize > 0, "segmentSize must be > 0 [%s]", segmentSize);
+    final FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+    try {
+      this.size = channel.size();
+      final int count = (int) ((this.size + segmentSize - 1) / segmentSize);
+      this.segments = new ByteBuffer[count];
+      for (int i = 0; i < count; i++) {
+        final long position = (long) i * segmentSize;
+        final long length = Math.min(segmentSize, this.size - position);
+        this.segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+      }
+    } finally {
+      // the mapping remains valid after the channel is closed
+      channel.close();
+    }
+  }
+
+  /**
+   * @return the mapped file
+   */
+  public File getFile() {
+    return this.file;
+  }
+
+  /**
+   * @return the size of the mapped file, in bytes
+   */
+  public long getSize() {
+    return this.size;
+  }
+
+  /**
+   * Creates a new input stream over the content of this file. Streams are independent of each
+   * other and support mark and reset.
+   *
+   * @return a new input stream
+   */
+  public MappedFileInputStream newInputStream() {
+    final ByteBuffer[] views = new ByteBuffer[this.segments.length];
+    for (int i = 0; i < views.length; i++) {
+      views[i] = this.segments[i].duplicate();
+    }
+    return new MappedFileInputStream(views);
+  }
+
+  /**
+   * Copies the content of this file onto the heap
+   *
+   * @return the content of this file
+   * @throws IllegalStateException if this file is too large to fit in a byte array
+   */
+  public byte[] toByteArray() {
+    if (this.size > Integer.MAX_VALUE - 8) {
+      throw new IllegalStateException(
+          String.format("File %s is too large to copy onto the heap [%s]", this.file, this.size));
+    }
+    final byte[] data = new byte[(int) this.size];
+    int offset = 0;
+    for (final ByteBuffer segment : this.segments) {
+      final ByteBuffer view = segment.duplicate();
+      final int length = view.remaining();
+      view.get(data, offset, length);
+      offset += length;
+    }
+    return data;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("MappedFile [file=%s, size=%s, segments=%s]", this.file, this.size,
+        this.segments.length);
+  }
+}
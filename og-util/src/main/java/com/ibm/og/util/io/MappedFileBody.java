@@ -0,0 +1,22 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.util.io;
+
+import com.ibm.og.api.Body;
+
+/**
+ * A description of a body whose content is a memory mapped file
+ *
+ * @since 1.0
+ */
+public interface MappedFileBody extends Body {
+  /**
+   * Creates a new input stream over the mapped content of the file
+   *
+   * @return a new input stream
+   */
+  MappedFileInputStream newInputStream();
+}
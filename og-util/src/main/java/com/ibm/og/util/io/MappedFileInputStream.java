@@ -0,0 +1,140 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.util.io;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * An input stream over the segments of a {@link MappedFile}. In addition to the usual read methods,
+ * content may be consumed as read-only views of the mapping with {@link #readBuffer(int)}, which
+ * lets a caller hand file content directly to a channel without copying it.
+ *
+ * @since 1.0
+ */
+public class MappedFileInputStream extends InputStream {
+  private final ByteBuffer[] segments;
+  private int segment;
+  private int markSegment;
+  private int markPosition;
+
+  MappedFileInputStream(final ByteBuffer[] segments) {
+    this.segments = checkNotNull(segments);
+    this.segment = 0;
+    this.markSegment = 0;
+    this.markPosition = 0;
+  }
+
+  // returns the current segment, advancing past exhausted segments, or null at end of stream
+  private ByteBuffer current() {
+    while (this.segment < this.segments.length) {
+      final ByteBuffer buffer = this.segments[this.segment];
+      if (buffer.hasRemaining()) {
+        return buffer;
+      }
+      this.segment++;
+    }
+    return null;
+  }
+
+  @Override
+  public int read() {
+    final ByteBuffer buffer = current();
+    if (buffer == null) {
+      return -1;
+    }
+    return buffer.get() & 0xFF;
+  }
+
+  @Override
+  public int read(final byte[] b, final int off, final int len) {
+    checkNotNull(b);
+    if (off < 0 || len < 0 || len > b.length - off) {
+      throw new IndexOutOfBoundsException();
+    } else if (len == 0) {
+      return 0;
+    }
+
+    int copied = 0;
+    ByteBuffer buffer;
+    while (copied < len && (buffer = current()) != null) {
+      final int toCopy = Math.min(buffer.remaining(), len - copied);
+      buffer.get(b, off + copied, toCopy);
+      copied += toCopy;
+    }
+    return copied > 0 ? copied : -1;
+  }
+
+  /**
+   * Reads up to {@code maxLength} bytes as a read-only view of the underlying mapping, without
+   * copying. The returned buffer never spans more than one segment, so it may contain fewer than
+   * {@code maxLength} bytes even if more content remains.
+   *
+   * @param maxLength the maximum number of bytes to read
+   * @return a buffer positioned at the content read, or null at end of stream
+   * @throws IllegalArgumentException if maxLength is not positive
+   */
+  public ByteBuffer readBuffer(final int maxLength) {
+    checkArgument(maxLength > 0, "maxLength must be > 0 [%s]", maxLength);
+    final ByteBuffer buffer = current();
+    if (buffer == null) {
+      return null;
+    }
+    final ByteBuffer view = buffer.slice();
+    view.limit(Math.min(maxLength, view.remaining()));
+    buffer.position(buffer.position() + view.remaining());
+    return view.asReadOnlyBuffer();
+  }
+
+  @Override
+  public long skip(final long n) {
+    long skipped = 0;
+    ByteBuffer buffer;
+    while (skipped < n && (buffer = current()) != null) {
+      final int toSkip = (int) Math.min(buffer.remaining(), n - skipped);
+      buffer.position(buffer.position() + toSkip);
+      skipped += toSkip;
+    }
+    return skipped;
+  }
+
+  @Override
+  public int available() {
+    long available = 0;
+    for (int i = this.segment; i < this.segments.length; i++) {
+      available += this.segments[i].remaining();
+    }
+    return (int) Math.min(Integer.MAX_VALUE, available);
+  }
+
+  @Override
+  public void mark(final int readlimit) {
+    this.markSegment = this.segment;
+    this.markPosition = this.segment < this.segments.length
+        ? this.segments[this.segment].position() : 0;
+  }
+
+  @Override
+  public void reset() {
+    for (int i = this.markSegment; i < this.segments.length; i++) {
+      this.segments[i].position(i == this.markSegment ? this.markPosition : 0);
+    }
+    this.segment = this.markSegment;
+  }
+
+  @Override
+  public boolean markSupported() {
+    return true;
+  }
+
+  @Override
+  public String toString() {
+    return "MappedFileInputStream []";
+  }
+}
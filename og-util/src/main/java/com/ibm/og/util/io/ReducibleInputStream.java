@@ -0,0 +1,159 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.util.io;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * An input stream of generated data which reduces by a controlled ratio under compression and
+ * block level deduplication.
+ * <p>
+ * The stream is a sequence of fixed size blocks. Each block begins with {@code 1/compressionRatio}
+ * of its length in pseudorandom bytes and is padded with zeroes, so a compressor reduces it by
+ * approximately the compression ratio. For each block, a choice fixed by the stream's seed and the
+ * block's index selects either unique content, with probability {@code 1/dedupeRatio}, or one of
+ * {@value #POOL_BLOCKS} pool blocks shared by every stream with the same block size and compression
+ * ratio. Once the pool has been written, the ratio of logical to unique blocks therefore tends to
+ * the dedupe ratio. Like {@link EntropyInputStream}, content is determined by the seed and any
+ * offset can be reached in constant time.
+ *
+ * @since 1.0
+ */
+public class ReducibleInputStream extends InputStream {
+  public static final int POOL_BLOCKS = 1024;
+  private static final long POOL_SEED = 0x5DEECE66DL;
+  private final long seed;
+  private final long size;
+  private final int blockSize;
+  private final int randomLength;
+  // probability that a block is unique, scaled to the range of a non-negative long
+  private final long uniqueThreshold;
+  private long position;
+  private long mark;
+  private long block;
+  private long blockSeed;
+
+  /**
+   * Constructs an input stream of {@code size} reducible bytes
+   *
+   * @param seed the seed which determines the content of this stream
+   * @param size the number of bytes in this stream
+   * @param compressionRatio the target ratio of uncompressed to compressed size
+   * @param dedupeRatio the target ratio of logical to unique blocks
+   * @param blockSize the size of the blocks which are duplicated, in bytes
+   * @throws IllegalArgumentException if size is negative, either ratio is less than 1.0, or
+   *         blockSize is not positive
+   */
+  public ReducibleInputStream(final long seed, final long size, final double compressionRatio,
+      final double dedupeRatio, final int blockSize) {
+    checkArgument(size >= 0, "size must be >= 0 [%s]", size);
+    checkArgument(compressionRatio >= 1.0, "compressionRatio must be >= 1.0 [%s]",
+        compressionRatio);
+    checkArgument(dedupeRatio >= 1.0, "dedupeRatio must be >= 1.0 [%s]", dedupeRatio);
+    checkArgument(blockSize > 0, "blockSize must be > 0 [%s]", blockSize);
+    this.seed = seed;
+    this.size = size;
+    this.blockSize = blockSize;
+    this.randomLength = Math.max(1, (int) Math.ceil(blockSize / compressionRatio));
+    this.uniqueThreshold = (long) (Long.MAX_VALUE / dedupeRatio);
+    this.position = 0;
+    this.mark = 0;
+    this.block = -1;
+  }
+
+  // the seed of the pseudorandom prefix of a block
+  private long blockSeed(final long index) {
+    if (index != this.block) {
+      final long choice = EntropyInputStream.word(this.seed, 2 * index) >>> 1;
+      if (choice <= this.uniqueThreshold) {
+        this.blockSeed = EntropyInputStream.word(this.seed, 2 * index + 1);
+      } else {
+        this.blockSeed = EntropyInputStream.word(POOL_SEED, choice % POOL_BLOCKS);
+      }
+      this.block = index;
+    }
+    return this.blockSeed;
+  }
+
+  @Override
+  public int read() {
+    if (this.position >= this.size) {
+      return -1;
+    }
+    final byte[] b = new byte[1];
+    read(b, 0, 1);
+    return b[0] & 0xFF;
+  }
+
+  @Override
+  public int read(final byte[] b, final int off, final int len) {
+    checkNotNull(b);
+    if (off < 0 || len < 0 || len > b.length - off) {
+      throw new IndexOutOfBoundsException();
+    } else if (len == 0) {
+      return 0;
+    } else if (this.position >= this.size) {
+      return -1;
+    }
+
+    final int toRead = (int) Math.min(len, this.size - this.position);
+    int copied = 0;
+    while (copied < toRead) {
+      final long index = this.position / this.blockSize;
+      final int offset = (int) (this.position % this.blockSize);
+      final int n = Math.min(toRead - copied, this.blockSize - offset);
+      final int random = Math.max(0, Math.min(n, this.randomLength - offset));
+      if (random > 0) {
+        EntropyInputStream.fill(blockSeed(index), offset, b, off + copied, random);
+      }
+      Arrays.fill(b, off + copied + random, off + copied + n, (byte) 0);
+      copied += n;
+      this.position += n;
+    }
+    return toRead;
+  }
+
+  @Override
+  public long skip(final long n) {
+    if (n <= 0) {
+      return 0;
+    }
+    final long skipped = Math.min(n, this.size - this.position);
+    this.position += skipped;
+    return skipped;
+  }
+
+  @Override
+  public int available() {
+    return (int) Math.min(Integer.MAX_VALUE, this.size - this.position);
+  }
+
+  @Override
+  public void mark(final int readlimit) {
+    this.mark = this.position;
+  }
+
+  @Override
+  public void reset() {
+    this.position = this.mark;
+  }
+
+  @Override
+  public boolean markSupported() {
+    return true;
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "ReducibleInputStream [seed=%s, size=%s, blockSize=%s, randomLength=%s, position=%s]",
+        this.seed, this.size, this.blockSize, this.randomLength, this.position);
+  }
+}
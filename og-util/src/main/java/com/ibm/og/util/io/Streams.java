@@ -12,6 +12,7 @@ import java.io.OutputStream;
 import java.util.Random;
 
 import com.ibm.og.api.Body;
+import com.ibm.og.api.ReducibleBody;
 import com.google.common.base.Charsets;
 import com.google.common.io.ByteStreams;
 
@@ -55,8 +56,16 @@ public class Streams {
       case ZEROES:
         return create(ZERO_BUF, body.getSize());
       case CUSTOM:
-      case FILE:
         return create(body.getData(), body.getSize());
+      case FILE:
+        // stream directly from the file mapping rather than from a heap copy of the file
+        return ((MappedFileBody) body).newInputStream();
+      case ENTROPY:
+        return new EntropyInputStream(body.getRandomSeed(), body.getSize());
+      case REDUCIBLE:
+        final ReducibleBody reducible = (ReducibleBody) body;
+        return new ReducibleInputStream(body.getRandomSeed(), body.getSize(),
+            reducible.getCompressionRatio(), reducible.getDedupeRatio(), reducible.getBlockSize());
       default:
         return create(createRandomBuffer(body.getRandomSeed()), body.getSize());
     }
@@ -0,0 +1,59 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+
+import org.junit.Test;
+
+public class ThreadPoolsTest {
+  @Test(expected = NullPointerException.class)
+  public void nullNameFormat() {
+    ThreadPools.newCachedThreadPool(null, false);
+  }
+
+  @Test
+  public void platformThreads() throws InterruptedException, ExecutionException {
+    final Thread thread = currentThread(ThreadPools.newCachedThreadPool("test-%d", false));
+    assertThat(thread.getName(), is("test-0"));
+    assertThat(isVirtual(thread), is(false));
+  }
+
+  @Test
+  public void virtualThreads() throws InterruptedException, ExecutionException {
+    final Thread thread = currentThread(ThreadPools.newCachedThreadPool("test-%d", true));
+    assertThat(thread.getName(), is("test-0"));
+    // falls back to platform threads when virtual threads are unsupported
+    assertThat(isVirtual(thread), is(ThreadPools.virtualThreadsSupported()));
+  }
+
+  private static Thread currentThread(final ExecutorService executorService)
+      throws InterruptedException, ExecutionException {
+    try {
+      return executorService.submit(new Callable<Thread>() {
+        @Override
+        public Thread call() {
+          return Thread.currentThread();
+        }
+      }).get();
+    } finally {
+      executorService.shutdown();
+    }
+  }
+
+  private static boolean isVirtual(final Thread thread) {
+    try {
+      return (Boolean) Thread.class.getMethod("isVirtual").invoke(thread);
+    } catch (final Exception e) {
+      return false;
+    }
+  }
+}
@@ -0,0 +1,148 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.util.io;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.zip.Deflater;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import com.google.common.io.ByteStreams;
+import com.tngtech.java.junit.dataprovider.DataProvider;
+import com.tngtech.java.junit.dataprovider.DataProviderRunner;
+import com.tngtech.java.junit.dataprovider.UseDataProvider;
+
+@RunWith(DataProviderRunner.class)
+public class EntropyInputStreamTest {
+  private static final long SEED = 42;
+
+  @Test(expected = IllegalArgumentException.class)
+  public void negativeSize() {
+    new EntropyInputStream(SEED, -1);
+  }
+
+  @Test
+  public void emptyStream() throws IOException {
+    final EntropyInputStream in = new EntropyInputStream(SEED, 0);
+    assertThat(in.read(), is(-1));
+    assertThat(in.read(new byte[1]), is(-1));
+    assertThat(in.available(), is(0));
+  }
+
+  @Test
+  public void size() throws IOException {
+    assertThat(ByteStreams.toByteArray(new EntropyInputStream(SEED, 1001)).length, is(1001));
+  }
+
+  @Test
+  public void deterministic() throws IOException {
+    final byte[] first = ByteStreams.toByteArray(new EntropyInputStream(SEED, 4096));
+    final byte[] second = ByteStreams.toByteArray(new EntropyInputStream(SEED, 4096));
+    final byte[] other = ByteStreams.toByteArray(new EntropyInputStream(SEED + 1, 4096));
+    assertThat(first, is(second));
+    assertThat(first, not(other));
+  }
+
+  @Test
+  public void splitMix64() {
+    // first outputs of the reference SplitMix64 generator seeded with 0
+    assertThat(EntropyInputStream.word(0, 0), is(0xE220A8397B1DCDAFL));
+    assertThat(EntropyInputStream.word(0, 1), is(0x6E789E6AA1B965F4L));
+  }
+
+  @Test
+  public void nonRepeating() throws IOException {
+    final byte[] data = ByteStreams.toByteArray(new EntropyInputStream(SEED, 1 << 20));
+    final Set<Long> words = new HashSet<Long>();
+    for (int i = 0; i < data.length; i += 8) {
+      long word = 0;
+      for (int j = 7; j >= 0; j--) {
+        word = (word << 8) | (data[i + j] & 0xFF);
+      }
+      words.add(word);
+    }
+    assertThat(words.size(), is(data.length / 8));
+  }
+
+  @Test
+  public void incompressible() throws IOException {
+    final byte[] data = ByteStreams.toByteArray(new EntropyInputStream(SEED, 1 << 20));
+    final Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+    deflater.setInput(data);
+    deflater.finish();
+    final byte[] out = new byte[data.length * 2];
+    final int compressed = deflater.deflate(out);
+    deflater.end();
+    assertThat(compressed >= data.length, is(true));
+  }
+
+  @DataProvider
+  public static Object[][] provideReadSize() {
+    return new Object[][] {{1}, {3}, {8}, {13}, {64}, {1000}};
+  }
+
+  @Test
+  @UseDataProvider("provideReadSize")
+  public void unalignedReads(final int readSize) throws IOException {
+    final byte[] expected = ByteStreams.toByteArray(new EntropyInputStream(SEED, 1000));
+    final EntropyInputStream in = new EntropyInputStream(SEED, 1000);
+    final byte[] actual = new byte[1000];
+    int offset = 0;
+    int read;
+    while ((read = in.read(actual, offset, Math.min(readSize, actual.length - offset))) > 0) {
+      offset += read;
+    }
+    assertThat(offset, is(1000));
+    assertThat(actual, is(expected));
+  }
+
+  @Test
+  public void singleByteReads() throws IOException {
+    final byte[] expected = ByteStreams.toByteArray(new EntropyInputStream(SEED, 100));
+    final EntropyInputStream in = new EntropyInputStream(SEED, 100);
+    for (int i = 0; i < expected.length; i++) {
+      assertThat(in.read(), is(expected[i] & 0xFF));
+    }
+    assertThat(in.read(), is(-1));
+  }
+
+  @Test
+  public void fill() throws IOException {
+    final byte[] expected = ByteStreams.toByteArray(new EntropyInputStream(SEED, 1000));
+    final byte[] range = new byte[500];
+    EntropyInputStream.fill(SEED, 123, range, 0, range.length);
+    assertThat(range, is(Arrays.copyOfRange(expected, 123, 623)));
+  }
+
+  @Test
+  public void skip() throws IOException {
+    final byte[] expected = ByteStreams.toByteArray(new EntropyInputStream(SEED, 1000));
+    final EntropyInputStream in = new EntropyInputStream(SEED, 1000);
+    assertThat(in.skip(333), is(333L));
+    assertThat(in.available(), is(667));
+    assertThat(ByteStreams.toByteArray(in), is(Arrays.copyOfRange(expected, 333, 1000)));
+    assertThat(in.skip(1), is(0L));
+  }
+
+  @Test
+  public void markReset() throws IOException {
+    final EntropyInputStream in = new EntropyInputStream(SEED, 1000);
+    assertThat(in.markSupported(), is(true));
+    in.skip(10);
+    in.mark(Integer.MAX_VALUE);
+    final byte[] rest = ByteStreams.toByteArray(in);
+    in.reset();
+    assertThat(ByteStreams.toByteArray(in), is(rest));
+  }
+}
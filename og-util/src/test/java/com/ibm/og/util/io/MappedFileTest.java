@@ -0,0 +1,127 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.util.io;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+
+import com.google.common.io.ByteStreams;
+import com.google.common.io.Files;
+import com.tngtech.java.junit.dataprovider.DataProvider;
+import com.tngtech.java.junit.dataprovider.DataProviderRunner;
+import com.tngtech.java.junit.dataprovider.UseDataProvider;
+
+@SuppressWarnings("resource")
+@RunWith(DataProviderRunner.class)
+public class MappedFileTest {
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+  private byte[] data;
+  private File file;
+
+  @Before
+  public void before() throws IOException {
+    this.data = new byte[100];
+    for (int i = 0; i < this.data.length; i++) {
+      this.data[i] = (byte) i;
+    }
+    this.file = this.folder.newFile();
+    Files.write(this.data, this.file);
+  }
+
+  @DataProvider
+  public static Object[][] provideSegmentSize() {
+    return new Object[][] {{1}, {7}, {50}, {100}, {1 << 30}};
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void nullFile() throws IOException {
+    new MappedFile(null);
+  }
+
+  @Test(expected = IOException.class)
+  public void missingFile() throws IOException {
+    new MappedFile(new File(this.folder.getRoot(), "missing"));
+  }
+
+  @Test
+  public void emptyFile() throws IOException {
+    final MappedFile mapped = new MappedFile(this.folder.newFile());
+    assertThat(mapped.getSize(), is(0L));
+    assertThat(mapped.toByteArray().length, is(0));
+    final MappedFileInputStream in = mapped.newInputStream();
+    assertThat(in.read(), is(-1));
+    assertThat(in.read(new byte[1]), is(-1));
+    assertThat(in.readBuffer(1), nullValue());
+  }
+
+  @Test
+  @UseDataProvider("provideSegmentSize")
+  public void read(final int segmentSize) throws IOException {
+    final MappedFile mapped = new MappedFile(this.file, segmentSize);
+    assertThat(mapped.getSize(), is((long) this.data.length));
+    assertThat(mapped.toByteArray(), is(this.data));
+    assertThat(ByteStreams.toByteArray(mapped.newInputStream()), is(this.data));
+
+    final MappedFileInputStream in = mapped.newInputStream();
+    for (int i = 0; i < this.data.length; i++) {
+      assertThat(in.available(), is(this.data.length - i));
+      assertThat(in.read(), is(i));
+    }
+    assertThat(in.read(), is(-1));
+  }
+
+  @Test
+  @UseDataProvider("provideSegmentSize")
+  public void readBuffer(final int segmentSize) throws IOException {
+    final MappedFileInputStream in = new MappedFile(this.file, segmentSize).newInputStream();
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    ByteBuffer buffer;
+    while ((buffer = in.readBuffer(16)) != null) {
+      assertThat(buffer.isReadOnly(), is(true));
+      assertThat(buffer.remaining() <= Math.min(16, segmentSize), is(true));
+      final byte[] b = new byte[buffer.remaining()];
+      buffer.get(b);
+      out.write(b);
+    }
+    assertThat(out.toByteArray(), is(this.data));
+  }
+
+  @Test
+  @UseDataProvider("provideSegmentSize")
+  public void markReset(final int segmentSize) throws IOException {
+    final MappedFileInputStream in = new MappedFile(this.file, segmentSize).newInputStream();
+    assertThat(in.markSupported(), is(true));
+    assertThat(in.skip(30), is(30L));
+    in.mark(Integer.MAX_VALUE);
+    final byte[] rest = ByteStreams.toByteArray(in);
+    assertThat(rest, is(Arrays.copyOfRange(this.data, 30, this.data.length)));
+    in.reset();
+    assertThat(ByteStreams.toByteArray(in), is(rest));
+  }
+
+  @Test
+  public void independentStreams() throws IOException {
+    final MappedFile mapped = new MappedFile(this.file, 7);
+    final MappedFileInputStream first = mapped.newInputStream();
+    first.skip(50);
+    assertThat(ByteStreams.toByteArray(mapped.newInputStream()), is(this.data));
+    assertThat(first.read(), is(50));
+  }
+}
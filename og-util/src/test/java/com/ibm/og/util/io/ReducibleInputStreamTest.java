@@ -0,0 +1,149 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.util.io;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.zip.Deflater;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import com.google.common.io.ByteStreams;
+import com.tngtech.java.junit.dataprovider.DataProvider;
+import com.tngtech.java.junit.dataprovider.DataProviderRunner;
+import com.tngtech.java.junit.dataprovider.UseDataProvider;
+
+@RunWith(DataProviderRunner.class)
+public class ReducibleInputStreamTest {
+  private static final long SEED = 42;
+
+  @DataProvider
+  public static Object[][] provideInvalidParameters() {
+    return new Object[][] {{-1, 1.0, 1.0, 1}, {1, 0.5, 1.0, 1}, {1, 1.0, 0.5, 1},
+        {1, 1.0, 1.0, 0}};
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  @UseDataProvider("provideInvalidParameters")
+  public void invalidParameters(final long size, final double compressionRatio,
+      final double dedupeRatio, final int blockSize) {
+    new ReducibleInputStream(SEED, size, compressionRatio, dedupeRatio, blockSize);
+  }
+
+  @Test
+  public void size() throws IOException {
+    final byte[] data =
+        ByteStreams.toByteArray(new ReducibleInputStream(SEED, 10001, 2.0, 2.0, 4096));
+    assertThat(data.length, is(10001));
+  }
+
+  @Test
+  public void deterministic() throws IOException {
+    assertThat(ByteStreams.toByteArray(new ReducibleInputStream(SEED, 1 << 16, 2.0, 2.0, 4096)),
+        is(ByteStreams.toByteArray(new ReducibleInputStream(SEED, 1 << 16, 2.0, 2.0, 4096))));
+  }
+
+  @Test
+  public void blockLayout() throws IOException {
+    final byte[] data =
+        ByteStreams.toByteArray(new ReducibleInputStream(SEED, 4096, 4.0, 1.0, 1024));
+    for (int block = 0; block < 4; block++) {
+      final byte[] zeroes = Arrays.copyOfRange(data, block * 1024 + 256, (block + 1) * 1024);
+      assertThat(zeroes, is(new byte[768]));
+    }
+  }
+
+  @DataProvider
+  public static Object[][] provideCompressionRatio() {
+    return new Object[][] {{1.0}, {2.0}, {4.0}};
+  }
+
+  @Test
+  @UseDataProvider("provideCompressionRatio")
+  public void compressionRatio(final double compressionRatio) throws IOException {
+    final byte[] data = ByteStreams
+        .toByteArray(new ReducibleInputStream(SEED, 1 << 20, compressionRatio, 1.0, 4096));
+    final Deflater deflater = new Deflater();
+    deflater.setInput(data);
+    deflater.finish();
+    final byte[] out = new byte[data.length * 2];
+    final int compressed = deflater.deflate(out);
+    deflater.end();
+    final double ratio = (double) data.length / compressed;
+    assertThat(ratio,
+        allOf(greaterThan(compressionRatio * 0.95), lessThan(compressionRatio * 1.05)));
+  }
+
+  @DataProvider
+  public static Object[][] provideDedupeRatio() {
+    return new Object[][] {{1.0}, {2.0}, {4.0}};
+  }
+
+  @Test
+  @UseDataProvider("provideDedupeRatio")
+  public void dedupeRatio(final double dedupeRatio) throws IOException {
+    final int blockSize = 64;
+    final int blocks = 256 * 1024;
+    final Set<ByteBuffer> unique = new HashSet<ByteBuffer>();
+    // blocks are deduplicated across objects
+    for (int seed = 0; seed < 16; seed++) {
+      final byte[] data = ByteStreams.toByteArray(new ReducibleInputStream(seed,
+          (long) blocks / 16 * blockSize, 1.0, dedupeRatio, blockSize));
+      for (int i = 0; i < data.length; i += blockSize) {
+        unique.add(ByteBuffer.wrap(Arrays.copyOfRange(data, i, i + blockSize)));
+      }
+    }
+    // the pool of shared blocks is stored once in addition to the unique blocks
+    final double expected = blocks / (blocks / dedupeRatio
+        + (dedupeRatio > 1.0 ? ReducibleInputStream.POOL_BLOCKS : 0));
+    final double ratio = (double) blocks / unique.size();
+    assertThat(ratio, allOf(greaterThan(expected * 0.98), lessThan(expected * 1.02)));
+  }
+
+  @DataProvider
+  public static Object[][] provideReadSize() {
+    return new Object[][] {{1}, {7}, {100}, {1000}, {5000}};
+  }
+
+  @Test
+  @UseDataProvider("provideReadSize")
+  public void unalignedReads(final int readSize) throws IOException {
+    final byte[] expected =
+        ByteStreams.toByteArray(new ReducibleInputStream(SEED, 10000, 2.0, 2.0, 1000));
+    final ReducibleInputStream in = new ReducibleInputStream(SEED, 10000, 2.0, 2.0, 1000);
+    final byte[] actual = new byte[10000];
+    int offset = 0;
+    int read;
+    while ((read = in.read(actual, offset, Math.min(readSize, actual.length - offset))) > 0) {
+      offset += read;
+    }
+    assertThat(offset, is(10000));
+    assertThat(actual, is(expected));
+  }
+
+  @Test
+  public void skipAndReset() throws IOException {
+    final byte[] expected =
+        ByteStreams.toByteArray(new ReducibleInputStream(SEED, 10000, 2.0, 2.0, 1000));
+    final ReducibleInputStream in = new ReducibleInputStream(SEED, 10000, 2.0, 2.0, 1000);
+    assertThat(in.skip(2345), is(2345L));
+    in.mark(Integer.MAX_VALUE);
+    final byte[] rest = ByteStreams.toByteArray(in);
+    assertThat(rest, is(Arrays.copyOfRange(expected, 2345, 10000)));
+    in.reset();
+    assertThat(in.read(), is(expected[2345] & 0xFF));
+  }
+}
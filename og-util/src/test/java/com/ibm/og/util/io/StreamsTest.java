@@ -8,19 +8,30 @@ package com.ibm.og.util.io;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.Arrays;
 
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
+import com.google.common.io.ByteStreams;
+import com.google.common.io.Files;
 import com.ibm.og.api.Body;
 import com.ibm.og.api.DataType;
+import com.ibm.og.api.ReducibleBody;
 
 public class StreamsTest {
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
   private Body body;
 
   @Before
@@ -70,6 +81,54 @@ public class StreamsTest {
     }
   }
 
+  @Test
+  public void createEntropy() throws IOException {
+    when(this.body.getDataType()).thenReturn(DataType.ENTROPY);
+    when(this.body.getRandomSeed()).thenReturn(1L);
+    when(this.body.getSize()).thenReturn(4096L);
+    final InputStream in = Streams.create(this.body);
+    final byte[] buf = new byte[4096];
+
+    assertThat(ByteStreams.read(in, buf, 0, buf.length), is(4096));
+    assertThat(in.read(), is(-1));
+    // unlike random data, the content does not repeat every REPEAT_LENGTH bytes
+    assertThat(Arrays.equals(Arrays.copyOfRange(buf, 0, Streams.REPEAT_LENGTH),
+        Arrays.copyOfRange(buf, Streams.REPEAT_LENGTH, 2 * Streams.REPEAT_LENGTH)), is(false));
+  }
+
+  @Test
+  public void createReducible() throws IOException {
+    final ReducibleBody reducible = mock(ReducibleBody.class);
+    when(reducible.getDataType()).thenReturn(DataType.REDUCIBLE);
+    when(reducible.getSize()).thenReturn(4096L);
+    when(reducible.getCompressionRatio()).thenReturn(2.0);
+    when(reducible.getDedupeRatio()).thenReturn(1.0);
+    when(reducible.getBlockSize()).thenReturn(1024);
+    final InputStream in = Streams.create(reducible);
+    final byte[] buf = new byte[4096];
+
+    assertThat(ByteStreams.read(in, buf, 0, buf.length), is(4096));
+    assertThat(in.read(), is(-1));
+    // the second half of each block is padding
+    assertThat(Arrays.copyOfRange(buf, 512, 1024), is(new byte[512]));
+  }
+
+  @Test
+  public void createFile() throws IOException {
+    final File file = this.folder.newFile();
+    final byte[] data = "file body content".getBytes();
+    Files.write(data, file);
+    final MappedFile mapped = new MappedFile(file);
+    final MappedFileBody fileBody = mock(MappedFileBody.class);
+    when(fileBody.getDataType()).thenReturn(DataType.FILE);
+    when(fileBody.getSize()).thenReturn(mapped.getSize());
+    when(fileBody.newInputStream()).thenReturn(mapped.newInputStream());
+
+    assertThat(ByteStreams.toByteArray(Streams.create(fileBody)), is(data));
+    // the content is streamed from the mapping rather than copied onto the heap
+    verify(fileBody, never()).getData();
+  }
+
   @Test
   public void throttleInputStream() {
     Streams.throttle(mock(InputStream.class), 1);